@@ -0,0 +1,220 @@
+package co.infinum.princeofversions.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.interfaces.SdkVersionProvider;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.mvp.interactor.impl.PovInteractorImpl;
+import co.infinum.princeofversions.mvp.interactor.listeners.PovInteractorListener;
+import co.infinum.princeofversions.mvp.presenter.impl.PovPresenterImpl;
+import co.infinum.princeofversions.mvp.view.PovView;
+
+/**
+ * Measures deciding which update is available for already parsed configuration, in interactor alone and together with presenter
+ * applying notification rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionBenchmark {
+
+    private static final int SDK_INT = 21;
+
+    /**
+     * Decision scenario, see {@link #setUp()}.
+     */
+    @Param({"optional", "mandatory", "mandatory-sdk-bypass", "none"})
+    public String scenario;
+
+    private VersionContext version;
+
+    private PovInteractorImpl interactor;
+
+    private PovPresenterImpl presenter;
+
+    private BlackholeListener listener;
+
+    @Setup
+    public void setUp(Blackhole blackhole) throws ParseException {
+        String current;
+        String fixture = "valid_update_full.json";
+        switch (scenario) {
+            case "optional":
+                current = "2.0.0";
+                break;
+            case "mandatory":
+                current = "1.0.0";
+                break;
+            case "mandatory-sdk-bypass":
+                // mandatory update requires higher sdk, optional update is offered instead
+                current = "2.0.0";
+                fixture = "valid_update_with_big_minimum_version_min_sdk.json";
+                break;
+            default:
+                current = "3.0.0";
+                break;
+        }
+        version = new JsonVersionConfigParser(new VersionContext.Version(current)).parse(Payloads.fixture(fixture));
+
+        SdkVersionProvider sdkVersionProvider = new SdkVersionProvider() {
+            @Override
+            public int getSdkInt() {
+                return SDK_INT;
+            }
+        };
+        interactor = new PovInteractorImpl(new ImmediateVersionVerifier(version), null, sdkVersionProvider);
+        presenter = new PovPresenterImpl(new BlackholeView(blackhole), interactor, new InMemoryVersionRepository());
+        listener = new BlackholeListener(blackhole);
+    }
+
+    @Benchmark
+    public void interactorEvaluate() {
+        interactor.evaluate(version, listener);
+    }
+
+    /**
+     * Repository keeps last notified version, so ONCE optional update is suppressed after first invocation, as on repeated checks.
+     */
+    @Benchmark
+    public void presenterCheckForUpdates() {
+        presenter.checkForUpdates();
+    }
+
+    /**
+     * Verifier notifying already parsed configuration on calling thread.
+     */
+    private static class ImmediateVersionVerifier implements VersionVerifier {
+
+        private final VersionContext version;
+
+        ImmediateVersionVerifier(VersionContext version) {
+            this.version = version;
+        }
+
+        @Override
+        public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+            listener.versionAvailable(version);
+        }
+
+        @Override
+        public void cancel() {
+
+        }
+    }
+
+    private static class InMemoryVersionRepository implements VersionRepository {
+
+        private String lastVersionName;
+
+        @Override
+        public String getLastVersionName(String defaultValue) {
+            return lastVersionName != null ? lastVersionName : defaultValue;
+        }
+
+        @Override
+        public String getLastVersionName() {
+            return lastVersionName;
+        }
+
+        @Override
+        public void setLastVersionName(String version) {
+            lastVersionName = version;
+        }
+    }
+
+    private static class BlackholeListener implements PovInteractorListener {
+
+        private final Blackhole blackhole;
+
+        BlackholeListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onUpdateAvailable(VersionContext version) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void onMandatoryUpdateAvailable(VersionContext version) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void onNoUpdateAvailable(VersionContext version) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void onError(@ErrorCode int error) {
+            blackhole.consume(error);
+        }
+    }
+
+    private static class BlackholeView implements PovView {
+
+        private final Blackhole blackhole;
+
+        BlackholeView(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void notifyMandatoryUpdate(String version, Map<String, String> metadata) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void notifyOptionalUpdate(String version, Map<String, String> metadata) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void notifyNoUpdate(Map<String, String> metadata) {
+            blackhole.consume(metadata);
+        }
+
+        @Override
+        public void notifyUpdateAlreadyNotified(String version, Map<String, String> metadata) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void notifyError(@ErrorCode int error) {
+            blackhole.consume(error);
+        }
+
+        @Override
+        public void notifyProvisionalUpdate(String version, boolean isMandatory, Map<String, String> metadata) {
+            blackhole.consume(version);
+        }
+
+        @Override
+        public void notifyProvisionalNoUpdate(Map<String, String> metadata) {
+            blackhole.consume(metadata);
+        }
+
+        @Override
+        public void notifyRevalidated(boolean confirmed) {
+            blackhole.consume(confirmed);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package co.infinum.princeofversions.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+/**
+ * Line based implementation of StreamIo.toString from library version 2.1.0, used as a baseline.
+ */
+final class LegacyStreamIo {
+
+    private LegacyStreamIo() {
+
+    }
+
+    static String toString(InputStream is, Charset charset) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, charset));
+        StringBuilder out = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            out.append(line);
+        }
+        try {
+            reader.close();
+        } catch (Exception ignorable) { // NOPMD
+            // ignorable exception
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package co.infinum.princeofversions.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigEncoder;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+
+/**
+ * Measures parsing of update configuration, from already loaded string and from stream of loaded bytes, in JSON and binary format.
+ * Sizes of payloads in both formats are printed by {@link PayloadSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+
+    @Param({"valid_update_full.json", "valid_update_with_complex_metadata.json", "synthetic-50", "synthetic-1000"})
+    public String payload;
+
+    private String content;
+
+    private byte[] bytes;
+
+    private JsonVersionConfigParser jsonParser;
+
+    private JsonStreamVersionConfigParser streamParser;
+
+    private byte[] binary;
+
+    private BinaryVersionConfigParser binaryParser;
+
+    @Setup
+    public void setUp() {
+        content = Payloads.payload(payload);
+        bytes = content.getBytes(Payloads.UTF_8);
+        VersionContext.Version currentVersion = new VersionContext.Version("2.0.0");
+        jsonParser = new JsonVersionConfigParser(currentVersion);
+        streamParser = new JsonStreamVersionConfigParser(currentVersion);
+        binaryParser = new BinaryVersionConfigParser(currentVersion);
+        try {
+            binary = BinaryVersionConfigEncoder.encode(jsonParser.parse(content));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public VersionContext jsonParser() throws ParseException {
+        return jsonParser.parse(content);
+    }
+
+    @Benchmark
+    public VersionContext streamParser() throws ParseException {
+        return streamParser.parse(content);
+    }
+
+    /**
+     * Reading bytes into string line by line and parsing it with org.json, as done by library version 2.1.0.
+     */
+    @Benchmark
+    public VersionContext legacyReadAndParse() throws IOException, ParseException {
+        return jsonParser.parse(LegacyStreamIo.toString(new ByteArrayInputStream(bytes), Payloads.UTF_8));
+    }
+
+    @Benchmark
+    public VersionContext streamReadAndParse() throws IOException, ParseException {
+        return streamParser.parse(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Parsing and reading all metadata entries, metadata is otherwise decoded only when it is read.
+     */
+    @Benchmark
+    public int streamParserReadingMetadata() throws ParseException {
+        return streamParser.parse(content).getMetadata().size();
+    }
+
+    @Benchmark
+    public VersionContext binaryReadAndParse() throws IOException, ParseException {
+        return binaryParser.parse(new ByteArrayInputStream(binary));
+    }
+}
@@ -0,0 +1,45 @@
+package co.infinum.princeofversions.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigEncoder;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+
+/**
+ * Prints sizes of benchmark payloads in JSON and binary format, plain and gzipped, as complement to parse times measured by
+ * {@link ParserBenchmark}.
+ */
+public final class PayloadSizes {
+
+    private static final String[] PAYLOADS = {
+            "valid_update_full.json", "valid_update_with_complex_metadata.json", "synthetic-50", "synthetic-1000"
+    };
+
+    private PayloadSizes() {
+
+    }
+
+    public static void main(String[] args) throws IOException, ParseException {
+        JsonVersionConfigParser parser = new JsonVersionConfigParser(new VersionContext.Version("2.0.0"));
+        System.out.println(String.format("%-42s %10s %10s %10s %10s", "payload", "json", "json.gz", "binary", "binary.gz"));
+        for (String payload : PAYLOADS) {
+            String content = Payloads.payload(payload);
+            byte[] json = content.getBytes(Payloads.UTF_8);
+            byte[] binary = BinaryVersionConfigEncoder.encode(parser.parse(content));
+            System.out.println(String.format("%-42s %10d %10d %10d %10d", payload, json.length, gzip(json).length, binary.length,
+                    gzip(binary).length));
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(bytes);
+        gzip.close();
+        return out.toByteArray();
+    }
+}
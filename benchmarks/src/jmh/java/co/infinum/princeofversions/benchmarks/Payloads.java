@@ -0,0 +1,96 @@
+package co.infinum.princeofversions.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Update configuration payloads used by benchmarks.
+ * <p>
+ * Payload names starting with <i>synthetic-</i> followed by number of metadata entries are generated, other names are loaded from
+ * <i>mockdata</i> fixtures of library tests.
+ * </p>
+ */
+final class Payloads {
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private Payloads() {
+
+    }
+
+    private static final String SYNTHETIC = "synthetic-";
+
+    /**
+     * Provides payload with given name.
+     *
+     * @param name Fixture file name or synthetic payload name.
+     * @return Update configuration content.
+     */
+    static String payload(String name) {
+        if (name.startsWith(SYNTHETIC)) {
+            return configuration(Integer.parseInt(name.substring(SYNTHETIC.length())));
+        }
+        return fixture(name);
+    }
+
+    /**
+     * Reads fixture from <i>mockdata</i> resources.
+     *
+     * @param filename Fixture file name.
+     * @return Fixture content.
+     */
+    static String fixture(String filename) {
+        InputStream is = Payloads.class.getClassLoader().getResourceAsStream("mockdata/" + filename);
+        if (is == null) {
+            throw new IllegalArgumentException("Fixture not found: " + filename);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            is.close();
+            return new String(out.toByteArray(), UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates pretty printed update configuration with given number of metadata entries.
+     *
+     * @param metadataEntries Number of metadata entries.
+     * @return Update configuration content.
+     */
+    static String configuration(int metadataEntries) {
+        StringBuilder builder = new StringBuilder()
+                .append("{\n")
+                .append("  \"ios\": {\n")
+                .append("    \"minimum_version\": \"1.2.3\",\n")
+                .append("    \"latest_version\": {\n")
+                .append("      \"version\": \"2.4.5\",\n")
+                .append("      \"notification_type\": \"ALWAYS\"\n")
+                .append("    }\n")
+                .append("  },\n")
+                .append("  \"android\": {\n")
+                .append("    \"minimum_version\": \"1.2.3\",\n")
+                .append("    \"minimum_version_min_sdk\": 15,\n")
+                .append("    \"latest_version\": {\n")
+                .append("      \"version\": \"2.4.5\",\n")
+                .append("      \"notification_type\": \"ONCE\",\n")
+                .append("      \"min_sdk\": 18\n")
+                .append("    }\n")
+                .append("  },\n")
+                .append("  \"meta\": {\n");
+        for (int i = 0; i < metadataEntries; i++) {
+            builder.append("    \"key").append(i).append("\": \"Release note number ").append(i)
+                    .append(" with some text to make metadata more realistic\"");
+            builder.append(i < metadataEntries - 1 ? ",\n" : "\n");
+        }
+        return builder.append("  }\n").append("}\n").toString();
+    }
+}
@@ -0,0 +1,68 @@
+package co.infinum.princeofversions.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.helpers.MappedVersionRepository;
+
+/**
+ * Measures reading and writing last notified version with memory-mapped repository. Two repositories use the same file, the same as
+ * two processes of application do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryBenchmark {
+
+    private File file;
+
+    private MappedVersionRepository repository;
+
+    private MappedVersionRepository other;
+
+    private int count;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("repository", null);
+        repository = new MappedVersionRepository(file);
+        other = new MappedVersionRepository(file);
+        repository.setLastVersionName("2.4.5");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        repository.close();
+        other.close();
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Reading value which did not change since last read.
+     */
+    @Benchmark
+    public String read() {
+        return repository.getLastVersionName();
+    }
+
+    /**
+     * Reading value after it was written by other repository.
+     */
+    @Benchmark
+    public String writeAndReadInOther() {
+        repository.setLastVersionName((count++ & 1) == 0 ? "2.4.5" : "2.4.6");
+        return other.getLastVersionName();
+    }
+}
@@ -0,0 +1,79 @@
+package co.infinum.princeofversions.benchmarks;
+
+import com.github.zafarkhaja.semver.Version;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.common.SemanticVersion;
+
+/**
+ * Measures semantic version parsing and comparison, done for current, minimum and latest version on every check, with jsemver and
+ * with parsed SemanticVersion kept by version holders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SemverBenchmark {
+
+    @Param({"2.4.5", "2.4.5-rc.1+build.42"})
+    public String latest;
+
+    private String current;
+
+    private Version currentVersion;
+
+    private Version latestVersion;
+
+    private SemanticVersion currentSemanticVersion;
+
+    private SemanticVersion latestSemanticVersion;
+
+    @Setup
+    public void setUp() {
+        current = "2.4.4";
+        currentVersion = Version.valueOf(current);
+        latestVersion = Version.valueOf(latest);
+        currentSemanticVersion = SemanticVersion.valueOf(current);
+        latestSemanticVersion = SemanticVersion.valueOf(latest);
+    }
+
+    @Benchmark
+    public Version parse() {
+        return Version.valueOf(latest);
+    }
+
+    @Benchmark
+    public boolean compare() {
+        return currentVersion.lessThan(latestVersion);
+    }
+
+    /**
+     * Parsing both versions and comparing them, as done by parsers and presenter.
+     */
+    @Benchmark
+    public boolean parseAndCompare() {
+        return Version.valueOf(current).lessThan(Version.valueOf(latest));
+    }
+
+    @Benchmark
+    public SemanticVersion semanticParse() {
+        return SemanticVersion.valueOf(latest);
+    }
+
+    /**
+     * Comparing already parsed versions, as done by parsers and presenter with version holders.
+     */
+    @Benchmark
+    public boolean semanticCompare() {
+        return currentSemanticVersion.isLessThan(latestSemanticVersion);
+    }
+}
@@ -0,0 +1,64 @@
+package co.infinum.princeofversions.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.helpers.StreamIo;
+
+/**
+ * Compares reading update configuration into string using line based implementation and chunked implementation of StreamIo.
+ * <p>
+ * Run with <code>./gradlew :benchmarks:jmh</code>, allocation rates are reported by gc profiler.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamIoBenchmark {
+
+    /**
+     * Number of metadata entries, 0 is a minimal configuration and 1000 is roughly 90 KB.
+     */
+    @Param({"0", "50", "1000"})
+    public int metadataEntries;
+
+    private byte[] payload;
+
+    private StreamIo.Cancellation cancellation;
+
+    @Setup
+    public void setUp() {
+        payload = Payloads.configuration(metadataEntries).getBytes(Payloads.UTF_8);
+        cancellation = new StreamIo.Cancellation() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+    }
+
+    @Benchmark
+    public String legacyReadLine() throws IOException {
+        return LegacyStreamIo.toString(new ByteArrayInputStream(payload), Payloads.UTF_8);
+    }
+
+    @Benchmark
+    public String chunked() throws IOException {
+        return StreamIo.toString(new ByteArrayInputStream(payload), Payloads.UTF_8, -1, cancellation);
+    }
+
+    @Benchmark
+    public String chunkedPresized() throws IOException {
+        return StreamIo.toString(new ByteArrayInputStream(payload), Payloads.UTF_8, payload.length, cancellation);
+    }
+}
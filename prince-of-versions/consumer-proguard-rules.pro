@@ -0,0 +1,6 @@
+# OkHttp is an optional dependency used only by OkHttpTransport.
+-dontwarn co.infinum.princeofversions.loaders.transport.OkHttpTransport*
+-dontwarn okhttp3.**
+
+# Brotli decoder is an optional dependency looked up by reflection in ContentEncoding.
+-keep class org.brotli.dec.BrotliInputStream { public <init>(java.io.InputStream); }
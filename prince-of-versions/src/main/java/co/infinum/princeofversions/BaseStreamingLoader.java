@@ -0,0 +1,174 @@
+package co.infinum.princeofversions;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+import co.infinum.princeofversions.helpers.StreamIo;
+
+/**
+ * Base class for loaders providing resource as stream.
+ * <p>
+ * Loading resource as string is implemented by reading the whole stream returned from {@link #open()}, so such loaders can be used
+ * with parsers which do not support streams. If opened stream knows its length, result is allocated once with that capacity.
+ * </p>
+ */
+public abstract class BaseStreamingLoader extends BaseLoader implements StreamingUpdateConfigLoader {
+
+    @Override
+    public String load() throws IOException, InterruptedException {
+        return read(open());
+    }
+
+    /**
+     * Reads the whole stream opened by this loader as string and closes it.
+     *
+     * @param stream Stream returned from {@link #open()}.
+     * @return Content of the stream.
+     * @throws IOException          if reading failed.
+     * @throws InterruptedException if loading is cancelled.
+     */
+    protected String read(InputStream stream) throws IOException, InterruptedException {
+        int expectedLength = stream instanceof LoaderInputStream ? ((LoaderInputStream) stream).getExpectedLength() : -1;
+        try {
+            return StreamIo.toString(stream, StreamIo.DEFAULT_CHARSET, expectedLength, new StreamIo.Cancellation() {
+                @Override
+                public boolean isCancelled() {
+                    return cancelled;
+                }
+            });
+        } catch (LoadCancelledException e) {
+            throw new InterruptedException();
+        } finally {
+            try {
+                stream.close();
+            } catch (Exception ignorable) { // NOPMD
+                // ignorable exception
+            }
+        }
+    }
+
+    /**
+     * Stream which checks cancellation flag of loader before every read and remembers if reading failed. If expected length is known,
+     * stream ending before it is reported as EOFException, so content cut off by dropped connection is not taken as complete.
+     */
+    protected class LoaderInputStream extends FilterInputStream {
+
+        /**
+         * Failure flag. True if reading from underlying stream failed, false otherwise.
+         */
+        private boolean failed = false;
+
+        /**
+         * Expected length of content in bytes, negative if not known.
+         */
+        private int expectedLength;
+
+        /**
+         * Number of bytes read or skipped so far.
+         */
+        private long position;
+
+        /**
+         * Creates a new stream reading from given stream.
+         *
+         * @param in Underlying stream.
+         */
+        public LoaderInputStream(InputStream in) {
+            this(in, -1);
+        }
+
+        /**
+         * Creates a new stream reading from given stream with known content length.
+         *
+         * @param in             Underlying stream.
+         * @param expectedLength Expected length of content in bytes, negative if not known.
+         */
+        public LoaderInputStream(InputStream in, int expectedLength) {
+            super(in);
+            this.expectedLength = expectedLength;
+        }
+
+        /**
+         * Provides expected length of content.
+         *
+         * @return Expected length of content in bytes, negative if not known.
+         */
+        public int getExpectedLength() {
+            return expectedLength;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ifCancelledThrow();
+            int value;
+            try {
+                value = super.read();
+            } catch (IOException e) {
+                failed = true;
+                throw cancelledOr(e);
+            }
+            advance(value == -1 ? -1 : 1);
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            ifCancelledThrow();
+            int read;
+            try {
+                read = super.read(buffer, offset, count);
+            } catch (IOException e) {
+                failed = true;
+                throw cancelledOr(e);
+            }
+            return advance(read);
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            ifCancelledThrow();
+            long skipped = super.skip(count);
+            position += skipped;
+            return skipped;
+        }
+
+        /**
+         * Provides failure flag.
+         *
+         * @return true if reading from underlying stream failed or loading is cancelled, false otherwise.
+         */
+        protected boolean isFailed() {
+            return failed || cancelled;
+        }
+
+        /**
+         * Counts read bytes, end of stream before expected length is a failure.
+         */
+        private int advance(int read) throws EOFException {
+            if (read == -1 && expectedLength >= 0 && position < expectedLength) {
+                failed = true;
+                throw new EOFException("Stream ended after " + position + " of " + expectedLength + " bytes.");
+            }
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        /**
+         * Reading fails if connection is aborted by cancelling loader, such failure is reported as cancellation.
+         */
+        private IOException cancelledOr(IOException e) {
+            return cancelled ? new LoadCancelledException() : e;
+        }
+
+        private void ifCancelledThrow() throws LoadCancelledException {
+            if (cancelled) {
+                throw new LoadCancelledException();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package co.infinum.princeofversions;
+
+/**
+ * Represents loader which is able to identify resource it loads.
+ * <p>
+ * Two loaders returning equal keys are expected to load the same update configuration resource, so results parsed from one of them can
+ * be reused for the other one.
+ * </p>
+ */
+public interface CacheableLoader extends UpdateConfigLoader {
+
+    /**
+     * Method provides key identifying loaded resource, eg. resource URL.
+     *
+     * @return Key identifying loaded resource.
+     */
+    String getCacheKey();
+
+}
@@ -0,0 +1,196 @@
+package co.infinum.princeofversions;
+
+import java.util.Map;
+
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.mvp.view.PovView;
+
+/**
+ * This class represents result of synchronous update check, see
+ * {@link PrinceOfVersions#checkForUpdatesSync(LoaderFactory, long)}.
+ * <p>
+ * Result is either new update, with its version and flag if it is mandatory, no update or error. Update and no update results carry
+ * metadata of loaded configuration. Result is computed using the same rules as results notified through UpdaterCallback, including
+ * remembering last notified version.
+ * </p>
+ */
+public class CheckResult implements PovView {
+
+    /**
+     * Version of available update, null if there is no update.
+     */
+    private String version;
+
+    /**
+     * Mandatory flag of available update.
+     */
+    private boolean isMandatory;
+
+    /**
+     * Version of available update which was already notified, null if there is none.
+     */
+    private String notifiedVersion;
+
+    /**
+     * Metadata of loaded configuration, null if check failed.
+     */
+    private Map<String, String> metadata;
+
+    /**
+     * Flag determines if check failed.
+     */
+    private boolean hasError;
+
+    /**
+     * Error occurred while checking, valid only if check failed.
+     */
+    private int error;
+
+    /**
+     * Flag determines if result is set.
+     */
+    private boolean isSet;
+
+    /**
+     * Creates a new empty result.
+     */
+    CheckResult() {
+    }
+
+    /**
+     * Provides flag determining if new update is available.
+     *
+     * @return true if there is new update, false if there is no update or check failed.
+     */
+    public boolean hasUpdate() {
+        return version != null;
+    }
+
+    /**
+     * Provides version string of available update.
+     *
+     * @return Version of available update, null if there is no update or check failed.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Provides version of available optional update which is not reported by this result because it was already notified and its
+     * notification type says it should be notified only once. In that case {@link #hasUpdate()} returns false.
+     *
+     * @return Version of already notified update, null if there is none.
+     */
+    public String getNotifiedVersion() {
+        return notifiedVersion;
+    }
+
+    /**
+     * Provides flag determining if available update is mandatory.
+     *
+     * @return true if there is new mandatory update, false otherwise.
+     */
+    public boolean isMandatory() {
+        return isMandatory;
+    }
+
+    /**
+     * Provides metadata of loaded update configuration.
+     *
+     * @return Metadata accompanying the result, null if check failed.
+     */
+    public Map<String, String> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Provides flag determining if check failed.
+     *
+     * @return true if check failed, false otherwise.
+     */
+    public boolean hasError() {
+        return hasError;
+    }
+
+    /**
+     * Provides error occurred while checking.
+     *
+     * @return ErrorCode describing error occurred.
+     * @throws IllegalStateException if check did not fail.
+     */
+    @ErrorCode
+    public int getError() {
+        if (!hasError) {
+            throw new IllegalStateException("Check did not fail.");
+        }
+        return error;
+    }
+
+    /**
+     * Provides flag determining if result is set.
+     *
+     * @return true if check finished, false otherwise.
+     */
+    boolean isSet() {
+        return isSet;
+    }
+
+    @Override
+    public void notifyMandatoryUpdate(String version, Map<String, String> metadata) {
+        setUpdate(version, true, metadata);
+    }
+
+    @Override
+    public void notifyOptionalUpdate(String version, Map<String, String> metadata) {
+        setUpdate(version, false, metadata);
+    }
+
+    @Override
+    public void notifyNoUpdate(Map<String, String> metadata) {
+        this.metadata = metadata;
+        this.isSet = true;
+    }
+
+    @Override
+    public void notifyUpdateAlreadyNotified(String version, Map<String, String> metadata) {
+        this.notifiedVersion = version;
+        notifyNoUpdate(metadata);
+    }
+
+    @Override
+    public void notifyError(@ErrorCode int error) {
+        this.hasError = true;
+        this.error = error;
+        this.isSet = true;
+    }
+
+    @Override
+    public void notifyProvisionalUpdate(String version, boolean isMandatory, Map<String, String> metadata) {
+        // synchronous checks do not use last known configuration
+    }
+
+    @Override
+    public void notifyProvisionalNoUpdate(Map<String, String> metadata) {
+        // synchronous checks do not use last known configuration
+    }
+
+    @Override
+    public void notifyRevalidated(boolean confirmed) {
+        // synchronous checks do not use last known configuration
+    }
+
+    private void setUpdate(String version, boolean isMandatory, Map<String, String> metadata) {
+        this.version = version;
+        this.isMandatory = isMandatory;
+        this.metadata = metadata;
+        this.isSet = true;
+    }
+
+    @Override
+    public String toString() {
+        if (hasError) {
+            return "CheckResult{error=" + error + "}";
+        }
+        return "CheckResult{version=" + version + ", isMandatory=" + isMandatory + ", metadata=" + metadata + "}";
+    }
+}
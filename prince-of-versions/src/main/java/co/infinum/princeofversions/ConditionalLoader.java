@@ -0,0 +1,43 @@
+package co.infinum.princeofversions;
+
+/**
+ * Represents loader which is able to load resource conditionally, eg. only if it has changed since it was last loaded.
+ * <p>
+ * If conditional loading is enabled and resource has not changed, load method throws
+ * {@link co.infinum.princeofversions.exceptions.NotModifiedException} instead of returning content. Caller is then expected to reuse
+ * result of last successful load.
+ * </p>
+ */
+public interface ConditionalLoader extends CacheableLoader {
+
+    /**
+     * Method enables or disables conditional loading for next load call.
+     *
+     * @param enabled true if resource should be loaded only if changed, false if it should be loaded unconditionally.
+     */
+    void setConditionalLoadingEnabled(boolean enabled);
+
+    /**
+     * Method sets validators sent with next conditional load instead of validators stored by loader, eg. validators of content caller
+     * is able to reuse if resource has not changed.
+     *
+     * @param entityTag    Entity tag of reusable content, null if it is not known.
+     * @param lastModified Last modification time of reusable content, null if it is not known.
+     */
+    void setValidators(String entityTag, String lastModified);
+
+    /**
+     * Method provides entity tag of content returned by last load.
+     *
+     * @return Entity tag or null if content has none.
+     */
+    String getEntityTag();
+
+    /**
+     * Method provides last modification time of content returned by last load.
+     *
+     * @return Last modification time or null if content has none.
+     */
+    String getLastModified();
+
+}
@@ -0,0 +1,27 @@
+package co.infinum.princeofversions;
+
+/**
+ * Represents streaming loader which is able to negotiate content type of loaded resource, eg. using <i>Accept</i> and
+ * <i>Content-Type</i> HTTP headers.
+ * <p>
+ * Accepted content types are set before resource is opened and content type of opened resource is available until next open call, so
+ * matching parser can be selected.
+ * </p>
+ */
+public interface ContentTypeLoader extends StreamingUpdateConfigLoader {
+
+    /**
+     * Method sets content types accepted by next open call.
+     *
+     * @param accept Accepted content types in format of <i>Accept</i> HTTP header, null if any content type is accepted.
+     */
+    void setAcceptedContentTypes(String accept);
+
+    /**
+     * Method provides content type of last opened resource.
+     *
+     * @return Content type of resource, null if it is not known.
+     */
+    String getContentType();
+
+}
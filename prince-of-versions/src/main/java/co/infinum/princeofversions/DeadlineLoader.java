@@ -0,0 +1,19 @@
+package co.infinum.princeofversions;
+
+/**
+ * Represents loader which is able to finish loading before given deadline.
+ * <p>
+ * Deadline is set before loading starts and covers the whole update check, so loader is expected to limit its own timeouts, eg.
+ * connect and read timeouts, to time remaining until deadline. When deadline expires, loader is cancelled.
+ * </p>
+ */
+public interface DeadlineLoader extends UpdateConfigLoader {
+
+    /**
+     * Method sets deadline of next load call.
+     *
+     * @param deadlineNanos Deadline as value of {@link System#nanoTime()}.
+     */
+    void setDeadline(long deadlineNanos);
+
+}
@@ -1,25 +1,42 @@
 package co.infinum.princeofversions;
 
 import android.content.Context;
-import android.content.pm.PackageManager;
 import android.support.annotation.NonNull;
 
+import co.infinum.princeofversions.callbacks.ProvisionalUpdaterCallback;
 import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
 import co.infinum.princeofversions.exceptions.LoaderValidationException;
-import co.infinum.princeofversions.helpers.ContextHelper;
+import co.infinum.princeofversions.helpers.AsyncVersionRepository;
+import co.infinum.princeofversions.helpers.CurrentVersionProviderImpl;
+import co.infinum.princeofversions.helpers.Events;
+import co.infinum.princeofversions.helpers.PeriodicUpdatePublisher;
 import co.infinum.princeofversions.helpers.PovFactoryHelper;
 import co.infinum.princeofversions.helpers.PrefsVersionRepository;
 import co.infinum.princeofversions.helpers.SdkVersionProviderImpl;
-import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ContentTypeVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
 import co.infinum.princeofversions.helpers.parsers.ParserFactory;
 import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.CurrentVersionProvider;
+import co.infinum.princeofversions.interfaces.EventListener;
 import co.infinum.princeofversions.interfaces.SdkVersionProvider;
+import co.infinum.princeofversions.interfaces.UpdatePublisher;
 import co.infinum.princeofversions.interfaces.VersionRepository;
 import co.infinum.princeofversions.interfaces.VersionVerifier;
 import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
 import co.infinum.princeofversions.loaders.factories.NetworkLoaderFactory;
+import co.infinum.princeofversions.mvp.interactor.impl.CoalescingPovInteractor;
 import co.infinum.princeofversions.mvp.presenter.PovPresenter;
+import co.infinum.princeofversions.threading.BlockingVersionVerifier;
+import co.infinum.princeofversions.threading.CachingVersionVerifier;
+import co.infinum.princeofversions.threading.CallbackDispatcher;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
 import co.infinum.princeofversions.threading.ExecutorServiceVersionVerifier;
+import co.infinum.princeofversions.threading.VersionVerifierScheduler;
 
 /**
  * This class represents main entry point for using library.
@@ -75,22 +92,43 @@ public class PrinceOfVersions {
      */
     private SdkVersionProvider sdkVersionProvider;
 
+    /**
+     * Factory for creating parsers used by synchronous checks, null if updater is created with custom VersionVerifierFactory.
+     */
+    private ParserFactory parserFactory;
+
+    /**
+     * Checks of this updater in progress, shared by concurrent checks for the same resource.
+     */
+    private final CoalescingPovInteractor.Flights flights = new CoalescingPovInteractor.Flights();
+
+    /**
+     * Default verifier factory notifying results right away on worker thread, used by checks with dispatcher. Created on first use.
+     */
+    private VersionVerifierFactory dispatchingFactory;
+
+    /**
+     * Caching verifier factory of last stale-while-revalidate check, reused so concurrent checks with the same cache are shared.
+     */
+    private VersionVerifierFactory cachingFactory;
+
+    /**
+     * Cache used by caching verifier factory.
+     */
+    private VersionContextCache cachingFactoryCache;
+
+    /**
+     * Parser factory used by caching verifier factory.
+     */
+    private ParserFactory cachingFactoryParserFactory;
+
     /**
      * Creates a new instance of updater for application associated with provided context.
      *
      * @param context Context of associated application.
      */
     public PrinceOfVersions(@NonNull final Context context) {
-        this(context.getApplicationContext(), createDefaultVersionVerifierFactory(new ParserFactory() {
-            @Override
-            public VersionConfigParser newInstance() {
-                try {
-                    return new JsonVersionConfigParser(ContextHelper.getAppVersion(context.getApplicationContext()));
-                } catch (PackageManager.NameNotFoundException e) {
-                    throw new IllegalArgumentException("Current version not available.");
-                }
-            }
-        }));
+        this(context.getApplicationContext(), createDefaultParserFactory(context));
     }
 
     /**
@@ -101,6 +139,7 @@ public class PrinceOfVersions {
      */
     public PrinceOfVersions(@NonNull final Context context, ParserFactory parserFactory) {
         this(context.getApplicationContext(), createDefaultVersionVerifierFactory(parserFactory));
+        this.parserFactory = parserFactory;
     }
 
     /**
@@ -115,7 +154,7 @@ public class PrinceOfVersions {
      * @param factory Custom factory for creating VersionVerifier instances.
      */
     public PrinceOfVersions(@NonNull final Context context, VersionVerifierFactory factory) {
-        this(context.getApplicationContext(), factory, new PrefsVersionRepository(context.getApplicationContext()));
+        this(context.getApplicationContext(), factory, createDefaultVersionRepository(context));
     }
 
     /**
@@ -126,16 +165,7 @@ public class PrinceOfVersions {
      * @param repository Custom implementation of repository for persisting library data.
      */
     public PrinceOfVersions(@NonNull final Context context, VersionRepository repository) {
-        this(context.getApplicationContext(), createDefaultVersionVerifierFactory(new ParserFactory() {
-            @Override
-            public VersionConfigParser newInstance() {
-                try {
-                    return new JsonVersionConfigParser(ContextHelper.getAppVersion(context.getApplicationContext()));
-                } catch (PackageManager.NameNotFoundException e) {
-                    throw new IllegalArgumentException("Current version not available.");
-                }
-            }
-        }), repository);
+        this(context.getApplicationContext(), createDefaultParserFactory(context), repository);
     }
 
     /**
@@ -148,6 +178,7 @@ public class PrinceOfVersions {
      */
     public PrinceOfVersions(@NonNull final Context context, ParserFactory parserFactory, VersionRepository repository) {
         this(context.getApplicationContext(), createDefaultVersionVerifierFactory(parserFactory), repository);
+        this.parserFactory = parserFactory;
     }
 
     /**
@@ -181,6 +212,53 @@ public class PrinceOfVersions {
         validateDependencies();
     }
 
+    /**
+     * Utility method for creating default parser factory, creating streaming JSON parsers for version of application associated with given
+     * context. Version is loaded from PackageManager only once per process, see {@link CurrentVersionProviderImpl#getInstance(Context)}.
+     *
+     * @param context Context of associated application.
+     * @return New instance of ParserFactory class.
+     */
+    public static ParserFactory createDefaultParserFactory(@NonNull final Context context) {
+        return createDefaultParserFactory(CurrentVersionProviderImpl.getInstance(context));
+    }
+
+    /**
+     * Utility method for creating default parser factory, creating streaming JSON parsers for version provided by given provider.
+     *
+     * @param currentVersionProvider Provider of current application version.
+     * @return New instance of ParserFactory class.
+     */
+    public static ParserFactory createDefaultParserFactory(@NonNull final CurrentVersionProvider currentVersionProvider) {
+        return new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return new JsonStreamVersionConfigParser(currentVersionProvider.getCurrentVersion());
+            }
+        };
+    }
+
+    /**
+     * Utility method for creating parser factory which requests compact binary update configuration and falls back to JSON, creating
+     * parsers for version of application associated with given context. Parser is selected by content type of loaded configuration.
+     *
+     * @param context Context of associated application.
+     * @return New instance of ParserFactory class.
+     * @see BinaryVersionConfigParser
+     */
+    public static ParserFactory createBinaryParserFactory(@NonNull final Context context) {
+        final CurrentVersionProvider currentVersionProvider = CurrentVersionProviderImpl.getInstance(context);
+        return new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                VersionContext.Version version = currentVersionProvider.getCurrentVersion();
+                return new ContentTypeVersionConfigParser(ContentTypeVersionConfigParser.JSON_CONTENT_TYPE,
+                        new JsonStreamVersionConfigParser(version))
+                        .register(BinaryVersionConfigParser.CONTENT_TYPE, new BinaryVersionConfigParser(version));
+            }
+        };
+    }
+
     /**
      * Utility method for creating default version verifier using given factory for creating concrete parser.
      *
@@ -206,6 +284,98 @@ public class PrinceOfVersions {
         };
     }
 
+    /**
+     * Utility method for creating default version verifier using given factory for creating concrete parser and given scheduler for
+     * executing checks.
+     *
+     * @param factory   Factory for creating concrete parser.
+     * @param scheduler Scheduler executing checks.
+     * @return New instance of VersionVerifier class.
+     */
+    public static VersionVerifier createDefaultVersionVerifier(ParserFactory factory, VersionVerifierScheduler scheduler) {
+        return new ExecutorServiceVersionVerifier(factory.newInstance(), scheduler);
+    }
+
+    /**
+     * Utility method for creating default version verifier factory using given parser factory and given scheduler shared by all
+     * created verifiers.
+     *
+     * @param factory   Factory for creating concrete parser.
+     * @param scheduler Scheduler executing checks.
+     * @return New instance of VersionVerifierFactory class.
+     */
+    public static VersionVerifierFactory createDefaultVersionVerifierFactory(final ParserFactory factory,
+            final VersionVerifierScheduler scheduler) {
+        return new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return createDefaultVersionVerifier(factory, scheduler);
+            }
+        };
+    }
+
+    /**
+     * Utility method for creating default version verifier factory using given parser factory, given scheduler shared by all created
+     * verifiers and given time limit of every update check. Time limit covers waiting for scheduler, loading and parsing. When it
+     * expires, loading is cancelled and callback is notified with {@link co.infinum.princeofversions.common.ErrorCode#TIMEOUT} error.
+     *
+     * @param factory       Factory for creating concrete parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every update check for finishing, in milliseconds.
+     * @return New instance of VersionVerifierFactory class.
+     */
+    public static VersionVerifierFactory createDefaultVersionVerifierFactory(final ParserFactory factory,
+            final VersionVerifierScheduler scheduler, final long timeoutMillis) {
+        return new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return new ExecutorServiceVersionVerifier(factory.newInstance(), scheduler, timeoutMillis);
+            }
+        };
+    }
+
+    /**
+     * Utility method for creating default version verifier factory using given parser factory, given scheduler shared by all created
+     * verifiers, given time limit of every update check and given dispatcher determining thread on which verifiers notify results.
+     * Default verifiers notify results on main thread, use {@link CallbackDispatchers#immediate()} for notifying them on worker thread
+     * of scheduler, e.g. when checking for updates from background job.
+     *
+     * @param factory       Factory for creating concrete parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every update check for finishing, in milliseconds.
+     * @param dispatcher    Dispatcher determining thread on which results are notified.
+     * @return New instance of VersionVerifierFactory class.
+     */
+    public static VersionVerifierFactory createDefaultVersionVerifierFactory(final ParserFactory factory,
+            final VersionVerifierScheduler scheduler, final long timeoutMillis, final CallbackDispatcher dispatcher) {
+        return new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return new ExecutorServiceVersionVerifier(factory.newInstance(), scheduler, timeoutMillis, dispatcher);
+            }
+        };
+    }
+
+    /**
+     * Utility method for creating version verifier factory which decorates verifiers created by given factory with cache of parsed
+     * update configurations. Cache is used only with loaders implementing CacheableLoader, and configurations are cached together with
+     * parser, so parser factory must create parsers equal to the ones used by decorated verifiers.
+     *
+     * @param factory       Factory for creating decorated verifiers.
+     * @param parserFactory Factory for creating parsers used by decorated verifiers.
+     * @param cache         Cache of parsed update configurations.
+     * @return New instance of VersionVerifierFactory class.
+     */
+    public static VersionVerifierFactory createCachingVersionVerifierFactory(final VersionVerifierFactory factory,
+            final ParserFactory parserFactory, final VersionContextCache cache) {
+        return new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return new CachingVersionVerifier(factory.newInstance(), parserFactory.newInstance(), cache);
+            }
+        };
+    }
+
     /**
      * Validating dependency injected through constructors.
      *
@@ -230,6 +400,27 @@ public class PrinceOfVersions {
         return new SdkVersionProviderImpl();
     }
 
+    /**
+     * Utility method for creating default VersionRepository for application associated with given context. Repository keeps data in
+     * SharedPreferences and writes it on background thread, so notifying update check result does not write to disk.
+     *
+     * @param context Context of associated application.
+     * @return Repository writing SharedPreferences asynchronously.
+     */
+    public static AsyncVersionRepository createDefaultVersionRepository(@NonNull final Context context) {
+        return new AsyncVersionRepository(new PrefsVersionRepository(context.getApplicationContext()));
+    }
+
+    /**
+     * Method registers listener notified about phases of all update checks in this process: loading, parsing, deciding, repository
+     * access and notification dispatch. Phases are measured only while listener is registered.
+     *
+     * @param listener Event listener, eg. {@link co.infinum.princeofversions.helpers.PercentileEventListener}, null to unregister.
+     */
+    public static void setEventListener(EventListener listener) {
+        Events.setListener(listener);
+    }
+
     /**
      * Method checks for updates from resource provided by given LoaderFactory and notifies UpdaterCallback if there is some update
      * available or not. Object returned from method represents calling context through is available to check if update check was
@@ -244,17 +435,254 @@ public class PrinceOfVersions {
      * @throws IllegalArgumentException if newly created loader is invalid.
      */
     public UpdaterResult checkForUpdates(LoaderFactory loaderFactory, UpdaterCallback callback) {
+        return checkForUpdates(loaderFactory, factory, CallbackDispatchers.immediate(), callback);
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory and notifies UpdaterCallback through given dispatcher.
+     * <p>
+     * If updater uses default verifiers, result is computed on worker thread which loaded the configuration and handed right away to
+     * dispatcher, without going through main looper. For example, {@link CallbackDispatchers#callerThread()} calls back on looper of
+     * thread starting the check and {@link CallbackDispatchers#executor(java.util.concurrent.Executor)} on executor of background job.
+     * Updater created with custom VersionVerifierFactory computes result on thread on which its verifier notifies it, and dispatcher
+     * then determines thread on which callback is called.
+     * </p>
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @param dispatcher    Dispatcher determining thread on which callback is called.
+     * @param callback      Callback for notifying update check result.
+     * @return Calling context representing this concrete update check.
+     * @throws IllegalArgumentException if newly created loader is invalid or dispatcher is null.
+     */
+    public UpdaterResult checkForUpdates(LoaderFactory loaderFactory, CallbackDispatcher dispatcher, UpdaterCallback callback) {
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher is null.");
+        }
+        return checkForUpdates(loaderFactory, parserFactory != null ? getDispatchingVersionVerifierFactory() : factory, dispatcher,
+                callback);
+    }
+
+    private UpdaterResult checkForUpdates(LoaderFactory loaderFactory, VersionVerifierFactory verifierFactory,
+            CallbackDispatcher dispatcher, UpdaterCallback callback) {
+        UpdateConfigLoader loader = newValidLoader(loaderFactory);
+        UpdaterResult povContext = new UpdaterResult(callback, dispatcher);
+        PovPresenter presenter = PovFactoryHelper.getInstance().getPresenter(povContext, loader, verifierFactory, repository,
+                sdkVersionProvider, flights);
+        povContext.setPresenter(presenter);
+        presenter.checkForUpdates();
+        return povContext;
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory in stale-while-revalidate manner.
+     * <p>
+     * If cache contains fresh configuration for created loader, result is computed from it and notified as usual. If cache contains
+     * only expired configuration, result computed from it is notified first as provisional one and update check continues in
+     * background. Cache is looked up on its background executor and provisional result is computed on main thread, the same way as
+     * results of update checks are. Result of background check is notified only if it differs from provisional one, and errors are
+     * not notified at all in that case. Cache is refreshed with configuration loaded by background check.
+     * </p>
+     * <p>
+     * Cache is used only with loaders implementing CacheableLoader, for other loaders this method behaves as
+     * {@link #checkForUpdates(LoaderFactory, UpdaterCallback)}. Configurations are cached together with parser created by ParserFactory
+     * this updater was created with, or by default one. Updater created with custom VersionVerifierFactory does not know its parser,
+     * use {@link #checkForUpdates(LoaderFactory, ParserFactory, VersionContextCache, ProvisionalUpdaterCallback)} with it.
+     * </p>
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @param cache         Cache of parsed update configurations.
+     * @param callback      Callback for notifying provisional and update check result.
+     * @return Calling context representing this concrete update check.
+     * @throws IllegalArgumentException if newly created loader is invalid.
+     * @throws IllegalStateException    if updater is created with custom VersionVerifierFactory.
+     */
+    public UpdaterResult checkForUpdates(LoaderFactory loaderFactory, VersionContextCache cache, ProvisionalUpdaterCallback callback) {
+        if (parserFactory == null) {
+            throw new IllegalStateException("Updater is created with custom VersionVerifierFactory, parser factory must be provided.");
+        }
+        return checkForUpdates(loaderFactory, parserFactory, cache, callback);
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory in stale-while-revalidate manner, caching configurations
+     * together with parser created by given factory. See {@link #checkForUpdates(LoaderFactory, VersionContextCache,
+     * ProvisionalUpdaterCallback)}.
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @param parserFactory Factory for creating parsers equal to the ones used by verifiers of this updater.
+     * @param cache         Cache of parsed update configurations.
+     * @param callback      Callback for notifying provisional and update check result.
+     * @return Calling context representing this concrete update check.
+     * @throws IllegalArgumentException if newly created loader is invalid.
+     */
+    public UpdaterResult checkForUpdates(LoaderFactory loaderFactory, ParserFactory parserFactory, final VersionContextCache cache,
+            ProvisionalUpdaterCallback callback) {
+        UpdateConfigLoader loader = newValidLoader(loaderFactory);
+        final UpdaterResult povContext = new UpdaterResult(callback);
+        final PovPresenter presenter = PovFactoryHelper.getInstance().getPresenter(povContext, loader,
+                getCachingVersionVerifierFactory(parserFactory, cache), repository, sdkVersionProvider, flights);
+        povContext.setPresenter(presenter);
+        final String key = loader instanceof CacheableLoader
+                ? VersionContextCache.getKey(((CacheableLoader) loader).getCacheKey(), parserFactory.newInstance()) : null;
+        if (key == null) {
+            presenter.checkForUpdates();
+            return povContext;
+        }
+        final CallbackDispatcher dispatcher = CallbackDispatchers.mainThread();
+        // cache may be read from disk, so it is looked up the same way as cached result is by caching verifier
+        cache.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final VersionContext provisionalVersion = cache.get(key) == null ? cache.getStale(key) : null;
+                dispatcher.dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!povContext.isCancelled()) {
+                            presenter.checkForUpdates(provisionalVersion);
+                        }
+                    }
+                });
+            }
+        });
+        return povContext;
+    }
+
+    /**
+     * Provides default verifier factory which notifies results on worker thread, the same one for all checks with dispatcher so they
+     * can be shared.
+     */
+    private synchronized VersionVerifierFactory getDispatchingVersionVerifierFactory() {
+        if (dispatchingFactory == null) {
+            dispatchingFactory = createDefaultVersionVerifierFactory(parserFactory, VersionVerifierScheduler.getDefault(),
+                    ExecutorServiceVersionVerifier.DEFAULT_TIMEOUT_MILLIS, CallbackDispatchers.immediate());
+        }
+        return dispatchingFactory;
+    }
+
+    /**
+     * Provides caching verifier factory decorating verifier factory of this updater, the same one for the same cache and parser
+     * factory as long as they do not change, so checks using it can be shared.
+     */
+    private synchronized VersionVerifierFactory getCachingVersionVerifierFactory(ParserFactory parserFactory, VersionContextCache cache) {
+        if (cachingFactory == null || cachingFactoryCache != cache || cachingFactoryParserFactory != parserFactory) {
+            cachingFactory = createCachingVersionVerifierFactory(factory, parserFactory, cache);
+            cachingFactoryCache = cache;
+            cachingFactoryParserFactory = parserFactory;
+        }
+        return cachingFactory;
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory and provides future of its result. Check runs the same
+     * as with {@link #checkForUpdates(LoaderFactory, UpdaterCallback)}, future is completed when result is notified and cancelling it
+     * cancels loading.
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @return Future of update check result.
+     * @throws IllegalArgumentException if newly created loader is invalid.
+     */
+    public UpdateFuture checkForUpdatesAsync(LoaderFactory loaderFactory) {
+        UpdateConfigLoader loader = newValidLoader(loaderFactory);
+        UpdateFuture future = new UpdateFuture();
+        PovPresenter presenter = PovFactoryHelper.getInstance().getPresenter(future, loader, factory, repository, sdkVersionProvider,
+                flights);
+        future.setPresenter(presenter);
+        presenter.checkForUpdates();
+        return future;
+    }
+
+    /**
+     * Method provides stream of results of update checks from resource provided by given LoaderFactory, repeated in given interval.
+     * Checks of every subscriber start when it subscribes and stop when it cancels its subscription.
+     *
+     * @param loaderFactory  Representation of custom resource loader.
+     * @param intervalMillis Time between end of one check and start of next one, in milliseconds.
+     * @return Publisher of update check results.
+     * @throws IllegalArgumentException if interval is not positive.
+     * @see PeriodicUpdatePublisher
+     */
+    public UpdatePublisher publishUpdates(LoaderFactory loaderFactory, long intervalMillis) {
+        return new PeriodicUpdatePublisher(this, loaderFactory, intervalMillis);
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory on calling thread and returns result when check is
+     * finished. Loading, parsing and deciding about update run on calling thread, no executor or Handler is used, so this method is
+     * meant for background workers and must not be called on main thread.
+     * <p>
+     * Errors are returned as part of result, see {@link CheckResult#getError()}. Loaders implementing DeadlineLoader finish before
+     * given timeout expires and then result has {@link co.infinum.princeofversions.common.ErrorCode#TIMEOUT} error. If calling thread
+     * is interrupted result has {@link co.infinum.princeofversions.common.ErrorCode#CANCELLED} error.
+     * </p>
+     * <p>
+     * Parser is created by ParserFactory this updater was created with, or by default one. Updater created with custom
+     * VersionVerifierFactory does not know how to parse configuration, use
+     * {@link #checkForUpdatesSync(LoaderFactory, ParserFactory, long)} with it.
+     * </p>
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @param timeoutMillis Time given to check for finishing, in milliseconds.
+     * @return Result of update check.
+     * @throws IllegalArgumentException if newly created loader is invalid or timeout is not positive.
+     * @throws IllegalStateException    if updater is created with custom VersionVerifierFactory.
+     */
+    public CheckResult checkForUpdatesSync(LoaderFactory loaderFactory, long timeoutMillis) {
+        if (parserFactory == null) {
+            throw new IllegalStateException("Updater is created with custom VersionVerifierFactory, parser factory must be provided.");
+        }
+        return checkForUpdatesSync(loaderFactory, parserFactory, timeoutMillis);
+    }
+
+    /**
+     * Method checks for updates from resource provided by given LoaderFactory on calling thread using parser created by given factory,
+     * and returns result when check is finished. See {@link #checkForUpdatesSync(LoaderFactory, long)}.
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @param parserFactory Factory for creating parser for parsing loaded content.
+     * @param timeoutMillis Time given to check for finishing, in milliseconds.
+     * @return Result of update check.
+     * @throws IllegalArgumentException if newly created loader is invalid or timeout is not positive.
+     */
+    public CheckResult checkForUpdatesSync(LoaderFactory loaderFactory, ParserFactory parserFactory, long timeoutMillis) {
+        VersionVerifier verifier = new BlockingVersionVerifier(parserFactory.newInstance(), timeoutMillis);
+        UpdateConfigLoader loader = newValidLoader(loaderFactory);
+        CheckResult result = new CheckResult();
+        PovFactoryHelper.getInstance().getPresenter(result, loader, verifier, repository, sdkVersionProvider).checkForUpdates();
+        if (!result.isSet()) {
+            result.notifyError(ErrorCode.UNKNOWN_ERROR);
+        }
+        return result;
+    }
+
+    /**
+     * Method checks for updates from resource specified by given resource locator on calling thread and returns result when check is
+     * finished. See {@link #checkForUpdatesSync(LoaderFactory, long)}.
+     *
+     * @param url           Resource locator.
+     * @param timeoutMillis Time given to check for finishing, in milliseconds.
+     * @return Result of update check.
+     * @throws IllegalArgumentException if resource locator is invalid or timeout is not positive.
+     * @throws IllegalStateException    if updater is created with custom VersionVerifierFactory.
+     */
+    public CheckResult checkForUpdatesSync(String url, long timeoutMillis) {
+        return checkForUpdatesSync(new NetworkLoaderFactory(url), timeoutMillis);
+    }
+
+    /**
+     * Creates a new loader using given factory and validates it.
+     *
+     * @param loaderFactory Representation of custom resource loader.
+     * @return Validated loader.
+     * @throws IllegalArgumentException if newly created loader is invalid.
+     */
+    private static UpdateConfigLoader newValidLoader(LoaderFactory loaderFactory) {
         UpdateConfigLoader loader = loaderFactory.newInstance();
         try {
             loader.validate();
         } catch (LoaderValidationException e) {
             throw new IllegalArgumentException(e);
         }
-        UpdaterResult povContext = new UpdaterResult(callback);
-        PovPresenter presenter = PovFactoryHelper.getInstance().getPresenter(povContext, loader, factory, repository, sdkVersionProvider);
-        povContext.setPresenter(presenter);
-        presenter.checkForUpdates();
-        return povContext;
+        return loader;
     }
 
     /**
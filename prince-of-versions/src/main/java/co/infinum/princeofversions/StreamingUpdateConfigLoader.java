@@ -0,0 +1,26 @@
+package co.infinum.princeofversions;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Represents loader which is able to provide update configuration resource as stream, so it can be parsed without reading whole
+ * resource into string first.
+ * <p>
+ * Stream returned from {@link #open()} is owned by the caller, which must close it. Closing the stream releases all resources
+ * associated with that load. If loading is cancelled while stream is read, reading throws
+ * {@link co.infinum.princeofversions.exceptions.LoadCancelledException}.
+ * </p>
+ */
+public interface StreamingUpdateConfigLoader extends UpdateConfigLoader {
+
+    /**
+     * Method opens resource for reading.
+     *
+     * @return Stream of resource content.
+     * @throws IOException          if error occurred while opening.
+     * @throws InterruptedException if loading is cancelled.
+     */
+    InputStream open() throws IOException, InterruptedException;
+
+}
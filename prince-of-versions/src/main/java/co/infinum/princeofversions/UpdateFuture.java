@@ -0,0 +1,257 @@
+package co.infinum.princeofversions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.mvp.presenter.PovPresenter;
+import co.infinum.princeofversions.mvp.view.PovView;
+import co.infinum.princeofversions.threading.CallbackDispatcher;
+
+/**
+ * This class represents update check in progress as Future of its result, see
+ * {@link PrinceOfVersions#checkForUpdatesAsync(LoaderFactory)}.
+ * <p>
+ * Future is completed on thread on which verifier notifies result, main thread for default verifiers. Listeners added through
+ * {@link #addListener(Runnable, CallbackDispatcher)} are run after future is completed or cancelled, so check can be composed with
+ * other work without blocking any thread. On API 24 and newer future can be bridged to CompletableFuture with a listener.
+ * </p>
+ * <p>
+ * Cancelling future cancels loading, the same as {@link UpdaterResult#cancel()}. Blocking {@link #get()} must not be called on thread
+ * on which verifier notifies result, e.g. on main thread with default verifiers, because result would never be notified.
+ * </p>
+ */
+public class UpdateFuture implements Future<CheckResult>, PovView {
+
+    /**
+     * Lock guarding state of future.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Result filled by presenter.
+     */
+    private final CheckResult result = new CheckResult();
+
+    /**
+     * Listeners waiting for future to complete, null after they are run.
+     */
+    private List<Listener> listeners = new ArrayList<>();
+
+    /**
+     * Presenter instance associated with this future.
+     */
+    private PovPresenter presenter;
+
+    /**
+     * Flag determines if future is completed or cancelled.
+     */
+    private boolean isDone;
+
+    /**
+     * Flag determines if future is cancelled.
+     */
+    private boolean isCancelled;
+
+    /**
+     * Creates a new uncompleted future.
+     */
+    UpdateFuture() {
+    }
+
+    /**
+     * Method sets presenter instance.
+     *
+     * @param presenter Presenter.
+     * @return this.
+     */
+    UpdateFuture setPresenter(PovPresenter presenter) {
+        this.presenter = presenter;
+        return this;
+    }
+
+    /**
+     * Method adds listener run through given dispatcher after future is completed or cancelled. If future is already done, listener is
+     * dispatched right away.
+     *
+     * @param listener   Listener to run.
+     * @param dispatcher Dispatcher determining thread on which listener runs.
+     */
+    public void addListener(Runnable listener, CallbackDispatcher dispatcher) {
+        synchronized (lock) {
+            if (!isDone) {
+                listeners.add(new Listener(listener, dispatcher));
+                return;
+            }
+        }
+        dispatcher.dispatch(listener);
+    }
+
+    /**
+     * Cancels update check if it is not done yet. Loading is cancelled regardless of given flag.
+     *
+     * @param mayInterruptIfRunning Ignored, loading is always cancelled.
+     * @return true if check was cancelled, false if it was already done.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (lock) {
+            if (isDone) {
+                return false;
+            }
+            isDone = true;
+            isCancelled = true;
+            lock.notifyAll();
+        }
+        if (presenter != null) {
+            presenter.onCancel();
+        }
+        runListeners();
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        synchronized (lock) {
+            return isCancelled;
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        synchronized (lock) {
+            return isDone;
+        }
+    }
+
+    @Override
+    public CheckResult get() throws InterruptedException {
+        synchronized (lock) {
+            while (!isDone) {
+                lock.wait();
+            }
+            return getDoneResult();
+        }
+    }
+
+    @Override
+    public CheckResult get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            while (!isDone) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new TimeoutException();
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remainingNanos);
+            }
+            return getDoneResult();
+        }
+    }
+
+    private CheckResult getDoneResult() {
+        if (isCancelled) {
+            throw new CancellationException();
+        }
+        return result;
+    }
+
+    @Override
+    public void notifyMandatoryUpdate(String version, Map<String, String> metadata) {
+        synchronized (lock) {
+            result.notifyMandatoryUpdate(version, metadata);
+        }
+        complete();
+    }
+
+    @Override
+    public void notifyOptionalUpdate(String version, Map<String, String> metadata) {
+        synchronized (lock) {
+            result.notifyOptionalUpdate(version, metadata);
+        }
+        complete();
+    }
+
+    @Override
+    public void notifyNoUpdate(Map<String, String> metadata) {
+        synchronized (lock) {
+            result.notifyNoUpdate(metadata);
+        }
+        complete();
+    }
+
+    @Override
+    public void notifyUpdateAlreadyNotified(String version, Map<String, String> metadata) {
+        synchronized (lock) {
+            result.notifyUpdateAlreadyNotified(version, metadata);
+        }
+        complete();
+    }
+
+    @Override
+    public void notifyError(@ErrorCode int error) {
+        synchronized (lock) {
+            result.notifyError(error);
+        }
+        complete();
+    }
+
+    @Override
+    public void notifyProvisionalUpdate(String version, boolean isMandatory, Map<String, String> metadata) {
+        // futures do not use last known configuration
+    }
+
+    @Override
+    public void notifyProvisionalNoUpdate(Map<String, String> metadata) {
+        // futures do not use last known configuration
+    }
+
+    @Override
+    public void notifyRevalidated(boolean confirmed) {
+        // futures do not use last known configuration
+    }
+
+    private void complete() {
+        synchronized (lock) {
+            if (isDone) {
+                return;
+            }
+            isDone = true;
+            lock.notifyAll();
+        }
+        runListeners();
+    }
+
+    private void runListeners() {
+        List<Listener> listeners;
+        synchronized (lock) {
+            listeners = this.listeners;
+            this.listeners = null;
+        }
+        if (listeners != null) {
+            for (Listener listener : listeners) {
+                listener.dispatcher.dispatch(listener.runnable);
+            }
+        }
+    }
+
+    /**
+     * Listener together with its dispatcher.
+     */
+    private static class Listener {
+
+        private final Runnable runnable;
+
+        private final CallbackDispatcher dispatcher;
+
+        Listener(Runnable runnable, CallbackDispatcher dispatcher) {
+            this.runnable = runnable;
+            this.dispatcher = dispatcher;
+        }
+    }
+}
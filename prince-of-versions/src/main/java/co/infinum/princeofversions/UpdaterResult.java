@@ -3,10 +3,13 @@ package co.infinum.princeofversions;
 
 import java.util.Map;
 
+import co.infinum.princeofversions.callbacks.ProvisionalUpdaterCallback;
 import co.infinum.princeofversions.callbacks.UpdaterCallback;
 import co.infinum.princeofversions.common.ErrorCode;
 import co.infinum.princeofversions.mvp.presenter.PovPresenter;
 import co.infinum.princeofversions.mvp.view.PovView;
+import co.infinum.princeofversions.threading.CallbackDispatcher;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
 
 /**
  * This class represents calling context for specific update check.
@@ -18,6 +21,14 @@ import co.infinum.princeofversions.mvp.view.PovView;
  * consumed flag or until cancel is called. Class will set consumed flag when result is computed and ready for notify. Class will set
  * isCancelled flag after cancel is called.
  * </p>
+ * <p>
+ * If check notified provisional result, context is not consumed until check is finished and is marked as provisional until
+ * check confirms or replaces that result.
+ * </p>
+ * <p>
+ * Flags are updated on thread which notifies result, and callback is then called through dispatcher given when check was started.
+ * With default {@link CallbackDispatchers#immediate()} dispatcher callback is called on the same thread.
+ * </p>
  */
 public class UpdaterResult implements PovView {
 
@@ -31,17 +42,28 @@ public class UpdaterResult implements PovView {
      */
     private UpdaterCallback callback;
 
+    /**
+     * Dispatcher used for calling user provided callback.
+     */
+    private CallbackDispatcher dispatcher;
+
     /**
      * Consumed flag.
      * true if result is computed, false otherwise.
      */
-    private boolean isConsumed = false;
+    private volatile boolean isConsumed = false;
 
     /**
      * Cancel flag.
      * true if cancel is called, false otherwise.
      */
-    private boolean isCancelled = false;
+    private volatile boolean isCancelled = false;
+
+    /**
+     * Provisional flag.
+     * true if last notified result is provisional, false otherwise.
+     */
+    private volatile boolean isProvisional = false;
 
     /**
      * Creates a new calling context with user defined callback for notifying result.
@@ -49,7 +71,19 @@ public class UpdaterResult implements PovView {
      * @param callback User defined callback for notifying result.
      */
     UpdaterResult(UpdaterCallback callback) {
+        this(callback, CallbackDispatchers.immediate());
+    }
+
+    /**
+     * Creates a new calling context with user defined callback for notifying result and dispatcher determining thread on which
+     * callback is called.
+     *
+     * @param callback   User defined callback for notifying result.
+     * @param dispatcher Dispatcher used for calling callback.
+     */
+    UpdaterResult(UpdaterCallback callback, CallbackDispatcher dispatcher) {
         this.callback = callback;
+        this.dispatcher = dispatcher;
     }
 
     /**
@@ -102,29 +136,100 @@ public class UpdaterResult implements PovView {
         return isCancelled;
     }
 
+    /**
+     * Provides isProvisional flag for this calling context.
+     * <p>
+     * Context is marked as provisional when result computed from last known configuration is notified, and stays provisional
+     * until check confirms or replaces that result. If check fails after provisional result is notified context stays provisional.
+     * </p>
+     *
+     * @return true if last notified result is provisional, false otherwise.
+     */
+    public boolean isProvisional() {
+        return isProvisional;
+    }
+
     @Override
-    public void notifyMandatoryUpdate(String version, Map<String, String> metadata) {
+    public void notifyMandatoryUpdate(final String version, final Map<String, String> metadata) {
         isConsumed = true;
-        callback.onNewUpdate(version, true, metadata);
+        isProvisional = false;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                callback.onNewUpdate(version, true, metadata);
+            }
+        });
     }
 
     @Override
-    public void notifyOptionalUpdate(String version, Map<String, String> metadata) {
+    public void notifyOptionalUpdate(final String version, final Map<String, String> metadata) {
         isConsumed = true;
-        callback.onNewUpdate(version, false, metadata);
+        isProvisional = false;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                callback.onNewUpdate(version, false, metadata);
+            }
+        });
     }
 
     @Override
-    public void notifyNoUpdate(Map<String, String> metadata) {
+    public void notifyNoUpdate(final Map<String, String> metadata) {
         isConsumed = true;
-        callback.onNoUpdate(metadata);
+        isProvisional = false;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                callback.onNoUpdate(metadata);
+            }
+        });
     }
 
     @Override
-    public void notifyError(@ErrorCode int error) {
+    public void notifyUpdateAlreadyNotified(String version, Map<String, String> metadata) {
+        notifyNoUpdate(metadata);
+    }
+
+    @Override
+    public void notifyError(@ErrorCode final int error) {
         isConsumed = true;
+        isProvisional = false;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                callback.onError(error);
+            }
+        });
+    }
 
-        callback.onError(error);
+    @Override
+    public void notifyProvisionalUpdate(final String version, final boolean isMandatory, final Map<String, String> metadata) {
+        isProvisional = true;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                ((ProvisionalUpdaterCallback) callback).onProvisionalNewUpdate(version, isMandatory, metadata);
+            }
+        });
+    }
+
+    @Override
+    public void notifyProvisionalNoUpdate(final Map<String, String> metadata) {
+        isProvisional = true;
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                ((ProvisionalUpdaterCallback) callback).onProvisionalNoUpdate(metadata);
+            }
+        });
+    }
+
+    @Override
+    public void notifyRevalidated(boolean confirmed) {
+        isConsumed = true;
+        if (confirmed) {
+            isProvisional = false;
+        }
     }
 
 }
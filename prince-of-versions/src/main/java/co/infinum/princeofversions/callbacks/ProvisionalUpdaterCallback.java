@@ -0,0 +1,30 @@
+package co.infinum.princeofversions.callbacks;
+
+import java.util.Map;
+
+/**
+ * Callback for update checks which notify last known result before the actual check is finished.
+ * <p>
+ * Provisional result is computed from previously loaded configuration and is provided through one of provisional methods right
+ * away. After the check is finished one of {@link UpdaterCallback} methods is called only if its result differs from provisional
+ * one. Errors while checking are not notified if provisional result is already provided.
+ * </p>
+ */
+public interface ProvisionalUpdaterCallback extends UpdaterCallback {
+
+    /**
+     * Method is called when last known configuration contains new update for current application.
+     *
+     * @param version     Version string of available update.
+     * @param isMandatory Determines if update is mandatory or just optional, true if update is mandatory, false if it is optional.
+     * @param metadata    Metadata accompanying the update
+     */
+    void onProvisionalNewUpdate(String version, boolean isMandatory, Map<String, String> metadata);
+
+    /**
+     * Method is called when last known configuration contains no new update for current application.
+     *
+     * @param metadata Metadata accompanying no update message
+     */
+    void onProvisionalNoUpdate(Map<String, String> metadata);
+}
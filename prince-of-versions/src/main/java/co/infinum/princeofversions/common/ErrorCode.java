@@ -9,7 +9,8 @@ import java.lang.annotation.RetentionPolicy;
  * Integer error codes for representing error occurred while checking for updates.
  */
 @Retention(RetentionPolicy.SOURCE)
-@IntDef({ErrorCode.WRONG_VERSION, ErrorCode.LOAD_ERROR, ErrorCode.UNKNOWN_ERROR})
+@IntDef({ErrorCode.WRONG_VERSION, ErrorCode.LOAD_ERROR, ErrorCode.UNKNOWN_ERROR, ErrorCode.REJECTED,
+        ErrorCode.TIMEOUT, ErrorCode.CANCELLED})
 public @interface ErrorCode {
 
     /**
@@ -30,4 +31,19 @@ public @interface ErrorCode {
      */
     int UNKNOWN_ERROR = 2;
 
+    /**
+     * Describes update check which was not started because too many checks were already waiting to be executed.
+     */
+    int REJECTED = 3;
+
+    /**
+     * Describes update check which did not finish before its deadline. Loading is cancelled when deadline expires.
+     */
+    int TIMEOUT = 4;
+
+    /**
+     * Describes synchronous update check which was stopped because its calling thread was interrupted.
+     */
+    int CANCELLED = 5;
+
 }
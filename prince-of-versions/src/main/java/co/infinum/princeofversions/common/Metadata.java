@@ -0,0 +1,250 @@
+package co.infinum.princeofversions.common;
+
+import android.support.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class represents metadata from update configuration, the value of <i>meta</i> object.
+ * <p>
+ * Metadata is decoded lazily. Parser keeps only raw JSON text or already parsed JSON object of metadata, and it is decoded on first
+ * access, so checks which never read metadata do not pay for it.
+ * </p>
+ * <p>
+ * As a map, metadata contains only entries with string values. Values of other types are available through typed
+ * accessors such as {@link #getInt(String, int)}, {@link #getBoolean(String, boolean)} and {@link #getMetadata(String)} for nested
+ * objects. Map view is read only.
+ * </p>
+ * <p>
+ * Metadata is provided to {@link co.infinum.princeofversions.callbacks.UpdaterCallback} as map, typed accessors are available after
+ * casting it to this class. Parsers can keep metadata in other raw form by overriding {@link #decode()}.
+ * </p>
+ */
+public class Metadata extends AbstractMap<String, String> {
+
+    /**
+     * Raw JSON text of metadata object, or null if metadata was not created from JSON text.
+     */
+    @Nullable
+    private final String json;
+
+    /**
+     * Parsed metadata object, created on first typed access if metadata was created from JSON text or map.
+     */
+    @Nullable
+    private volatile JSONObject object;
+
+    /**
+     * String entries of metadata, created on first map access.
+     */
+    @Nullable
+    private volatile Map<String, String> strings;
+
+    private Metadata(@Nullable String json, @Nullable JSONObject object, @Nullable Map<String, String> strings) {
+        this.json = json;
+        this.object = object;
+        this.strings = strings;
+    }
+
+    /**
+     * Creates a new empty metadata.
+     */
+    public Metadata() {
+        this(null, null, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Creates a new metadata from raw JSON text of metadata object, text is decoded on first access.
+     * Malformed text or text not representing JSON object is treated as empty metadata.
+     *
+     * @param json Raw JSON text of metadata object.
+     */
+    public Metadata(String json) {
+        this(json, null, null);
+    }
+
+    /**
+     * Creates a new metadata from parsed metadata object, string entries are extracted on first access.
+     *
+     * @param object Metadata object, or null if it is created by {@link #decode()} on first access.
+     */
+    public Metadata(JSONObject object) {
+        this(null, object, null);
+    }
+
+    /**
+     * Creates a new metadata containing given string entries. Map is not copied.
+     *
+     * @param values String entries of metadata.
+     */
+    public Metadata(Map<String, String> values) {
+        this(null, null, Collections.unmodifiableMap(values));
+    }
+
+    /**
+     * Method provides given map as metadata, without wrapping it again if it already is metadata.
+     *
+     * @param metadata Metadata map or null.
+     * @return Metadata, empty if given map is null.
+     */
+    public static Metadata of(@Nullable Map<String, String> metadata) {
+        if (metadata instanceof Metadata) {
+            return (Metadata) metadata;
+        }
+        return metadata != null ? new Metadata(metadata) : new Metadata();
+    }
+
+    /**
+     * Method checks if metadata contains value of any type for given key.
+     *
+     * @param key Metadata key.
+     * @return true if value exists and is not JSON null, false otherwise.
+     */
+    public boolean has(String key) {
+        return !object().isNull(key);
+    }
+
+    /**
+     * Method provides value as string, numbers and booleans are converted to string.
+     *
+     * @param key          Metadata key.
+     * @param defaultValue Value returned if key does not exist or its value is object or array.
+     * @return Value for given key.
+     */
+    public String getString(String key, String defaultValue) {
+        Object value = object().opt(key);
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Method provides value as int, numeric strings are converted.
+     *
+     * @param key          Metadata key.
+     * @param defaultValue Value returned if key does not exist or its value is not a number.
+     * @return Value for given key.
+     */
+    public int getInt(String key, int defaultValue) {
+        return object().optInt(key, defaultValue);
+    }
+
+    /**
+     * Method provides value as long, numeric strings are converted.
+     *
+     * @param key          Metadata key.
+     * @param defaultValue Value returned if key does not exist or its value is not a number.
+     * @return Value for given key.
+     */
+    public long getLong(String key, long defaultValue) {
+        return object().optLong(key, defaultValue);
+    }
+
+    /**
+     * Method provides value as boolean, strings "true" and "false" are converted.
+     *
+     * @param key          Metadata key.
+     * @param defaultValue Value returned if key does not exist or its value is not a boolean.
+     * @return Value for given key.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return object().optBoolean(key, defaultValue);
+    }
+
+    /**
+     * Method provides nested metadata object.
+     *
+     * @param key Metadata key.
+     * @return Nested metadata, empty if key does not exist or its value is not an object.
+     */
+    public Metadata getMetadata(String key) {
+        JSONObject nested = object().optJSONObject(key);
+        return nested != null ? new Metadata(nested) : new Metadata();
+    }
+
+    /**
+     * Method provides metadata as JSON text. Raw text is returned without decoding if metadata was created from it.
+     *
+     * @return JSON text of metadata object.
+     */
+    public String toJson() {
+        return json != null ? json : object().toString();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return strings().entrySet();
+    }
+
+    @Override
+    public int size() {
+        return strings().size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return strings().containsKey(key);
+    }
+
+    @Override
+    public String get(Object key) {
+        return strings().get(key);
+    }
+
+    /**
+     * Method decodes metadata object from raw form this metadata was created from. It is called at most once per thread, on first
+     * access to metadata.
+     *
+     * @return Metadata object, never null.
+     */
+    protected JSONObject decode() {
+        if (json != null) {
+            try {
+                return new JSONObject(json);
+            } catch (JSONException e) {
+                return new JSONObject();
+            }
+        }
+        return strings != null ? new JSONObject(strings) : new JSONObject();
+    }
+
+    private JSONObject object() {
+        JSONObject object = this.object;
+        if (object == null) {
+            object = decode();
+            this.object = object;
+        }
+        return object;
+    }
+
+    private Map<String, String> strings() {
+        Map<String, String> strings = this.strings;
+        if (strings == null) {
+            strings = Collections.unmodifiableMap(extractStrings(object()));
+            this.strings = strings;
+        }
+        return strings;
+    }
+
+    private static Map<String, String> extractStrings(JSONObject object) {
+        Map<String, String> strings = new HashMap<>();
+        Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = object.opt(key);
+            if (value instanceof String) {
+                strings.put(key, (String) value);
+            }
+        }
+        return strings;
+    }
+}
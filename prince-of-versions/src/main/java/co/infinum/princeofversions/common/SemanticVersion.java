@@ -0,0 +1,238 @@
+package co.infinum.princeofversions.common;
+
+import com.github.zafarkhaja.semver.Version;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents parsed <a href="http://semver.org/">semantic version</a>, used for comparing versions without parsing them
+ * again.
+ * <p>
+ * Version is validated and split by <a href="https://github.com/zafarkhaja/jsemver">jsemver</a>, so accepted versions are exactly the
+ * same as accepted by {@link Version#valueOf(String)}. Parsed version keeps major, minor and patch numbers as ints and pre-release
+ * identifiers as pooled strings together with their numeric values, so comparing two parsed versions does not allocate.
+ * </p>
+ * <p>
+ * Precedence is the same as precedence of {@link Version#compareTo(Version)}, build metadata is ignored.
+ * </p>
+ */
+public final class SemanticVersion implements Comparable<SemanticVersion> {
+
+    private static final String[] NO_IDENTIFIERS = new String[0];
+
+    private static final long[] NO_NUMBERS = new long[0];
+
+    /**
+     * Numeric value of identifier which is not numeric.
+     */
+    private static final long NOT_NUMERIC = Long.MIN_VALUE;
+
+    /**
+     * Maximum number of pooled identifiers, least recently used ones are forgotten first.
+     */
+    private static final int MAX_IDENTIFIERS = 64;
+
+    /**
+     * Pool of pre-release identifiers, cheaper than {@link String#intern()}. Identifiers come from update configurations, so pool is
+     * bounded and identifiers it forgot are only compared by value.
+     */
+    private static final Map<String, String> IDENTIFIERS = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_IDENTIFIERS;
+        }
+    };
+
+    private final int major;
+
+    private final int minor;
+
+    private final int patch;
+
+    /**
+     * Interned pre-release identifiers, empty if version is not pre-release version.
+     */
+    private final String[] preRelease;
+
+    /**
+     * Numeric values of pre-release identifiers, {@link #NOT_NUMERIC} for alphanumeric identifiers.
+     */
+    private final long[] preReleaseNumbers;
+
+    private SemanticVersion(int major, int minor, int patch, String preRelease) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        if (preRelease.isEmpty()) {
+            this.preRelease = NO_IDENTIFIERS;
+            this.preReleaseNumbers = NO_NUMBERS;
+        } else {
+            this.preRelease = preRelease.split("\\.");
+            this.preReleaseNumbers = new long[this.preRelease.length];
+            for (int i = 0; i < this.preRelease.length; i++) {
+                this.preRelease[i] = intern(this.preRelease[i]);
+                this.preReleaseNumbers[i] = toNumber(this.preRelease[i]);
+            }
+        }
+    }
+
+    /**
+     * Method parses given version string.
+     *
+     * @param version Version string.
+     * @return Parsed version.
+     * @throws com.github.zafarkhaja.semver.ParseException if version string is not valid semantic version.
+     * @throws IllegalArgumentException                    if version string is null.
+     */
+    public static SemanticVersion valueOf(String version) {
+        if (version == null) {
+            throw new IllegalArgumentException("Version is null.");
+        }
+        Version parsed = Version.valueOf(version);
+        return new SemanticVersion(parsed.getMajorVersion(), parsed.getMinorVersion(), parsed.getPatchVersion(),
+                parsed.getPreReleaseVersion());
+    }
+
+    public int getMajor() {
+        return major;
+    }
+
+    public int getMinor() {
+        return minor;
+    }
+
+    public int getPatch() {
+        return patch;
+    }
+
+    /**
+     * Method checks if this version is pre-release version.
+     *
+     * @return true if version has pre-release identifiers, false otherwise.
+     */
+    public boolean isPreRelease() {
+        return preRelease.length > 0;
+    }
+
+    /**
+     * Method checks if this version has lower precedence than given version.
+     *
+     * @param other Compared version.
+     * @return true if this version is lower, false otherwise.
+     */
+    public boolean isLessThan(SemanticVersion other) {
+        return compareTo(other) < 0;
+    }
+
+    /**
+     * Method checks if this version has higher precedence than given version.
+     *
+     * @param other Compared version.
+     * @return true if this version is higher, false otherwise.
+     */
+    public boolean isGreaterThan(SemanticVersion other) {
+        return compareTo(other) > 0;
+    }
+
+    @Override
+    public int compareTo(SemanticVersion other) {
+        if (major != other.major) {
+            return major < other.major ? -1 : 1;
+        }
+        if (minor != other.minor) {
+            return minor < other.minor ? -1 : 1;
+        }
+        if (patch != other.patch) {
+            return patch < other.patch ? -1 : 1;
+        }
+        return comparePreRelease(other);
+    }
+
+    private int comparePreRelease(SemanticVersion other) {
+        // normal version has higher precedence than pre-release version
+        if (preRelease.length == 0 || other.preRelease.length == 0) {
+            return other.preRelease.length - preRelease.length;
+        }
+        int length = Math.min(preRelease.length, other.preRelease.length);
+        for (int i = 0; i < length; i++) {
+            int result = compareIdentifiers(i, other);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return preRelease.length - other.preRelease.length;
+    }
+
+    private int compareIdentifiers(int index, SemanticVersion other) {
+        long number = preReleaseNumbers[index];
+        long otherNumber = other.preReleaseNumbers[index];
+        if (number != NOT_NUMERIC && otherNumber != NOT_NUMERIC) {
+            return number < otherNumber ? -1 : (number == otherNumber ? 0 : 1);
+        }
+        String identifier = preRelease[index];
+        String otherIdentifier = other.preRelease[index];
+        // interned identifiers are usually the same instance
+        return identifier == otherIdentifier ? 0 : identifier.compareTo(otherIdentifier);
+    }
+
+    private static String intern(String identifier) {
+        synchronized (IDENTIFIERS) {
+            String pooled = IDENTIFIERS.get(identifier);
+            if (pooled != null) {
+                return pooled;
+            }
+            IDENTIFIERS.put(identifier, identifier);
+            return identifier;
+        }
+    }
+
+    /**
+     * Provides numeric value of identifier the same way as jsemver does, only identifiers fitting into int are numeric. Digits are
+     * checked first, so parsing alphanumeric identifier does not throw.
+     */
+    private static long toNumber(String identifier) {
+        int start = identifier.startsWith("-") ? 1 : 0;
+        if (start == identifier.length()) {
+            return NOT_NUMERIC;
+        }
+        for (int i = start; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_NUMERIC;
+            }
+        }
+        try {
+            return Integer.parseInt(identifier);
+        } catch (NumberFormatException e) {
+            // out of int range
+            return NOT_NUMERIC;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof SemanticVersion && compareTo((SemanticVersion) o) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = major;
+        result = 31 * result + minor;
+        result = 31 * result + patch;
+        for (int i = 0; i < preRelease.length; i++) {
+            long number = preReleaseNumbers[i];
+            result = 31 * result + (number != NOT_NUMERIC ? (int) number : preRelease[i].hashCode());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder().append(major).append('.').append(minor).append('.').append(patch);
+        for (int i = 0; i < preRelease.length; i++) {
+            builder.append(i == 0 ? '-' : '.').append(preRelease[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -2,7 +2,6 @@ package co.infinum.princeofversions.common;
 
 import android.support.annotation.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -47,7 +46,7 @@ public class VersionContext {
     /**
      * Metadata sent with the request.
      */
-    private Map<String, String> metadata;
+    private Metadata metadata;
 
     /**
      * This field represent the minSdk value of the minimum version of the app from the JSON config file.
@@ -99,10 +98,10 @@ public class VersionContext {
     /**
      * Places the metadata container into this holder.
      *
-     * @param metadata metadata do be added to this holder
+     * @param metadata metadata do be added to this holder, {@link Metadata} is kept as is so it stays lazy
      */
     public void setMetadata(Map<String, String> metadata) {
-        this.metadata = metadata;
+        this.metadata = Metadata.of(metadata);
     }
 
     /**
@@ -165,9 +164,9 @@ public class VersionContext {
      *
      * @return metadata stored in this holder
      */
-    public Map<String, String> getMetadata() {
+    public Metadata getMetadata() {
         if (metadata == null) {
-            metadata = new HashMap<>();
+            metadata = new Metadata();
         }
         return metadata;
     }
@@ -183,6 +182,10 @@ public class VersionContext {
 
     /**
      * Holder for specific Version determined by version string and version code.
+     * <p>
+     * Version string is parsed into SemanticVersion on first comparison and parsed form is kept, so holder can be compared any number
+     * of times while it is parsed only once.
+     * </p>
      */
     public static class Version {
 
@@ -191,6 +194,11 @@ public class VersionContext {
          */
         private String versionString;
 
+        /**
+         * Parsed version string, null until first needed.
+         */
+        private volatile SemanticVersion semanticVersion;
+
         /**
          * Creates a new holder for specific version from version string.
          *
@@ -200,6 +208,17 @@ public class VersionContext {
             this.versionString = versionString;
         }
 
+        /**
+         * Creates a new holder for specific version from already parsed version.
+         *
+         * @param versionString   Version string.
+         * @param semanticVersion Parsed version string.
+         */
+        public Version(String versionString, SemanticVersion semanticVersion) {
+            this.versionString = versionString;
+            this.semanticVersion = semanticVersion;
+        }
+
         /**
          * Provides version string of this holder.
          *
@@ -209,6 +228,44 @@ public class VersionContext {
             return versionString;
         }
 
+        /**
+         * Provides parsed version string of this holder, version string is parsed on first call.
+         *
+         * @return Parsed version.
+         * @throws com.github.zafarkhaja.semver.ParseException if version string is not valid semantic version.
+         */
+        public SemanticVersion getSemanticVersion() {
+            SemanticVersion result = semanticVersion;
+            if (result == null) {
+                // parsing twice in a race is harmless, parsed version is immutable
+                result = SemanticVersion.valueOf(versionString);
+                semanticVersion = result;
+            }
+            return result;
+        }
+
+        /**
+         * Method checks if this version is lower than given version.
+         *
+         * @param other Compared version.
+         * @return true if this version is lower, false otherwise.
+         * @throws com.github.zafarkhaja.semver.ParseException if any version string is not valid semantic version.
+         */
+        public boolean isLessThan(Version other) {
+            return getSemanticVersion().isLessThan(other.getSemanticVersion());
+        }
+
+        /**
+         * Method checks if this version is higher than given version.
+         *
+         * @param other Compared version.
+         * @return true if this version is higher, false otherwise.
+         * @throws com.github.zafarkhaja.semver.ParseException if any version string is not valid semantic version.
+         */
+        public boolean isGreaterThan(Version other) {
+            return getSemanticVersion().isGreaterThan(other.getSemanticVersion());
+        }
+
     }
 
     /**
@@ -0,0 +1,51 @@
+package co.infinum.princeofversions.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Represents exception thrown by network loader if server responded with error status code, eg. <i>503 Service Unavailable</i>.
+ */
+public class HttpStatusException extends IOException {
+
+    /**
+     * HTTP status code of response.
+     */
+    private final int statusCode;
+
+    /**
+     * Delay requested by Retry-After response header in milliseconds, negative if header is missing or invalid.
+     */
+    private final long retryAfterMillis;
+
+    /**
+     * Creates a new exception for response with given status code.
+     *
+     * @param message          Detail message.
+     * @param statusCode       HTTP status code of response.
+     * @param retryAfterMillis Delay requested by Retry-After response header in milliseconds, negative if there is none.
+     */
+    public HttpStatusException(String message, int statusCode, long retryAfterMillis) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Method provides HTTP status code of response.
+     *
+     * @return Status code, eg. 503.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Method provides delay requested by server before request is repeated.
+     *
+     * @return Delay in milliseconds, negative if response did not contain valid Retry-After header.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+}
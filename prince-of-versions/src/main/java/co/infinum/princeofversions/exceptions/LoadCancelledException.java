@@ -0,0 +1,20 @@
+package co.infinum.princeofversions.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Represents exception thrown while reading stream opened by loader if loading has been cancelled in the meantime.
+ * <p>
+ * It is an IOException only so it can pass through stream readers, it does not represent loading error.
+ * </p>
+ */
+public class LoadCancelledException extends IOException {
+
+    public LoadCancelledException() {
+    }
+
+    public LoadCancelledException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package co.infinum.princeofversions.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Represents exception thrown by loader if conditionally requested resource has not changed since it was last loaded,
+ * eg. when server responded with <i>304 Not Modified</i>.
+ */
+public class NotModifiedException extends IOException {
+
+    public NotModifiedException() {
+    }
+
+    public NotModifiedException(String message) {
+        super(message);
+    }
+
+}
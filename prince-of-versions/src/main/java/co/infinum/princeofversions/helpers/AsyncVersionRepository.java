@@ -0,0 +1,171 @@
+package co.infinum.princeofversions.helpers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import co.infinum.princeofversions.interfaces.VersionRepository;
+
+/**
+ * This class represents repository which persists library data asynchronously, using another repository for storing it.
+ * <p>
+ * Written value is available for reading immediately, and it is written to underlying repository later on writer thread. Values written
+ * before writer gets to them are batched, only the last one is written. This keeps disk access of repositories such as
+ * {@link PrefsVersionRepository} off the thread notifying update check result, which is usually main thread.
+ * </p>
+ * <p>
+ * Values which were not written yet are lost if process dies, the same as with {@link android.content.SharedPreferences.Editor#apply()}.
+ * Call {@link #flush()} to write them right away.
+ * </p>
+ */
+public class AsyncVersionRepository implements VersionRepository {
+
+    /**
+     * Default executor for writing values, contains only one thread.
+     */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "princeofversions-repository");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Repository values are written to.
+     */
+    private final VersionRepository repository;
+
+    /**
+     * Executor used for writing values.
+     */
+    private final Executor writer;
+
+    /**
+     * Lock guarding pending value, flag and counters.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Lock held while value is written to underlying repository, so values are written in order.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Last value which is not written to underlying repository yet.
+     */
+    private String pendingVersion;
+
+    /**
+     * Flag determines if there is pending value, pending value can be null.
+     */
+    private boolean hasPending;
+
+    /**
+     * Number of values set so far, used for telling if pending value changed while it was written.
+     */
+    private long writeCount;
+
+    /**
+     * Flag determines if writing pending value is already scheduled on writer.
+     */
+    private boolean scheduled;
+
+    /**
+     * Creates a new repository writing values to given repository using default writer thread.
+     *
+     * @param repository Repository values are written to.
+     */
+    public AsyncVersionRepository(VersionRepository repository) {
+        this(repository, WRITER);
+    }
+
+    /**
+     * Creates a new repository writing values to given repository using custom executor.
+     *
+     * @param repository Repository values are written to.
+     * @param writer     Executor used for writing values.
+     */
+    public AsyncVersionRepository(VersionRepository repository, Executor writer) {
+        if (repository == null || writer == null) {
+            throw new IllegalArgumentException("Repository and writer must not be null.");
+        }
+        this.repository = repository;
+        this.writer = writer;
+    }
+
+    @Override
+    public String getLastVersionName() {
+        return getLastVersionName(null);
+    }
+
+    @Override
+    public String getLastVersionName(String defaultValue) {
+        synchronized (lock) {
+            if (hasPending) {
+                return pendingVersion != null ? pendingVersion : defaultValue;
+            }
+        }
+        return repository.getLastVersionName(defaultValue);
+    }
+
+    @Override
+    public void setLastVersionName(String version) {
+        boolean schedule;
+        synchronized (lock) {
+            pendingVersion = version;
+            hasPending = true;
+            writeCount++;
+            schedule = !scheduled;
+            scheduled = true;
+        }
+        if (schedule) {
+            try {
+                writer.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (lock) {
+                            scheduled = false;
+                        }
+                        flush();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                synchronized (lock) {
+                    scheduled = false;
+                }
+                // writer is not available, value is written right away
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Method writes pending value to underlying repository on calling thread, blocking until it is written.
+     * Nothing is written if there is no pending value.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            String version;
+            long count;
+            synchronized (lock) {
+                if (!hasPending) {
+                    return;
+                }
+                version = pendingVersion;
+                count = writeCount;
+            }
+            repository.setLastVersionName(version);
+            synchronized (lock) {
+                // value set while writing stays pending
+                if (count == writeCount) {
+                    hasPending = false;
+                    pendingVersion = null;
+                }
+            }
+        }
+    }
+}
@@ -13,8 +13,16 @@ public class ContextHelper {
     private ContextHelper() {
     }
 
+    /**
+     * Method provides version of application associated with given context. Version is loaded from PackageManager only once per
+     * process, see {@link CurrentVersionProviderImpl#getInstance(Context)}.
+     *
+     * @param context Context of associated application.
+     * @return Current application version.
+     * @throws PackageManager.NameNotFoundException never, declared for compatibility with existing callers.
+     * @throws IllegalArgumentException             if current version is not available.
+     */
     public static VersionContext.Version getAppVersion(Context context) throws PackageManager.NameNotFoundException {
-        return new VersionContext.Version(
-                context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionName);
+        return CurrentVersionProviderImpl.getInstance(context).getCurrentVersion();
     }
 }
@@ -0,0 +1,102 @@
+package co.infinum.princeofversions.helpers;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.interfaces.CurrentVersionProvider;
+
+/**
+ * Provider of installed application version which asks PackageManager only once.
+ * <p>
+ * Package info is loaded on first call and kept, so update checks do not make binder call to system server. Use
+ * {@link #getInstance(Context)} to share single provider for the whole process.
+ * </p>
+ */
+public class CurrentVersionProviderImpl implements CurrentVersionProvider {
+
+    /**
+     * Providers shared by application contexts. There is usually only one and it lives as long as process, so providers are never
+     * removed.
+     */
+    private static final Map<Context, CurrentVersionProviderImpl> INSTANCES = new HashMap<>();
+
+    private final Context context;
+
+    /**
+     * Version name of installed application, null until loaded.
+     */
+    private volatile VersionContext.Version currentVersion;
+
+    /**
+     * Version code of installed application, valid only if current version is loaded.
+     */
+    private volatile int versionCode;
+
+    /**
+     * Creates a new provider for application associated with given context.
+     *
+     * @param context Context of associated application.
+     */
+    public CurrentVersionProviderImpl(Context context) {
+        this.context = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+    }
+
+    /**
+     * Method provides provider shared by all callers with the same application context, so version is loaded only once per process.
+     *
+     * @param context Context of associated application.
+     * @return Shared provider.
+     */
+    public static CurrentVersionProviderImpl getInstance(Context context) {
+        Context applicationContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+        synchronized (INSTANCES) {
+            CurrentVersionProviderImpl provider = INSTANCES.get(applicationContext);
+            if (provider == null) {
+                provider = new CurrentVersionProviderImpl(applicationContext);
+                INSTANCES.put(applicationContext, provider);
+            }
+            return provider;
+        }
+    }
+
+    @Override
+    public VersionContext.Version getCurrentVersion() {
+        VersionContext.Version version = currentVersion;
+        if (version == null) {
+            version = load();
+        }
+        return version;
+    }
+
+    @Override
+    public int getVersionCode() {
+        if (currentVersion == null) {
+            load();
+        }
+        return versionCode;
+    }
+
+    /**
+     * Loads package info, failure is not remembered so next call tries again.
+     */
+    private synchronized VersionContext.Version load() {
+        if (currentVersion != null) {
+            return currentVersion;
+        }
+        PackageInfo packageInfo;
+        try {
+            packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+        } catch (PackageManager.NameNotFoundException e) {
+            throw new IllegalArgumentException("Current version not available.");
+        }
+        versionCode = packageInfo.versionCode;
+        // version code is written before version, which marks values as loaded
+        currentVersion = new VersionContext.Version(packageInfo.versionName);
+        return currentVersion;
+    }
+}
@@ -0,0 +1,57 @@
+package co.infinum.princeofversions.helpers;
+
+import co.infinum.princeofversions.interfaces.EventListener;
+
+/**
+ * This class holds event listener registered for the whole process.
+ * <p>
+ * Measured code reads listener once and measures phase only if it is not null, so without listener measuring costs single volatile
+ * read.
+ * </p>
+ */
+public final class Events {
+
+    private static volatile EventListener listener;
+
+    private Events() {
+    }
+
+    /**
+     * Method sets listener notified about phases of all update checks.
+     *
+     * @param listener Event listener, null to stop notifying.
+     */
+    public static void setListener(EventListener listener) {
+        Events.listener = listener;
+    }
+
+    /**
+     * Method provides registered listener.
+     *
+     * @return Event listener, null if none is registered.
+     */
+    public static EventListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Method wraps notification which is about to be posted, so delay before it runs is reported to registered listener.
+     *
+     * @param notification Notification to be posted.
+     * @return Wrapped notification, or given one if no listener is registered.
+     */
+    public static Runnable timeDispatch(final Runnable notification) {
+        final EventListener current = listener;
+        if (current == null) {
+            return notification;
+        }
+        final long postedNanos = System.nanoTime();
+        return new Runnable() {
+            @Override
+            public void run() {
+                current.onDispatched(System.nanoTime() - postedNanos);
+                notification.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,296 @@
+package co.infinum.princeofversions.helpers;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+
+import co.infinum.princeofversions.interfaces.VersionRepository;
+
+/**
+ * This class represents repository for persisting library data in a small memory-mapped file, shared by all processes of application.
+ * <p>
+ * File has fixed layout of {@link #FILE_SIZE} bytes:
+ * </p>
+ * <pre>
+ *  magic           int 'POVR'
+ *  format version  int
+ *  sequence        int, odd while value is being written
+ *  length          int, UTF-8 length of last notified version, -1 if there is none
+ *  version         {@link #MAX_VERSION_LENGTH} bytes
+ * </pre>
+ * <p>
+ * Writes are guarded by exclusive file lock and reads by shared file lock, so value is never read while other process writes it.
+ * Threads of one process are serialized by process-wide lock, which also orders their reads after writes of the mapped buffer. Writers
+ * change sequence before and after the value is written, so value left half-written by writer which died is detected. Value written
+ * by one process is visible to others right away, without reloading anything. Decoded value is kept until sequence changes, so
+ * repeated reads only take the lock and check the sequence.
+ * </p>
+ * <p>
+ * Values are written to shared memory of the file, they survive process death but are written to disk by the system later.
+ * </p>
+ */
+public class MappedVersionRepository implements VersionRepository {
+
+    /**
+     * Name of repository file inside application files directory. File is kept outside of {@link VersionContextCache} directory, so
+     * clearing the cache does not remove it.
+     */
+    public static final String FILE_NAME = "princeofversions.repository";
+
+    /**
+     * Maximum UTF-8 length of stored version.
+     */
+    public static final int MAX_VERSION_LENGTH = 240;
+
+    /**
+     * Size of repository file.
+     */
+    public static final int FILE_SIZE = 16 + MAX_VERSION_LENGTH;
+
+    private static final int MAGIC = 0x504f5652; // POVR
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+
+    private static final int FORMAT_VERSION_OFFSET = 4;
+
+    private static final int SEQUENCE_OFFSET = 8;
+
+    private static final int LENGTH_OFFSET = 12;
+
+    private static final int VERSION_OFFSET = 16;
+
+    private static final int NO_VERSION = -1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * File locks are held by the whole process, so threads of this process take this lock before taking file lock.
+     */
+    private static final Object PROCESS_LOCK = new Object();
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Last decoded value together with sequence it was read at, null if nothing was read yet. Guarded by process lock.
+     */
+    private Snapshot snapshot;
+
+    /**
+     * Creates a new repository using given file, file is created and initialized if needed.
+     *
+     * @param file Repository file.
+     * @throws IOException if file cannot be opened or mapped.
+     */
+    public MappedVersionRepository(File file) throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            channel = randomAccessFile.getChannel();
+            synchronized (PROCESS_LOCK) {
+                FileLock lock = channel.lock();
+                try {
+                    boolean initialized = channel.size() >= FILE_SIZE;
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                    if (!initialized || buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(FORMAT_VERSION_OFFSET) != FORMAT_VERSION) {
+                        initialize();
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new repository using file inside application files directory, shared by all processes of application.
+     *
+     * @param context Context of associated application.
+     * @return New repository instance.
+     * @throws IOException if file cannot be opened or mapped.
+     */
+    public static MappedVersionRepository create(Context context) throws IOException {
+        return new MappedVersionRepository(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    @Override
+    public String getLastVersionName() {
+        return getLastVersionName(null);
+    }
+
+    @Override
+    public String getLastVersionName(String defaultValue) {
+        Snapshot snapshot;
+        synchronized (PROCESS_LOCK) {
+            snapshot = readShared();
+            if (snapshot == null) {
+                snapshot = readLocked();
+            }
+            this.snapshot = snapshot;
+        }
+        return snapshot.version != null ? snapshot.version : defaultValue;
+    }
+
+    @Override
+    public void setLastVersionName(String version) {
+        byte[] bytes = version != null ? version.getBytes(UTF_8) : null;
+        if (bytes != null && bytes.length > MAX_VERSION_LENGTH) {
+            throw new IllegalArgumentException("Version is longer than " + MAX_VERSION_LENGTH + " bytes.");
+        }
+        synchronized (PROCESS_LOCK) {
+            FileLock lock = null;
+            try {
+                lock = channel.lock();
+            } catch (IOException ignorable) { // NOPMD
+                // ignorable exception, other threads of this process are still excluded
+            }
+            try {
+                write(bytes);
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /**
+     * Method closes repository file. Repository must not be used after it is closed.
+     *
+     * @throws IOException if file cannot be closed.
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void initialize() {
+        buffer.putInt(SEQUENCE_OFFSET, 0);
+        buffer.putInt(LENGTH_OFFSET, NO_VERSION);
+        buffer.putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+    }
+
+    /**
+     * Writes value, caller must hold both locks.
+     */
+    private void write(byte[] bytes) {
+        int sequence = buffer.getInt(SEQUENCE_OFFSET);
+        // sequence is odd if writer died while writing
+        int writing = (sequence & 1) == 0 ? sequence + 1 : sequence;
+        buffer.putInt(SEQUENCE_OFFSET, writing);
+        if (bytes != null) {
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.put(VERSION_OFFSET + i, bytes[i]);
+            }
+        }
+        buffer.putInt(LENGTH_OFFSET, bytes != null ? bytes.length : NO_VERSION);
+        buffer.putInt(SEQUENCE_OFFSET, writing + 1);
+    }
+
+    /**
+     * Reads value under shared file lock, caller must hold process lock. Decoded value is reused if sequence did not change.
+     *
+     * @return Read value, null if writer died while writing it.
+     */
+    private Snapshot readShared() {
+        FileLock lock = null;
+        try {
+            lock = channel.lock(0, FILE_SIZE, true);
+        } catch (IOException ignorable) { // NOPMD
+            // ignorable exception, other threads of this process are still excluded
+        }
+        try {
+            int sequence = buffer.getInt(SEQUENCE_OFFSET);
+            if ((sequence & 1) == 1) {
+                return null;
+            }
+            Snapshot snapshot = this.snapshot;
+            if (snapshot != null && snapshot.sequence == sequence) {
+                return snapshot;
+            }
+            return readSnapshot(sequence);
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * Reads value under exclusive file lock, caller must hold process lock. Used if writer died while writing.
+     */
+    private Snapshot readLocked() {
+        FileLock lock = null;
+        try {
+            lock = channel.lock();
+        } catch (IOException ignorable) { // NOPMD
+            // ignorable exception, value is read without lock
+        }
+        try {
+            int sequence = buffer.getInt(SEQUENCE_OFFSET);
+            if (lock != null && (sequence & 1) == 1) {
+                // writer died while writing, nobody is writing now
+                sequence++;
+                buffer.putInt(SEQUENCE_OFFSET, sequence);
+            }
+            Snapshot snapshot = readSnapshot(sequence);
+            return snapshot != null ? snapshot : new Snapshot(sequence, null);
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * Decodes value, returns null if length is not valid because value was not written completely.
+     */
+    private Snapshot readSnapshot(int sequence) {
+        int length = buffer.getInt(LENGTH_OFFSET);
+        if (length == NO_VERSION) {
+            return new Snapshot(sequence, null);
+        }
+        if (length < 0 || length > MAX_VERSION_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(VERSION_OFFSET + i);
+        }
+        return new Snapshot(sequence, new String(bytes, UTF_8));
+    }
+
+    private static void release(FileLock lock) {
+        if (lock != null) {
+            try {
+                lock.release();
+            } catch (IOException ignorable) { // NOPMD
+                // ignorable exception, lock is released when channel is closed
+            }
+        }
+    }
+
+    /**
+     * Decoded value read at given sequence.
+     */
+    private static class Snapshot {
+
+        private final int sequence;
+
+        private final String version;
+
+        Snapshot(int sequence, String version) {
+            this.sequence = sequence;
+            this.version = version;
+        }
+    }
+}
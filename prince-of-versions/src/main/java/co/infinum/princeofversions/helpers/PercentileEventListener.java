@@ -0,0 +1,271 @@
+package co.infinum.princeofversions.helpers;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.interfaces.EventListener;
+
+/**
+ * This class represents event listener which aggregates durations of update check phases in memory, so their percentiles can be
+ * exported to telemetry.
+ * <p>
+ * For every phase the last {@link #DEFAULT_CAPACITY} durations (or custom capacity) are kept, older ones are overwritten. Percentiles
+ * are computed from kept durations when they are requested. Besides durations, listener counts failed loads and parses, bytes loaded
+ * over network and decisions of every kind.
+ * </p>
+ */
+public class PercentileEventListener implements EventListener {
+
+    /**
+     * Loading of update configuration.
+     */
+    public static final int PHASE_LOAD = 0;
+
+    /**
+     * Parsing of update configuration.
+     */
+    public static final int PHASE_PARSE = 1;
+
+    /**
+     * Deciding if update is available.
+     */
+    public static final int PHASE_DECIDE = 2;
+
+    /**
+     * Reading last notified version from repository.
+     */
+    public static final int PHASE_REPOSITORY_READ = 3;
+
+    /**
+     * Writing last notified version to repository.
+     */
+    public static final int PHASE_REPOSITORY_WRITE = 4;
+
+    /**
+     * Delay of posted notification.
+     */
+    public static final int PHASE_DISPATCH = 5;
+
+    /**
+     * Default number of durations kept for every phase.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final String[] PHASE_NAMES = {"load", "parse", "decide", "repositoryRead", "repositoryWrite", "dispatch"};
+
+    private final Samples[] samples = new Samples[PHASE_NAMES.length];
+
+    private final long[] decisions = new long[3];
+
+    private long loadErrors;
+
+    private long parseErrors;
+
+    private long loadedBytes;
+
+    /**
+     * Creates a new listener keeping default number of durations for every phase.
+     */
+    public PercentileEventListener() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new listener keeping given number of durations for every phase.
+     *
+     * @param capacity Number of kept durations.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public PercentileEventListener(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = new Samples(capacity);
+        }
+    }
+
+    @Override
+    public void onLoadStarted(UpdateConfigLoader loader) {
+        // only finished loads are measured
+    }
+
+    @Override
+    public synchronized void onLoadFinished(UpdateConfigLoader loader, long durationNanos, long bytes, Exception error) {
+        samples[PHASE_LOAD].add(durationNanos);
+        if (error != null) {
+            loadErrors++;
+        }
+        if (bytes > 0) {
+            loadedBytes += bytes;
+        }
+    }
+
+    @Override
+    public synchronized void onParsed(long durationNanos, Exception error) {
+        samples[PHASE_PARSE].add(durationNanos);
+        if (error != null) {
+            parseErrors++;
+        }
+    }
+
+    @Override
+    public synchronized void onDecided(int decision, long durationNanos) {
+        samples[PHASE_DECIDE].add(durationNanos);
+        if (decision >= 0 && decision < decisions.length) {
+            decisions[decision]++;
+        }
+    }
+
+    @Override
+    public synchronized void onRepositoryRead(long durationNanos) {
+        samples[PHASE_REPOSITORY_READ].add(durationNanos);
+    }
+
+    @Override
+    public synchronized void onRepositoryWritten(long durationNanos) {
+        samples[PHASE_REPOSITORY_WRITE].add(durationNanos);
+    }
+
+    @Override
+    public synchronized void onDispatched(long delayNanos) {
+        samples[PHASE_DISPATCH].add(delayNanos);
+    }
+
+    /**
+     * Method provides number of measurements of given phase since listener was created or reset, including overwritten ones.
+     *
+     * @param phase One of PHASE constants.
+     * @return Number of measurements.
+     */
+    public synchronized long getCount(int phase) {
+        return samples[phase].count;
+    }
+
+    /**
+     * Method provides percentile of kept durations of given phase, using nearest rank.
+     *
+     * @param phase      One of PHASE constants.
+     * @param percentile Percentile between 0 and 100.
+     * @return Duration in nanoseconds, negative if phase was not measured.
+     * @throws IllegalArgumentException if percentile is out of range.
+     */
+    public long getPercentileNanos(int phase, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long[] sorted;
+        synchronized (this) {
+            sorted = samples[phase].toArray();
+        }
+        if (sorted.length == 0) {
+            return -1;
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Method provides number of loads which failed.
+     *
+     * @return Number of failed loads.
+     */
+    public synchronized long getLoadErrorCount() {
+        return loadErrors;
+    }
+
+    /**
+     * Method provides number of parses which failed.
+     *
+     * @return Number of failed parses.
+     */
+    public synchronized long getParseErrorCount() {
+        return parseErrors;
+    }
+
+    /**
+     * Method provides number of bytes loaded over network.
+     *
+     * @return Number of bytes.
+     */
+    public synchronized long getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    /**
+     * Method provides number of decisions of given kind.
+     *
+     * @param decision One of {@link EventListener} DECISION constants.
+     * @return Number of decisions.
+     */
+    public synchronized long getDecisionCount(int decision) {
+        return decisions[decision];
+    }
+
+    /**
+     * Method removes all measurements, eg. after they were exported.
+     */
+    public synchronized void reset() {
+        for (Samples phase : samples) {
+            phase.clear();
+        }
+        Arrays.fill(decisions, 0);
+        loadErrors = 0;
+        parseErrors = 0;
+        loadedBytes = 0;
+    }
+
+    /**
+     * Provides count and 50th, 90th and 99th percentile in milliseconds of every measured phase.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PercentileEventListener{");
+        for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+            if (phase > 0) {
+                builder.append(", ");
+            }
+            builder.append(PHASE_NAMES[phase]).append("={count=").append(getCount(phase));
+            if (getCount(phase) > 0) {
+                builder.append(String.format(Locale.US, ", p50=%.3fms, p90=%.3fms, p99=%.3fms", toMillis(getPercentileNanos(phase, 50)),
+                        toMillis(getPercentileNanos(phase, 90)), toMillis(getPercentileNanos(phase, 99))));
+            }
+            builder.append('}');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Ring buffer of last durations of single phase.
+     */
+    private static class Samples {
+
+        private final long[] values;
+
+        private long count;
+
+        Samples(int capacity) {
+            values = new long[capacity];
+        }
+
+        void add(long value) {
+            values[(int) (count % values.length)] = value;
+            count++;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, (int) Math.min(count, values.length));
+        }
+
+        void clear() {
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package co.infinum.princeofversions.helpers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.CheckResult;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateFuture;
+import co.infinum.princeofversions.interfaces.UpdatePublisher;
+import co.infinum.princeofversions.interfaces.UpdateSubscriber;
+import co.infinum.princeofversions.interfaces.UpdateSubscription;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+
+/**
+ * This class represents stream of results of update checks repeated in fixed interval.
+ * <p>
+ * Every subscriber gets its own checks. First check starts when subscriber is added and next one interval after previous one finished,
+ * so checks of one subscriber never overlap. Checks run through {@link PrinceOfVersions#checkForUpdatesAsync(LoaderFactory)} and
+ * results are notified on thread on which verifier notifies them. If subscriber did not request more results, only the latest result
+ * is kept until it does.
+ * </p>
+ * <p>
+ * Cancelling subscription cancels check in progress through its future, which cancels loading.
+ * </p>
+ */
+public class PeriodicUpdatePublisher implements UpdatePublisher {
+
+    /**
+     * Default timer scheduling checks, contains only one thread.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "princeofversions-publisher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Updater running checks.
+     */
+    private final PrinceOfVersions updater;
+
+    /**
+     * Factory of loaders used by checks.
+     */
+    private final LoaderFactory loaderFactory;
+
+    /**
+     * Time between end of one check and start of next one, in milliseconds.
+     */
+    private final long intervalMillis;
+
+    /**
+     * Timer scheduling checks.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Creates a new publisher repeating checks in given interval using default timer thread.
+     *
+     * @param updater        Updater running checks.
+     * @param loaderFactory  Factory of loaders used by checks.
+     * @param intervalMillis Time between end of one check and start of next one, in milliseconds.
+     * @throws IllegalArgumentException if interval is not positive.
+     */
+    public PeriodicUpdatePublisher(PrinceOfVersions updater, LoaderFactory loaderFactory, long intervalMillis) {
+        this(updater, loaderFactory, intervalMillis, TIMER);
+    }
+
+    /**
+     * Creates a new publisher repeating checks in given interval using custom timer.
+     *
+     * @param updater        Updater running checks.
+     * @param loaderFactory  Factory of loaders used by checks.
+     * @param intervalMillis Time between end of one check and start of next one, in milliseconds.
+     * @param timer          Timer scheduling checks.
+     * @throws IllegalArgumentException if interval is not positive.
+     */
+    public PeriodicUpdatePublisher(PrinceOfVersions updater, LoaderFactory loaderFactory, long intervalMillis,
+            ScheduledExecutorService timer) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+        this.updater = updater;
+        this.loaderFactory = loaderFactory;
+        this.intervalMillis = intervalMillis;
+        this.timer = timer;
+    }
+
+    @Override
+    public void subscribe(UpdateSubscriber subscriber) {
+        PeriodicSubscription subscription = new PeriodicSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.check();
+    }
+
+    /**
+     * Subscription running checks of one subscriber.
+     */
+    private class PeriodicSubscription implements UpdateSubscription, Runnable {
+
+        private final UpdateSubscriber subscriber;
+
+        /**
+         * Lock guarding state of subscription.
+         */
+        private final Object lock = new Object();
+
+        /**
+         * Number of requested results not notified yet.
+         */
+        private long requested;
+
+        /**
+         * Latest result not notified yet, null if there is none.
+         */
+        private CheckResult latest;
+
+        /**
+         * Error terminating stream not notified yet, null if there is none.
+         */
+        private Throwable error;
+
+        /**
+         * Flag determines if subscription is cancelled or terminated.
+         */
+        private boolean isCancelled;
+
+        /**
+         * Flag determines if some thread is notifying subscriber.
+         */
+        private boolean isEmitting;
+
+        /**
+         * Check in progress, null if there is none.
+         */
+        private UpdateFuture check;
+
+        /**
+         * Next scheduled check, null if there is none.
+         */
+        private ScheduledFuture<?> next;
+
+        PeriodicSubscription(UpdateSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (lock) {
+                if (n <= 0) {
+                    if (error == null) {
+                        error = new IllegalArgumentException("Number of requested results must be positive.");
+                    }
+                } else {
+                    requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            UpdateFuture check;
+            ScheduledFuture<?> next;
+            synchronized (lock) {
+                isCancelled = true;
+                latest = null;
+                check = this.check;
+                next = this.next;
+                this.check = null;
+                this.next = null;
+            }
+            if (next != null) {
+                next.cancel(false);
+            }
+            if (check != null) {
+                check.cancel(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            check();
+        }
+
+        /**
+         * Starts next check.
+         */
+        void check() {
+            final UpdateFuture check;
+            try {
+                synchronized (lock) {
+                    if (isCancelled) {
+                        return;
+                    }
+                    check = updater.checkForUpdatesAsync(loaderFactory);
+                    this.check = check;
+                    this.next = null;
+                }
+            } catch (RuntimeException e) {
+                terminate(e);
+                return;
+            }
+            check.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    onCheckDone(check);
+                }
+            }, CallbackDispatchers.immediate());
+        }
+
+        private void onCheckDone(UpdateFuture check) {
+            if (check.isCancelled()) {
+                return;
+            }
+            CheckResult result;
+            try {
+                result = check.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                synchronized (lock) {
+                    if (isCancelled) {
+                        return;
+                    }
+                    latest = result;
+                    this.check = null;
+                    next = timer.schedule(this, intervalMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (RejectedExecutionException e) {
+                terminate(e);
+                return;
+            }
+            drain();
+        }
+
+        private void terminate(Throwable e) {
+            synchronized (lock) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+            drain();
+        }
+
+        /**
+         * Notifies subscriber with latest result or error, if there is any and subscriber can accept it. Only one thread notifies
+         * subscriber at a time, others leave state for it.
+         */
+        private void drain() {
+            synchronized (lock) {
+                if (isEmitting) {
+                    return;
+                }
+                isEmitting = true;
+            }
+            while (true) {
+                CheckResult result;
+                Throwable error = null;
+                synchronized (lock) {
+                    if (!isCancelled && this.error != null) {
+                        error = this.error;
+                    } else if (isCancelled || latest == null || requested == 0) {
+                        isEmitting = false;
+                        return;
+                    }
+                    result = latest;
+                    latest = null;
+                    if (error == null && requested != Long.MAX_VALUE) {
+                        requested--;
+                    }
+                }
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    synchronized (lock) {
+                        isEmitting = false;
+                    }
+                    return;
+                }
+                subscriber.onNext(result);
+            }
+        }
+    }
+}
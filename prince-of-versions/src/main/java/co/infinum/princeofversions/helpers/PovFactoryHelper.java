@@ -3,7 +3,9 @@ package co.infinum.princeofversions.helpers;
 import co.infinum.princeofversions.UpdateConfigLoader;
 import co.infinum.princeofversions.interfaces.SdkVersionProvider;
 import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
 import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.mvp.interactor.impl.CoalescingPovInteractor;
 import co.infinum.princeofversions.mvp.interactor.impl.PovInteractorImpl;
 import co.infinum.princeofversions.mvp.presenter.PovPresenter;
 import co.infinum.princeofversions.mvp.presenter.impl.PovPresenterImpl;
@@ -28,17 +30,38 @@ public class PovFactoryHelper {
 
     /**
      * Creates POVPresenter for given view, loader, version factory and version repository.
+     * Concurrent checks in given flights using the same factory and loaders with the same cache key share single load of update
+     * configuration.
      *
      * @param view       View associated with presenter.
      * @param loader     Loader used for loading update configuration resource.
      * @param factory    Factory for creating class for verifying versions.
      * @param repository Repository for persisting library data.
      * @param sdkVersionProvider
+     * @param flights    Checks in progress which can be shared, one per updater.
      * @return New instance of POVPresenter.
      */
     public PovPresenter getPresenter(PovView view, UpdateConfigLoader loader, VersionVerifierFactory factory,
-            VersionRepository repository, SdkVersionProvider sdkVersionProvider) {
-        return new PovPresenterImpl(view, new PovInteractorImpl(factory.newInstance(), loader, sdkVersionProvider), repository);
+            VersionRepository repository, SdkVersionProvider sdkVersionProvider, CoalescingPovInteractor.Flights flights) {
+        return new PovPresenterImpl(view, new CoalescingPovInteractor(flights, factory, loader, sdkVersionProvider),
+                repository);
+    }
+
+    /**
+     * Creates POVPresenter for given view, loader, verifier and version repository, without sharing load of update configuration with
+     * other checks. Presenter notifies view on thread on which verifier notifies result, so with verifier checking on calling thread
+     * the whole check runs on calling thread.
+     *
+     * @param view               View associated with presenter.
+     * @param loader             Loader used for loading update configuration resource.
+     * @param verifier           Verifier used for loading and parsing update configuration.
+     * @param repository         Repository for persisting library data.
+     * @param sdkVersionProvider Provider of device SDK version.
+     * @return New instance of POVPresenter.
+     */
+    public PovPresenter getPresenter(PovView view, UpdateConfigLoader loader, VersionVerifier verifier, VersionRepository repository,
+            SdkVersionProvider sdkVersionProvider) {
+        return new PovPresenterImpl(view, new PovInteractorImpl(verifier, loader, sdkVersionProvider), repository);
     }
 
 }
@@ -0,0 +1,73 @@
+package co.infinum.princeofversions.helpers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
+
+/**
+ * This class represents repository for persisting HTTP cache validators in SharedPreferences.
+ */
+public class PrefsValidatorRepository implements ValidatorRepository {
+
+    /**
+     * Key prefix for stored entity tags.
+     */
+    protected static final String ENTITY_TAG_KEY_PREFIX = "princeofversions.ETag.";
+
+    /**
+     * Key prefix for stored last modified values.
+     */
+    protected static final String LAST_MODIFIED_KEY_PREFIX = "princeofversions.LastModified.";
+
+    /**
+     * Current application context.
+     */
+    private Context context;
+
+    /**
+     * Creates a new repository from current application context.
+     *
+     * @param context Current application context.
+     */
+    public PrefsValidatorRepository(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public String getEntityTag(String key) {
+        return getPrefs().getString(ENTITY_TAG_KEY_PREFIX + key, null);
+    }
+
+    @Override
+    public String getLastModified(String key) {
+        return getPrefs().getString(LAST_MODIFIED_KEY_PREFIX + key, null);
+    }
+
+    @Override
+    public void setValidators(String key, String entityTag, String lastModified) {
+        getPrefs().edit()
+                .putString(ENTITY_TAG_KEY_PREFIX + key, entityTag)
+                .putString(LAST_MODIFIED_KEY_PREFIX + key, lastModified)
+                .commit();
+    }
+
+    @Override
+    public void clearValidators(String key) {
+        getPrefs().edit()
+                .remove(ENTITY_TAG_KEY_PREFIX + key)
+                .remove(LAST_MODIFIED_KEY_PREFIX + key)
+                .commit();
+    }
+
+    /**
+     * Utility method for getting shared preferences object.
+     *
+     * @return SharedPreferences associated with current application.
+     */
+    private SharedPreferences getPrefs() {
+        return PreferenceManager.getDefaultSharedPreferences(context);
+    }
+
+}
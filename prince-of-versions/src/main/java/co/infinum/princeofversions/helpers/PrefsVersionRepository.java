@@ -8,6 +8,9 @@ import co.infinum.princeofversions.interfaces.VersionRepository;
 
 /**
  * This class represents repository for persisting library data in SharedPreferences.
+ * <p>
+ * Values are written synchronously, use {@link AsyncVersionRepository} to write them on another thread.
+ * </p>
  */
 public class PrefsVersionRepository implements VersionRepository {
 
@@ -4,15 +4,33 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
 
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+
 /**
  * Utility class for reading from input stream into string.
+ * <p>
+ * Stream is copied in chunks through single char buffer, so content is kept exactly as it is, including line terminators.
+ * Methods accepting {@link StreamLineFilter} read stream line by line and are kept for compatibility, they do not keep line
+ * terminators.
+ * </p>
  */
 public class StreamIo {
 
     public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
+    /**
+     * Size of char buffer used for copying, in chars.
+     */
+    public static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Maximum initial capacity taken from expected length, so wrong expected length cannot allocate too much memory up front.
+     */
+    public static final int MAX_INITIAL_CAPACITY = 1024 * 1024;
+
     /**
      * Interface provides method for filtering based on given line.
      */
@@ -44,6 +62,19 @@ public class StreamIo {
         Command apply(String line);
     }
 
+    /**
+     * Interface provides cancellation state checked before every chunk is read.
+     */
+    public interface Cancellation {
+
+        /**
+         * Method provides cancellation state.
+         *
+         * @return true if reading should stop, false otherwise.
+         */
+        boolean isCancelled();
+    }
+
     private StreamIo() {
 
     }
@@ -56,12 +87,7 @@ public class StreamIo {
      * @throws IOException if reading error occurred.
      */
     public static String toString(InputStream is) throws IOException {
-        return toString(is, DEFAULT_CHARSET, new StreamLineFilter() {
-            @Override
-            public Command apply(String line) {
-                return Command.GO;
-            }
-        });
+        return toString(is, DEFAULT_CHARSET);
     }
 
     /**
@@ -73,12 +99,49 @@ public class StreamIo {
      * @throws IOException if reading error occurred.
      */
     public static String toString(InputStream is, Charset charset) throws IOException {
-        return toString(is, charset, new StreamLineFilter() {
-            @Override
-            public Command apply(String line) {
-                return Command.GO;
+        return toString(is, charset, -1, null);
+    }
+
+    /**
+     * Transforming input stream into string using given charset, checking cancellation before every chunk.
+     * <p>
+     * If expected length is known, eg. from <i>Content-Length</i> header, result is allocated once with that capacity. Expected
+     * length is only a hint, content is read until the end of stream regardless of it.
+     * </p>
+     *
+     * @param is             Input stream, closed after reading.
+     * @param charset        Charset used while reading stream.
+     * @param expectedLength Expected length of content in bytes, or negative number if not known.
+     * @param cancellation   Cancellation checked before every chunk, or null if reading cannot be cancelled.
+     * @return String read from stream.
+     * @throws LoadCancelledException if reading is cancelled.
+     * @throws IOException            if reading error occurred.
+     */
+    public static String toString(InputStream is, Charset charset, int expectedLength, Cancellation cancellation)
+            throws IOException {
+        Reader reader = new InputStreamReader(is, charset);
+        try {
+            StringBuilder out = new StringBuilder(initialCapacity(expectedLength));
+            char[] buffer = new char[BUFFER_SIZE];
+            int count;
+            while (true) {
+                if (cancellation != null && cancellation.isCancelled()) {
+                    throw new LoadCancelledException();
+                }
+                count = reader.read(buffer);
+                if (count == -1) {
+                    break;
+                }
+                out.append(buffer, 0, count);
+            }
+            return out.toString();
+        } finally {
+            try {
+                reader.close();
+            } catch (Exception ignorable) { // NOPMD
+                // ignorable exception
             }
-        });
+        }
     }
 
     /**
@@ -90,12 +153,7 @@ public class StreamIo {
      * @throws IOException if reading error occurred.
      */
     public static String toString(InputStream is, StreamLineFilter filter) throws IOException {
-        return toString(is, DEFAULT_CHARSET, new StreamLineFilter() {
-            @Override
-            public Command apply(String line) {
-                return Command.GO;
-            }
-        });
+        return toString(is, DEFAULT_CHARSET, filter);
     }
 
     /**
@@ -104,7 +162,7 @@ public class StreamIo {
      * @param is      Input stream for reading.
      * @param charset Charset used while reading stream.
      * @param filter  filters every line read from stream.
-     * @return String read from stream and accepted by filter.
+     * @return String read from stream and accepted by filter, without line terminators.
      * @throws IOException if reading error occurred.
      */
     public static String toString(InputStream is, Charset charset, StreamLineFilter filter) throws IOException {
@@ -124,4 +182,14 @@ public class StreamIo {
         }
         return out.toString();
     }
+
+    /**
+     * Computes initial capacity of result from expected length in bytes. Every char takes at least one byte.
+     */
+    private static int initialCapacity(int expectedLength) {
+        if (expectedLength <= 0) {
+            return BUFFER_SIZE;
+        }
+        return Math.min(expectedLength, MAX_INITIAL_CAPACITY);
+    }
 }
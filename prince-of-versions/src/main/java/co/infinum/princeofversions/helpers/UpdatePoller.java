@@ -0,0 +1,411 @@
+package co.infinum.princeofversions.helpers;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.CheckResult;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateFuture;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+
+/**
+ * This class represents scheduler polling for updates in background using given updater.
+ * <p>
+ * Polls are spread to avoid devices polling at the same time:
+ * </p>
+ * <ul>
+ * <li>Every delay, including the one before first poll, is randomized by up to {@link #setJitter(double) jitter} fraction of it.</li>
+ * <li>After loading fails with {@link ErrorCode#LOAD_ERROR} or {@link ErrorCode#TIMEOUT}, interval is doubled with every consecutive
+ * failure.</li>
+ * <li>While result stays the same, interval is doubled with every poll.</li>
+ * </ul>
+ * <p>
+ * Interval grows up to {@link #setMaxIntervalMillis(long) maximum interval} and goes back to configured one when result changes.
+ * </p>
+ * <p>
+ * Callback is notified only when result differs from previous one, i.e. on first poll and when kind of result, version, error or
+ * metadata changes. Optional update which is not notified again because of its notification type is considered the same as when it
+ * was notified. Callback is notified on thread on which verifier notifies result, main thread for default verifiers.
+ * </p>
+ */
+public class UpdatePoller {
+
+    /**
+     * Default fraction by which delays are randomized.
+     */
+    public static final double DEFAULT_JITTER = 0.2;
+
+    /**
+     * Default maximum interval as multiple of configured interval.
+     */
+    public static final int DEFAULT_MAX_INTERVAL_MULTIPLIER = 8;
+
+    /**
+     * Default timer scheduling polls, contains only one thread.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "princeofversions-poller");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Updater running checks.
+     */
+    private final PrinceOfVersions updater;
+
+    /**
+     * Factory of loaders used by checks.
+     */
+    private final LoaderFactory loaderFactory;
+
+    /**
+     * Configured interval between polls, in milliseconds.
+     */
+    private final long intervalMillis;
+
+    /**
+     * Timer scheduling polls.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Source of randomness for jitter.
+     */
+    private final Random random;
+
+    /**
+     * Lock guarding state of poller.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Fraction by which delays are randomized.
+     */
+    private double jitter = DEFAULT_JITTER;
+
+    /**
+     * Maximum interval between polls, in milliseconds.
+     */
+    private long maxIntervalMillis;
+
+    /**
+     * Callback notified with changed results, null if poller is stopped.
+     */
+    private UpdaterCallback callback;
+
+    /**
+     * Incremented on every start and stop, so polls of previous runs are ignored.
+     */
+    private int generation;
+
+    /**
+     * Check in progress, null if there is none.
+     */
+    private UpdateFuture check;
+
+    /**
+     * Next scheduled poll, null if there is none.
+     */
+    private ScheduledFuture<?> next;
+
+    /**
+     * Last notified result, null if nothing was notified since start.
+     */
+    private State lastState;
+
+    /**
+     * Number of consecutive polls which failed loading.
+     */
+    private int failures;
+
+    /**
+     * Number of consecutive polls which did not change result.
+     */
+    private int unchanged;
+
+    /**
+     * Creates a new poller using given updater, polling in given interval using default timer thread.
+     *
+     * @param updater        Updater running checks.
+     * @param loaderFactory  Factory of loaders used by checks.
+     * @param intervalMillis Interval between polls, in milliseconds.
+     * @throws IllegalArgumentException if interval is not positive.
+     */
+    public UpdatePoller(PrinceOfVersions updater, LoaderFactory loaderFactory, long intervalMillis) {
+        this(updater, loaderFactory, intervalMillis, TIMER, new Random());
+    }
+
+    /**
+     * Creates a new poller using given updater, polling in given interval using custom timer and source of randomness.
+     *
+     * @param updater        Updater running checks.
+     * @param loaderFactory  Factory of loaders used by checks.
+     * @param intervalMillis Interval between polls, in milliseconds.
+     * @param timer          Timer scheduling polls.
+     * @param random         Source of randomness for jitter.
+     * @throws IllegalArgumentException if interval is not positive.
+     */
+    public UpdatePoller(PrinceOfVersions updater, LoaderFactory loaderFactory, long intervalMillis, ScheduledExecutorService timer,
+            Random random) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+        this.updater = updater;
+        this.loaderFactory = loaderFactory;
+        this.intervalMillis = intervalMillis;
+        this.timer = timer;
+        this.random = random;
+        this.maxIntervalMillis = intervalMillis * DEFAULT_MAX_INTERVAL_MULTIPLIER;
+    }
+
+    /**
+     * Method sets fraction by which delays are randomized, e.g. 0.2 randomizes one hour delay between 48 and 72 minutes.
+     *
+     * @param jitter Fraction between 0 and 1.
+     * @return This poller.
+     * @throws IllegalArgumentException if fraction is not between 0 and 1.
+     */
+    public UpdatePoller setJitter(double jitter) {
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1.");
+        }
+        synchronized (lock) {
+            this.jitter = jitter;
+        }
+        return this;
+    }
+
+    /**
+     * Method sets maximum interval reached by backing off after failures and by stretching interval while result stays the same.
+     *
+     * @param maxIntervalMillis Maximum interval between polls, in milliseconds.
+     * @return This poller.
+     * @throws IllegalArgumentException if maximum interval is shorter than configured interval.
+     */
+    public UpdatePoller setMaxIntervalMillis(long maxIntervalMillis) {
+        if (maxIntervalMillis < intervalMillis) {
+            throw new IllegalArgumentException("Maximum interval must not be shorter than interval.");
+        }
+        synchronized (lock) {
+            this.maxIntervalMillis = maxIntervalMillis;
+        }
+        return this;
+    }
+
+    /**
+     * Method starts polling, first poll is run after random delay of up to jitter fraction of interval.
+     *
+     * @param callback Callback notified when result changes.
+     * @throws IllegalStateException if poller is already started.
+     */
+    public void start(UpdaterCallback callback) {
+        synchronized (lock) {
+            if (this.callback != null) {
+                throw new IllegalStateException("Poller is already started.");
+            }
+            this.callback = callback;
+            generation++;
+            lastState = null;
+            failures = 0;
+            unchanged = 0;
+            schedule((long) (intervalMillis * jitter * random.nextDouble()));
+        }
+    }
+
+    /**
+     * Method stops polling, check in progress is cancelled. Poller can be started again afterwards.
+     */
+    public void stop() {
+        UpdateFuture check;
+        ScheduledFuture<?> next;
+        synchronized (lock) {
+            callback = null;
+            generation++;
+            check = this.check;
+            next = this.next;
+            this.check = null;
+            this.next = null;
+        }
+        if (next != null) {
+            next.cancel(false);
+        }
+        if (check != null) {
+            check.cancel(true);
+        }
+    }
+
+    /**
+     * Provides flag determining if poller is started.
+     *
+     * @return true if poller is started, false otherwise.
+     */
+    public boolean isStarted() {
+        synchronized (lock) {
+            return callback != null;
+        }
+    }
+
+    /**
+     * Schedules next poll, caller must hold lock.
+     */
+    private void schedule(long delayMillis) {
+        final int generation = this.generation;
+        try {
+            next = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    poll(generation);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // timer is shut down, polling stops
+            callback = null;
+        }
+    }
+
+    private void poll(final int generation) {
+        final UpdateFuture check;
+        synchronized (lock) {
+            if (generation != this.generation) {
+                return;
+            }
+            next = null;
+            try {
+                check = updater.checkForUpdatesAsync(loaderFactory);
+            } catch (RuntimeException e) {
+                // loader factory creates invalid loaders, polling stops
+                callback = null;
+                return;
+            }
+            this.check = check;
+        }
+        check.addListener(new Runnable() {
+            @Override
+            public void run() {
+                onPollDone(generation, check);
+            }
+        }, CallbackDispatchers.immediate());
+    }
+
+    private void onPollDone(int generation, UpdateFuture check) {
+        if (check.isCancelled()) {
+            return;
+        }
+        CheckResult result;
+        try {
+            result = check.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        State state = new State(result);
+        UpdaterCallback callback;
+        synchronized (lock) {
+            if (generation != this.generation) {
+                return;
+            }
+            this.check = null;
+            callback = state.equals(lastState) ? null : this.callback;
+            long baseMillis;
+            if (state.isLoadFailure()) {
+                failures++;
+                unchanged = 0;
+                baseMillis = multiplyInterval(failures);
+            } else {
+                failures = 0;
+                unchanged = state.equals(lastState) ? unchanged + 1 : 0;
+                baseMillis = multiplyInterval(unchanged);
+            }
+            lastState = state;
+            schedule(jitter(baseMillis));
+        }
+        if (callback != null) {
+            state.notify(callback);
+        }
+    }
+
+    /**
+     * Provides configured interval doubled given number of times, limited by maximum interval.
+     */
+    private long multiplyInterval(int doublings) {
+        long millis = intervalMillis;
+        for (int i = 0; i < doublings && millis < maxIntervalMillis; i++) {
+            millis *= 2;
+        }
+        return Math.min(millis, maxIntervalMillis);
+    }
+
+    private long jitter(long millis) {
+        return Math.max(0, (long) (millis * (1 + jitter * (2 * random.nextDouble() - 1))));
+    }
+
+    /**
+     * Result of single poll reduced to what is notified to callback.
+     */
+    private static class State {
+
+        private final String version;
+
+        private final boolean isMandatory;
+
+        private final int error;
+
+        private final Map<String, String> metadata;
+
+        State(CheckResult result) {
+            this.error = result.hasError() ? result.getError() : -1;
+            this.version = result.hasUpdate() ? result.getVersion() : result.getNotifiedVersion();
+            this.isMandatory = result.isMandatory();
+            this.metadata = result.getMetadata();
+        }
+
+        boolean isLoadFailure() {
+            return error == ErrorCode.LOAD_ERROR || error == ErrorCode.TIMEOUT;
+        }
+
+        void notify(UpdaterCallback callback) {
+            if (error >= 0) {
+                callback.onError(error);
+            } else if (version != null) {
+                callback.onNewUpdate(version, isMandatory, metadata);
+            } else {
+                callback.onNoUpdate(metadata);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State state = (State) o;
+            return error == state.error && isMandatory == state.isMandatory
+                    && (version == null ? state.version == null : version.equals(state.version))
+                    && (metadata == null ? state.metadata == null : metadata.equals(state.metadata));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = version != null ? version.hashCode() : 0;
+            result = 31 * result + (isMandatory ? 1 : 0);
+            result = 31 * result + error;
+            return 31 * result + (metadata != null ? metadata.hashCode() : 0);
+        }
+    }
+}
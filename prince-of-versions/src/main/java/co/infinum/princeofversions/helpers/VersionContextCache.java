@@ -0,0 +1,450 @@
+package co.infinum.princeofversions.helpers;
+
+import android.content.Context;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import co.infinum.princeofversions.common.Metadata;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+
+/**
+ * Two level cache of parsed VersionContext holders, stored by resource key (eg. resource URL) together with parser, see
+ * {@link #getKey(String, VersionConfigParser)}.
+ * <p>
+ * First level is in-process LRU cache, second level is compact snapshot of holder stored in a file inside given directory. Every entry is
+ * considered fresh for configured time to live after it is stored. Entries computed for different application version than the current
+ * one are never provided.
+ * </p>
+ * <p>
+ * Snapshots are written on a background executor, so storing holder from main thread does not block it on disk I/O. Looking up holder
+ * may read snapshot from disk, so it should be done off main thread, eg. on the same executor (see {@link #getExecutor()}).
+ * </p>
+ */
+public class VersionContextCache {
+
+    /**
+     * Default time to live of cache entry.
+     */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    /**
+     * Default maximum number of entries held in memory.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 8;
+
+    /**
+     * Name of directory inside application files directory used for storing snapshots.
+     */
+    public static final String DIRECTORY_NAME = "princeofversions";
+
+    /**
+     * Names of snapshot files and their temporary files, snapshot file is named by hex hash of its key.
+     */
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("[0-9a-f]{1,32}(\\.tmp)?");
+
+    private static final int MAGIC = 0x504f5643; // POVC
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Default executor for writing snapshots, contains only one thread.
+     */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "princeofversions-cache");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Directory for storing snapshots, null if cache is in memory only.
+     */
+    private final File directory;
+
+    /**
+     * Current application version name, null if entries should not be checked against application version.
+     */
+    private final String currentVersionName;
+
+    /**
+     * Time to live of cache entry.
+     */
+    private final long ttlMillis;
+
+    /**
+     * In-memory entries in access order.
+     */
+    private final Map<String, Entry> memory;
+
+    /**
+     * Executor used for writing snapshots.
+     */
+    private final Executor writer;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param directory          Directory for storing snapshots, null for in-memory only cache.
+     * @param currentVersionName Current application version name, entries computed for other version are ignored.
+     * @param maxEntries         Maximum number of entries held in memory.
+     * @param ttlMillis          Time to live of cache entry in milliseconds.
+     */
+    public VersionContextCache(File directory, String currentVersionName, int maxEntries, long ttlMillis) {
+        this(directory, currentVersionName, maxEntries, ttlMillis, WRITER);
+    }
+
+    /**
+     * Creates a new cache using custom executor for writing snapshots.
+     *
+     * @param directory          Directory for storing snapshots, null for in-memory only cache.
+     * @param currentVersionName Current application version name, entries computed for other version are ignored.
+     * @param maxEntries         Maximum number of entries held in memory.
+     * @param ttlMillis          Time to live of cache entry in milliseconds.
+     * @param writer             Executor used for writing snapshots.
+     */
+    public VersionContextCache(File directory, String currentVersionName, final int maxEntries, long ttlMillis, Executor writer) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive.");
+        }
+        this.directory = directory;
+        this.currentVersionName = currentVersionName;
+        this.ttlMillis = ttlMillis;
+        this.writer = writer;
+        this.memory = new LinkedHashMap<String, Entry>(maxEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates a new cache storing snapshots inside application files directory.
+     *
+     * @param context   Context of associated application.
+     * @param ttlMillis Time to live of cache entry in milliseconds.
+     * @return New cache instance.
+     */
+    public static VersionContextCache create(Context context, long ttlMillis) {
+        String currentVersionName = CurrentVersionProviderImpl.getInstance(context).getCurrentVersion().getVersionString();
+        return new VersionContextCache(new File(context.getFilesDir(), DIRECTORY_NAME), currentVersionName, DEFAULT_MAX_ENTRIES,
+                ttlMillis);
+    }
+
+    /**
+     * Method provides key of holder parsed from given resource by given parser. Holders parsed by different parsers are stored under
+     * different keys, so they are never mistaken for each other. Parser must define equality, eg. as
+     * {@link co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser#equals(Object)} does, with hash code which is the same
+     * in every process. Otherwise holder parsed by it cannot be reused by other parser and null is returned.
+     *
+     * @param resourceKey Resource key, eg. resource URL.
+     * @param parser      Parser which parses the resource.
+     * @return Cache key or null if holders parsed by given parser should not be cached.
+     */
+    public static String getKey(String resourceKey, VersionConfigParser parser) {
+        if (resourceKey == null || parser == null) {
+            return null;
+        }
+        try {
+            if (parser.getClass().getMethod("hashCode").getDeclaringClass() == Object.class) {
+                return null;
+            }
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return resourceKey + "#" + parser.getClass().getName() + "#" + Integer.toHexString(parser.hashCode());
+    }
+
+    /**
+     * Method provides executor this cache uses for disk I/O. Tasks run on it after snapshots stored before they were submitted are
+     * written.
+     *
+     * @return Executor used for writing snapshots.
+     */
+    public Executor getExecutor() {
+        return writer;
+    }
+
+    /**
+     * Provides fresh holder stored for given key. Snapshot is read from disk if holder is not held in memory.
+     *
+     * @param key Resource key.
+     * @return Stored holder or null if there is no fresh entry.
+     */
+    public VersionContext get(String key) {
+        Entry entry = getEntry(key);
+        if (entry == null || now() - entry.storedAtMillis > ttlMillis || entry.storedAtMillis > now()) {
+            return null;
+        }
+        return entry.version;
+    }
+
+    /**
+     * Provides holder stored for given key regardless of its age.
+     *
+     * @param key Resource key.
+     * @return Stored holder or null if there is no entry.
+     */
+    public VersionContext getStale(String key) {
+        Entry entry = getEntry(key);
+        return entry != null ? entry.version : null;
+    }
+
+    /**
+     * Stores holder for given key.
+     *
+     * @param key     Resource key.
+     * @param version Holder to be stored.
+     */
+    public void put(final String key, VersionContext version) {
+        final Entry entry = new Entry(now(), version);
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        if (directory != null) {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        writeSnapshot(key, entry);
+                    } catch (IOException ignorable) { // NOPMD
+                        // snapshot is just an optimisation, in-memory entry is still available
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes entry stored for given key.
+     *
+     * @param key Resource key.
+     */
+    public void remove(String key) {
+        synchronized (memory) {
+            memory.remove(key);
+        }
+        if (directory != null) {
+            deleteQuietly(snapshotFile(key));
+        }
+    }
+
+    /**
+     * Removes all entries from cache. Only snapshot files are deleted, other files in cache directory are kept.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        File[] files = directory != null ? directory.listFiles() : null;
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && SNAPSHOT_NAME.matcher(file.getName()).matches()) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Provides current time used for determining entry freshness.
+     *
+     * @return Current time in milliseconds.
+     */
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    private Entry getEntry(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry == null && directory != null) {
+            entry = readSnapshot(key);
+            if (entry != null) {
+                synchronized (memory) {
+                    memory.put(key, entry);
+                }
+            }
+        }
+        if (entry != null && currentVersionName != null
+                && !currentVersionName.equals(entry.version.getCurrentVersion().getVersionString())) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private File snapshotFile(String key) {
+        return new File(directory, hash(key));
+    }
+
+    private synchronized void writeSnapshot(String key, Entry entry) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create cache directory.");
+        }
+        File file = snapshotFile(key);
+        File temp = new File(directory, file.getName() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, key);
+            out.writeLong(entry.storedAtMillis);
+            writeVersionContext(out, entry.version);
+        } finally {
+            out.close();
+        }
+        if (!temp.renameTo(file)) {
+            deleteQuietly(temp);
+            throw new IOException("Unable to store snapshot.");
+        }
+    }
+
+    private Entry readSnapshot(String key) {
+        File file = snapshotFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION || !key.equals(readString(in))) {
+                return null;
+            }
+            long storedAtMillis = in.readLong();
+            return new Entry(storedAtMillis, readVersionContext(in));
+        } catch (IOException e) {
+            deleteQuietly(file);
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignorable) { // NOPMD
+                    // ignorable exception
+                }
+            }
+        }
+    }
+
+    private static void writeVersionContext(DataOutputStream out, VersionContext version) throws IOException {
+        writeString(out, version.getCurrentVersion().getVersionString());
+        writeString(out, version.getMinimumVersion() != null ? version.getMinimumVersion().getVersionString() : null);
+        out.writeBoolean(version.isCurrentLessThanMinimum());
+        out.writeInt(version.getMinimumVersionMinSdk());
+        VersionContext.UpdateContext optionalUpdate = version.getOptionalUpdate();
+        out.writeBoolean(optionalUpdate != null);
+        if (optionalUpdate != null) {
+            writeString(out, optionalUpdate.getVersion().getVersionString());
+            writeString(out, optionalUpdate.getNotificationType());
+            out.writeInt(optionalUpdate.getNewMinSdk());
+            out.writeBoolean(version.isCurrentLessThanOptional());
+        }
+        // metadata is kept as JSON text, so values of all types are restored and nothing is decoded while writing
+        writeString(out, version.getMetadata().toJson());
+    }
+
+    private static VersionContext readVersionContext(DataInputStream in) throws IOException {
+        VersionContext.Version currentVersion = new VersionContext.Version(readString(in));
+        String minimumVersion = readString(in);
+        boolean isCurrentLessThanMinimum = in.readBoolean();
+        int minimumVersionMinSdk = in.readInt();
+        VersionContext.UpdateContext optionalUpdate = null;
+        boolean isCurrentLessThanOptional = false;
+        if (in.readBoolean()) {
+            VersionContext.Version optionalVersion = new VersionContext.Version(readString(in));
+            String notificationType = readString(in);
+            optionalUpdate = new VersionContext.UpdateContext(optionalVersion, notificationType, in.readInt());
+            isCurrentLessThanOptional = in.readBoolean();
+        }
+        VersionContext version = new VersionContext(currentVersion,
+                minimumVersion != null ? new VersionContext.Version(minimumVersion) : null, isCurrentLessThanMinimum,
+                optionalUpdate, isCurrentLessThanOptional, minimumVersionMinSdk);
+        String metadata = readString(in);
+        version.setMetadata(metadata != null ? new Metadata(metadata) : null);
+        return version;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Cache entry, holder and time when it was stored.
+     */
+    private static class Entry {
+
+        private final long storedAtMillis;
+
+        private final VersionContext version;
+
+        Entry(long storedAtMillis, VersionContext version) {
+            this.storedAtMillis = storedAtMillis;
+            this.version = version;
+        }
+    }
+
+}
@@ -0,0 +1,313 @@
+package co.infinum.princeofversions.helpers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import co.infinum.princeofversions.ConditionalLoader;
+import co.infinum.princeofversions.ContentTypeLoader;
+import co.infinum.princeofversions.StreamingUpdateConfigLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+import co.infinum.princeofversions.exceptions.NotModifiedException;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.parsers.ContentTypeVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.StreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.EventListener;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.transport.TransferStats;
+
+/**
+ * Class loads update configuration using given loader and parses it into VersionContext holder.
+ * <p>
+ * If loader supports conditional loading, last parsed VersionContext is remembered for the lifetime of the process together with
+ * validators of content it was parsed from, and reused when loader reports that resource has not been modified. In that case parsing
+ * is skipped completely. Holder is remembered by cache key of loader together with parser, so it is reused only by resolvers whose
+ * parsers are equal, see {@link co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser#equals(Object)}. Conditional
+ * loading is enabled only if such holder exists, and only its validators are sent, so content parsed by other parser is never
+ * mistaken for it.
+ * </p>
+ * <p>
+ * If loader implements StreamingUpdateConfigLoader and parser implements StreamVersionConfigParser, resource is parsed while it is
+ * read, without reading it into string first. If loader implements ContentTypeLoader and parser is ContentTypeVersionConfigParser,
+ * content types of registered parsers are requested and parser is selected by content type of loaded resource.
+ * </p>
+ * <p>
+ * If {@link EventListener} is registered through {@link Events}, loading and parsing are measured and reported to it.
+ * </p>
+ */
+public class VersionContextResolver {
+
+    /**
+     * Maximum number of remembered holders, least recently used ones are forgotten first.
+     */
+    private static final int MAX_LAST_CONTEXTS = 16;
+
+    /**
+     * Last parsed holders of conditionally loaded resources with their validators, by resource key and parser.
+     */
+    private static final Map<ContextKey, LastContext> LAST_CONTEXTS = new LinkedHashMap<ContextKey, LastContext>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ContextKey, LastContext> eldest) {
+            return size() > MAX_LAST_CONTEXTS;
+        }
+    };
+
+    /**
+     * Parser used for parsing loaded update configuration resource.
+     */
+    private VersionConfigParser parser;
+
+    /**
+     * Creates a new resolver using given parser.
+     *
+     * @param parser Update configuration resource parser.
+     */
+    public VersionContextResolver(VersionConfigParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Method loads update configuration using given loader and provides parsed holder.
+     *
+     * @param loader Loads update configuration.
+     * @return Holder of parsed and loaded version data.
+     * @throws IOException          if error occurred while loading.
+     * @throws InterruptedException if loading is cancelled.
+     * @throws ParseException       if error occurred while parsing.
+     */
+    public VersionContext resolve(UpdateConfigLoader loader) throws IOException, InterruptedException, ParseException {
+        if (!(loader instanceof ConditionalLoader)) {
+            return loadAndParse(loader);
+        }
+        ConditionalLoader conditionalLoader = (ConditionalLoader) loader;
+        ContextKey key = conditionalLoader.getCacheKey() != null ? new ContextKey(conditionalLoader.getCacheKey(), parser) : null;
+        LastContext lastContext = getLastContext(key);
+
+        VersionContext version;
+        if (lastContext != null) {
+            conditionalLoader.setValidators(lastContext.entityTag, lastContext.lastModified);
+        }
+        conditionalLoader.setConditionalLoadingEnabled(lastContext != null);
+        try {
+            version = loadAndParse(conditionalLoader);
+        } catch (NotModifiedException e) {
+            if (lastContext != null) {
+                return lastContext.version;
+            }
+            // nothing to reuse, fall back to unconditional loading
+            conditionalLoader.setConditionalLoadingEnabled(false);
+            version = loadAndParse(conditionalLoader);
+        }
+
+        putLastContext(key, version, conditionalLoader.getEntityTag(), conditionalLoader.getLastModified());
+        return version;
+    }
+
+    /**
+     * Loads and parses update configuration. If both loader and parser support streams, configuration is parsed directly from stream
+     * opened by loader, otherwise it is loaded as string first.
+     *
+     * @param loader Loads update configuration.
+     * @return Holder of parsed and loaded version data.
+     * @throws IOException          if error occurred while loading.
+     * @throws InterruptedException if loading is cancelled.
+     * @throws ParseException       if error occurred while parsing.
+     */
+    private VersionContext loadAndParse(UpdateConfigLoader loader) throws IOException, InterruptedException, ParseException {
+        EventListener events = Events.getListener();
+        if (!(loader instanceof StreamingUpdateConfigLoader) || !(parser instanceof StreamVersionConfigParser)) {
+            if (events == null) {
+                return parser.parse(loader.load());
+            }
+            return parse(load(loader, events), events);
+        }
+        boolean negotiate = loader instanceof ContentTypeLoader && parser instanceof ContentTypeVersionConfigParser;
+        if (negotiate) {
+            ((ContentTypeLoader) loader).setAcceptedContentTypes(((ContentTypeVersionConfigParser) parser).getAcceptedContentTypes());
+        }
+        long loadStartNanos = 0;
+        if (events != null) {
+            events.onLoadStarted(loader);
+            loadStartNanos = System.nanoTime();
+        }
+        InputStream stream;
+        try {
+            stream = ((StreamingUpdateConfigLoader) loader).open();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (events != null) {
+                events.onLoadFinished(loader, System.nanoTime() - loadStartNanos, getTransferredBytes(loader), e);
+            }
+            throw e;
+        }
+        long parseStartNanos = events != null ? System.nanoTime() : 0;
+        Exception error = null;
+        try {
+            if (negotiate) {
+                return ((ContentTypeVersionConfigParser) parser).parse(stream, ((ContentTypeLoader) loader).getContentType());
+            }
+            return ((StreamVersionConfigParser) parser).parse(stream);
+        } catch (LoadCancelledException e) {
+            error = e;
+            throw new InterruptedException();
+        } catch (IOException | ParseException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            long parseEndNanos = events != null ? System.nanoTime() : 0;
+            try {
+                stream.close();
+            } catch (Exception ignorable) { // NOPMD
+                // ignorable exception
+            }
+            if (events != null) {
+                // content is read while it is parsed, so load ends when stream is closed
+                events.onParsed(parseEndNanos - parseStartNanos, error);
+                events.onLoadFinished(loader, System.nanoTime() - loadStartNanos, getTransferredBytes(loader),
+                        error instanceof IOException ? error : null);
+            }
+        }
+    }
+
+    /**
+     * Loads update configuration as string, reporting loading to given listener.
+     */
+    private static String load(UpdateConfigLoader loader, EventListener events) throws IOException, InterruptedException {
+        events.onLoadStarted(loader);
+        long startNanos = System.nanoTime();
+        String content;
+        try {
+            content = loader.load();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            events.onLoadFinished(loader, System.nanoTime() - startNanos, getTransferredBytes(loader), e);
+            throw e;
+        }
+        events.onLoadFinished(loader, System.nanoTime() - startNanos, getTransferredBytes(loader), null);
+        return content;
+    }
+
+    /**
+     * Parses update configuration, reporting parsing to given listener.
+     */
+    private VersionContext parse(String content, EventListener events) throws ParseException {
+        long startNanos = System.nanoTime();
+        try {
+            VersionContext version = parser.parse(content);
+            events.onParsed(System.nanoTime() - startNanos, null);
+            return version;
+        } catch (ParseException | RuntimeException e) {
+            events.onParsed(System.nanoTime() - startNanos, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Provides number of bytes transferred by network loader.
+     *
+     * @return Number of bytes, negative if loader is not network loader or it did not receive response.
+     */
+    private static long getTransferredBytes(UpdateConfigLoader loader) {
+        TransferStats stats = loader instanceof NetworkLoader ? ((NetworkLoader) loader).getTransferStats() : null;
+        return stats != null ? stats.getTransferredBytes() : -1;
+    }
+
+    /**
+     * Provides last parsed holder for given resource and parser key.
+     *
+     * @param key Resource and parser key.
+     * @return Last parsed holder with its validators or null if resource was not parsed yet by equal parser.
+     */
+    private static LastContext getLastContext(ContextKey key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (LAST_CONTEXTS) {
+            return LAST_CONTEXTS.get(key);
+        }
+    }
+
+    /**
+     * Remembers last parsed holder for given resource and parser key. Holder of content without validators is forgotten, because it
+     * cannot be loaded conditionally.
+     *
+     * @param key          Resource and parser key.
+     * @param version      Parsed holder.
+     * @param entityTag    Entity tag of parsed content.
+     * @param lastModified Last modification time of parsed content.
+     */
+    private static void putLastContext(ContextKey key, VersionContext version, String entityTag, String lastModified) {
+        if (key == null) {
+            return;
+        }
+        synchronized (LAST_CONTEXTS) {
+            if (entityTag == null && lastModified == null) {
+                LAST_CONTEXTS.remove(key);
+            } else {
+                LAST_CONTEXTS.put(key, new LastContext(version, entityTag, lastModified));
+            }
+        }
+    }
+
+    /**
+     * Removes all remembered holders.
+     */
+    public static void clearLastContexts() {
+        synchronized (LAST_CONTEXTS) {
+            LAST_CONTEXTS.clear();
+        }
+    }
+
+    /**
+     * Remembered holder together with validators of content it was parsed from.
+     */
+    private static final class LastContext {
+
+        private final VersionContext version;
+
+        private final String entityTag;
+
+        private final String lastModified;
+
+        LastContext(VersionContext version, String entityTag, String lastModified) {
+            this.version = version;
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Key of remembered holder, consisting of resource key and parser which parsed the resource.
+     */
+    private static final class ContextKey {
+
+        private final String cacheKey;
+
+        private final VersionConfigParser parser;
+
+        ContextKey(String cacheKey, VersionConfigParser parser) {
+            this.cacheKey = cacheKey;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContextKey)) {
+                return false;
+            }
+            ContextKey other = (ContextKey) o;
+            return cacheKey.equals(other.cacheKey) && parser.equals(other.parser);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cacheKey.hashCode() + parser.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package co.infinum.princeofversions.helpers.parsers;
+
+import android.support.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import co.infinum.princeofversions.common.VersionContext;
+
+/**
+ * Utility class for encoding update configuration into compact binary format parsed by {@link BinaryVersionConfigParser}.
+ * <p>
+ * Encoder can be used on server side or in build tools for creating binary configuration, eg. from configuration parsed by
+ * {@link JsonVersionConfigParser}:
+ * </p>
+ * <pre>
+ *  byte[] binary = BinaryVersionConfigEncoder.encode(new JsonVersionConfigParser(anyVersion).parse(json));
+ * </pre>
+ */
+public final class BinaryVersionConfigEncoder {
+
+    private BinaryVersionConfigEncoder() {
+
+    }
+
+    /**
+     * Method encodes update configuration values of given holder, current version of holder is not encoded.
+     *
+     * @param version Holder of update configuration values.
+     * @return Binary update configuration.
+     */
+    public static byte[] encode(VersionContext version) {
+        VersionContext.UpdateContext optionalUpdate = version.getOptionalUpdate();
+        return encode(
+                version.getMinimumVersion() != null ? version.getMinimumVersion().getVersionString() : null,
+                version.getMinimumVersionMinSdk(),
+                optionalUpdate != null ? optionalUpdate.getVersion().getVersionString() : null,
+                optionalUpdate != null ? optionalUpdate.getNotificationType() : null,
+                optionalUpdate != null ? optionalUpdate.getNewMinSdk() : VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE,
+                version.getMetadata()
+        );
+    }
+
+    /**
+     * Method encodes given update configuration values.
+     *
+     * @param minimumVersion       Minimum version, or null if not available.
+     * @param minimumVersionMinSdk Minimum sdk of minimum version.
+     * @param latestVersion        Latest version, or null if not available.
+     * @param notificationType     Notification type of latest version, or null if not available.
+     * @param newMinSdk            Minimum sdk of latest version.
+     * @param metadata             Metadata, or null if not available.
+     * @return Binary update configuration.
+     */
+    public static byte[] encode(@Nullable String minimumVersion, int minimumVersionMinSdk, @Nullable String latestVersion,
+            @Nullable String notificationType, int newMinSdk, @Nullable Map<String, String> metadata) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            encode(out, minimumVersion, minimumVersionMinSdk, latestVersion, notificationType, newMinSdk, metadata);
+        } catch (IOException e) {
+            // writing into memory does not fail
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Method encodes given update configuration values into given stream. Stream is not closed by this method.
+     *
+     * @param out                  Stream binary update configuration is written to.
+     * @param minimumVersion       Minimum version, or null if not available.
+     * @param minimumVersionMinSdk Minimum sdk of minimum version.
+     * @param latestVersion        Latest version, or null if not available.
+     * @param notificationType     Notification type of latest version, or null if not available.
+     * @param newMinSdk            Minimum sdk of latest version.
+     * @param metadata             Metadata, or null if not available.
+     * @throws IOException if writing to stream failed.
+     */
+    public static void encode(OutputStream out, @Nullable String minimumVersion, int minimumVersionMinSdk, @Nullable String latestVersion,
+            @Nullable String notificationType, int newMinSdk, @Nullable Map<String, String> metadata) throws IOException {
+        out.write(BinaryVersionConfigParser.MAGIC);
+        out.write(BinaryVersionConfigParser.FORMAT_VERSION);
+        writeString(out, minimumVersion);
+        writeVarint(out, Math.max(0, minimumVersionMinSdk));
+        writeString(out, latestVersion);
+        writeString(out, notificationType);
+        writeVarint(out, Math.max(0, newMinSdk));
+        Map<String, String> entries = metadata != null ? metadata : Collections.<String, String>emptyMap();
+        writeVarint(out, entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static void writeString(OutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(BinaryVersionConfigParser.UTF_8);
+        writeVarint(out, bytes.length + 1);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,172 @@
+package co.infinum.princeofversions.helpers.parsers;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+
+/**
+ * This class represents parser for parsing update configuration in compact binary format, created by
+ * {@link BinaryVersionConfigEncoder}.
+ * <p>
+ * Binary content holds the same values as JSON content accepted by {@link JsonVersionConfigParser}, in following order:
+ * </p>
+ * <pre>
+ *  header                  magic bytes 'P', 'O', 'V' followed by format version byte
+ *  minimum_version         string
+ *  minimum_version_min_sdk varint
+ *  latest_version          string
+ *  notification_type       string
+ *  min_sdk                 varint
+ *  meta                    varint number of entries followed by key and value string of every entry
+ * </pre>
+ * <p>
+ * Varint is unsigned integer stored in groups of 7 bits, least significant group first, where the highest bit of every byte is set if
+ * more bytes follow. String is stored as varint of its UTF-8 length increased by one followed by UTF-8 bytes, zero length represents
+ * missing value. Sdk value zero represents missing value.
+ * </p>
+ * <p>
+ * Content written by newer encoder with the same format version can have additional values after metadata, they are ignored.
+ * Binary content can be parsed only from stream, see {@link #parse(InputStream)}.
+ * </p>
+ */
+public class BinaryVersionConfigParser extends JsonVersionConfigParser implements StreamVersionConfigParser {
+
+    /**
+     * Content type of binary update configuration.
+     */
+    public static final String CONTENT_TYPE = "application/x-prince-of-versions";
+
+    /**
+     * Format version supported by this parser.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Magic bytes at the start of binary content.
+     */
+    static final byte[] MAGIC = {'P', 'O', 'V'};
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Maximum length of single string, longer strings are treated as malformed content.
+     */
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * Creates a new instance of parser providing current application version as argument.
+     *
+     * @param currentVersion Current application version.
+     */
+    public BinaryVersionConfigParser(VersionContext.Version currentVersion) {
+        super(currentVersion);
+    }
+
+    /**
+     * Binary content cannot be represented as string without loss, so this method always fails.
+     *
+     * @param content Update configuration representation as string.
+     * @return Never returns.
+     * @throws ParseException always.
+     */
+    @Override
+    public VersionContext parse(String content) throws ParseException {
+        throw new ParseException("Binary update configuration can be parsed only from stream.");
+    }
+
+    @Override
+    public VersionContext parse(InputStream stream) throws IOException, ParseException {
+        InputStream in = new BufferedInputStream(stream, BUFFER_SIZE);
+        for (byte magic : MAGIC) {
+            if (readByte(in) != magic) {
+                throw new ParseException("Content is not binary update configuration.");
+            }
+        }
+        int formatVersion = readByte(in);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new ParseException("Unsupported format version " + formatVersion + ".");
+        }
+        String minimumVersion = readString(in);
+        int minimumVersionMinSdk = readSdk(in);
+        String latestVersion = readString(in);
+        String notificationType = readString(in);
+        int newMinSdk = readSdk(in);
+        int count = readVarint(in);
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            String value = readString(in);
+            if (key != null && value != null) {
+                metadata.put(key, value);
+            }
+        }
+        try {
+            return createVersionContext(
+                    toVersion(minimumVersion),
+                    toVersion(latestVersion),
+                    notificationType,
+                    minimumVersionMinSdk,
+                    newMinSdk,
+                    metadata
+            );
+        } catch (RuntimeException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    private static int readByte(InputStream in) throws IOException, ParseException {
+        int value = in.read();
+        if (value == -1) {
+            throw new ParseException("Unexpected end of content.");
+        }
+        return value;
+    }
+
+    private static int readVarint(InputStream in) throws IOException, ParseException {
+        int result = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int value = readByte(in);
+            result |= (value & 0x7F) << shift;
+            if ((value & 0x80) == 0) {
+                if (result < 0) {
+                    throw new ParseException("Varint out of range.");
+                }
+                return result;
+            }
+        }
+        throw new ParseException("Varint too long.");
+    }
+
+    private static int readSdk(InputStream in) throws IOException, ParseException {
+        int sdk = readVarint(in);
+        return sdk > 0 ? sdk : VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+    }
+
+    private static String readString(InputStream in) throws IOException, ParseException {
+        int length = readVarint(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new ParseException("String too long.");
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            int count = in.read(bytes, offset, length - offset);
+            if (count == -1) {
+                throw new ParseException("Unexpected end of content.");
+            }
+            offset += count;
+        }
+        return new String(bytes, UTF_8);
+    }
+}
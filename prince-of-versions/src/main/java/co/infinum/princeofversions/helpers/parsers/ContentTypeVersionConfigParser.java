@@ -0,0 +1,160 @@
+package co.infinum.princeofversions.helpers.parsers;
+
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+
+/**
+ * This class represents parser which selects concrete parser by content type of loaded update configuration.
+ * <p>
+ * Content of unknown or missing content type is parsed by default parser. Loaders supporting content negotiation, such as
+ * NetworkLoader, request content types of registered parsers, preferring them in order of registration, with default parser content
+ * type accepted last.
+ * </p>
+ * <pre>
+ *  ContentTypeVersionConfigParser parser = new ContentTypeVersionConfigParser("application/json", new JsonStreamVersionConfigParser(v));
+ *  parser.register(BinaryVersionConfigParser.CONTENT_TYPE, new BinaryVersionConfigParser(v));
+ * </pre>
+ */
+public class ContentTypeVersionConfigParser implements StreamVersionConfigParser {
+
+    /**
+     * Content type of JSON update configuration.
+     */
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    /**
+     * Content type of default parser.
+     */
+    private final String defaultContentType;
+
+    /**
+     * Parser used for unknown content types.
+     */
+    private final StreamVersionConfigParser defaultParser;
+
+    /**
+     * Registered parsers by content type, in order of preference.
+     */
+    private final Map<String, StreamVersionConfigParser> parsers = new LinkedHashMap<>();
+
+    /**
+     * Creates a new instance of parser with given default parser.
+     *
+     * @param defaultContentType Content type parsed by default parser.
+     * @param defaultParser      Parser used for content of unknown content type.
+     */
+    public ContentTypeVersionConfigParser(String defaultContentType, StreamVersionConfigParser defaultParser) {
+        if (defaultContentType == null || defaultParser == null) {
+            throw new IllegalArgumentException("Default content type and parser must not be null.");
+        }
+        this.defaultContentType = normalize(defaultContentType);
+        this.defaultParser = defaultParser;
+    }
+
+    /**
+     * Method registers parser for given content type.
+     *
+     * @param contentType Content type parsed by parser, parameters such as charset are ignored.
+     * @param parser      Parser for content of given type.
+     * @return This parser for chaining.
+     */
+    public ContentTypeVersionConfigParser register(String contentType, StreamVersionConfigParser parser) {
+        if (contentType == null || parser == null) {
+            throw new IllegalArgumentException("Content type and parser must not be null.");
+        }
+        parsers.put(normalize(contentType), parser);
+        return this;
+    }
+
+    /**
+     * Method provides value of <i>Accept</i> request header listing content types of all parsers in order of preference.
+     *
+     * @return Value of Accept header.
+     */
+    public String getAcceptedContentTypes() {
+        StringBuilder accept = new StringBuilder();
+        for (String contentType : parsers.keySet()) {
+            if (!contentType.equals(defaultContentType)) {
+                accept.append(contentType).append(", ");
+            }
+        }
+        if (accept.length() == 0) {
+            return defaultContentType;
+        }
+        return accept.append(defaultContentType).append(";q=0.9").toString();
+    }
+
+    /**
+     * Method provides parser for given content type.
+     *
+     * @param contentType Content type of loaded content, null if unknown.
+     * @return Parser registered for content type or default parser.
+     */
+    public StreamVersionConfigParser getParser(@Nullable String contentType) {
+        StreamVersionConfigParser parser = contentType != null ? parsers.get(normalize(contentType)) : null;
+        return parser != null ? parser : defaultParser;
+    }
+
+    @Override
+    public VersionContext parse(String content) throws ParseException {
+        return defaultParser.parse(content);
+    }
+
+    @Override
+    public VersionContext parse(InputStream stream) throws IOException, ParseException {
+        return defaultParser.parse(stream);
+    }
+
+    /**
+     * Method parses stream using parser for given content type.
+     *
+     * @param stream      Update configuration representation as stream.
+     * @param contentType Content type of loaded content, null if unknown.
+     * @return Holder of parsed and loaded version data.
+     * @throws IOException    if reading from stream failed.
+     * @throws ParseException if some error occurred while parsing.
+     */
+    public VersionContext parse(InputStream stream, @Nullable String contentType) throws IOException, ParseException {
+        return getParser(contentType).parse(stream);
+    }
+
+    /**
+     * Removes parameters from content type, eg. <i>application/json; charset=utf-8</i> becomes <i>application/json</i>.
+     */
+    private static String normalize(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String type = parameters != -1 ? contentType.substring(0, parameters) : contentType;
+        return type.trim().toLowerCase(Locale.US);
+    }
+
+    /**
+     * Parsers are equal if they have equal default parsers and equal parsers registered for the same content types.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContentTypeVersionConfigParser)) {
+            return false;
+        }
+        ContentTypeVersionConfigParser other = (ContentTypeVersionConfigParser) o;
+        return defaultContentType.equals(other.defaultContentType) && defaultParser.equals(other.defaultParser)
+                && parsers.equals(other.parsers);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = defaultContentType.hashCode();
+        result = 31 * result + defaultParser.hashCode();
+        return 31 * result + parsers.hashCode();
+    }
+}
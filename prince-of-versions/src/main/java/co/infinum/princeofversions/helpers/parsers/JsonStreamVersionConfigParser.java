@@ -0,0 +1,322 @@
+package co.infinum.princeofversions.helpers.parsers;
+
+import org.json.JSONObject;
+
+import android.support.annotation.Nullable;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
+import co.infinum.princeofversions.common.Metadata;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+
+/**
+ * This class represents parser for parsing update configuration in <a href="http://www.json.org/">JSON</a> format in a single pass.
+ * <p>
+ * Content is read token by token, only values needed for VersionContext holder are kept and all other values are skipped without
+ * creating objects for them. Only raw JSON text of metadata object is kept, and metadata is decoded from it only if it is read.
+ * Accepted content and parsed result are the same as for {@link JsonVersionConfigParser}.
+ * </p>
+ * <p>Stream content is expected to be encoded in UTF-8.</p>
+ *
+ * @see JsonVersionConfigParser
+ */
+public class JsonStreamVersionConfigParser extends JsonVersionConfigParser implements StreamVersionConfigParser {
+
+    /**
+     * Charset used for reading streams.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Creates a new instance of parser providing current application version as argument.
+     *
+     * @param currentVersion Current application version.
+     */
+    public JsonStreamVersionConfigParser(VersionContext.Version currentVersion) {
+        super(currentVersion);
+    }
+
+    @Override
+    public VersionContext parse(String content) throws ParseException {
+        try {
+            return parse(new JsonReader(new StringReader(content)));
+        } catch (ParseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ParseException(e);
+        }
+    }
+
+    @Override
+    public VersionContext parse(InputStream stream) throws IOException, ParseException {
+        SourceReader source = new SourceReader(new InputStreamReader(stream, UTF_8));
+        try {
+            return parse(new JsonReader(source));
+        } catch (IOException e) {
+            if (source.failed) {
+                throw e;
+            }
+            // stream was read successfully, content is not valid JSON
+            throw new ParseException(e);
+        } catch (RuntimeException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    private VersionContext parse(JsonReader reader) throws IOException, ParseException {
+        reader.setLenient(true);
+        Android android = new Android();
+        String metadata = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (ANDROID.equals(name)) {
+                android = readAndroid(reader);
+            } else if (META.equals(name)) {
+                // only raw text of metadata is kept, the last value for duplicated key wins
+                metadata = readMetadata(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        try {
+            return createVersionContext(
+                    toVersion(android.minimumVersion),
+                    toVersion(android.latestVersion),
+                    android.notificationType,
+                    android.minimumVersionMinSdk,
+                    android.newMinSdk,
+                    metadata != null ? new Metadata(metadata) : null
+            );
+        } catch (RuntimeException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    private Android readAndroid(JsonReader reader) throws IOException, ParseException {
+        expectObject(reader, ANDROID);
+        Android android = new Android();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (MINIMUM_VERSION.equals(name)) {
+                android.minimumVersion = readString(reader, name);
+            } else if (MIN_VERSION_MIN_SDK.equals(name)) {
+                android.minimumVersionMinSdk = readSdk(reader);
+            } else if (LATEST_VERSION.equals(name)) {
+                readLatestVersion(reader, android);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return android;
+    }
+
+    private void readLatestVersion(JsonReader reader, Android android) throws IOException, ParseException {
+        expectObject(reader, LATEST_VERSION);
+        android.latestVersion = null;
+        android.notificationType = null;
+        android.newMinSdk = VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (VERSION.equals(name)) {
+                android.latestVersion = readString(reader, name);
+            } else if (NOTIFICATION.equals(name)) {
+                android.notificationType = readString(reader, name);
+            } else if (NEW_MIN_SDK.equals(name)) {
+                android.newMinSdk = readSdk(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads metadata object as JSON text, metadata which is not an object is skipped.
+     */
+    @Nullable
+    private static String readMetadata(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        StringBuilder json = new StringBuilder();
+        copyValue(reader, json);
+        return json.toString();
+    }
+
+    /**
+     * Copies value from reader as JSON text, number literals are copied as they are so they are decoded the same way as from content.
+     */
+    private static void copyValue(JsonReader reader, StringBuilder json) throws IOException {
+        boolean first = true;
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                json.append('{');
+                while (reader.hasNext()) {
+                    json.append(first ? "" : ",").append(JSONObject.quote(reader.nextName())).append(':');
+                    copyValue(reader, json);
+                    first = false;
+                }
+                reader.endObject();
+                json.append('}');
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                json.append('[');
+                while (reader.hasNext()) {
+                    json.append(first ? "" : ",");
+                    copyValue(reader, json);
+                    first = false;
+                }
+                reader.endArray();
+                json.append(']');
+                break;
+            case STRING:
+                json.append(JSONObject.quote(reader.nextString()));
+                break;
+            case NUMBER:
+                json.append(reader.nextString());
+                break;
+            case BOOLEAN:
+                json.append(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                json.append("null");
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+
+    private static void expectObject(JsonReader reader, String name) throws IOException, ParseException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new ParseException("Value of " + name + " is not an object.");
+        }
+    }
+
+    /**
+     * Reads primitive value as string, null value is read as "null".
+     */
+    private static String readString(JsonReader reader, String name) throws IOException, ParseException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return "null";
+            default:
+                throw new ParseException("Value of " + name + " is not a string.");
+        }
+    }
+
+    /**
+     * Reads sdk value, if value is not a positive number default value is returned.
+     */
+    private static int readSdk(JsonReader reader) throws IOException {
+        int sdk = VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+        switch (reader.peek()) {
+            case NUMBER:
+                sdk = toInt(reader.nextString());
+                break;
+            case STRING:
+                try {
+                    sdk = (int) Double.parseDouble(reader.nextString());
+                } catch (NumberFormatException ignorable) { // NOPMD
+                    // ignorable exception, default value is used
+                }
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+        return sdk > 0 ? sdk : VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+    }
+
+    /**
+     * Converts number literal to int the same way as org.json does, integral literals are truncated and others are rounded down.
+     */
+    private static int toInt(String literal) {
+        if (literal.indexOf('.') == -1) {
+            try {
+                return (int) Long.parseLong(literal);
+            } catch (NumberFormatException ignorable) { // NOPMD
+                // ignorable exception, literal is parsed as double
+            }
+        }
+        try {
+            return Double.valueOf(literal).intValue();
+        } catch (NumberFormatException e) {
+            return VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+        }
+    }
+
+    /**
+     * Values read from android object.
+     */
+    private static class Android {
+
+        private String minimumVersion;
+
+        private int minimumVersionMinSdk = VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+
+        private String latestVersion;
+
+        private String notificationType;
+
+        private int newMinSdk = VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
+    }
+
+    /**
+     * Reader which remembers if reading from underlying reader failed, so stream errors can be told apart from malformed content.
+     */
+    private static class SourceReader extends FilterReader {
+
+        private boolean failed;
+
+        SourceReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int count) throws IOException {
+            try {
+                return super.read(buffer, offset, count);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+    }
+}
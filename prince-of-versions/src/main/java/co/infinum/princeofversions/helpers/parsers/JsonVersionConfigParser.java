@@ -1,14 +1,12 @@
 package co.infinum.princeofversions.helpers.parsers;
 
-import com.github.zafarkhaja.semver.Version;
-
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
+import co.infinum.princeofversions.common.Metadata;
+import co.infinum.princeofversions.common.SemanticVersion;
 import co.infinum.princeofversions.common.VersionContext;
 import co.infinum.princeofversions.exceptions.ParseException;
 
@@ -23,7 +21,7 @@ import co.infinum.princeofversions.exceptions.ParseException;
  * <li><i>latest_version</i></li>
  * </ul>.
  * Valid content can also have <i>meta</i> key. Value contained in <i>meta</i> key is JSON object containing metadata ordered in key-value
- * pairs.
+ * pairs. Metadata values can be of any JSON type, they are decoded only when read, see {@link Metadata}.
  * Minimum version value is represented as string, minimum version code as integer and optional update is JSON object with following
  * keys:
  * <ul>
@@ -137,40 +135,58 @@ public class JsonVersionConfigParser implements VersionConfigParser {
      * @throws JSONException if error while parsing JSON occurred.
      */
     public VersionContext parse(JSONObject data) throws JSONException {
-        Version currentVersion = Version.valueOf(this.currentVersion.getVersionString());
-        Version minVersion = extractMinimumVersion(data);
-        Version latestVersion = extractLatestVersion(data);
-        Map<String, String> metadata = extractMetadata(data);
-        String notificationType = extractNotificationType(data);
-        int minimumVersionMinSdk = extractMinumumVersionMinSdk(data);
-        int newMinSdk = extractNewMinSdk(data);
+        return createVersionContext(
+                extractMinimumVersion(data),
+                extractLatestVersion(data),
+                extractNotificationType(data),
+                extractMinumumVersionMinSdk(data),
+                extractNewMinSdk(data),
+                extractMetadata(data)
+        );
+    }
+
+    /**
+     * Creates VersionContext holder from values extracted from update configuration.
+     *
+     * @param minVersion           Minimum version, or null if not available.
+     * @param latestVersion        Latest version, or null if not available.
+     * @param notificationType     Notification type of latest version, or null if not available.
+     * @param minimumVersionMinSdk Minimum sdk of minimum version.
+     * @param newMinSdk            Minimum sdk of latest version.
+     * @param metadata             Metadata, {@link Metadata} is kept as is so it is decoded only if read.
+     * @return VersionContext holder containing all parsed data.
+     * @throws com.github.zafarkhaja.semver.ParseException if both minimum and latest versions are null.
+     */
+    protected VersionContext createVersionContext(VersionContext.Version minVersion, VersionContext.Version latestVersion,
+            String notificationType, int minimumVersionMinSdk, int newMinSdk, Map<String, String> metadata) {
+        // current version is parsed only once for all configurations parsed by this parser
+        VersionContext.Version currentVersion = this.currentVersion;
 
         VersionContext versionContext;
 
         if (minVersion != null && latestVersion != null) {
             versionContext = new VersionContext(
-                    this.currentVersion,
-                    new VersionContext.Version(minVersion.toString()),
-                    currentVersion.lessThan(minVersion),
-                    new VersionContext.UpdateContext(new VersionContext.Version(latestVersion.toString()), notificationType,
-                            newMinSdk),
-                    currentVersion.lessThan(latestVersion),
+                    currentVersion,
+                    minVersion,
+                    currentVersion.isLessThan(minVersion),
+                    new VersionContext.UpdateContext(latestVersion, notificationType, newMinSdk),
+                    currentVersion.isLessThan(latestVersion),
                     minimumVersionMinSdk
             );
         } else if (latestVersion != null) {
             versionContext = new VersionContext(
-                    this.currentVersion,
+                    currentVersion,
                     null,
                     false,
-                    new VersionContext.UpdateContext(new VersionContext.Version(latestVersion.toString()), notificationType),
-                    currentVersion.lessThan(latestVersion),
+                    new VersionContext.UpdateContext(latestVersion, notificationType),
+                    currentVersion.isLessThan(latestVersion),
                     minimumVersionMinSdk
             );
         } else if (minVersion != null) {
             versionContext = new VersionContext(
-                    this.currentVersion,
-                    new VersionContext.Version(minVersion.toString()),
-                    currentVersion.lessThan(minVersion)
+                    currentVersion,
+                    minVersion,
+                    currentVersion.isLessThan(minVersion)
             );
         } else {
             throw new com.github.zafarkhaja.semver.ParseException("Both min and latest versions are null!");
@@ -194,50 +210,49 @@ public class JsonVersionConfigParser implements VersionConfigParser {
         return null;
     }
 
-    private Version extractLatestVersion(JSONObject data) throws JSONException {
+    /**
+     * Creates version holder from version string, parsing it right away.
+     *
+     * @param version Version string, "null" or null if version is not available.
+     * @return Parsed version or null if version is not available.
+     * @throws com.github.zafarkhaja.semver.ParseException if version string is not valid semantic version.
+     */
+    protected static VersionContext.Version toVersion(String version) {
+        if (version != null && !version.equals("null")) {
+            return new VersionContext.Version(version, SemanticVersion.valueOf(version));
+        }
+        return null;
+    }
+
+    private VersionContext.Version extractLatestVersion(JSONObject data) throws JSONException {
         if (data.has(ANDROID)) {
             JSONObject android = data.getJSONObject(ANDROID);
             if (android.has(LATEST_VERSION)) {
                 JSONObject updateObject = android.getJSONObject(LATEST_VERSION);
                 if (updateObject.has(VERSION)) {
-                    String latest = updateObject.getString(VERSION);
-                    if (latest != null && !latest.equals("null")) {
-                        return Version.valueOf(latest);
-                    }
+                    return toVersion(updateObject.getString(VERSION));
                 }
             }
         }
         return null;
     }
 
-    private Version extractMinimumVersion(JSONObject data) throws JSONException {
+    private VersionContext.Version extractMinimumVersion(JSONObject data) throws JSONException {
         if (data.has(ANDROID)) {
             JSONObject android = data.getJSONObject(ANDROID);
             if (android.has(MINIMUM_VERSION)) {
-                String min = android.getString(MINIMUM_VERSION);
-                if (min != null && !min.equals("null")) {
-                    return Version.valueOf(min);
-                }
+                return toVersion(android.getString(MINIMUM_VERSION));
             }
         }
         return null;
     }
 
-    private Map<String, String> extractMetadata(JSONObject data) throws JSONException {
-        Map<String, String> metadata = new HashMap<>();
+    private Metadata extractMetadata(JSONObject data) throws JSONException {
         if (data.has(META) && data.get(META) instanceof JSONObject) {
-            JSONObject metadataObject = data.getJSONObject(META);
-
-            Iterator<String> metadataIterator = metadataObject.keys();
-            while (metadataIterator.hasNext()) {
-                String key = metadataIterator.next();
-                Object object = metadataObject.get(key);
-                if (object instanceof String) {
-                    metadata.put(key, (String) object);
-                }
-            }
+            // string entries are extracted only if metadata is read
+            return new Metadata(data.getJSONObject(META));
         }
-        return metadata;
+        return new Metadata();
     }
 
     private int extractMinumumVersionMinSdk(JSONObject data) throws JSONException {
@@ -280,4 +295,32 @@ public class JsonVersionConfigParser implements VersionConfigParser {
         }
         return VersionContext.UpdateContext.DEFAULT_MIN_SDK_VALUE;
     }
+
+    /**
+     * Parsers are equal if they are of the same class and parse configuration for the same application version, so they create equal
+     * holders from equal content and holder parsed by one of them can be reused by the other one.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        String version = getCurrentVersionString();
+        String otherVersion = ((JsonVersionConfigParser) o).getCurrentVersionString();
+        return version == null ? otherVersion == null : version.equals(otherVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        String version = getCurrentVersionString();
+        // stable across processes, so it can be part of persisted cache key
+        return 31 * getClass().getName().hashCode() + (version != null ? version.hashCode() : 0);
+    }
+
+    private String getCurrentVersionString() {
+        return currentVersion != null ? currentVersion.getVersionString() : null;
+    }
 }
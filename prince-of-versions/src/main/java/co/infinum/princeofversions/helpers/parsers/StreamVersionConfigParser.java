@@ -0,0 +1,24 @@
+package co.infinum.princeofversions.helpers.parsers;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+
+/**
+ * This interface represents parser which can parse update configuration directly from stream, without reading it into string first.
+ */
+public interface StreamVersionConfigParser extends VersionConfigParser {
+
+    /**
+     * Method parse update configuration provided as stream of bytes. Stream is not closed by this method.
+     *
+     * @param stream Update configuration representation as stream.
+     * @return Holder of parsed and loaded version data.
+     * @throws IOException    if reading from stream failed.
+     * @throws ParseException if some error occurred while parsing.
+     */
+    VersionContext parse(InputStream stream) throws IOException, ParseException;
+
+}
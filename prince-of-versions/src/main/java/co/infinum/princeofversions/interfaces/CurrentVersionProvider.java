@@ -0,0 +1,30 @@
+package co.infinum.princeofversions.interfaces;
+
+import co.infinum.princeofversions.common.VersionContext;
+
+/**
+ * This interface represents provider of version of installed application.
+ * <p>
+ * Installed version cannot change while application process is running, so implementations are expected to resolve it only once and
+ * return the same values on every call.
+ * </p>
+ */
+public interface CurrentVersionProvider {
+
+    /**
+     * Method provides version name of installed application.
+     *
+     * @return Current application version.
+     * @throws IllegalArgumentException if current version is not available.
+     */
+    VersionContext.Version getCurrentVersion();
+
+    /**
+     * Method provides version code of installed application, for custom parsers comparing versions by their codes. Parsers included
+     * in library compare version names only, because update configuration does not contain version codes.
+     *
+     * @return Current application version code.
+     * @throws IllegalArgumentException if current version is not available.
+     */
+    int getVersionCode();
+}
@@ -0,0 +1,88 @@
+package co.infinum.princeofversions.interfaces;
+
+import co.infinum.princeofversions.UpdateConfigLoader;
+
+/**
+ * Represents listener notified about phases of update checks, used for measuring where time of check goes.
+ * <p>
+ * Listener is registered for the whole process through
+ * {@link co.infinum.princeofversions.PrinceOfVersions#setEventListener(EventListener)}. It is called on the thread running the phase,
+ * usually worker thread, so it must be thread safe and return quickly. If no listener is registered, phases are not measured at all.
+ * </p>
+ * <p>
+ * If configuration is parsed while it is streamed, parsing includes reading of the content and load ends when the stream is closed.
+ * </p>
+ */
+public interface EventListener {
+
+    /**
+     * Decision that there is no update.
+     */
+    int DECISION_NO_UPDATE = 0;
+
+    /**
+     * Decision that optional update is available.
+     */
+    int DECISION_OPTIONAL_UPDATE = 1;
+
+    /**
+     * Decision that mandatory update is available.
+     */
+    int DECISION_MANDATORY_UPDATE = 2;
+
+    /**
+     * Method is called when loading of update configuration starts.
+     *
+     * @param loader Loader which loads configuration.
+     */
+    void onLoadStarted(UpdateConfigLoader loader);
+
+    /**
+     * Method is called when loading of update configuration ends, successfully or not.
+     *
+     * @param loader        Loader which loaded configuration.
+     * @param durationNanos Duration of loading in nanoseconds.
+     * @param bytes         Number of bytes transferred over network, negative if not known.
+     * @param error         Error loading failed with, null if configuration is loaded.
+     */
+    void onLoadFinished(UpdateConfigLoader loader, long durationNanos, long bytes, Exception error);
+
+    /**
+     * Method is called when parsing of update configuration ends, successfully or not.
+     *
+     * @param durationNanos Duration of parsing in nanoseconds.
+     * @param error         Error parsing failed with, null if configuration is parsed.
+     */
+    void onParsed(long durationNanos, Exception error);
+
+    /**
+     * Method is called when it is decided if update is available for parsed configuration.
+     *
+     * @param decision      One of DECISION constants.
+     * @param durationNanos Duration of deciding in nanoseconds.
+     */
+    void onDecided(int decision, long durationNanos);
+
+    /**
+     * Method is called after last notified version is read from repository.
+     *
+     * @param durationNanos Duration of reading in nanoseconds.
+     */
+    void onRepositoryRead(long durationNanos);
+
+    /**
+     * Method is called after last notified version is written to repository.
+     *
+     * @param durationNanos Duration of writing in nanoseconds.
+     */
+    void onRepositoryWritten(long durationNanos);
+
+    /**
+     * Method is called when notification posted by {@link co.infinum.princeofversions.threading.CallbackDispatchers} starts running.
+     * Notifications run right away on notifying thread are not reported.
+     *
+     * @param delayNanos Time between posting and running notification in nanoseconds.
+     */
+    void onDispatched(long delayNanos);
+
+}
@@ -0,0 +1,20 @@
+package co.infinum.princeofversions.interfaces;
+
+/**
+ * Represents stream of update check results, modelled after {@code java.util.concurrent.Flow.Publisher}, which is not available on
+ * supported API levels.
+ * <p>
+ * Every subscriber gets its own stream and receives results only as far as it requested them through its UpdateSubscription.
+ * </p>
+ */
+public interface UpdatePublisher {
+
+    /**
+     * Method adds given subscriber. Subscriber is notified with its subscription through
+     * {@link UpdateSubscriber#onSubscribe(UpdateSubscription)} before any result is notified.
+     *
+     * @param subscriber Subscriber receiving results.
+     */
+    void subscribe(UpdateSubscriber subscriber);
+
+}
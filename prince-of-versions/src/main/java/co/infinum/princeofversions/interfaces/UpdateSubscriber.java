@@ -0,0 +1,35 @@
+package co.infinum.princeofversions.interfaces;
+
+import co.infinum.princeofversions.CheckResult;
+
+/**
+ * Represents receiver of update check results from UpdatePublisher, modelled after {@code java.util.concurrent.Flow.Subscriber}.
+ * <p>
+ * Methods are never called concurrently for the same subscription. Failed checks are notified as results with error, stream is
+ * terminated through {@link #onError(Throwable)} only if checks cannot be run at all.
+ * </p>
+ */
+public interface UpdateSubscriber {
+
+    /**
+     * Method is called once after subscriber is added, before any other method.
+     *
+     * @param subscription Subscription for requesting results and cancelling stream.
+     */
+    void onSubscribe(UpdateSubscription subscription);
+
+    /**
+     * Method is called with next update check result, only if it was requested.
+     *
+     * @param result Update check result.
+     */
+    void onNext(CheckResult result);
+
+    /**
+     * Method is called if stream is terminated because of unrecoverable error. No other method is called afterwards.
+     *
+     * @param error Error terminating stream.
+     */
+    void onError(Throwable error);
+
+}
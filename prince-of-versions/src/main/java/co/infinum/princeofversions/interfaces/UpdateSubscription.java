@@ -0,0 +1,21 @@
+package co.infinum.princeofversions.interfaces;
+
+/**
+ * Represents link between UpdatePublisher and UpdateSubscriber, modelled after {@code java.util.concurrent.Flow.Subscription}.
+ */
+public interface UpdateSubscription {
+
+    /**
+     * Method requests given number of additional results. Requesting non-positive number terminates stream with
+     * IllegalArgumentException.
+     *
+     * @param n Number of results.
+     */
+    void request(long n);
+
+    /**
+     * Method cancels stream, check in progress is cancelled and no more results are notified.
+     */
+    void cancel();
+
+}
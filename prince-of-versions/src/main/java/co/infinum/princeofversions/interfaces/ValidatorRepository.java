@@ -0,0 +1,44 @@
+package co.infinum.princeofversions.interfaces;
+
+/**
+ * Represents repository for persisting HTTP cache validators of loaded update configuration resources.
+ * <p>
+ * Validators are stored per resource key (e.g. resource URL) and are sent back with the next request as <i>If-None-Match</i> and
+ * <i>If-Modified-Since</i> headers, so unchanged resource can be answered with <i>304 Not Modified</i>.
+ * </p>
+ */
+public interface ValidatorRepository {
+
+    /**
+     * Method returns entity tag (<i>ETag</i> header value) stored for given resource.
+     *
+     * @param key Resource key.
+     * @return Stored entity tag or null if there is none.
+     */
+    String getEntityTag(String key);
+
+    /**
+     * Method returns <i>Last-Modified</i> header value stored for given resource.
+     *
+     * @param key Resource key.
+     * @return Stored last modified value or null if there is none.
+     */
+    String getLastModified(String key);
+
+    /**
+     * Method stores validators for given resource. Null value removes corresponding validator.
+     *
+     * @param key          Resource key.
+     * @param entityTag    Entity tag (<i>ETag</i> header value).
+     * @param lastModified <i>Last-Modified</i> header value.
+     */
+    void setValidators(String key, String entityTag, String lastModified);
+
+    /**
+     * Method removes all validators stored for given resource.
+     *
+     * @param key Resource key.
+     */
+    void clearValidators(String key);
+
+}
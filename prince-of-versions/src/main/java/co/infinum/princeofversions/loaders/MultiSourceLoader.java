@@ -0,0 +1,411 @@
+package co.infinum.princeofversions.loaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.BaseLoader;
+import co.infinum.princeofversions.DeadlineLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.exceptions.LoaderValidationException;
+
+/**
+ * This class represents loader which loads the same update configuration resource from several sources, eg. primary CDN and fallback
+ * origin, and uses response which arrives first.
+ * <p>
+ * Loading starts with preferred source. If it does not answer within hedge delay, request is sent to next source too, and so on. If
+ * source fails, next source is started right away. First non-empty response is used and all other sources are cancelled. If all
+ * sources fail, error of the source which was started first is thrown.
+ * </p>
+ * <p>
+ * Sources are tried in order given by {@link SourceStats}, which records latency of every source. Share statistics between checks,
+ * eg. through {@link co.infinum.princeofversions.loaders.factories.MultiSourceLoaderFactory}, so faster source is preferred next time.
+ * Sources are loaded on executor threads, while calling thread waits for result.
+ * </p>
+ * <p>
+ * Hedging costs extra thread for every source loaded at the same time. Default executor shared by all loaders is bounded, so number
+ * of threads stays the same regardless of number of checks. If all its threads are busy, hedged request waits in queue until thread
+ * is free, and if queue is full, source is treated as failed.
+ * </p>
+ * <pre>
+ *     1 check with 2 sources = 1 calling thread waiting + 1 source thread, 2 source threads once request is hedged.
+ *     10 checks with 2 sources = 10 calling threads waiting + {@value #DEFAULT_POOL_SIZE} source threads and up to
+ *     {@value #DEFAULT_QUEUE_CAPACITY} queued requests.
+ * </pre>
+ */
+public class MultiSourceLoader extends BaseLoader implements DeadlineLoader {
+
+    /**
+     * Default delay before request is sent to next source, in milliseconds.
+     */
+    public static final long DEFAULT_HEDGE_DELAY_MILLIS = 1000;
+
+    /**
+     * Number of threads of default executor.
+     */
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    /**
+     * Maximum number of requests waiting for thread of default executor.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Time after idle thread of default executor is stopped, in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Default executor for loading sources, shared by all loaders.
+     */
+    private static final Executor EXECUTOR = createExecutor();
+
+    /**
+     * Loaders of all sources.
+     */
+    private final List<UpdateConfigLoader> sources;
+
+    /**
+     * Delay before request is sent to next source.
+     */
+    private final long hedgeDelayMillis;
+
+    /**
+     * Latency statistics of sources.
+     */
+    private final SourceStats stats;
+
+    /**
+     * Executor used for loading sources.
+     */
+    private final Executor executor;
+
+    /**
+     * Lock guarding state of current load.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Attempts started by current load.
+     */
+    private final List<Attempt> attempts = new ArrayList<>();
+
+    /**
+     * Attempt whose response is used, null if there is none yet.
+     */
+    private Attempt winner;
+
+    /**
+     * Number of attempts of current load which failed.
+     */
+    private int failedCount;
+
+    /**
+     * Deadline of next load, set only if hasDeadline flag is true.
+     */
+    private long deadlineNanos;
+
+    private boolean hasDeadline;
+
+    /**
+     * Creates a new loader using given sources in given order and default hedge delay, without keeping statistics between checks.
+     *
+     * @param sources Loaders of sources, the first one is primary.
+     */
+    public MultiSourceLoader(UpdateConfigLoader... sources) {
+        this(Arrays.asList(sources), DEFAULT_HEDGE_DELAY_MILLIS, new SourceStats(Math.max(1, sources.length)));
+    }
+
+    /**
+     * Creates a new loader using given sources, hedge delay and statistics.
+     *
+     * @param sources          Loaders of sources, in the same order statistics were created for.
+     * @param hedgeDelayMillis Delay before request is sent to next source, in milliseconds.
+     * @param stats            Latency statistics of sources.
+     */
+    public MultiSourceLoader(List<? extends UpdateConfigLoader> sources, long hedgeDelayMillis, SourceStats stats) {
+        this(sources, hedgeDelayMillis, stats, EXECUTOR);
+    }
+
+    /**
+     * Creates a new loader using given sources, hedge delay, statistics and custom executor.
+     *
+     * @param sources          Loaders of sources, in the same order statistics were created for.
+     * @param hedgeDelayMillis Delay before request is sent to next source, in milliseconds.
+     * @param stats            Latency statistics of sources.
+     * @param executor         Executor used for loading sources, it should be bounded. Sources it rejects are treated as failed.
+     */
+    public MultiSourceLoader(List<? extends UpdateConfigLoader> sources, long hedgeDelayMillis, SourceStats stats, Executor executor) {
+        if (stats == null || executor == null) {
+            throw new IllegalArgumentException("Stats and executor must not be null.");
+        }
+        this.sources = new ArrayList<UpdateConfigLoader>(sources);
+        this.hedgeDelayMillis = Math.max(0, hedgeDelayMillis);
+        this.stats = stats;
+        this.executor = executor;
+    }
+
+    private static Executor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_POOL_SIZE, DEFAULT_POOL_SIZE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "princeofversions-source");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public String load() throws IOException, InterruptedException {
+        int[] order = stats.order();
+        synchronized (lock) {
+            ifTaskIsCancelledThrowInterrupt();
+            attempts.clear();
+            winner = null;
+            failedCount = 0;
+        }
+        try {
+            return await(order);
+        } finally {
+            finish(false);
+        }
+    }
+
+    /**
+     * Starts sources in given order and waits for first response.
+     */
+    private String await(int[] order) throws IOException, InterruptedException {
+        synchronized (lock) {
+            long nextStartNanos = System.nanoTime();
+            while (true) {
+                ifTaskIsCancelledThrowInterrupt();
+                if (winner != null) {
+                    return winner.result;
+                }
+                int started = attempts.size();
+                if (failedCount == started && started == order.length) {
+                    throw attempts.get(0).error;
+                }
+                long now = System.nanoTime();
+                if (started < order.length && (failedCount == started || now - nextStartNanos >= 0)) {
+                    start(order[started]);
+                    nextStartNanos = now + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+                    continue;
+                }
+                if (started < order.length) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, nextStartNanos - now);
+                } else {
+                    lock.wait();
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts loading given source, caller must hold the lock.
+     */
+    private void start(int source) {
+        UpdateConfigLoader loader = sources.get(source);
+        if (hasDeadline && loader instanceof DeadlineLoader) {
+            ((DeadlineLoader) loader).setDeadline(deadlineNanos);
+        }
+        Attempt attempt = new Attempt(source, loader);
+        attempts.add(attempt);
+        try {
+            executor.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            attempt.finished = true;
+            attempt.error = new IOException("Loading of source " + source + " is rejected.", e);
+            failedCount++;
+        }
+    }
+
+    /**
+     * Cancels sources which are still loading and records their statistics. Sources which lost are cancelled on executor, so
+     * cancellation which blocks, eg. disconnecting connection which is being read, does not delay the result.
+     */
+    private void finish(boolean cancelNow) {
+        List<Attempt> running = new ArrayList<>();
+        Attempt won;
+        synchronized (lock) {
+            won = winner;
+            for (Attempt attempt : attempts) {
+                if (!attempt.finished) {
+                    attempt.finished = true;
+                    running.add(attempt);
+                }
+            }
+        }
+        if (running.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (won != null) {
+            for (Attempt attempt : running) {
+                // attempt cancelled while waiting for thread says nothing about latency of its source
+                if (attempt.started) {
+                    stats.onLost(attempt.source, TimeUnit.NANOSECONDS.toMillis(now - attempt.startNanos));
+                }
+            }
+        }
+        Runnable cancellation = new Cancellation(running);
+        if (cancelNow) {
+            cancellation.run();
+            return;
+        }
+        try {
+            executor.execute(cancellation);
+        } catch (RejectedExecutionException e) {
+            cancellation.run();
+        }
+    }
+
+    /**
+     * Records result of finished attempt.
+     */
+    private void onFinished(Attempt attempt, String result, IOException error) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attempt.startNanos);
+        synchronized (lock) {
+            if (attempt.finished) {
+                // load is already over, attempt was cancelled
+                return;
+            }
+            attempt.finished = true;
+            if (error == null && winner == null) {
+                attempt.result = result;
+                winner = attempt;
+                stats.onWon(attempt.source, latencyMillis);
+            } else if (error != null) {
+                attempt.error = error;
+                failedCount++;
+                stats.onFailed(attempt.source);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        finish(true);
+    }
+
+    @Override
+    public void setDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = true;
+    }
+
+    @Override
+    public void validate() throws LoaderValidationException {
+        if (sources.isEmpty() || sources.size() != stats.getSourceCount()) {
+            throw new LoaderValidationException("Number of sources does not match statistics.");
+        }
+        for (UpdateConfigLoader source : sources) {
+            if (source == null) {
+                throw new LoaderValidationException("Source is null.");
+            }
+            source.validate();
+        }
+    }
+
+    /**
+     * Method provides latency statistics of sources.
+     *
+     * @return Statistics used by this loader.
+     */
+    public SourceStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Cancellation of sources which are still loading.
+     */
+    private static class Cancellation implements Runnable {
+
+        private final List<Attempt> attempts;
+
+        Cancellation(List<Attempt> attempts) {
+            this.attempts = attempts;
+        }
+
+        @Override
+        public void run() {
+            for (Attempt attempt : attempts) {
+                attempt.loader.cancel();
+            }
+        }
+    }
+
+    /**
+     * Loading of single source.
+     */
+    private class Attempt implements Runnable {
+
+        private final int source;
+
+        private final UpdateConfigLoader loader;
+
+        /**
+         * Flag determines if attempt started loading on executor thread, time waiting in queue is not counted as latency. Start is
+         * written under the lock and only before attempt is finished, so it can be read without the lock once attempt is finished.
+         */
+        private boolean started;
+
+        private long startNanos;
+
+        /**
+         * Flag determines if attempt finished or was cancelled, guarded by the lock.
+         */
+        private boolean finished;
+
+        private String result;
+
+        private IOException error;
+
+        Attempt(int source, UpdateConfigLoader loader) {
+            this.source = source;
+            this.loader = loader;
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                if (finished) {
+                    // cancelled while waiting in queue
+                    return;
+                }
+                started = true;
+                startNanos = System.nanoTime();
+            }
+            try {
+                String content = loader.load();
+                if (content == null || content.isEmpty()) {
+                    onFinished(this, null, new IOException("Source " + source + " returned empty content."));
+                } else {
+                    onFinished(this, content, null);
+                }
+            } catch (IOException e) {
+                onFinished(this, null, e);
+            } catch (InterruptedException e) {
+                onFinished(this, null, new IOException("Loading of source " + source + " is interrupted.", e));
+            } catch (RuntimeException e) {
+                onFinished(this, null, new IOException("Loading of source " + source + " failed.", e));
+            }
+        }
+    }
+}
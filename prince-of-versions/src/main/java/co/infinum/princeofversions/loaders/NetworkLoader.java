@@ -5,18 +5,57 @@ import android.util.Base64;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
-import co.infinum.princeofversions.BaseLoader;
+import co.infinum.princeofversions.BaseStreamingLoader;
+import co.infinum.princeofversions.ConditionalLoader;
+import co.infinum.princeofversions.ContentTypeLoader;
+import co.infinum.princeofversions.DeadlineLoader;
+import co.infinum.princeofversions.exceptions.HttpStatusException;
 import co.infinum.princeofversions.exceptions.LoaderValidationException;
+import co.infinum.princeofversions.exceptions.NotModifiedException;
 import co.infinum.princeofversions.exceptions.UrlNotSetException;
-import co.infinum.princeofversions.helpers.StreamIo;
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
+import co.infinum.princeofversions.loaders.transport.ContentEncoding;
+import co.infinum.princeofversions.loaders.transport.HttpRequest;
+import co.infinum.princeofversions.loaders.transport.HttpResponse;
+import co.infinum.princeofversions.loaders.transport.HttpTransport;
+import co.infinum.princeofversions.loaders.transport.TransferStats;
+import co.infinum.princeofversions.loaders.transport.UrlConnectionTransport;
 
 /**
  * Represents a concrete loader that load resource from network using provided URL.
+ * <p>
+ * If loader is created with ValidatorRepository, <i>ETag</i> and <i>Last-Modified</i> validators of loaded resource are persisted and
+ * sent back on next conditional load, unless validators are given through {@link #setValidators(String, String)}. If server responds
+ * with <i>304 Not Modified</i> NotModifiedException is thrown instead of reading response body. Conditional loading is disabled by
+ * default, because caller must be able to provide content of not modified resource;
+ * {@link co.infinum.princeofversions.helpers.VersionContextResolver} enables it with validators of content it remembers.
+ * </p>
+ * <p>
+ * Requests are sent using HttpTransport, {@link UrlConnectionTransport} by default. Connection used by {@link #open()} is released for
+ * reuse when returned stream is closed, and aborted when loader is cancelled. If deadline is set, connect and read timeouts are
+ * limited to time remaining until deadline.
+ * </p>
+ * <p>
+ * Compressed response is requested using <i>Accept-Encoding</i> header, gzip is always accepted and Brotli if its decoder is on the
+ * classpath (see {@link ContentEncoding}). Body is decoded while parser reads it, sizes of transferred and decoded body are available
+ * through {@link #getTransferStats()}.
+ * </p>
+ * <p>
+ * If accepted content types are set, they are sent in <i>Accept</i> header and content type of response is available through
+ * {@link #getContentType()}, so matching parser can be selected. Otherwise any content type is accepted and treated as JSON by
+ * default parsers.
+ * </p>
+ * <p>
+ * Error responses are reported as {@link HttpStatusException}. If retry policy is set, failed requests are repeated as the policy
+ * decides, within deadline of the check. {@link #load()} reads the whole body, so it also repeats requests whose body failed to be
+ * read. {@link #open()} hands body over to parser while it is read, so it repeats only requests which failed before body was returned.
+ * Waiting for next attempt ends when loader is cancelled.
+ * </p>
  */
-public class NetworkLoader extends BaseLoader {
+public class NetworkLoader extends BaseStreamingLoader implements ConditionalLoader, DeadlineLoader, ContentTypeLoader {
 
     /**
      * Default request timeout in seconds.
@@ -25,6 +64,11 @@ public class NetworkLoader extends BaseLoader {
 
     public static final int MILISECONDS_IN_SECOND = 1000;
 
+    /**
+     * Transport used by loaders created without custom transport.
+     */
+    private static final HttpTransport DEFAULT_TRANSPORT = new UrlConnectionTransport();
+
     /**
      * Url representing the resource.
      */
@@ -46,9 +90,89 @@ public class NetworkLoader extends BaseLoader {
     private String password;
 
     /**
-     * Cancellation flag.
+     * Repository for persisting cache validators, null if conditional loading is not supported.
+     */
+    private ValidatorRepository validatorRepository;
+
+    /**
+     * Conditional loading flag.
+     */
+    private boolean conditionalLoadingEnabled;
+
+    /**
+     * Flag determines if validators sent with conditional load are given by caller instead of stored ones.
+     */
+    private boolean hasValidators;
+
+    /**
+     * Entity tag sent with conditional load if validators are given by caller.
+     */
+    private String requestEntityTag;
+
+    /**
+     * Last modification time sent with conditional load if validators are given by caller.
+     */
+    private String requestLastModified;
+
+    /**
+     * Entity tag of content returned by last load.
+     */
+    private volatile String entityTag;
+
+    /**
+     * Last modification time of content returned by last load.
+     */
+    private volatile String lastModified;
+
+    /**
+     * Deadline as value of {@link System#nanoTime()}, valid only if deadline flag is set.
+     */
+    private volatile long deadlineNanos;
+
+    /**
+     * Deadline flag. True if deadline is set, false otherwise.
+     */
+    private volatile boolean hasDeadline = false;
+
+    /**
+     * Transport used for sending requests.
+     */
+    private HttpTransport transport;
+
+    /**
+     * Call currently in progress, null if there is no such call.
      */
-    private volatile boolean cancelled = false;
+    private volatile HttpTransport.Call call;
+
+    /**
+     * Sizes of body of last response, null if no body was received yet.
+     */
+    private volatile TransferStats transferStats;
+
+    /**
+     * Value of Accept request header, null if any content type is accepted.
+     */
+    private String acceptedContentTypes;
+
+    /**
+     * Content type of last response, null if not known.
+     */
+    private volatile String contentType;
+
+    /**
+     * Policy for repeating failed requests.
+     */
+    private RetryPolicy retryPolicy = RetryPolicy.none();
+
+    /**
+     * Number of repeated requests of last load.
+     */
+    private volatile int retryCount;
+
+    /**
+     * Lock used for waiting before next attempt, notified on cancel.
+     */
+    private final Object retryLock = new Object();
 
     /**
      * Creates a new network loader using provided url.
@@ -89,40 +213,345 @@ public class NetworkLoader extends BaseLoader {
      * @param networkTimeoutSeconds Custom network timeout.
      */
     public NetworkLoader(String url, String username, String password, int networkTimeoutSeconds) {
+        this(url, username, password, networkTimeoutSeconds, null);
+    }
+
+    /**
+     * Creates a new network loader using url, custom network timeout, basic authentication parameters and repository for persisting
+     * cache validators.
+     *
+     * @param url                   Resource locator.
+     * @param username              Basic authentication username.
+     * @param password              Basic authentication password.
+     * @param networkTimeoutSeconds Custom network timeout.
+     * @param validatorRepository   Repository for persisting cache validators, null disables conditional loading.
+     */
+    public NetworkLoader(String url, String username, String password, int networkTimeoutSeconds,
+            ValidatorRepository validatorRepository) {
+        this(url, username, password, networkTimeoutSeconds, validatorRepository, DEFAULT_TRANSPORT);
+    }
+
+    /**
+     * Creates a new network loader using url, custom network timeout, basic authentication parameters, repository for persisting
+     * cache validators and custom transport for sending requests.
+     *
+     * @param url                   Resource locator.
+     * @param username              Basic authentication username.
+     * @param password              Basic authentication password.
+     * @param networkTimeoutSeconds Custom network timeout.
+     * @param validatorRepository   Repository for persisting cache validators, null disables conditional loading.
+     * @param transport             Transport used for sending requests, should be shared by loaders so connections are reused.
+     */
+    public NetworkLoader(String url, String username, String password, int networkTimeoutSeconds,
+            ValidatorRepository validatorRepository, HttpTransport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Transport is null.");
+        }
         this.url = url;
         this.username = username;
         this.password = password;
         this.networkTimeoutMiliseconds = networkTimeoutSeconds * MILISECONDS_IN_SECOND;
+        this.validatorRepository = validatorRepository;
+        this.transport = transport;
+    }
+
+    @Override
+    public InputStream open() throws IOException, InterruptedException {
+        RetryPolicy retryPolicy = this.retryPolicy;
+        retryCount = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                InputStream stream = execute();
+                retryPolicy.onSucceeded(attempt);
+                return stream;
+            } catch (NotModifiedException e) {
+                retryPolicy.onSucceeded(attempt);
+                throw e;
+            } catch (IOException e) {
+                awaitRetryOrThrow(retryPolicy, e, attempt);
+            }
+        }
     }
 
     @Override
     public String load() throws IOException, InterruptedException {
+        RetryPolicy retryPolicy = this.retryPolicy;
+        retryCount = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // body is read before it is returned, so request which failed while reading it can be repeated too
+                String content = read(execute());
+                retryPolicy.onSucceeded(attempt);
+                return content;
+            } catch (NotModifiedException e) {
+                retryPolicy.onSucceeded(attempt);
+                throw e;
+            } catch (IOException e) {
+                awaitRetryOrThrow(retryPolicy, e, attempt);
+            }
+        }
+    }
+
+    /**
+     * Waits before next attempt if policy repeats failed attempt, otherwise throws its failure.
+     */
+    private void awaitRetryOrThrow(RetryPolicy retryPolicy, IOException e, int attempt) throws IOException, InterruptedException {
+        long delayMillis = retryPolicy.getRetryDelayMillis(e, attempt, getRemainingMilliseconds());
+        if (delayMillis < 0) {
+            retryPolicy.onFailed();
+            throw e;
+        }
+        retryPolicy.onRetry();
+        retryCount = attempt;
+        awaitRetry(delayMillis);
+    }
 
-        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+    /**
+     * Sends single request and opens stream of its response body.
+     *
+     * @return Stream of response body.
+     * @throws IOException          if request failed or server responded with error.
+     * @throws InterruptedException if loading is cancelled.
+     */
+    private InputStream execute() throws IOException, InterruptedException {
+        ifTaskIsCancelledThrowInterrupt();
+        int timeout = getTimeoutMilliseconds();
+        HttpRequest request = new HttpRequest(url, timeout, timeout);
+        if (username != null && password != null) {
+            String credentials = username + ":" + password;
+            String basicAuth = "Basic " + Base64.encodeToString(credentials.getBytes(Charset.forName("UTF-8")), Base64.NO_WRAP);
+            request.setHeader("Authorization", basicAuth);
+        }
+        request.setHeader("Accept-Encoding", ContentEncoding.getAcceptEncoding());
+        if (acceptedContentTypes != null) {
+            request.setHeader("Accept", acceptedContentTypes);
+        }
+        if (validatorRepository != null && conditionalLoadingEnabled) {
+            addValidators(request);
+        }
+        HttpTransport.Call call = transport.newCall(request);
+        this.call = call;
+        contentType = null;
+        entityTag = null;
+        lastModified = null;
+        final HttpResponse response;
+        try {
+            ifTaskIsCancelledThrowInterrupt(); // cancel might not see call yet
+            response = call.execute();
+        } catch (IOException e) {
+            this.call = null;
+            ifTaskIsCancelledThrowInterrupt(); // call was aborted by cancel
+            throw e;
+        }
         try {
-            if (username != null && password != null) {
-                String credentials = username + ":" + password;
-                String basicAuth = "Basic " + Base64.encodeToString(credentials.getBytes(Charset.forName("UTF-8")), Base64.NO_WRAP);
-                conn.setRequestProperty("Authorization", basicAuth);
+            if (response.getCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                throw new NotModifiedException("Resource not modified: " + url);
+            }
+            if (response.getCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                throw new HttpStatusException("Unexpected response code " + response.getCode() + ": " + url, response.getCode(),
+                        RetryPolicy.parseRetryAfterMillis(response.getHeader("Retry-After"), System.currentTimeMillis()));
             }
-            conn.setConnectTimeout(networkTimeoutMiliseconds);
-            conn.setReadTimeout(networkTimeoutMiliseconds);
-            InputStream response = conn.getInputStream();
             ifTaskIsCancelledThrowInterrupt(); // if cancelled here no need to read stream at all
-            String content = StreamIo.toString(response, new StreamIo.StreamLineFilter() {
+            contentType = response.getHeader("Content-Type");
+            String contentEncoding = response.getHeader("Content-Encoding");
+            TransferStats stats = new TransferStats(contentEncoding);
+            transferStats = stats;
+            InputStream body = stats.countContent(ContentEncoding.decode(stats.countTransferred(response.getBody()), contentEncoding));
+            // length of encoded body says nothing about length of decoded content
+            int expectedLength = ContentEncoding.isEncoded(contentEncoding)
+                    ? -1 : (int) Math.min(Integer.MAX_VALUE, response.getContentLength());
+            return new LoaderInputStream(body, expectedLength) {
+
+                private boolean closed = false;
+
                 @Override
-                public Command apply(String line) {
-                    if (cancelled) {
-                        // if cancelled here no need to read anymore
-                        return Command.STOP;
-                    } else {
-                        return Command.GO;
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
                     }
+                    closed = true;
+                    try {
+                        super.close();
+                        // validators are persisted only if response body was read successfully
+                        if (validatorRepository != null && !isFailed()) {
+                            storeValidators(response);
+                        }
+                    } finally {
+                        NetworkLoader.this.close(response);
+                    }
+                }
+            };
+        } catch (IOException e) {
+            close(response);
+            ifTaskIsCancelledThrowInterrupt(); // call was aborted by cancel
+            throw e;
+        } catch (InterruptedException | RuntimeException e) {
+            close(response);
+            throw e;
+        }
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        // aborts connect or read blocked on call
+        HttpTransport.Call call = this.call;
+        if (call != null) {
+            call.cancel();
+        }
+        synchronized (retryLock) {
+            retryLock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits before next attempt.
+     *
+     * @param delayMillis Delay in milliseconds.
+     * @throws InterruptedException if loading is cancelled while waiting.
+     */
+    private void awaitRetry(long delayMillis) throws InterruptedException {
+        long endNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        synchronized (retryLock) {
+            while (!cancelled) {
+                long remainingNanos = endNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return;
                 }
-            });
-            return content;
-        } finally {
-            close(conn);
+                TimeUnit.NANOSECONDS.timedWait(retryLock, remainingNanos);
+            }
+        }
+        throw new InterruptedException();
+    }
+
+    /**
+     * Method sets policy for repeating failed requests. By default requests are not repeated.
+     *
+     * @param retryPolicy Retry policy.
+     * @throws IllegalArgumentException if policy is null.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy is null.");
+        }
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Method provides number of requests repeated by last load.
+     *
+     * @return Number of retries, 0 if first request succeeded.
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    @Override
+    public void setDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = true;
+    }
+
+    /**
+     * Provides timeout used for connecting and reading, limited to time remaining until deadline.
+     *
+     * @return Timeout in milliseconds, always positive.
+     */
+    protected int getTimeoutMilliseconds() {
+        if (!hasDeadline) {
+            return networkTimeoutMiliseconds;
+        }
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        // zero timeout means infinite timeout
+        return (int) Math.max(1, Math.min(networkTimeoutMiliseconds, remaining));
+    }
+
+    /**
+     * Provides time remaining until deadline.
+     *
+     * @return Remaining time in milliseconds, Long.MAX_VALUE if there is no deadline.
+     */
+    private long getRemainingMilliseconds() {
+        return hasDeadline ? TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Method provides sizes of body of last response, eg. for measuring savings of compression. Sizes are final once body is read.
+     *
+     * @return Sizes of last response body or null if no body was received yet.
+     */
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    @Override
+    public void setAcceptedContentTypes(String accept) {
+        this.acceptedContentTypes = accept;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getCacheKey() {
+        // resources loaded with different credentials may differ
+        return username != null ? username + "@" + url : url;
+    }
+
+    @Override
+    public void setConditionalLoadingEnabled(boolean enabled) {
+        this.conditionalLoadingEnabled = enabled;
+    }
+
+    @Override
+    public void setValidators(String entityTag, String lastModified) {
+        this.requestEntityTag = entityTag;
+        this.requestLastModified = lastModified;
+        this.hasValidators = true;
+    }
+
+    @Override
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    @Override
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Adds conditional request headers using validators given by caller or stored from last load.
+     *
+     * @param request Http request.
+     */
+    protected void addValidators(HttpRequest request) {
+        String entityTag = hasValidators ? requestEntityTag : validatorRepository.getEntityTag(getCacheKey());
+        String lastModified = hasValidators ? requestLastModified : validatorRepository.getLastModified(getCacheKey());
+        if (entityTag != null) {
+            request.setHeader("If-None-Match", entityTag);
+        }
+        if (lastModified != null) {
+            request.setHeader("If-Modified-Since", lastModified);
+        }
+    }
+
+    /**
+     * Persists validators received with loaded resource.
+     *
+     * @param response Http response.
+     */
+    protected void storeValidators(HttpResponse response) {
+        String entityTag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        if (entityTag != null || lastModified != null) {
+            validatorRepository.setValidators(getCacheKey(), entityTag, lastModified);
+        } else {
+            validatorRepository.clearValidators(getCacheKey());
         }
     }
 
@@ -134,14 +563,15 @@ public class NetworkLoader extends BaseLoader {
     }
 
     /**
-     * Closing http connection.
+     * Closing http response, its connection is released for reuse.
      *
-     * @param conn Http connection.
+     * @param response Http response.
      */
-    protected void close(HttpURLConnection conn) {
-        if (conn != null) {
+    protected void close(HttpResponse response) {
+        call = null;
+        if (response != null) {
             try {
-                conn.disconnect();
+                response.close();
             } catch (Exception ignorable) { // NOPMD
                 // ignorable exception
             }
@@ -0,0 +1,296 @@
+package co.infinum.princeofversions.loaders;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.infinum.princeofversions.exceptions.HttpStatusException;
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+import co.infinum.princeofversions.exceptions.NotModifiedException;
+
+/**
+ * This class represents policy for repeating failed requests of {@link NetworkLoader} within single update check.
+ * <p>
+ * Request is repeated if it failed with IOException, eg. connection failed or server responded with one of retryable status codes,
+ * and there are attempts left. Failure while reading response body is repeated only if body is loaded as string by
+ * {@link NetworkLoader#load()}. When streaming parser reads body from {@link NetworkLoader#open()}, part of it is already parsed, so
+ * such failure ends the check. Delay before next attempt grows exponentially from initial backoff up to
+ * maximum backoff. If server sends <i>Retry-After</i> header, it is respected: delay is extended to requested one, or request is not
+ * repeated if requested delay is longer than maximum backoff. Request is never repeated if delay would not end before deadline of update
+ * check.
+ * </p>
+ * <p>
+ * Policy counts loads and retries of all loaders using it, so one policy should be shared by loaders of the same resource, eg. through
+ * {@link co.infinum.princeofversions.loaders.factories.NetworkLoaderFactory}.
+ * </p>
+ */
+public class RetryPolicy {
+
+    /**
+     * Default maximum number of attempts, including the first one.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Default delay before second attempt, in milliseconds.
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 500;
+
+    /**
+     * Default factor by which delay grows with every attempt.
+     */
+    public static final double DEFAULT_BACKOFF_MULTIPLIER = 2;
+
+    /**
+     * Default maximum delay between attempts, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 10000;
+
+    /**
+     * Status codes of responses repeated by default: 408, 429, 500, 502, 503 and 504.
+     */
+    private static final int[] DEFAULT_RETRYABLE_STATUS_CODES = {408, 429, 500, 502, 503, 504};
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+
+    private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+
+    private long maxBackoffMillis = DEFAULT_MAX_BACKOFF_MILLIS;
+
+    private int[] retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+
+    private boolean respectRetryAfter = true;
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    private final AtomicLong recoveredCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Creates a new policy with default values.
+     */
+    public RetryPolicy() {
+    }
+
+    /**
+     * Creates a new policy which never repeats requests.
+     *
+     * @return New policy with single attempt.
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy().setMaxAttempts(1);
+    }
+
+    /**
+     * Method sets maximum number of attempts, including the first one.
+     *
+     * @param maxAttempts Maximum number of attempts, 1 disables retrying.
+     * @return This policy.
+     * @throws IllegalArgumentException if number of attempts is not positive.
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Number of attempts must be positive.");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Method sets exponential backoff between attempts.
+     *
+     * @param initialBackoffMillis Delay before second attempt, in milliseconds.
+     * @param multiplier           Factor by which delay grows with every attempt.
+     * @param maxBackoffMillis     Maximum delay between attempts, in milliseconds.
+     * @return This policy.
+     * @throws IllegalArgumentException if delays are negative, multiplier is less than 1 or maximum delay is less than initial one.
+     */
+    public RetryPolicy setBackoff(long initialBackoffMillis, double multiplier, long maxBackoffMillis) {
+        if (initialBackoffMillis < 0 || multiplier < 1 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Invalid backoff.");
+        }
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.backoffMultiplier = multiplier;
+        this.maxBackoffMillis = maxBackoffMillis;
+        return this;
+    }
+
+    /**
+     * Method sets status codes of responses which are repeated. Requests failed before response was received are always repeated.
+     *
+     * @param statusCodes HTTP status codes.
+     * @return This policy.
+     */
+    public RetryPolicy setRetryableStatusCodes(int... statusCodes) {
+        this.retryableStatusCodes = statusCodes.clone();
+        return this;
+    }
+
+    /**
+     * Method sets if delay requested through Retry-After response header is respected. If it is not, header is ignored.
+     *
+     * @param respectRetryAfter true if header is respected, false otherwise.
+     * @return This policy.
+     */
+    public RetryPolicy setRespectRetryAfter(boolean respectRetryAfter) {
+        this.respectRetryAfter = respectRetryAfter;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Method decides if request failed with given error is repeated and provides delay before next attempt.
+     *
+     * @param error           Error request failed with.
+     * @param attempt         Number of failed attempt, 1 for the first one.
+     * @param remainingMillis Time remaining until deadline of update check in milliseconds, Long.MAX_VALUE if there is no deadline.
+     * @return Delay before next attempt in milliseconds, negative if request is not repeated.
+     */
+    public long getRetryDelayMillis(IOException error, int attempt, long remainingMillis) {
+        if (attempt >= maxAttempts || error instanceof NotModifiedException || error instanceof LoadCancelledException) {
+            return -1;
+        }
+        long delay = (long) Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(backoffMultiplier, attempt - 1));
+        if (error instanceof HttpStatusException) {
+            HttpStatusException statusError = (HttpStatusException) error;
+            if (!isRetryable(statusError.getStatusCode())) {
+                return -1;
+            }
+            long retryAfter = statusError.getRetryAfterMillis();
+            if (respectRetryAfter && retryAfter >= 0) {
+                if (retryAfter > maxBackoffMillis) {
+                    return -1;
+                }
+                delay = Math.max(delay, retryAfter);
+            }
+        }
+        return delay < remainingMillis ? delay : -1;
+    }
+
+    private boolean isRetryable(int statusCode) {
+        for (int code : retryableStatusCodes) {
+            if (code == statusCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records load which succeeded after given number of attempts.
+     */
+    void onSucceeded(int attempts) {
+        loadCount.incrementAndGet();
+        if (attempts > 1) {
+            recoveredCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records load which failed after all its attempts.
+     */
+    void onFailed() {
+        loadCount.incrementAndGet();
+        failedCount.incrementAndGet();
+    }
+
+    /**
+     * Records repeated request.
+     */
+    void onRetry() {
+        retryCount.incrementAndGet();
+    }
+
+    /**
+     * Method provides number of loads, successful or failed, made by loaders using this policy. Loads cancelled while requests were
+     * repeated are not counted.
+     *
+     * @return Number of loads.
+     */
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * Method provides number of repeated requests.
+     *
+     * @return Number of retries.
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Method provides number of loads which succeeded only after request was repeated.
+     *
+     * @return Number of loads recovered by retrying.
+     */
+    public long getRecoveredCount() {
+        return recoveredCount.get();
+    }
+
+    /**
+     * Method provides number of loads which failed, after all attempts or because error could not be retried.
+     *
+     * @return Number of failed loads.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Method resets all counters, eg. after they were exported.
+     */
+    public void resetStats() {
+        loadCount.set(0);
+        retryCount.set(0);
+        recoveredCount.set(0);
+        failedCount.set(0);
+    }
+
+    /**
+     * Method parses value of Retry-After header, which is either number of seconds or HTTP date.
+     *
+     * @param value       Header value, can be null.
+     * @param currentTime Current time in milliseconds since epoch.
+     * @return Delay in milliseconds, negative if value is null or invalid.
+     */
+    public static long parseRetryAfterMillis(String value, long currentTime) {
+        if (value == null) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+        } catch (NumberFormatException ignorable) { // NOPMD
+            // ignorable exception, value is date
+        }
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return Math.max(0, format.parse(value).getTime() - currentTime);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{maxAttempts=" + maxAttempts + ", initialBackoffMillis=" + initialBackoffMillis + ", backoffMultiplier="
+                + backoffMultiplier + ", maxBackoffMillis=" + maxBackoffMillis + ", retryableStatusCodes="
+                + Arrays.toString(retryableStatusCodes) + ", respectRetryAfter=" + respectRetryAfter + "}";
+    }
+}
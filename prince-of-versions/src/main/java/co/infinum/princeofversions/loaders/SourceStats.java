@@ -0,0 +1,161 @@
+package co.infinum.princeofversions.loaders;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class represents latency statistics of sources used by {@link MultiSourceLoader}, used for deciding which source is tried first.
+ * <p>
+ * Latency of every source is smoothed over its loads. Sources which failed last time they were used are tried after the others, the
+ * rest are ordered by latency. Sources without measured latency are tried after measured ones, in order they were given. Loader
+ * which is cancelled because other source answered first is known to be at least as slow as the time it ran, so its latency is raised to
+ * that time if it was lower.
+ * </p>
+ * <p>
+ * Statistics are kept between update checks only if the same instance is shared by loaders, eg. through
+ * {@link co.infinum.princeofversions.loaders.factories.MultiSourceLoaderFactory}. All methods are thread safe.
+ * </p>
+ */
+public class SourceStats {
+
+    /**
+     * Weight of new latency sample in smoothed latency.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * Value representing latency which is not measured yet.
+     */
+    private static final long UNKNOWN = -1;
+
+    private final long[] latencies;
+
+    private final int[] consecutiveFailures;
+
+    private final long[] wins;
+
+    /**
+     * Creates a new statistics for given number of sources.
+     *
+     * @param sourceCount Number of sources.
+     * @throws IllegalArgumentException if there are no sources.
+     */
+    public SourceStats(int sourceCount) {
+        if (sourceCount < 1) {
+            throw new IllegalArgumentException("There must be at least one source.");
+        }
+        latencies = new long[sourceCount];
+        Arrays.fill(latencies, UNKNOWN);
+        consecutiveFailures = new int[sourceCount];
+        wins = new long[sourceCount];
+    }
+
+    /**
+     * Method provides number of sources.
+     *
+     * @return Number of sources.
+     */
+    public int getSourceCount() {
+        return latencies.length;
+    }
+
+    /**
+     * Method provides smoothed latency of given source.
+     *
+     * @param source Index of source.
+     * @return Latency in milliseconds, negative if it is not measured yet.
+     */
+    public synchronized long getLatencyMillis(int source) {
+        return latencies[source];
+    }
+
+    /**
+     * Method provides number of failures of given source since it last succeeded.
+     *
+     * @param source Index of source.
+     * @return Number of consecutive failures.
+     */
+    public synchronized int getConsecutiveFailures(int source) {
+        return consecutiveFailures[source];
+    }
+
+    /**
+     * Method provides number of loads in which response of given source was used.
+     *
+     * @param source Index of source.
+     * @return Number of won loads.
+     */
+    public synchronized long getWinCount(int source) {
+        return wins[source];
+    }
+
+    /**
+     * Records source whose response was used.
+     */
+    synchronized void onWon(int source, long latencyMillis) {
+        latencies[source] = latencies[source] == UNKNOWN ? latencyMillis : smooth(latencies[source], latencyMillis);
+        consecutiveFailures[source] = 0;
+        wins[source]++;
+    }
+
+    /**
+     * Records source which was cancelled after running for given time, without answering.
+     */
+    synchronized void onLost(int source, long elapsedMillis) {
+        if (latencies[source] == UNKNOWN) {
+            latencies[source] = elapsedMillis;
+        } else if (latencies[source] < elapsedMillis) {
+            latencies[source] = smooth(latencies[source], elapsedMillis);
+        }
+    }
+
+    /**
+     * Records source which failed.
+     */
+    synchronized void onFailed(int source) {
+        consecutiveFailures[source]++;
+    }
+
+    /**
+     * Provides indexes of sources in order they should be tried.
+     */
+    synchronized int[] order() {
+        Integer[] order = new Integer[latencies.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        final boolean[] failed = new boolean[latencies.length];
+        final long[] ranks = latencies.clone();
+        for (int i = 0; i < failed.length; i++) {
+            failed[i] = consecutiveFailures[i] > 0;
+            if (ranks[i] == UNKNOWN) {
+                ranks[i] = Long.MAX_VALUE;
+            }
+        }
+        // sort is stable, sources with equal rank keep given order
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if (failed[first] != failed[second]) {
+                    return failed[first] ? 1 : -1;
+                }
+                return ranks[first] < ranks[second] ? -1 : (ranks[first] == ranks[second] ? 0 : 1);
+            }
+        });
+        int[] result = new int[order.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static long smooth(long current, long sample) {
+        return Math.round(current + SMOOTHING * (sample - current));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SourceStats{latencies=" + Arrays.toString(latencies) + ", consecutiveFailures=" + Arrays.toString(consecutiveFailures)
+                + ", wins=" + Arrays.toString(wins) + "}";
+    }
+}
@@ -0,0 +1,78 @@
+package co.infinum.princeofversions.loaders.factories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.loaders.MultiSourceLoader;
+import co.infinum.princeofversions.loaders.SourceStats;
+
+/**
+ * Class creates loaders loading from several sources, sharing latency statistics between them so faster source is preferred.
+ */
+public class MultiSourceLoaderFactory implements LoaderFactory {
+
+    /**
+     * Factories of source loaders.
+     */
+    private final LoaderFactory[] sources;
+
+    /**
+     * Delay before request is sent to next source.
+     */
+    private final long hedgeDelayMillis;
+
+    /**
+     * Latency statistics shared by created loaders.
+     */
+    private final SourceStats stats;
+
+    /**
+     * Creates a new factory based on provided network resource locators, the first one is primary.
+     *
+     * @param hedgeDelayMillis Delay before request is sent to next source, in milliseconds.
+     * @param urls             Resource locators.
+     */
+    public MultiSourceLoaderFactory(long hedgeDelayMillis, String... urls) {
+        this(hedgeDelayMillis, networkFactories(urls));
+    }
+
+    /**
+     * Creates a new factory based on provided factories of source loaders, the first one is primary.
+     *
+     * @param hedgeDelayMillis Delay before request is sent to next source, in milliseconds.
+     * @param sources          Factories of source loaders.
+     */
+    public MultiSourceLoaderFactory(long hedgeDelayMillis, LoaderFactory... sources) {
+        this.sources = sources.clone();
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.stats = new SourceStats(sources.length);
+    }
+
+    private static LoaderFactory[] networkFactories(String... urls) {
+        LoaderFactory[] factories = new LoaderFactory[urls.length];
+        for (int i = 0; i < urls.length; i++) {
+            factories[i] = new NetworkLoaderFactory(urls[i]);
+        }
+        return factories;
+    }
+
+    @Override
+    public UpdateConfigLoader newInstance() {
+        List<UpdateConfigLoader> loaders = new ArrayList<>(sources.length);
+        for (LoaderFactory source : sources) {
+            loaders.add(source.newInstance());
+        }
+        return new MultiSourceLoader(loaders, hedgeDelayMillis, stats);
+    }
+
+    /**
+     * Method provides latency statistics shared by created loaders.
+     *
+     * @return Statistics of sources, in order sources were given.
+     */
+    public SourceStats getStats() {
+        return stats;
+    }
+}
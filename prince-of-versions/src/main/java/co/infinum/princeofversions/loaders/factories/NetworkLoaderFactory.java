@@ -2,7 +2,11 @@ package co.infinum.princeofversions.loaders.factories;
 
 import co.infinum.princeofversions.LoaderFactory;
 import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
 import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.RetryPolicy;
+import co.infinum.princeofversions.loaders.transport.HttpTransport;
+import co.infinum.princeofversions.loaders.transport.UrlConnectionTransport;
 
 /**
  * Class creates specific network loader.
@@ -14,17 +18,80 @@ public class NetworkLoaderFactory implements LoaderFactory {
      */
     private String url;
 
+    /**
+     * Repository for persisting cache validators.
+     */
+    private ValidatorRepository validatorRepository;
+
+    /**
+     * Transport shared by created loaders, null if default transport is used.
+     */
+    private HttpTransport transport;
+
+    /**
+     * Retry policy shared by created loaders, null if requests are not repeated.
+     */
+    private RetryPolicy retryPolicy;
+
     /**
      * Creates a new factory based on provided resource locator.
      * @param url Resource locator.
      */
     public NetworkLoaderFactory(String url) {
+        this(url, null);
+    }
+
+    /**
+     * Creates a new factory based on provided resource locator and repository for persisting cache validators.
+     * Loaders created by this factory load resource conditionally.
+     *
+     * @param url                 Resource locator.
+     * @param validatorRepository Repository for persisting cache validators.
+     */
+    public NetworkLoaderFactory(String url, ValidatorRepository validatorRepository) {
+        this(url, validatorRepository, null);
+    }
+
+    /**
+     * Creates a new factory based on provided resource locator, repository for persisting cache validators and transport shared by
+     * all created loaders, eg. {@link co.infinum.princeofversions.loaders.transport.OkHttpTransport}.
+     *
+     * @param url                 Resource locator.
+     * @param validatorRepository Repository for persisting cache validators, null disables conditional loading.
+     * @param transport           Transport used for sending requests, null for {@link UrlConnectionTransport}.
+     */
+    public NetworkLoaderFactory(String url, ValidatorRepository validatorRepository, HttpTransport transport) {
+        this(url, validatorRepository, transport, null);
+    }
+
+    /**
+     * Creates a new factory based on provided resource locator, repository for persisting cache validators, transport and retry policy
+     * shared by all created loaders. Sharing policy aggregates its retry counters over all checks.
+     *
+     * @param url                 Resource locator.
+     * @param validatorRepository Repository for persisting cache validators, null disables conditional loading.
+     * @param transport           Transport used for sending requests, null for {@link UrlConnectionTransport}.
+     * @param retryPolicy         Policy for repeating failed requests, null disables retrying.
+     */
+    public NetworkLoaderFactory(String url, ValidatorRepository validatorRepository, HttpTransport transport, RetryPolicy retryPolicy) {
         this.url = url;
+        this.validatorRepository = validatorRepository;
+        this.transport = transport;
+        this.retryPolicy = retryPolicy;
     }
 
     @Override
     public UpdateConfigLoader newInstance() {
-        return new NetworkLoader(url);
+        NetworkLoader loader;
+        if (transport == null) {
+            loader = new NetworkLoader(url, null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS, validatorRepository);
+        } else {
+            loader = new NetworkLoader(url, null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS, validatorRepository, transport);
+        }
+        if (retryPolicy != null) {
+            loader.setRetryPolicy(retryPolicy);
+        }
+        return loader;
     }
 
 }
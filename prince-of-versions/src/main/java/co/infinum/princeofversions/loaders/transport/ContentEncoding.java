@@ -0,0 +1,134 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility class for negotiating and decoding compressed response bodies.
+ * <p>
+ * Gzip is always supported. Brotli is supported if <a href="https://github.com/google/brotli">Brotli decoder</a>
+ * ({@code org.brotli:dec}) is on the classpath, it is looked up by reflection so it stays an optional dependency.
+ * Bodies are decoded while they are read, so compressed content is never buffered as a whole.
+ * </p>
+ */
+public final class ContentEncoding {
+
+    public static final String GZIP = "gzip";
+
+    public static final String BROTLI = "br";
+
+    public static final String IDENTITY = "identity";
+
+    /**
+     * Legacy alias of gzip encoding.
+     */
+    private static final String X_GZIP = "x-gzip";
+
+    private static final String BROTLI_DECODER = "org.brotli.dec.BrotliInputStream";
+
+    /**
+     * Constructor of Brotli decoder stream, null if decoder is not available.
+     */
+    private static final Constructor<? extends InputStream> BROTLI_CONSTRUCTOR = findBrotliConstructor();
+
+    private ContentEncoding() {
+
+    }
+
+    /**
+     * Method provides information if Brotli decoder is available.
+     *
+     * @return true if Brotli decoder is on the classpath, false otherwise.
+     */
+    public static boolean isBrotliSupported() {
+        return BROTLI_CONSTRUCTOR != null;
+    }
+
+    /**
+     * Method provides value of <i>Accept-Encoding</i> request header listing all supported encodings.
+     *
+     * @return Value of Accept-Encoding header.
+     */
+    public static String getAcceptEncoding() {
+        return isBrotliSupported() ? BROTLI + ", " + GZIP : GZIP;
+    }
+
+    /**
+     * Method checks if body with given <i>Content-Encoding</i> is encoded.
+     *
+     * @param contentEncoding Value of Content-Encoding response header, can be null.
+     * @return true if body has to be decoded, false otherwise.
+     */
+    public static boolean isEncoded(@Nullable String contentEncoding) {
+        if (contentEncoding == null) {
+            return false;
+        }
+        for (String coding : contentEncoding.split(",")) {
+            String value = coding.trim();
+            if (!value.isEmpty() && !IDENTITY.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method wraps given body into stream decoding it on the fly. Multiple encodings are decoded in reverse order of application.
+     *
+     * @param body            Encoded body.
+     * @param contentEncoding Value of Content-Encoding response header, null if body is not encoded.
+     * @return Stream of decoded body.
+     * @throws IOException if encoding is not supported or body header is not valid.
+     */
+    public static InputStream decode(InputStream body, @Nullable String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return body;
+        }
+        String[] codings = contentEncoding.split(",");
+        InputStream decoded = body;
+        for (int i = codings.length - 1; i >= 0; i--) {
+            decoded = decodeSingle(decoded, codings[i].trim().toLowerCase(Locale.US));
+        }
+        return decoded;
+    }
+
+    private static InputStream decodeSingle(InputStream body, String coding) throws IOException {
+        if (coding.isEmpty() || IDENTITY.equals(coding)) {
+            return body;
+        } else if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+            return new GZIPInputStream(body);
+        } else if (BROTLI.equals(coding) && BROTLI_CONSTRUCTOR != null) {
+            return newBrotliStream(body);
+        }
+        throw new IOException("Unsupported content encoding: " + coding);
+    }
+
+    private static InputStream newBrotliStream(InputStream body) throws IOException {
+        try {
+            return BROTLI_CONSTRUCTOR.newInstance(body);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Brotli decoder failed.", e.getCause());
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IOException("Brotli decoder not available.", e);
+        }
+    }
+
+    @Nullable
+    private static Constructor<? extends InputStream> findBrotliConstructor() {
+        try {
+            return Class.forName(BROTLI_DECODER).asSubclass(InputStream.class).getConstructor(InputStream.class);
+        } catch (ClassNotFoundException | NoSuchMethodException | ClassCastException | LinkageError ignorable) { // NOPMD
+            // ignorable exception, Brotli is not supported
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents GET request sent by HttpTransport.
+ */
+public class HttpRequest {
+
+    /**
+     * Url of requested resource.
+     */
+    private final String url;
+
+    /**
+     * Request headers by name.
+     */
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Connect timeout in milliseconds.
+     */
+    private final int connectTimeoutMillis;
+
+    /**
+     * Read timeout in milliseconds.
+     */
+    private final int readTimeoutMillis;
+
+    /**
+     * Creates a new request for given resource.
+     *
+     * @param url                  Url of requested resource.
+     * @param connectTimeoutMillis Connect timeout in milliseconds, must be positive.
+     * @param readTimeoutMillis    Read timeout in milliseconds, must be positive.
+     */
+    public HttpRequest(String url, int connectTimeoutMillis, int readTimeoutMillis) {
+        this.url = url;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Method sets request header, replacing header with the same name.
+     *
+     * @param name  Header name.
+     * @param value Header value.
+     * @return This request.
+     */
+    public HttpRequest setHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Method provides request headers.
+     *
+     * @return Unmodifiable map of headers by name.
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+}
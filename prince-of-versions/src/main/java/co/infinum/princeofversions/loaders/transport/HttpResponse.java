@@ -0,0 +1,55 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import android.support.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Represents response received by HttpTransport.
+ * <p>
+ * Response has to be closed after its body is read, or if body is not needed at all. Closing response releases its connection for
+ * reuse, it does not disconnect it.
+ * </p>
+ */
+public interface HttpResponse extends Closeable {
+
+    /**
+     * Method provides HTTP status code of response.
+     *
+     * @return Status code, eg. 200.
+     */
+    int getCode();
+
+    /**
+     * Method provides value of response header.
+     *
+     * @param name Header name, case insensitive.
+     * @return Header value or null if response does not contain header.
+     */
+    @Nullable
+    String getHeader(String name);
+
+    /**
+     * Method provides length of response body.
+     *
+     * @return Length of body in bytes, negative if not known.
+     */
+    long getContentLength();
+
+    /**
+     * Method provides response body. Body can be read only once.
+     *
+     * @return Stream of response body.
+     * @throws IOException if body is not available.
+     */
+    InputStream getBody() throws IOException;
+
+    /**
+     * Method closes response and releases its connection.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,44 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import java.io.IOException;
+
+/**
+ * Represents HTTP client used by {@link co.infinum.princeofversions.loaders.NetworkLoader} for loading update configuration.
+ * <p>
+ * Implementation is expected to be shared by many loaders and to reuse connections between calls, so repeated checks do not set up new
+ * TCP and TLS connection every time. Connection of a call can be reused once its response is closed.
+ * </p>
+ *
+ * @see UrlConnectionTransport
+ * @see OkHttpTransport
+ */
+public interface HttpTransport {
+
+    /**
+     * Method prepares a call for given request. Request is not sent until the call is executed.
+     *
+     * @param request Request to send.
+     * @return New call.
+     */
+    Call newCall(HttpRequest request);
+
+    /**
+     * Represents single request-response exchange.
+     */
+    interface Call {
+
+        /**
+         * Method sends request and waits for response headers. Response body is read from returned response.
+         *
+         * @return Response which has to be closed after its body is read.
+         * @throws IOException if request could not be sent or response could not be received, eg. because call was cancelled.
+         */
+        HttpResponse execute() throws IOException;
+
+        /**
+         * Method aborts this call, eg. blocked connecting or reading fails as soon as possible. Connection of cancelled call is not
+         * reused. Can be called from any thread.
+         */
+        void cancel();
+    }
+}
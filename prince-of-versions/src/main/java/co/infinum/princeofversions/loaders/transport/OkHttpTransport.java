@@ -0,0 +1,151 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Implements HttpTransport using <a href="http://square.github.io/okhttp/">OkHttp</a> client.
+ * <p>
+ * Calls use connection pool of given client, so connections are reused between checks, HTTP/2 connections are multiplexed and TLS
+ * sessions are resumed. Sharing client already used by application shares its pool as well.
+ * </p>
+ * <p>
+ * OkHttp is an optional dependency of this library, application using this class has to depend on OkHttp 3 itself.
+ * </p>
+ */
+public class OkHttpTransport implements HttpTransport {
+
+    private final OkHttpClient client;
+
+    /**
+     * Creates a new transport using new OkHttp client with default configuration.
+     */
+    public OkHttpTransport() {
+        this(new OkHttpClient());
+    }
+
+    /**
+     * Creates a new transport using given OkHttp client.
+     *
+     * @param client OkHttp client, its connection pool is shared with this transport.
+     */
+    public OkHttpTransport(OkHttpClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client is null.");
+        }
+        this.client = client;
+    }
+
+    @Override
+    public Call newCall(HttpRequest request) {
+        return new OkHttpCall(request);
+    }
+
+    /**
+     * Provides client configured with timeouts of given request. Derived client shares connection pool with original one.
+     */
+    private OkHttpClient clientFor(HttpRequest request) {
+        if (client.connectTimeoutMillis() == request.getConnectTimeoutMillis()
+                && client.readTimeoutMillis() == request.getReadTimeoutMillis()) {
+            return client;
+        }
+        return client.newBuilder()
+                .connectTimeout(request.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(request.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Call creating OkHttp call when executed.
+     */
+    private class OkHttpCall implements Call {
+
+        private final HttpRequest request;
+
+        /**
+         * OkHttp call, null if call is not executed yet.
+         */
+        private volatile okhttp3.Call call;
+
+        /**
+         * Cancellation flag. True if cancelled, false otherwise.
+         */
+        private volatile boolean cancelled = false;
+
+        OkHttpCall(HttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpResponse execute() throws IOException {
+            Request.Builder builder = new Request.Builder();
+            try {
+                builder.url(request.getUrl());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid url: " + request.getUrl(), e);
+            }
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+            okhttp3.Call call = clientFor(request).newCall(builder.build());
+            this.call = call;
+            if (cancelled) {
+                // cancel might not see call yet
+                call.cancel();
+            }
+            return new OkHttpResponse(call.execute());
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            okhttp3.Call call = this.call;
+            if (call != null) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * Response wrapping OkHttp response.
+     */
+    private static class OkHttpResponse implements HttpResponse {
+
+        private final Response response;
+
+        OkHttpResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getCode() {
+            return response.code();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.header(name);
+        }
+
+        @Override
+        public long getContentLength() {
+            return response.body().contentLength();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.body().byteStream();
+        }
+
+        @Override
+        public void close() {
+            response.body().close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Holder of size of single response body, as transferred over network and after decoding.
+ * <p>
+ * Sizes are counted while body is read, so they are final once body is read to the end. Comparing transferred and content size shows
+ * savings of compression.
+ * </p>
+ */
+public class TransferStats {
+
+    /**
+     * Value of Content-Encoding response header, null if body is not encoded.
+     */
+    private final String contentEncoding;
+
+    /**
+     * Number of body bytes read from network.
+     */
+    private volatile long transferredBytes = 0;
+
+    /**
+     * Number of body bytes after decoding.
+     */
+    private volatile long contentBytes = 0;
+
+    /**
+     * Creates a new holder for body with given encoding.
+     *
+     * @param contentEncoding Value of Content-Encoding response header, null if body is not encoded.
+     */
+    public TransferStats(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Method provides number of body bytes read from network, eg. compressed size.
+     *
+     * @return Number of transferred bytes.
+     */
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    /**
+     * Method provides number of body bytes after decoding, eg. uncompressed size.
+     *
+     * @return Number of content bytes.
+     */
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Method wraps given stream of body read from network, counting transferred bytes.
+     *
+     * @param transferred Stream of body read from network.
+     * @return Counting stream.
+     */
+    public InputStream countTransferred(InputStream transferred) {
+        return new CountingInputStream(transferred) {
+            @Override
+            void count(long bytes) {
+                transferredBytes += bytes;
+            }
+        };
+    }
+
+    /**
+     * Method wraps given stream of decoded body, counting content bytes.
+     *
+     * @param content Stream of decoded body.
+     * @return Counting stream.
+     */
+    public InputStream countContent(InputStream content) {
+        return new CountingInputStream(content) {
+            @Override
+            void count(long bytes) {
+                contentBytes += bytes;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TransferStats{"
+                + "contentEncoding='" + contentEncoding + '\''
+                + ", transferredBytes=" + transferredBytes
+                + ", contentBytes=" + contentBytes
+                + '}';
+    }
+
+    /**
+     * Stream counting bytes read from underlying stream. Body is read by single thread, so counting is not synchronized.
+     */
+    private abstract static class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        abstract void count(long bytes);
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            if (skipped > 0) {
+                count(skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
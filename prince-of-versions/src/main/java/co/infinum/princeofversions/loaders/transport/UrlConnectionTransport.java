@@ -0,0 +1,153 @@
+package co.infinum.princeofversions.loaders.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Implements HttpTransport using {@link HttpURLConnection}.
+ * <p>
+ * Connections are not disconnected after response is read, response stream is closed instead, so platform can keep connection alive
+ * and reuse it for next request to the same host. Connection is disconnected only if call is cancelled or fails.
+ * </p>
+ */
+public class UrlConnectionTransport implements HttpTransport {
+
+    @Override
+    public Call newCall(HttpRequest request) {
+        return new UrlConnectionCall(request);
+    }
+
+    /**
+     * Call opening new HttpURLConnection when executed.
+     */
+    private static class UrlConnectionCall implements Call {
+
+        private final HttpRequest request;
+
+        /**
+         * Connection of this call, null if call is not executed yet.
+         */
+        private volatile HttpURLConnection connection;
+
+        /**
+         * Cancellation flag. True if cancelled, false otherwise.
+         */
+        private volatile boolean cancelled = false;
+
+        UrlConnectionCall(HttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpResponse execute() throws IOException {
+            ifCancelledThrow();
+            HttpURLConnection conn = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+            connection = conn;
+            try {
+                ifCancelledThrow(); // cancel might not see connection yet
+                conn.setConnectTimeout(request.getConnectTimeoutMillis());
+                conn.setReadTimeout(request.getReadTimeoutMillis());
+                for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                    conn.setRequestProperty(header.getKey(), header.getValue());
+                }
+                return new UrlConnectionResponse(conn, conn.getResponseCode());
+            } catch (IOException | RuntimeException e) {
+                // connection which failed cannot be reused
+                disconnect(conn);
+                throw e;
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            disconnect(connection);
+        }
+
+        private void ifCancelledThrow() throws IOException {
+            if (cancelled) {
+                throw new IOException("Canceled");
+            }
+        }
+    }
+
+    /**
+     * Response reading from HttpURLConnection.
+     */
+    private static class UrlConnectionResponse implements HttpResponse {
+
+        private final HttpURLConnection connection;
+
+        private final int code;
+
+        /**
+         * Body stream, null if body is not opened yet.
+         */
+        private InputStream body;
+
+        UrlConnectionResponse(HttpURLConnection connection, int code) {
+            this.connection = connection;
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        @Override
+        public long getContentLength() {
+            return connection.getContentLength();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = openBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                // closing unread body returns connection to the pool as well
+                getBody().close();
+            } catch (Exception ignorable) { // NOPMD
+                // ignorable exception
+            }
+        }
+
+        private InputStream openBody() throws IOException {
+            if (code < HttpURLConnection.HTTP_BAD_REQUEST) {
+                return connection.getInputStream();
+            }
+            InputStream error = connection.getErrorStream();
+            return error != null ? error : new ByteArrayInputStream(new byte[0]);
+        }
+    }
+
+    /**
+     * Disconnects given connection.
+     *
+     * @param connection Connection, can be null.
+     */
+    private static void disconnect(HttpURLConnection connection) {
+        if (connection != null) {
+            try {
+                connection.disconnect();
+            } catch (Exception ignorable) { // NOPMD
+                // ignorable exception
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package co.infinum.princeofversions.mvp.interactor;
 
+import co.infinum.princeofversions.common.VersionContext;
 import co.infinum.princeofversions.mvp.interactor.listeners.PovInteractorListener;
 
 /**
@@ -9,5 +10,13 @@ public interface PovInteractor {
 
     void checkForUpdates(PovInteractorListener listener);
 
+    /**
+     * Decides which kind of update is available for already loaded version data and notifies given listener synchronously.
+     *
+     * @param version  Loaded version data.
+     * @param listener Listener notified with decision.
+     */
+    void evaluate(VersionContext version, PovInteractorListener listener);
+
     void cancel();
 }
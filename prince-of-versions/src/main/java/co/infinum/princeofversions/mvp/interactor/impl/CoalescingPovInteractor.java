@@ -0,0 +1,247 @@
+package co.infinum.princeofversions.mvp.interactor.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import co.infinum.princeofversions.CacheableLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.interfaces.SdkVersionProvider;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.mvp.interactor.PovInteractor;
+import co.infinum.princeofversions.mvp.interactor.listeners.PovInteractorListener;
+
+/**
+ * Interactor which shares loading and parsing of update configuration between concurrent checks for the same resource.
+ * <p>
+ * If loader implements CacheableLoader and some check for the same key using the same verifier factory is already in progress in the
+ * same {@link Flights}, this check subscribes to its result instead of loading configuration again. Verifier is created only by check
+ * which starts loading. Loaded configuration is then evaluated separately for every subscriber. Cancelling a subscriber only
+ * unsubscribes it, shared load is cancelled when its last subscriber is cancelled. Loaders not implementing CacheableLoader are checked
+ * as in {@link PovInteractorImpl}.
+ * </p>
+ * <p>
+ * Result is shared only between interactors using the same Flights and the same verifier factory, so checks whose verifiers parse or
+ * cache configuration differently never share it.
+ * </p>
+ */
+public class CoalescingPovInteractor implements PovInteractor {
+
+    /**
+     * Checks in progress this interactor can share.
+     */
+    private Flights flights;
+
+    /**
+     * Factory creating verifier of check which is not shared or starts shared load.
+     */
+    private VersionVerifierFactory factory;
+
+    private UpdateConfigLoader loader;
+
+    private SdkVersionProvider sdkVersionProvider;
+
+    /**
+     * Interactor evaluating loaded configuration.
+     */
+    private PovInteractorImpl evaluator;
+
+    /**
+     * Interactor of check which is not shared, null if check is shared or not started.
+     */
+    private PovInteractorImpl interactor;
+
+    /**
+     * Check this interactor is subscribed to, null if not subscribed.
+     */
+    private Flight flight;
+
+    /**
+     * Subscription of this interactor.
+     */
+    private VersionVerifierListener subscriber;
+
+    public CoalescingPovInteractor(Flights flights, VersionVerifierFactory factory, UpdateConfigLoader loader,
+            SdkVersionProvider sdkVersionProvider) {
+        this.flights = flights;
+        this.factory = factory;
+        this.loader = loader;
+        this.sdkVersionProvider = sdkVersionProvider;
+        this.evaluator = new PovInteractorImpl(null, loader, sdkVersionProvider);
+    }
+
+    @Override
+    public void checkForUpdates(final PovInteractorListener listener) {
+        String loaderKey = loader instanceof CacheableLoader ? ((CacheableLoader) loader).getCacheKey() : null;
+        if (loaderKey == null) {
+            interactor = new PovInteractorImpl(factory.newInstance(), loader, sdkVersionProvider);
+            interactor.checkForUpdates(listener);
+            return;
+        }
+        FlightKey key = new FlightKey(factory, loaderKey);
+        boolean start = false;
+        synchronized (flights) {
+            flight = flights.inProgress.get(key);
+            if (flight == null) {
+                flight = new Flight(flights, key, factory.newInstance(), loader);
+                flights.inProgress.put(key, flight);
+                start = true;
+            }
+            subscriber = new VersionVerifierListener() {
+                @Override
+                public void versionAvailable(VersionContext version) {
+                    evaluator.evaluate(version, listener);
+                }
+
+                @Override
+                public void versionUnavailable(@ErrorCode int error) {
+                    listener.onError(error);
+                }
+            };
+            flight.subscribers.add(subscriber);
+        }
+        if (start) {
+            flight.start();
+        }
+    }
+
+    @Override
+    public void evaluate(VersionContext version, PovInteractorListener listener) {
+        evaluator.evaluate(version, listener);
+    }
+
+    @Override
+    public void cancel() {
+        if (flight == null) {
+            if (interactor != null) {
+                interactor.cancel();
+            } else {
+                loader.cancel();
+            }
+            return;
+        }
+        boolean last;
+        synchronized (flights) {
+            last = flight.subscribers.remove(subscriber) && flight.subscribers.isEmpty();
+            if (last && flights.inProgress.get(flight.key) == flight) {
+                flights.inProgress.remove(flight.key);
+            }
+        }
+        if (last) {
+            flight.cancel();
+        }
+    }
+
+    /**
+     * Checks in progress which can be shared, by verifier factory and loader key.
+     */
+    public static final class Flights {
+
+        /**
+         * Checks in progress by verifier factory and loader key, guarded by this instance.
+         */
+        private final Map<FlightKey, Flight> inProgress = new HashMap<>();
+    }
+
+    /**
+     * Key of shared check, consisting of verifier factory and loader key.
+     */
+    private static final class FlightKey {
+
+        private final VersionVerifierFactory factory;
+
+        private final String loaderKey;
+
+        FlightKey(VersionVerifierFactory factory, String loaderKey) {
+            this.factory = factory;
+            this.loaderKey = loaderKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return factory == other.factory && loaderKey.equals(other.loaderKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(factory) + loaderKey.hashCode();
+        }
+    }
+
+    /**
+     * Single load of update configuration shared by its subscribers.
+     */
+    private static class Flight implements VersionVerifierListener {
+
+        private final Flights flights;
+
+        private final FlightKey key;
+
+        private final VersionVerifier versionVerifier;
+
+        private final UpdateConfigLoader loader;
+
+        /**
+         * Subscribers, guarded by flights lock.
+         */
+        private final List<VersionVerifierListener> subscribers = new ArrayList<>();
+
+        Flight(Flights flights, FlightKey key, VersionVerifier versionVerifier, UpdateConfigLoader loader) {
+            this.flights = flights;
+            this.key = key;
+            this.versionVerifier = versionVerifier;
+            this.loader = loader;
+        }
+
+        void start() {
+            versionVerifier.verify(loader, this);
+        }
+
+        void cancel() {
+            loader.cancel();
+            versionVerifier.cancel();
+        }
+
+        @Override
+        public void versionAvailable(VersionContext version) {
+            for (VersionVerifierListener subscriber : finish()) {
+                subscriber.versionAvailable(version);
+            }
+        }
+
+        @Override
+        public void versionUnavailable(@ErrorCode int error) {
+            for (VersionVerifierListener subscriber : finish()) {
+                subscriber.versionUnavailable(error);
+            }
+        }
+
+        /**
+         * Removes this check from checks in progress so new checks start loading again.
+         *
+         * @return Subscribers to notify.
+         */
+        private List<VersionVerifierListener> finish() {
+            synchronized (flights) {
+                if (flights.inProgress.get(key) == this) {
+                    flights.inProgress.remove(key);
+                }
+                List<VersionVerifierListener> result = new ArrayList<>(subscribers);
+                subscribers.clear();
+                return result;
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package co.infinum.princeofversions.mvp.interactor.impl;
 import co.infinum.princeofversions.UpdateConfigLoader;
 import co.infinum.princeofversions.common.ErrorCode;
 import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.Events;
+import co.infinum.princeofversions.interfaces.EventListener;
 import co.infinum.princeofversions.interfaces.SdkVersionProvider;
 import co.infinum.princeofversions.interfaces.VersionVerifier;
 import co.infinum.princeofversions.interfaces.VersionVerifierListener;
@@ -28,31 +30,7 @@ public class PovInteractorImpl implements PovInteractor {
         versionVerifier.verify(loader, new VersionVerifierListener() {
                     @Override
                     public void versionAvailable(VersionContext version) {
-                        if (version.isCurrentLessThanMinimum()) {
-                            //If it's a mandatory update, we check if user's phone supports the minSdk
-                            if (version.getMinimumVersionMinSdk() <= sdkVersionProvider.getSdkInt()) {
-                                //If it does -> notify the user there's a new version of the app available
-                                listener.onMandatoryUpdateAvailable(version);
-                            } else {
-
-                                //This covers the edge case where user cannot install mandatory update because of minSdk of mandatory
-                                //update but he can install the latest update which has lower minSdk needed thus bypassing mandatory
-                                // update.
-                                if (version.hasOptionalUpdate()
-                                        && version.getOptionalUpdate().getNewMinSdk() <= sdkVersionProvider.getSdkInt()
-                                        && version.isCurrentLessThanOptional()) {
-                                    listener.onUpdateAvailable(version);
-                                } else {
-                                    listener.onNoUpdateAvailable(version);
-                                }
-                            }
-
-                        } else if (version.hasOptionalUpdate() && version.isCurrentLessThanOptional()
-                                && version.getOptionalUpdate().getNewMinSdk() <= sdkVersionProvider.getSdkInt()) {
-                            listener.onUpdateAvailable(version);
-                        } else {
-                            listener.onNoUpdateAvailable(version);
-                        }
+                        evaluate(version, listener);
                     }
 
                     @Override
@@ -63,6 +41,58 @@ public class PovInteractorImpl implements PovInteractor {
         );
     }
 
+    @Override
+    public void evaluate(VersionContext version, PovInteractorListener listener) {
+        EventListener events = Events.getListener();
+        int decision;
+        if (events == null) {
+            decision = decide(version);
+        } else {
+            long startNanos = System.nanoTime();
+            decision = decide(version);
+            events.onDecided(decision, System.nanoTime() - startNanos);
+        }
+        switch (decision) {
+            case EventListener.DECISION_MANDATORY_UPDATE:
+                listener.onMandatoryUpdateAvailable(version);
+                break;
+            case EventListener.DECISION_OPTIONAL_UPDATE:
+                listener.onUpdateAvailable(version);
+                break;
+            default:
+                listener.onNoUpdateAvailable(version);
+                break;
+        }
+    }
+
+    private int decide(VersionContext version) {
+        if (version.isCurrentLessThanMinimum()) {
+            //If it's a mandatory update, we check if user's phone supports the minSdk
+            if (version.getMinimumVersionMinSdk() <= sdkVersionProvider.getSdkInt()) {
+                //If it does -> notify the user there's a new version of the app available
+                return EventListener.DECISION_MANDATORY_UPDATE;
+            } else {
+
+                //This covers the edge case where user cannot install mandatory update because of minSdk of mandatory
+                //update but he can install the latest update which has lower minSdk needed thus bypassing mandatory
+                // update.
+                if (version.hasOptionalUpdate()
+                        && version.getOptionalUpdate().getNewMinSdk() <= sdkVersionProvider.getSdkInt()
+                        && version.isCurrentLessThanOptional()) {
+                    return EventListener.DECISION_OPTIONAL_UPDATE;
+                } else {
+                    return EventListener.DECISION_NO_UPDATE;
+                }
+            }
+
+        } else if (version.hasOptionalUpdate() && version.isCurrentLessThanOptional()
+                && version.getOptionalUpdate().getNewMinSdk() <= sdkVersionProvider.getSdkInt()) {
+            return EventListener.DECISION_OPTIONAL_UPDATE;
+        } else {
+            return EventListener.DECISION_NO_UPDATE;
+        }
+    }
+
     @Override
     public void cancel() {
         loader.cancel();
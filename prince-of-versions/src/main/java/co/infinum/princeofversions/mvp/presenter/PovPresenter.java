@@ -1,5 +1,9 @@
 package co.infinum.princeofversions.mvp.presenter;
 
+import android.support.annotation.Nullable;
+
+import co.infinum.princeofversions.common.VersionContext;
+
 /**
  * Created by stefano on 08/07/16.
  */
@@ -7,5 +11,14 @@ public interface PovPresenter {
 
     void checkForUpdates();
 
+    /**
+     * Notifies provisional result computed from given version data on calling thread and then checks for updates as usual.
+     * Result of that check is notified only if it differs from provisional one. Last notified version is persisted only for
+     * result of the check, so provisional result of a check which fails does not count as notified.
+     *
+     * @param provisionalVersion Last known version data, if null this method behaves as {@link #checkForUpdates()}.
+     */
+    void checkForUpdates(@Nullable VersionContext provisionalVersion);
+
     void onCancel();
 }
@@ -1,9 +1,11 @@
 package co.infinum.princeofversions.mvp.presenter.impl;
 
-import com.github.zafarkhaja.semver.Version;
+import android.support.annotation.Nullable;
 
 import co.infinum.princeofversions.common.ErrorCode;
 import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.Events;
+import co.infinum.princeofversions.interfaces.EventListener;
 import co.infinum.princeofversions.interfaces.SdkVersionProvider;
 import co.infinum.princeofversions.interfaces.VersionRepository;
 import co.infinum.princeofversions.mvp.interactor.PovInteractor;
@@ -37,55 +39,17 @@ public class PovPresenterImpl implements PovPresenter {
         interactor.checkForUpdates(new PovInteractorListener() {
             @Override
             public void onUpdateAvailable(VersionContext version) {
-                // notify if there is no notification type or there was no notification before, or current version is not equal to
-                // last one.
-                String notificationType = version.getOptionalUpdate().getNotificationType();
-                String lastNotifiedVersion = repository.getLastVersionName(null);
-
-                boolean notNotifiedUpdateAvailable = lastNotifiedVersion == null || !lastNotifiedVersion
-                        .equals(version.getOptionalUpdate().getVersion()
-                                .getVersionString());
-                boolean alreadyNotifiedUpdateAvailable = lastNotifiedVersion != null && lastNotifiedVersion
-                        .equals(version.getOptionalUpdate().getVersion()
-                                .getVersionString());
-                if (notNotifiedUpdateAvailable || (alreadyNotifiedUpdateAvailable && notificationType != null && notificationType
-                        .equalsIgnoreCase("ALWAYS"))) {
-                    repository.setLastVersionName(version.getOptionalUpdate().getVersion().getVersionString());
-                    view.notifyOptionalUpdate(version.getOptionalUpdate().getVersion().getVersionString(), version.getMetadata());
-                } else {
-                    view.notifyNoUpdate(version.getMetadata());
-                }
+                deliverOptionalUpdate(version, false);
             }
 
-
             @Override
             public void onMandatoryUpdateAvailable(VersionContext version) {
-
-                String minimumVersion;
-
-                try {
-                    Version mandatoryVersion = Version.valueOf(version.getMinimumVersion().getVersionString());
-                    Version optionalUpdate = Version.valueOf(version.getOptionalUpdate().getVersion().getVersionString());
-                    //This covers a specific scenario
-                    //1. User has 1.0.0. installed
-                    //2. Two new versions are published: 1.1.0 (mandatory) and 1.1.1 (optional)
-                    //3. The library should display mandatory update with optional version (1.1.1)
-                    minimumVersion = optionalUpdate.greaterThan(mandatoryVersion)
-                            ? version.getOptionalUpdate().getVersion().getVersionString()
-                            : version.getMinimumVersion().getVersionString();
-
-                } catch (Exception e) {
-                    minimumVersion = version.getMinimumVersion().getVersionString();
-                    e.printStackTrace();
-                }
-
-                repository.setLastVersionName(minimumVersion);
-                view.notifyMandatoryUpdate(minimumVersion, version.getMetadata());
+                deliverMandatoryUpdate(version, false);
             }
 
             @Override
             public void onNoUpdateAvailable(VersionContext version) {
-                view.notifyNoUpdate(version.getMetadata());
+                deliverNoUpdate(version, false);
             }
 
             @Override
@@ -94,4 +58,208 @@ public class PovPresenterImpl implements PovPresenter {
             }
         });
     }
+
+    @Override
+    public void checkForUpdates(@Nullable VersionContext provisionalVersion) {
+        if (provisionalVersion == null) {
+            checkForUpdates();
+            return;
+        }
+        final Outcome provisional = new Outcome();
+        interactor.evaluate(provisionalVersion, provisional);
+        final String provisionallyNotifiedVersion = provisional.deliver(true);
+
+        interactor.checkForUpdates(new Outcome() {
+            @Override
+            void onOutcome() {
+                if (sameAs(provisional)) {
+                    // provisional notification is final now, so it counts as notified
+                    if (provisionallyNotifiedVersion != null) {
+                        writeLastVersionName(provisionallyNotifiedVersion);
+                    }
+                    view.notifyRevalidated(true);
+                } else {
+                    deliver(false);
+                }
+            }
+
+            @Override
+            public void onError(@ErrorCode int error) {
+                // provisional result stays the last known answer, but it is not persisted as notified
+                view.notifyRevalidated(false);
+            }
+        });
+    }
+
+    /**
+     * Notifies optional update if notification rules allow it. Last notified version is persisted only for final result.
+     *
+     * @return Version of notified update, null if update was not notified.
+     */
+    private String deliverOptionalUpdate(VersionContext version, boolean provisional) {
+        // notify if there is no notification type or there was no notification before, or current version is not equal to
+        // last one.
+        String notificationType = version.getOptionalUpdate().getNotificationType();
+        String lastNotifiedVersion = readLastVersionName();
+
+        boolean notNotifiedUpdateAvailable = lastNotifiedVersion == null || !lastNotifiedVersion
+                .equals(version.getOptionalUpdate().getVersion()
+                        .getVersionString());
+        boolean alreadyNotifiedUpdateAvailable = lastNotifiedVersion != null && lastNotifiedVersion
+                .equals(version.getOptionalUpdate().getVersion()
+                        .getVersionString());
+        if (notNotifiedUpdateAvailable || (alreadyNotifiedUpdateAvailable && notificationType != null && notificationType
+                .equalsIgnoreCase("ALWAYS"))) {
+            String optionalVersion = version.getOptionalUpdate().getVersion().getVersionString();
+            if (provisional) {
+                view.notifyProvisionalUpdate(optionalVersion, false, version.getMetadata());
+            } else {
+                writeLastVersionName(optionalVersion);
+                view.notifyOptionalUpdate(optionalVersion, version.getMetadata());
+            }
+            return optionalVersion;
+        } else if (provisional) {
+            deliverNoUpdate(version, true);
+        } else {
+            view.notifyUpdateAlreadyNotified(version.getOptionalUpdate().getVersion().getVersionString(), version.getMetadata());
+        }
+        return null;
+    }
+
+    /**
+     * Notifies mandatory update. Last notified version is persisted only for final result.
+     *
+     * @return Version of notified update.
+     */
+    private String deliverMandatoryUpdate(VersionContext version, boolean provisional) {
+        String minimumVersion = getMandatoryVersion(version);
+        if (provisional) {
+            view.notifyProvisionalUpdate(minimumVersion, true, version.getMetadata());
+        } else {
+            writeLastVersionName(minimumVersion);
+            view.notifyMandatoryUpdate(minimumVersion, version.getMetadata());
+        }
+        return minimumVersion;
+    }
+
+    private void deliverNoUpdate(VersionContext version, boolean provisional) {
+        if (provisional) {
+            view.notifyProvisionalNoUpdate(version.getMetadata());
+        } else {
+            view.notifyNoUpdate(version.getMetadata());
+        }
+    }
+
+    private String readLastVersionName() {
+        EventListener events = Events.getListener();
+        if (events == null) {
+            return repository.getLastVersionName(null);
+        }
+        long startNanos = System.nanoTime();
+        String version = repository.getLastVersionName(null);
+        events.onRepositoryRead(System.nanoTime() - startNanos);
+        return version;
+    }
+
+    private void writeLastVersionName(String version) {
+        EventListener events = Events.getListener();
+        if (events == null) {
+            repository.setLastVersionName(version);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        repository.setLastVersionName(version);
+        events.onRepositoryWritten(System.nanoTime() - startNanos);
+    }
+
+    private static String getMandatoryVersion(VersionContext version) {
+        String minimumVersion;
+
+        try {
+            VersionContext.Version mandatoryVersion = version.getMinimumVersion();
+            VersionContext.Version optionalUpdate = version.getOptionalUpdate().getVersion();
+            //This covers a specific scenario
+            //1. User has 1.0.0. installed
+            //2. Two new versions are published: 1.1.0 (mandatory) and 1.1.1 (optional)
+            //3. The library should display mandatory update with optional version (1.1.1)
+            minimumVersion = optionalUpdate.isGreaterThan(mandatoryVersion)
+                    ? version.getOptionalUpdate().getVersion().getVersionString()
+                    : version.getMinimumVersion().getVersionString();
+
+        } catch (Exception e) {
+            minimumVersion = version.getMinimumVersion().getVersionString();
+            e.printStackTrace();
+        }
+        return minimumVersion;
+    }
+
+    /**
+     * Captures decision made by interactor, before once/always notification rules are applied.
+     * Two outcomes are equal if they are of the same kind and point to the same version.
+     */
+    private class Outcome implements PovInteractorListener {
+
+        private static final int NO_UPDATE = 0;
+
+        private static final int OPTIONAL_UPDATE = 1;
+
+        private static final int MANDATORY_UPDATE = 2;
+
+        private int kind;
+
+        private String version;
+
+        private VersionContext context;
+
+        @Override
+        public void onUpdateAvailable(VersionContext version) {
+            set(OPTIONAL_UPDATE, version.getOptionalUpdate().getVersion().getVersionString(), version);
+        }
+
+        @Override
+        public void onMandatoryUpdateAvailable(VersionContext version) {
+            set(MANDATORY_UPDATE, getMandatoryVersion(version), version);
+        }
+
+        @Override
+        public void onNoUpdateAvailable(VersionContext version) {
+            set(NO_UPDATE, null, version);
+        }
+
+        @Override
+        public void onError(@ErrorCode int error) {
+            // provisional data is already parsed, evaluation cannot fail
+        }
+
+        private void set(int kind, String version, VersionContext context) {
+            this.kind = kind;
+            this.version = version;
+            this.context = context;
+            onOutcome();
+        }
+
+        void onOutcome() {
+        }
+
+        /**
+         * Notifies captured decision.
+         *
+         * @return Version of notified update, null if no update was notified.
+         */
+        String deliver(boolean provisional) {
+            switch (kind) {
+                case MANDATORY_UPDATE:
+                    return deliverMandatoryUpdate(context, provisional);
+                case OPTIONAL_UPDATE:
+                    return deliverOptionalUpdate(context, provisional);
+                default:
+                    deliverNoUpdate(context, provisional);
+                    return null;
+            }
+        }
+
+        boolean sameAs(Outcome other) {
+            return kind == other.kind && (version == null ? other.version == null : version.equals(other.version));
+        }
+    }
 }
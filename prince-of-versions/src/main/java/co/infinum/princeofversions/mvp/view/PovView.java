@@ -15,5 +15,26 @@ public interface PovView {
 
     void notifyNoUpdate(Map<String, String> metadata);
 
+    /**
+     * Called instead of {@link #notifyNoUpdate(Map)} when optional update is available, but it was already notified and its
+     * notification type says it should be notified only once.
+     *
+     * @param version  Version string of available update.
+     * @param metadata Metadata accompanying the update.
+     */
+    void notifyUpdateAlreadyNotified(String version, Map<String, String> metadata);
+
     void notifyError(@ErrorCode int error);
+
+    void notifyProvisionalUpdate(String version, boolean isMandatory, Map<String, String> metadata);
+
+    void notifyProvisionalNoUpdate(Map<String, String> metadata);
+
+    /**
+     * Called when check following a provisional result finished without changing it.
+     *
+     * @param confirmed true if check confirmed provisional result, false if check failed and provisional result stays the last
+     *                  known one.
+     */
+    void notifyRevalidated(boolean confirmed);
 }
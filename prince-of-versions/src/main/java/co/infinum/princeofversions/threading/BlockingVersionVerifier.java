@@ -0,0 +1,108 @@
+package co.infinum.princeofversions.threading;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.DeadlineLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+
+/**
+ * Implements checking for updates on the calling thread. Method {@link #verify(UpdateConfigLoader, VersionVerifierListener)} returns
+ * after listener is notified, no other thread is involved.
+ * <p>
+ * Check has deadline, loaders implementing DeadlineLoader limit their own timeouts to time remaining until deadline and reading
+ * failure after deadline is notified as {@link ErrorCode#TIMEOUT} error. Other loaders cannot be stopped when deadline expires.
+ * If calling thread is interrupted or check is cancelled from other thread, listener is notified with {@link ErrorCode#CANCELLED}
+ * error. Interrupted status of calling thread is kept.
+ * </p>
+ */
+public class BlockingVersionVerifier implements VersionVerifier {
+
+    /**
+     * Resolver used for loading and parsing update configuration resource.
+     */
+    private VersionContextResolver resolver;
+
+    /**
+     * Time given to check for finishing, in milliseconds.
+     */
+    private long timeoutMillis;
+
+    /**
+     * Loader used by check in progress, null if no check is in progress.
+     */
+    private volatile UpdateConfigLoader loader;
+
+    /**
+     * Cancel flag, tells apart cancelling from other thread and interrupting calling thread.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new instance of verifier with parser and timeout provided through arguments.
+     *
+     * @param parser        Update configuration resource parser.
+     * @param timeoutMillis Time given to every check for finishing, in milliseconds.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public BlockingVersionVerifier(VersionConfigParser parser, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        this.resolver = new VersionContextResolver(parser);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        if (loader instanceof DeadlineLoader) {
+            ((DeadlineLoader) loader).setDeadline(deadlineNanos);
+        }
+        VersionContext version;
+        this.loader = loader;
+        try {
+            version = resolver.resolve(loader);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+        } catch (IOException e) {
+            // loader timeouts are limited by deadline, so reading may fail just before deadline expires
+            listener.versionUnavailable(System.nanoTime() - deadlineNanos >= 0 ? ErrorCode.TIMEOUT : ErrorCode.LOAD_ERROR);
+            return;
+        } catch (ParseException e) {
+            listener.versionUnavailable(ErrorCode.WRONG_VERSION);
+            return;
+        } catch (CancellationException | InterruptedException e) {
+            if (!cancelled) {
+                // blocking calls clear interrupted status
+                Thread.currentThread().interrupt();
+            }
+            listener.versionUnavailable(ErrorCode.CANCELLED);
+            return;
+        } catch (Throwable e) {
+            listener.versionUnavailable(ErrorCode.UNKNOWN_ERROR);
+            return;
+        } finally {
+            this.loader = null;
+        }
+        listener.versionAvailable(version);
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        UpdateConfigLoader loader = this.loader;
+        if (loader != null) {
+            loader.cancel();
+        }
+    }
+}
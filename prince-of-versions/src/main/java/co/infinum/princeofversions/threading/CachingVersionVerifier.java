@@ -0,0 +1,172 @@
+package co.infinum.princeofversions.threading;
+
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.CacheableLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+
+/**
+ * Implements checking for updates by decorating another VersionVerifier with VersionContextCache.
+ * <p>
+ * If loader implements CacheableLoader, cache is looked up on executor of the cache (see {@link VersionContextCache#getExecutor()}), so
+ * reading snapshot from disk never blocks calling thread. Holders are stored by key of loader together with parser used by decorated
+ * verifier (see {@link VersionContextCache#getKey(String, VersionConfigParser)}). If fresh holder is stored for the key, result is
+ * notified through callback dispatcher, main thread by default, and decorated verifier is not used at all. Otherwise check is delegated
+ * to decorated verifier and its result is stored into cache. Checks without cache key, eg. loaders not implementing CacheableLoader,
+ * are always delegated right away.
+ * </p>
+ * <p>
+ * On cache miss decorated verifier is started from executor of the cache, so it should only schedule the check, as verifiers created
+ * by {@link co.infinum.princeofversions.PrinceOfVersions} do, instead of blocking until it finishes.
+ * </p>
+ * <p>
+ * Dispatcher should match the one used by decorated verifier, so results are notified on the same thread whether they come from cache
+ * or not.
+ * </p>
+ */
+public class CachingVersionVerifier implements VersionVerifier {
+
+    /**
+     * Decorated verifier.
+     */
+    private VersionVerifier delegate;
+
+    /**
+     * Cache of parsed holders.
+     */
+    private VersionContextCache cache;
+
+    /**
+     * Executor looking up cache.
+     */
+    private Executor executor;
+
+    /**
+     * Dispatcher determining thread on which cached results are notified.
+     */
+    private CallbackDispatcher dispatcher;
+
+    /**
+     * Parser used by decorated verifier, part of cache key.
+     */
+    private VersionConfigParser parser;
+
+    /**
+     * Lock guarding cancellation and handing check over to decorated verifier.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Cancellation flag. True if cancelled, false otherwise.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a new instance of verifier decorating given verifier.
+     *
+     * @param delegate Decorated verifier.
+     * @param parser   Parser used by decorated verifier, or parser equal to it.
+     * @param cache    Cache of parsed holders.
+     */
+    public CachingVersionVerifier(VersionVerifier delegate, VersionConfigParser parser, VersionContextCache cache) {
+        this(delegate, parser, cache, cache.getExecutor(), CallbackDispatchers.mainThread());
+    }
+
+    /**
+     * Creates a new instance of verifier decorating given verifier, looking up cache using given executor and notifying cached results
+     * using given dispatcher.
+     *
+     * @param delegate   Decorated verifier.
+     * @param parser     Parser used by decorated verifier, or parser equal to it.
+     * @param cache      Cache of parsed holders.
+     * @param executor   Executor looking up cache.
+     * @param dispatcher Dispatcher determining thread on which cached results are notified.
+     * @throws IllegalArgumentException if executor or dispatcher is null.
+     */
+    public CachingVersionVerifier(VersionVerifier delegate, VersionConfigParser parser, VersionContextCache cache, Executor executor,
+            CallbackDispatcher dispatcher) {
+        if (executor == null || dispatcher == null) {
+            throw new IllegalArgumentException("Executor and dispatcher must not be null.");
+        }
+        this.delegate = delegate;
+        this.parser = parser;
+        this.cache = cache;
+        this.executor = executor;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void verify(final UpdateConfigLoader loader, final VersionVerifierListener listener) {
+        String resourceKey = loader instanceof CacheableLoader ? ((CacheableLoader) loader).getCacheKey() : null;
+        final String key = VersionContextCache.getKey(resourceKey, parser);
+        if (key == null) {
+            delegate(loader, null, listener);
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) {
+                    return;
+                }
+                final VersionContext cached = cache.get(key);
+                if (cached == null) {
+                    // checked again under lock, so cancel either sees check handed over to decorated verifier or prevents it
+                    synchronized (lock) {
+                        if (!cancelled) {
+                            delegate(loader, key, listener);
+                        }
+                    }
+                    return;
+                }
+                dispatcher.dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!cancelled) {
+                            listener.versionAvailable(cached);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Delegates check to decorated verifier and stores its result into cache.
+     *
+     * @param loader   Loads update configuration.
+     * @param key      Key of loaded resource, null if result should not be cached.
+     * @param listener Listener notified about result.
+     */
+    private void delegate(UpdateConfigLoader loader, final String key, final VersionVerifierListener listener) {
+        delegate.verify(loader, new VersionVerifierListener() {
+            @Override
+            public void versionAvailable(VersionContext version) {
+                if (key != null) {
+                    cache.put(key, version);
+                }
+                listener.versionAvailable(version);
+            }
+
+            @Override
+            public void versionUnavailable(@ErrorCode int error) {
+                listener.versionUnavailable(error);
+            }
+        });
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+        }
+        delegate.cancel();
+    }
+
+}
@@ -0,0 +1,20 @@
+package co.infinum.princeofversions.threading;
+
+/**
+ * Interface represents thread policy for notifying update check results.
+ * <p>
+ * Verifiers and calling contexts pass every notification through dispatcher, and dispatcher decides on which thread it runs.
+ * Common implementations are provided by {@link CallbackDispatchers}.
+ * </p>
+ */
+public interface CallbackDispatcher {
+
+    /**
+     * Method runs given notification on thread determined by this dispatcher. Notifications dispatched from the same thread must be
+     * run in order they were dispatched.
+     *
+     * @param notification Notification to run.
+     */
+    void dispatch(Runnable notification);
+
+}
@@ -0,0 +1,99 @@
+package co.infinum.princeofversions.threading;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.helpers.Events;
+
+/**
+ * This class provides common implementations of CallbackDispatcher.
+ * <ul>
+ * <li>{@link #mainThread()} posts notifications to main thread, default for {@link ExecutorServiceVersionVerifier}.</li>
+ * <li>{@link #callerThread()} posts notifications to looper of thread which created dispatcher.</li>
+ * <li>{@link #immediate()} runs notifications right away on notifying thread, default for {@link ThreadVersionVerifier}.</li>
+ * <li>{@link #executor(Executor)} runs notifications using given executor.</li>
+ * </ul>
+ * <p>
+ * Delay of posted notifications is reported to {@link co.infinum.princeofversions.interfaces.EventListener} if one is registered.
+ * </p>
+ */
+public final class CallbackDispatchers {
+
+    private static final CallbackDispatcher IMMEDIATE = new CallbackDispatcher() {
+        @Override
+        public void dispatch(Runnable notification) {
+            notification.run();
+        }
+    };
+
+    private CallbackDispatchers() {
+    }
+
+    /**
+     * Method provides dispatcher posting notifications to main thread. Notifications are always posted, even if they are dispatched
+     * from main thread.
+     *
+     * @return Main thread dispatcher.
+     */
+    public static CallbackDispatcher mainThread() {
+        return new LooperDispatcher(Looper.getMainLooper());
+    }
+
+    /**
+     * Method provides dispatcher posting notifications to looper of calling thread. If calling thread has no looper, for example if it
+     * is worker thread of background job, notifications are run right away on notifying thread instead.
+     *
+     * @return Dispatcher bound to calling thread.
+     */
+    public static CallbackDispatcher callerThread() {
+        Looper looper = Looper.myLooper();
+        return looper != null ? new LooperDispatcher(looper) : IMMEDIATE;
+    }
+
+    /**
+     * Method provides dispatcher running notifications right away on notifying thread.
+     *
+     * @return Immediate dispatcher.
+     */
+    public static CallbackDispatcher immediate() {
+        return IMMEDIATE;
+    }
+
+    /**
+     * Method provides dispatcher running notifications using given executor. Executor should run tasks in order they were submitted.
+     *
+     * @param executor Executor running notifications.
+     * @return Executor dispatcher.
+     * @throws IllegalArgumentException if executor is null.
+     */
+    public static CallbackDispatcher executor(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null.");
+        }
+        return new CallbackDispatcher() {
+            @Override
+            public void dispatch(Runnable notification) {
+                executor.execute(Events.timeDispatch(notification));
+            }
+        };
+    }
+
+    /**
+     * Dispatcher posting notifications to handler of given looper.
+     */
+    private static class LooperDispatcher implements CallbackDispatcher {
+
+        private final Handler handler;
+
+        LooperDispatcher(Looper looper) {
+            this.handler = new Handler(looper);
+        }
+
+        @Override
+        public void dispatch(Runnable notification) {
+            handler.post(Events.timeDispatch(notification));
+        }
+    }
+}
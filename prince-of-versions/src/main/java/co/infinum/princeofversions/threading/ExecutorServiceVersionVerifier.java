@@ -1,35 +1,38 @@
 package co.infinum.princeofversions.threading;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import co.infinum.princeofversions.DeadlineLoader;
 import co.infinum.princeofversions.UpdateConfigLoader;
 import co.infinum.princeofversions.common.ErrorCode;
 import co.infinum.princeofversions.common.VersionContext;
 import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
 import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
 import co.infinum.princeofversions.interfaces.VersionVerifier;
 import co.infinum.princeofversions.interfaces.VersionVerifierListener;
 
 /**
- * Implements checking for updates using a single cached thread.
- * <p>On every check new thread is created for waiting for result (eg. thread is blocked until result is ready). Class still use one
- * thread for computing result, but if more instances are running just one thread computing results.</p>
+ * Implements checking for updates using shared VersionVerifierScheduler and notifying results on the main thread, or on thread
+ * determined by given CallbackDispatcher.
+ * <p>Checks are executed by bounded pool of worker threads shared by all instances and timeouts are driven by single timer thread, so
+ * no thread is blocked waiting for result.</p>
  *
  * <pre>
- *     1 request computation in same time = 1 thread for computing and 1 blocked thread waiting for result.
- *     10 requests computations in same time = 1 thread for computing and 10 blocked threads (not using processor time) waiting for
- *     result.
+ *     1 request computation in same time = 1 worker thread computing result.
+ *     10 requests computations in same time = worker threads of scheduler computing results, other requests wait in its queue.
  * </pre>
+ * <p>If scheduler rejects check because its queue is full, listener is notified with {@link ErrorCode#REJECTED} error.</p>
+ * <p>
+ * Every check has single deadline covering waiting in queue, loading and parsing. Loaders implementing DeadlineLoader limit their own
+ * timeouts to time remaining until deadline. When deadline expires, loader is cancelled and listener is notified with
+ * {@link ErrorCode#TIMEOUT} error.
+ * </p>
+ *
+ * @see VersionVerifierScheduler
  */
 public class ExecutorServiceVersionVerifier implements VersionVerifier {
 
@@ -38,36 +41,95 @@ public class ExecutorServiceVersionVerifier implements VersionVerifier {
      */
     public static final long DEFAULT_TIMEOUT_SECONDS = 60;
 
+    /**
+     * Default timeout for computing result, in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = DEFAULT_TIMEOUT_SECONDS * 1000;
+
     private static final String TAG = "threadexec";
 
     /**
-     * Thread pool, contains only one thread.
+     * Dispatcher used to return callbacks, main thread by default.
      */
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private CallbackDispatcher dispatcher;
 
     /**
-     * Handler used to return callbacks on the main thread
+     * Resolver used for loading and parsing update configuration resource.
      */
-    private Handler handler = new Handler(Looper.getMainLooper());
+    private VersionContextResolver resolver;
 
+    /**
+     * Scheduler executing checks.
+     */
+    private VersionVerifierScheduler scheduler;
 
     /**
-     * Parser used for parsing loaded update configuration resource.
+     * This instance associated check.
      */
-    private VersionConfigParser parser;
+    private volatile VersionVerifierScheduler.Ticket ticket;
 
     /**
-     * This instance associated task for computation.
+     * Time given to check for finishing, in milliseconds.
      */
-    private Future<Void> future;
+    private long timeoutMillis;
 
     /**
-     * Creates a new instance of verifier with parser provided through argument.
+     * Deadline of this instance associated check as value of {@link System#nanoTime()}.
+     */
+    private volatile long deadlineNanos;
+
+    /**
+     * Creates a new instance of verifier with parser provided through argument, using default scheduler.
      *
      * @param parser Update configuration resource parser.
      */
     public ExecutorServiceVersionVerifier(VersionConfigParser parser) {
-        this.parser = parser;
+        this(parser, VersionVerifierScheduler.getDefault());
+    }
+
+    /**
+     * Creates a new instance of verifier with parser and scheduler provided through arguments.
+     *
+     * @param parser    Update configuration resource parser.
+     * @param scheduler Scheduler executing checks.
+     */
+    public ExecutorServiceVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler) {
+        this(parser, scheduler, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a new instance of verifier with parser, scheduler and timeout provided through arguments.
+     *
+     * @param parser        Update configuration resource parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every check for finishing, in milliseconds.
+     * @throws IllegalArgumentException if timeout is not positive.
+     */
+    public ExecutorServiceVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler, long timeoutMillis) {
+        this(parser, scheduler, timeoutMillis, CallbackDispatchers.mainThread());
+    }
+
+    /**
+     * Creates a new instance of verifier with parser, scheduler, timeout and callback dispatcher provided through arguments.
+     *
+     * @param parser        Update configuration resource parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every check for finishing, in milliseconds.
+     * @param dispatcher    Dispatcher determining thread on which results are notified.
+     * @throws IllegalArgumentException if timeout is not positive or dispatcher is null.
+     */
+    public ExecutorServiceVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler, long timeoutMillis,
+            CallbackDispatcher dispatcher) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher is null.");
+        }
+        this.resolver = new VersionContextResolver(parser);
+        this.scheduler = scheduler;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = dispatcher;
     }
 
     /**
@@ -77,22 +139,19 @@ public class ExecutorServiceVersionVerifier implements VersionVerifier {
      * @param listener Callback for notifying results.
      */
     protected void getVersion(UpdateConfigLoader loader, final VersionVerifierListener listener) {
-        InputStream response = null;
         try {
-            String content = loader.load();
+            final VersionContext version = resolver.resolve(loader);
 
             ifTaskIsCancelledThrowInterrupt();
-            final VersionContext version = parser.parse(content);
-
-            ifTaskIsCancelledThrowInterrupt();
-            handler.post(new Runnable() {
+            dispatcher.dispatch(new Runnable() {
                 @Override
                 public void run() {
                     listener.versionAvailable(version);
                 }
             });
         } catch (IOException e) {
-            onError(ErrorCode.LOAD_ERROR, listener);
+            // loader timeouts are limited by deadline, so reading may fail just before deadline expires
+            onError(System.nanoTime() - deadlineNanos >= 0 ? ErrorCode.TIMEOUT : ErrorCode.LOAD_ERROR, listener);
         } catch (ParseException e) {
             onError(ErrorCode.WRONG_VERSION, listener);
         } catch (CancellationException | InterruptedException intentionalEmpty) { // NOPMD
@@ -100,17 +159,11 @@ public class ExecutorServiceVersionVerifier implements VersionVerifier {
         } catch (Throwable e) {
             e.printStackTrace();
             onError(ErrorCode.UNKNOWN_ERROR, listener);
-        } finally {
-            try {
-                response.close();
-            } catch (Exception ignorable) { // NOPMD
-                // ignorable exception
-            }
         }
     }
 
     private void onError(@ErrorCode final int loadError, final VersionVerifierListener listener) {
-        handler.post(new Runnable() {
+        dispatcher.dispatch(new Runnable() {
             @Override
             public void run() {
                 listener.versionUnavailable(loadError);
@@ -120,47 +173,43 @@ public class ExecutorServiceVersionVerifier implements VersionVerifier {
 
     @Override
     public void verify(final UpdateConfigLoader loader, final VersionVerifierListener listener) {
-        future = executor.submit(new Callable<Void>() {
-            @Override
-            public Void call() throws IOException {
-                getVersion(loader, listener);
-                return null;
-            }
-        });
+        deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            ticket = scheduler.submit(new VersionVerifierScheduler.Work() {
+                @Override
+                public void run(VersionVerifierListener scheduledListener) {
+                    if (loader instanceof DeadlineLoader) {
+                        ((DeadlineLoader) loader).setDeadline(deadlineNanos);
+                    }
+                    getVersion(loader, scheduledListener);
+                }
 
-        Thread thread = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    future.get(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                    future = null;
-                } catch (Exception ignorable) { // NOPMD
-                    // future is cancelled or timed out or thread is interrupted => anyway, just return
+                @Override
+                public void timeout(VersionVerifierListener scheduledListener) {
+                    loader.cancel();
+                    onError(ErrorCode.TIMEOUT, scheduledListener);
                 }
-            }
-        });
-        thread.setDaemon(true);
-        thread.start();
+            }, listener, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            onError(ErrorCode.REJECTED, listener);
+        }
     }
 
     @Override
     public void cancel() {
-        try {
-            if (future != null) {
-                future.cancel(true);
-            }
-        } catch (CancellationException ignorable) { // NOPMD
-            // ignorable exception
+        VersionVerifierScheduler.Ticket ticket = this.ticket;
+        if (ticket != null) {
+            ticket.cancel();
         }
     }
 
     /**
      * Checks if loading is cancelled and throwing interrupt if it is.
      *
-     * @throws InterruptedException if loading is cancelled.
+     * @throws CancellationException if loading is cancelled.
      */
     private void ifTaskIsCancelledThrowInterrupt() {
-        if (future != null && future.isCancelled()) {
+        if (Thread.currentThread().isInterrupted()) {
             throw new CancellationException();
         }
     }
@@ -2,45 +2,119 @@ package co.infinum.princeofversions.threading;
 
 import java.io.IOException;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import co.infinum.princeofversions.DeadlineLoader;
 import co.infinum.princeofversions.UpdateConfigLoader;
 import co.infinum.princeofversions.common.ErrorCode;
 import co.infinum.princeofversions.common.VersionContext;
 import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
 import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
 import co.infinum.princeofversions.interfaces.VersionVerifier;
 import co.infinum.princeofversions.interfaces.VersionVerifierListener;
 
 /**
- * Implements checking for updates using single thread per check.
- * <p>On every check new thread is created for computing result.</p>
+ * Implements checking for updates using shared VersionVerifierScheduler and notifying results on the worker thread, or on thread
+ * determined by given CallbackDispatcher.
+ * <p>Checks are executed by bounded pool of worker threads shared by all instances, no thread is created per check.</p>
  *
  * <pre>
- *     1 request computation in same time = 1 thread for computing result.
- *     10 requests computations in same time = 1 thread for computing result.
+ *     1 request computation in same time = 1 worker thread computing result.
+ *     10 requests computations in same time = worker threads of scheduler computing results, other requests wait in its queue.
  * </pre>
+ * <p>If scheduler rejects check because its queue is full, listener is notified with {@link ErrorCode#REJECTED} error on calling
+ * thread.</p>
+ * <p>If verifier is created with timeout and check does not finish in time, loader is cancelled and listener is notified with
+ * {@link ErrorCode#TIMEOUT} error on timer thread.</p>
+ * <p>Threads above apply to default {@link CallbackDispatchers#immediate()} dispatcher, other dispatchers move notifications to
+ * their own threads.</p>
+ *
+ * @see VersionVerifierScheduler
  */
 public class ThreadVersionVerifier implements VersionVerifier {
 
     private static final String TAG = "threadVerifier";
 
     /**
-     * Cancellation flag. True if cancelled, false otherwise.
+     * Resolver used for loading and parsing update configuration resource.
+     */
+    private VersionContextResolver resolver;
+
+    /**
+     * Scheduler executing checks.
+     */
+    private VersionVerifierScheduler scheduler;
+
+    /**
+     * This instance associated check.
+     */
+    private volatile VersionVerifierScheduler.Ticket ticket;
+
+    /**
+     * Time given to check for finishing in milliseconds, zero if check has no timeout.
      */
-    private volatile boolean cancelled = false;
+    private long timeoutMillis;
 
     /**
-     * Parser used for parsing loaded update configuration resource.
+     * Dispatcher used to return callbacks, notifying thread by default.
      */
-    private VersionConfigParser parser;
+    private CallbackDispatcher dispatcher;
 
     /**
-     * Creates a new instance of verifier with parser provided through argument.
+     * Deadline of this instance associated check as value of {@link System#nanoTime()}.
+     */
+    private volatile long deadlineNanos;
+
+    /**
+     * Creates a new instance of verifier with parser provided through argument, using default scheduler.
      *
      * @param parser Update configuration resource parser.
      */
     public ThreadVersionVerifier(VersionConfigParser parser) {
-        this.parser = parser;
+        this(parser, VersionVerifierScheduler.getDefault());
+    }
+
+    /**
+     * Creates a new instance of verifier with parser and scheduler provided through arguments.
+     *
+     * @param parser    Update configuration resource parser.
+     * @param scheduler Scheduler executing checks.
+     */
+    public ThreadVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler) {
+        this(parser, scheduler, 0);
+    }
+
+    /**
+     * Creates a new instance of verifier with parser, scheduler and timeout provided through arguments.
+     *
+     * @param parser        Update configuration resource parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every check for finishing in milliseconds, zero for no timeout.
+     */
+    public ThreadVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler, long timeoutMillis) {
+        this(parser, scheduler, timeoutMillis, CallbackDispatchers.immediate());
+    }
+
+    /**
+     * Creates a new instance of verifier with parser, scheduler, timeout and callback dispatcher provided through arguments.
+     *
+     * @param parser        Update configuration resource parser.
+     * @param scheduler     Scheduler executing checks.
+     * @param timeoutMillis Time given to every check for finishing in milliseconds, zero for no timeout.
+     * @param dispatcher    Dispatcher determining thread on which results are notified.
+     * @throws IllegalArgumentException if dispatcher is null.
+     */
+    public ThreadVersionVerifier(VersionConfigParser parser, VersionVerifierScheduler scheduler, long timeoutMillis,
+            CallbackDispatcher dispatcher) {
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher is null.");
+        }
+        this.resolver = new VersionContextResolver(parser);
+        this.scheduler = scheduler;
+        this.timeoutMillis = timeoutMillis;
+        this.dispatcher = dispatcher;
     }
 
     /**
@@ -49,41 +123,69 @@ public class ThreadVersionVerifier implements VersionVerifier {
      * @param loader   Loads update configuration.
      * @param listener Callback for notifying results.
      */
-    protected void getVersion(UpdateConfigLoader loader, VersionVerifierListener listener) {
+    protected void getVersion(UpdateConfigLoader loader, final VersionVerifierListener listener) {
         try {
-            String content = loader.load();
-
-            ifTaskIsCancelledThrowInterrupt(); // if cancelled here no need to parse response
-            VersionContext version = parser.parse(content);
+            final VersionContext version = resolver.resolve(loader);
 
             ifTaskIsCancelledThrowInterrupt(); // if cancelled here no need to fire event
-            listener.versionAvailable(version);
+            dispatcher.dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    listener.versionAvailable(version);
+                }
+            });
         } catch (IOException e) {
-            listener.versionUnavailable(ErrorCode.LOAD_ERROR);
+            // loader timeouts are limited by deadline, so reading may fail just before deadline expires
+            boolean expired = timeoutMillis > 0 && System.nanoTime() - deadlineNanos >= 0;
+            onError(expired ? ErrorCode.TIMEOUT : ErrorCode.LOAD_ERROR, listener);
         } catch (ParseException e) {
-            listener.versionUnavailable(ErrorCode.WRONG_VERSION);
+            onError(ErrorCode.WRONG_VERSION, listener);
         } catch (CancellationException | InterruptedException e) { // NOPMD
             // someone cancelled the task
         } catch (Throwable e) {
-            listener.versionUnavailable(ErrorCode.UNKNOWN_ERROR);
+            onError(ErrorCode.UNKNOWN_ERROR, listener);
         }
     }
 
-    @Override
-    public void verify(final UpdateConfigLoader loader, final VersionVerifierListener listener) {
-        Thread thread = new Thread(new Runnable() {
+    private void onError(@ErrorCode final int error, final VersionVerifierListener listener) {
+        dispatcher.dispatch(new Runnable() {
             @Override
             public void run() {
-                getVersion(loader, listener);
+                listener.versionUnavailable(error);
             }
         });
-        thread.setDaemon(true);
-        thread.start();
+    }
+
+    @Override
+    public void verify(final UpdateConfigLoader loader, final VersionVerifierListener listener) {
+        deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            ticket = scheduler.submit(new VersionVerifierScheduler.Work() {
+                @Override
+                public void run(VersionVerifierListener scheduledListener) {
+                    if (timeoutMillis > 0 && loader instanceof DeadlineLoader) {
+                        ((DeadlineLoader) loader).setDeadline(deadlineNanos);
+                    }
+                    getVersion(loader, scheduledListener);
+                }
+
+                @Override
+                public void timeout(VersionVerifierListener scheduledListener) {
+                    loader.cancel();
+                    onError(ErrorCode.TIMEOUT, scheduledListener);
+                }
+            }, listener, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            onError(ErrorCode.REJECTED, listener);
+        }
     }
 
     @Override
     public void cancel() {
-        cancelled = true;
+        VersionVerifierScheduler.Ticket ticket = this.ticket;
+        if (ticket != null) {
+            ticket.cancel();
+        }
     }
 
     /**
@@ -92,7 +194,7 @@ public class ThreadVersionVerifier implements VersionVerifier {
      * @throws InterruptedException if loading is cancelled.
      */
     private void ifTaskIsCancelledThrowInterrupt() throws InterruptedException {
-        if (cancelled) {
+        if (Thread.currentThread().isInterrupted()) {
             throw new InterruptedException();
         }
     }
@@ -0,0 +1,354 @@
+package co.infinum.princeofversions.threading;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+
+/**
+ * This class represents scheduler shared by version verifiers for running update checks in background.
+ * <p>
+ * Checks are executed on bounded executor and timeouts are driven by single timer thread, so number of threads stays the same
+ * regardless of number of checks in progress. If executor cannot accept new check, eg. its queue is full, check is rejected.
+ * </p>
+ * <p>
+ * Scheduler does not share work between checks, concurrent checks of the same updater for the same resource share single check
+ * before they reach scheduler (see {@link co.infinum.princeofversions.mvp.interactor.impl.CoalescingPovInteractor}).
+ * </p>
+ * <pre>
+ *     1 check in progress = 1 worker thread and 1 timer thread.
+ *     100 checks in progress = {@value #DEFAULT_POOL_SIZE} worker threads, up to {@value #DEFAULT_QUEUE_CAPACITY} queued checks
+ *     and 1 timer thread.
+ * </pre>
+ */
+public class VersionVerifierScheduler {
+
+    /**
+     * Default number of worker threads.
+     */
+    public static final int DEFAULT_POOL_SIZE = 2;
+
+    /**
+     * Default maximum number of checks waiting for worker thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Time after idle worker thread is stopped, in seconds.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Work executed by scheduler.
+     */
+    public interface Work {
+
+        /**
+         * Method loads and parses update configuration and notifies result to given listener.
+         *
+         * @param listener Listener notifying check.
+         */
+        void run(VersionVerifierListener listener);
+
+        /**
+         * Method is called if work did not finish in time. It should stop loading and notify {@link ErrorCode#TIMEOUT} error to given
+         * listener. Thread running work is interrupted after this method returns.
+         *
+         * @param listener Listener notifying check.
+         */
+        void timeout(VersionVerifierListener listener);
+    }
+
+    /**
+     * Scheduler shared by default verifiers.
+     */
+    private static VersionVerifierScheduler defaultInstance;
+
+    /**
+     * Executor running checks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Executor running timeouts.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Lock guarding listeners of tasks.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Creates a new instance of scheduler with given number of worker threads and queue capacity.
+     *
+     * @param poolSize      Number of worker threads.
+     * @param queueCapacity Maximum number of checks waiting for worker thread.
+     */
+    public VersionVerifierScheduler(int poolSize, int queueCapacity) {
+        this(createExecutor(poolSize, queueCapacity), Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("pov-timer")));
+    }
+
+    /**
+     * Creates a new instance of scheduler using given executors.
+     * <p>
+     * Executor should be bounded and throw RejectedExecutionException if it cannot accept new work, otherwise checks are never
+     * rejected.
+     * </p>
+     *
+     * @param executor Executor running checks.
+     * @param timer    Executor running timeouts.
+     */
+    public VersionVerifierScheduler(ExecutorService executor, ScheduledExecutorService timer) {
+        if (executor == null || timer == null) {
+            throw new IllegalArgumentException("Executor and timer must not be null.");
+        }
+        this.executor = executor;
+        this.timer = timer;
+    }
+
+    /**
+     * Method provides scheduler shared by default verifiers, with {@value #DEFAULT_POOL_SIZE} worker threads, queue of
+     * {@value #DEFAULT_QUEUE_CAPACITY} checks.
+     *
+     * @return Default scheduler.
+     */
+    public static synchronized VersionVerifierScheduler getDefault() {
+        if (defaultInstance == null) {
+            defaultInstance = new VersionVerifierScheduler(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+        }
+        return defaultInstance;
+    }
+
+    private static ThreadPoolExecutor createExecutor(int poolSize, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new DaemonThreadFactory("pov-worker"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Method schedules given work without timeout.
+     *
+     * @param work     Work loading and parsing update configuration.
+     * @param listener Listener notified with result of work.
+     * @return Ticket for cancelling check.
+     * @throws RejectedExecutionException if executor cannot accept check.
+     * @see #submit(Work, VersionVerifierListener, long, TimeUnit)
+     */
+    public Ticket submit(Work work, VersionVerifierListener listener) {
+        return submit(work, listener, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method schedules given work. If work does not finish in given time, including time spent in queue, it is notified to
+     * stop by {@link Work#timeout(VersionVerifierListener)} and its thread is interrupted.
+     * <p>
+     * Listener is notified only once, with the first result notified by work.
+     * </p>
+     *
+     * @param work     Work loading and parsing update configuration.
+     * @param listener Listener notified with result of work.
+     * @param timeout  Time given to work for finishing, zero or negative for no timeout.
+     * @param unit     Unit of timeout.
+     * @return Ticket for cancelling check.
+     * @throws RejectedExecutionException if executor cannot accept check.
+     */
+    public Ticket submit(Work work, VersionVerifierListener listener, long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            Task task = new Task(work, listener);
+            // future is assigned before timeout can expire, and task cannot finish before timeout is assigned because both need lock
+            task.future = executor.submit(task);
+            if (timeout > 0) {
+                task.timeout = timer.schedule(new Timeout(task), timeout, unit);
+            }
+            return new Ticket(task);
+        }
+    }
+
+    /**
+     * Method provides executor running checks.
+     *
+     * @return Executor running checks.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Cancels task, its listener is not notified anymore.
+     */
+    private void cancel(Task task) {
+        Future<?> future;
+        Future<?> timeout;
+        synchronized (lock) {
+            task.listener = null;
+            future = task.future;
+            timeout = task.timeout;
+        }
+        future.cancel(true);
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        purge();
+    }
+
+    /**
+     * Represents single check scheduled by scheduler, used for cancelling it.
+     */
+    public final class Ticket {
+
+        private final Task task;
+
+        private Ticket(Task task) {
+            this.task = task;
+        }
+
+        /**
+         * Method cancels this check, its listener is not notified anymore.
+         */
+        public void cancel() {
+            VersionVerifierScheduler.this.cancel(task);
+        }
+    }
+
+    /**
+     * Work scheduled on executor together with listener of its check.
+     */
+    private final class Task implements Runnable, VersionVerifierListener {
+
+        private final Work work;
+
+        /**
+         * Listener, null after it was notified or task was cancelled, guarded by lock.
+         */
+        private VersionVerifierListener listener;
+
+        /**
+         * Future of task on executor, guarded by lock.
+         */
+        private Future<?> future;
+
+        /**
+         * Future of timeout on timer, null if task has no timeout, guarded by lock.
+         */
+        private Future<?> timeout;
+
+        Task(Work work, VersionVerifierListener listener) {
+            this.work = work;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            try {
+                work.run(this);
+            } finally {
+                Future<?> timeout;
+                synchronized (lock) {
+                    timeout = this.timeout;
+                }
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public void versionAvailable(VersionContext version) {
+            VersionVerifierListener listener = finish();
+            if (listener != null) {
+                listener.versionAvailable(version);
+            }
+        }
+
+        @Override
+        public void versionUnavailable(@ErrorCode int error) {
+            VersionVerifierListener listener = finish();
+            if (listener != null) {
+                listener.versionUnavailable(error);
+            }
+        }
+
+        /**
+         * Removes listener, so only the first result is notified, eg. result notified after timeout is ignored.
+         *
+         * @return Listener to notify, null if there is none.
+         */
+        private VersionVerifierListener finish() {
+            synchronized (lock) {
+                VersionVerifierListener result = listener;
+                listener = null;
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Stops task which did not finish in time, leaving its listener to be notified about timeout.
+     */
+    private void expire(Task task) {
+        task.work.timeout(task);
+        Future<?> future;
+        synchronized (lock) {
+            future = task.future;
+        }
+        future.cancel(true);
+        purge();
+    }
+
+    private void purge() {
+        if (executor instanceof ThreadPoolExecutor) {
+            // cancelled task is removed from queue right away so it does not take place of new checks
+            ((ThreadPoolExecutor) executor).purge();
+        }
+    }
+
+    /**
+     * Stops task which did not finish in time.
+     */
+    private final class Timeout implements Runnable {
+
+        private final Task task;
+
+        Timeout(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            expire(task);
+        }
+    }
+
+    /**
+     * Creates daemon threads, so scheduler does not prevent application process from exiting.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final String name;
+
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.helpers.AsyncVersionRepository;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class AsyncVersionRepositoryTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final Executor queue = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+    };
+
+    private VersionRepository delegate;
+
+    @Before
+    public void setUp() {
+        tasks.clear();
+        delegate = Mockito.mock(VersionRepository.class);
+        Mockito.when(delegate.getLastVersionName(Mockito.<String>any())).thenReturn("1.0.0");
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testWritesAreBatched() {
+        AsyncVersionRepository repository = new AsyncVersionRepository(delegate, queue);
+        assertEquals("1.0.0", repository.getLastVersionName());
+
+        repository.setLastVersionName("2.0.0");
+        repository.setLastVersionName("3.0.0");
+        assertEquals("3.0.0", repository.getLastVersionName());
+        assertEquals(1, tasks.size());
+        verify(delegate, never()).setLastVersionName(Mockito.anyString());
+
+        runTasks();
+        verify(delegate, times(1)).setLastVersionName(Mockito.anyString());
+        verify(delegate).setLastVersionName("3.0.0");
+        assertEquals("1.0.0", repository.getLastVersionName());
+
+        repository.setLastVersionName("4.0.0");
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testFlushWritesImmediately() {
+        AsyncVersionRepository repository = new AsyncVersionRepository(delegate, queue);
+        repository.setLastVersionName("2.0.0");
+        repository.flush();
+        verify(delegate).setLastVersionName("2.0.0");
+
+        runTasks();
+        repository.flush();
+        verify(delegate, times(1)).setLastVersionName(Mockito.anyString());
+    }
+
+    @Test
+    public void testPendingNullReturnsDefault() {
+        AsyncVersionRepository repository = new AsyncVersionRepository(delegate, queue);
+        repository.setLastVersionName(null);
+        assertNull(repository.getLastVersionName());
+        assertEquals("default", repository.getLastVersionName("default"));
+    }
+
+    @Test
+    public void testRejectedWriteIsWrittenImmediately() {
+        AsyncVersionRepository repository = new AsyncVersionRepository(delegate, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        repository.setLastVersionName("2.0.0");
+        repository.setLastVersionName("3.0.0");
+        verify(delegate).setLastVersionName("2.0.0");
+        verify(delegate).setLastVersionName("3.0.0");
+    }
+}
@@ -0,0 +1,210 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigEncoder;
+import co.infinum.princeofversions.helpers.parsers.BinaryVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ContentTypeVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class BinaryParserTest {
+
+    private static final String[] CURRENT_VERSIONS = {"1.0.0", "1.2.3", "2.0.0", "3.0.0"};
+
+    private static String describe(VersionContext version) {
+        StringBuilder builder = new StringBuilder()
+                .append(version.getCurrentVersion().getVersionString())
+                .append(", min=").append(version.getMinimumVersion() != null ? version.getMinimumVersion().getVersionString() : null)
+                .append(", lessThanMin=").append(version.isCurrentLessThanMinimum())
+                .append(", minSdk=").append(version.getMinimumVersionMinSdk())
+                .append(", hasOptional=").append(version.hasOptionalUpdate())
+                .append(", lessThanOptional=").append(version.isCurrentLessThanOptional());
+        if (version.hasOptionalUpdate()) {
+            builder.append(", optional=").append(version.getOptionalUpdate().getVersion().getVersionString())
+                    .append(", notification=").append(version.getOptionalUpdate().getNotificationType())
+                    .append(", newMinSdk=").append(version.getOptionalUpdate().getNewMinSdk());
+        }
+        return builder.append(", meta=").append(new TreeMap<>(version.getMetadata())).toString();
+    }
+
+    private static VersionContext parse(byte[] binary, String currentVersion) throws IOException, ParseException {
+        return new BinaryVersionConfigParser(new VersionContext.Version(currentVersion)).parse(new ByteArrayInputStream(binary));
+    }
+
+    private static void assertParseFails(byte[] binary) throws IOException {
+        try {
+            parse(binary, "1.0.0");
+            fail("Parsing should fail.");
+        } catch (ParseException expected) { // NOPMD
+            // malformed content
+        }
+    }
+
+    private static byte[] fullConfiguration() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("key", "vrijednost čćž");
+        return BinaryVersionConfigEncoder.encode("1.2.3", 15, "2.4.5", "ONCE", 18, metadata);
+    }
+
+    @Test
+    public void testAllMockDataEncodedWithoutLoss() throws Exception {
+        File[] files = new File(getClass().getClassLoader().getResource("mockdata").getPath()).listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            String content = ResourceUtils.readFromFile(file.getName());
+            VersionContext json;
+            try {
+                json = new JsonVersionConfigParser(new VersionContext.Version("1.0.0")).parse(content);
+            } catch (ParseException e) {
+                continue;
+            }
+            byte[] binary = BinaryVersionConfigEncoder.encode(json);
+            for (String current : CURRENT_VERSIONS) {
+                String expected = describe(new JsonVersionConfigParser(new VersionContext.Version(current)).parse(content));
+                assertEquals(file.getName(), expected, describe(parse(binary, current)));
+            }
+            assertTrue(file.getName(), binary.length < content.getBytes("UTF-8").length);
+        }
+    }
+
+    @Test
+    public void testFullConfiguration() throws Exception {
+        VersionContext version = parse(fullConfiguration(), "2.0.0");
+        assertEquals("1.2.3", version.getMinimumVersion().getVersionString());
+        assertEquals(15, version.getMinimumVersionMinSdk());
+        assertEquals("2.4.5", version.getOptionalUpdate().getVersion().getVersionString());
+        assertEquals("ONCE", version.getOptionalUpdate().getNotificationType());
+        assertEquals(18, version.getOptionalUpdate().getNewMinSdk());
+        assertEquals("vrijednost čćž", version.getMetadata().get("key"));
+    }
+
+    @Test
+    public void testMissingValues() throws Exception {
+        VersionContext version = parse(BinaryVersionConfigEncoder.encode("1.2.3", 0, null, null, 0, null), "1.0.0");
+        assertEquals("1.2.3", version.getMinimumVersion().getVersionString());
+        assertTrue(version.isCurrentLessThanMinimum());
+        assertNull(version.getOptionalUpdate());
+        assertTrue(version.getMetadata().isEmpty());
+
+        assertParseFails(BinaryVersionConfigEncoder.encode(null, 0, null, null, 0, null));
+    }
+
+    @Test
+    public void testLargeSdkValues() throws Exception {
+        VersionContext version = parse(BinaryVersionConfigEncoder.encode("1.2.3", Integer.MAX_VALUE, "2.0.0", null, 300, null), "1.0.0");
+        assertEquals(Integer.MAX_VALUE, version.getMinimumVersionMinSdk());
+        assertEquals(300, version.getOptionalUpdate().getNewMinSdk());
+    }
+
+    @Test
+    public void testTrailingValuesIgnored() throws Exception {
+        byte[] binary = fullConfiguration();
+        byte[] extended = Arrays.copyOf(binary, binary.length + 3);
+        assertEquals(describe(parse(binary, "1.0.0")), describe(parse(extended, "1.0.0")));
+    }
+
+    @Test
+    public void testMalformedContent() throws Exception {
+        byte[] binary = fullConfiguration();
+        assertParseFails(Arrays.copyOf(binary, binary.length - 1));
+        assertParseFails(new byte[0]);
+        assertParseFails(ResourceUtils.readFromFile("valid_update_full.json").getBytes("UTF-8"));
+
+        byte[] newerFormat = binary.clone();
+        newerFormat[3] = (byte) (BinaryVersionConfigParser.FORMAT_VERSION + 1);
+        assertParseFails(newerFormat);
+
+        byte[] invalidVersion = BinaryVersionConfigEncoder.encode("1.2", 0, null, null, 0, null);
+        assertParseFails(invalidVersion);
+    }
+
+    @Test
+    public void testStringContentNotSupported() {
+        try {
+            new BinaryVersionConfigParser(new VersionContext.Version("1.0.0")).parse("POV");
+            fail("Parsing should fail.");
+        } catch (ParseException expected) { // NOPMD
+            // binary content is parsed from stream
+        }
+    }
+
+    private static ContentTypeVersionConfigParser negotiatingParser() {
+        VersionContext.Version version = new VersionContext.Version("2.0.0");
+        return new ContentTypeVersionConfigParser(ContentTypeVersionConfigParser.JSON_CONTENT_TYPE,
+                new JsonStreamVersionConfigParser(version))
+                .register(BinaryVersionConfigParser.CONTENT_TYPE, new BinaryVersionConfigParser(version));
+    }
+
+    @Test
+    public void testParserSelectedByContentType() throws Exception {
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        try {
+            String json = ResourceUtils.readFromFile("valid_update_full.json");
+            mockWebServer.enqueue(new MockResponse()
+                    .setBody(new Buffer().write(fullConfiguration()))
+                    .setHeader("Content-Type", BinaryVersionConfigParser.CONTENT_TYPE));
+            mockWebServer.enqueue(new MockResponse().setBody(json).setHeader("Content-Type", "application/json; charset=utf-8"));
+            mockWebServer.enqueue(new MockResponse().setBody(json));
+
+            VersionContextResolver resolver = new VersionContextResolver(negotiatingParser());
+            assertEquals("ONCE", resolver.resolve(new NetworkLoader(mockWebServer.url("/").toString()))
+                    .getOptionalUpdate().getNotificationType());
+            assertEquals("2.4.5", resolver.resolve(new NetworkLoader(mockWebServer.url("/").toString()))
+                    .getOptionalUpdate().getVersion().getVersionString());
+            assertEquals("2.4.5", resolver.resolve(new NetworkLoader(mockWebServer.url("/").toString()))
+                    .getOptionalUpdate().getVersion().getVersionString());
+
+            assertEquals(BinaryVersionConfigParser.CONTENT_TYPE + ", application/json;q=0.9",
+                    mockWebServer.takeRequest().getHeader("Accept"));
+        } finally {
+            mockWebServer.shutdown();
+        }
+    }
+
+    @Test
+    public void testJsonIsDefault() throws Exception {
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        try {
+            mockWebServer.enqueue(new MockResponse().setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+            new VersionContextResolver(new JsonStreamVersionConfigParser(new VersionContext.Version("2.0.0")))
+                    .resolve(new NetworkLoader(mockWebServer.url("/").toString()));
+            String accept = mockWebServer.takeRequest().getHeader("Accept");
+            assertTrue(accept == null || !accept.contains(BinaryVersionConfigParser.CONTENT_TYPE));
+        } finally {
+            mockWebServer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.content.Context;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.UpdaterResult;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.threading.CallbackDispatcher;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+import co.infinum.princeofversions.threading.ExecutorServiceVersionVerifier;
+import co.infinum.princeofversions.threading.ThreadVersionVerifier;
+import co.infinum.princeofversions.threading.VersionVerifierScheduler;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class CallbackDispatcherTest {
+
+    private static final String CALLBACK_THREAD = "callbacks";
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private VersionVerifierScheduler scheduler;
+
+    private ExecutorService callbacks;
+
+    @Before
+    public void setUp() {
+        scheduler = new VersionVerifierScheduler(1, 4);
+        callbacks = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, CALLBACK_THREAD);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.getExecutor().shutdownNow();
+        callbacks.shutdownNow();
+    }
+
+    private static JsonVersionConfigParser parser() {
+        return new JsonVersionConfigParser(new VersionContext.Version("1.0.0"));
+    }
+
+    @Test
+    public void testThreadVerifierNotifiesThroughExecutor() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        new ThreadVersionVerifier(parser(), scheduler, 0, CallbackDispatchers.executor(callbacks))
+                .verify(new ResourceFileLoader("valid_update_full.json"), listener);
+        assertTrue(listener.latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(CALLBACK_THREAD, listener.thread.get().getName());
+        assertNull(listener.error.get());
+    }
+
+    @Test
+    public void testThreadVerifierNotifiesErrorThroughExecutor() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        new ThreadVersionVerifier(parser(), scheduler, 0, CallbackDispatchers.executor(callbacks))
+                .verify(new ResourceFileLoader("invalid_update_no_android.json"), listener);
+        assertTrue(listener.latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(CALLBACK_THREAD, listener.thread.get().getName());
+        assertEquals(Integer.valueOf(ErrorCode.WRONG_VERSION), listener.error.get());
+    }
+
+    @Test
+    public void testImmediateDispatcherDoesNotUseMainLooper() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        new ExecutorServiceVersionVerifier(parser(), scheduler, WAIT_MILLIS, CallbackDispatchers.immediate())
+                .verify(new ResourceFileLoader("valid_update_full.json"), listener);
+        // main looper is not run, result is notified on worker thread
+        assertTrue(listener.latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertNotSame(Thread.currentThread(), listener.thread.get());
+    }
+
+    @Test
+    public void testDefaultDispatcherPostsToMainLooper() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        new ExecutorServiceVersionVerifier(parser(), scheduler, WAIT_MILLIS)
+                .verify(new ResourceFileLoader("valid_update_full.json"), listener);
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        while (listener.latch.getCount() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(20);
+            ShadowLooper.runUiThreadTasks();
+        }
+        assertSame(Thread.currentThread(), listener.thread.get());
+    }
+
+    @Test
+    public void testCallerThreadWithoutLooperRunsImmediately() throws InterruptedException {
+        final AtomicBoolean ran = new AtomicBoolean();
+        final AtomicReference<CallbackDispatcher> dispatcher = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.set(CallbackDispatchers.callerThread());
+                dispatcher.get().dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        ran.set(true);
+                    }
+                });
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(ran.get());
+        assertSame(CallbackDispatchers.immediate(), dispatcher.get());
+    }
+
+    @Test
+    public void testCheckForUpdatesCallsBackThroughDispatcher() throws InterruptedException {
+        Context context = Mockito.mock(Context.class);
+        PrinceOfVersions updater = new PrinceOfVersions(context, new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return new ThreadVersionVerifier(parser(), scheduler);
+            }
+        }, Mockito.mock(VersionRepository.class), new SdkVersionProviderMock(21));
+        final List<Runnable> tasks = new ArrayList<>();
+        UpdaterCallback callback = Mockito.mock(UpdaterCallback.class);
+
+        UpdaterResult result = updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json");
+            }
+        }, CallbackDispatchers.executor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                synchronized (tasks) {
+                    tasks.add(command);
+                }
+            }
+        }), callback);
+
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!result.isConsumed() && System.currentTimeMillis() < end) {
+            Thread.sleep(20);
+        }
+        assertTrue(result.isConsumed());
+        verify(callback, never()).onNewUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.<String, String>anyMap());
+
+        synchronized (tasks) {
+            assertEquals(1, tasks.size());
+            tasks.get(0).run();
+        }
+        verify(callback).onNewUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.<String, String>anyMap());
+    }
+
+    @Test
+    public void testDefaultVerifiersDoNotUseMainLooperWithDispatcher() throws InterruptedException {
+        Context context = Mockito.mock(Context.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        PrinceOfVersions updater = new PrinceOfVersions(context, new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return parser();
+            }
+        }, Mockito.mock(VersionRepository.class));
+        final CountDownLatch dispatched = new CountDownLatch(1);
+        UpdaterCallback callback = Mockito.mock(UpdaterCallback.class);
+
+        updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json");
+            }
+        }, CallbackDispatchers.executor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+                dispatched.countDown();
+            }
+        }), callback);
+
+        // main looper is not run, result goes from worker thread straight to dispatcher
+        assertTrue(dispatched.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        verify(callback).onNewUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.<String, String>anyMap());
+    }
+
+    /**
+     * Records thread and error of the first notified result.
+     */
+    private static class RecordingListener implements VersionVerifierListener {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+
+        final AtomicReference<Integer> error = new AtomicReference<>();
+
+        @Override
+        public void versionAvailable(VersionContext version) {
+            thread.set(Thread.currentThread());
+            latch.countDown();
+        }
+
+        @Override
+        public void versionUnavailable(@ErrorCode int error) {
+            this.error.set(error);
+            thread.set(Thread.currentThread());
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.os.Build;
+
+import java.io.IOException;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CheckResult;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class CheckForUpdatesSyncTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private Context context;
+
+    private VersionRepository repository;
+
+    @Before
+    public void setUp() {
+        context = Mockito.mock(Context.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        repository = Mockito.mock(VersionRepository.class);
+    }
+
+    private PrinceOfVersions updater(final String currentVersion) {
+        return new PrinceOfVersions(context, new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return new JsonVersionConfigParser(new VersionContext.Version(currentVersion));
+            }
+        }, repository);
+    }
+
+    private static LoaderFactory resource(final String filename) {
+        return new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader(filename);
+            }
+        };
+    }
+
+    @Test
+    public void testMandatoryUpdateOnCallingThread() {
+        final Thread[] loadingThread = new Thread[1];
+        CheckResult result = updater("1.0.0").checkForUpdatesSync(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json") {
+                    @Override
+                    public String load() throws IOException, InterruptedException {
+                        loadingThread[0] = Thread.currentThread();
+                        return super.load();
+                    }
+                };
+            }
+        }, TIMEOUT_MILLIS);
+
+        assertSame(Thread.currentThread(), loadingThread[0]);
+        assertFalse(result.hasError());
+        assertTrue(result.hasUpdate());
+        assertTrue(result.isMandatory());
+        assertEquals("2.4.5", result.getVersion());
+        assertNotNull(result.getMetadata());
+        verify(repository).setLastVersionName("2.4.5");
+        try {
+            result.getError();
+            fail("Successful result has no error.");
+        } catch (IllegalStateException expected) { // NOPMD
+            // check did not fail
+        }
+    }
+
+    @Test
+    public void testOptionalUpdate() {
+        CheckResult result = updater("2.0.0").checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+        assertTrue(result.hasUpdate());
+        assertFalse(result.isMandatory());
+        assertEquals("2.4.5", result.getVersion());
+    }
+
+    @Test
+    public void testNoUpdate() {
+        CheckResult result = updater("3.0.0").checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+        assertFalse(result.hasError());
+        assertFalse(result.hasUpdate());
+        assertNull(result.getVersion());
+        assertNotNull(result.getMetadata());
+    }
+
+    @Test
+    public void testErrorsMappedToErrorCodes() {
+        PrinceOfVersions updater = updater("1.0.0");
+        CheckResult result = updater.checkForUpdatesSync(resource("invalid_update_no_android.json"), TIMEOUT_MILLIS);
+        assertTrue(result.hasError());
+        assertEquals(ErrorCode.WRONG_VERSION, result.getError());
+        assertNull(result.getMetadata());
+
+        result = updater.checkForUpdatesSync(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json") {
+                    @Override
+                    public String load() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                };
+            }
+        }, TIMEOUT_MILLIS);
+        assertEquals(ErrorCode.LOAD_ERROR, result.getError());
+    }
+
+    @Test
+    public void testInterruptedThreadCancelsCheck() {
+        Thread.currentThread().interrupt();
+        try {
+            CheckResult result = updater("1.0.0").checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+            assertEquals(ErrorCode.CANCELLED, result.getError());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCustomVerifierFactoryRequiresParserFactory() {
+        new PrinceOfVersions(context, new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                return Mockito.mock(VersionVerifier.class);
+            }
+        }, repository, new SdkVersionProviderMock(21)).checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+    }
+}
@@ -0,0 +1,281 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CacheableLoader;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.UpdaterResult;
+import co.infinum.princeofversions.callbacks.ProvisionalUpdaterCallback;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class CoalescingTest {
+
+    private static final String CURRENT_VERSION = "2.0.0";
+
+    private List<ManualVersionVerifier> verifiers;
+
+    private List<KeyedResourceFileLoader> loaders;
+
+    private PrinceOfVersions updater;
+
+    @Before
+    public void setUp() throws Exception {
+        verifiers = new ArrayList<>();
+        loaders = new ArrayList<>();
+        updater = newUpdater();
+    }
+
+    private PrinceOfVersions newUpdater() throws Exception {
+        VersionRepository repository = Mockito.mock(VersionRepository.class);
+        Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getPackageName()).thenReturn("name");
+        PackageInfo packageInfo = Mockito.mock(PackageInfo.class);
+        packageInfo.versionName = CURRENT_VERSION;
+        Mockito.when(context.getPackageManager().getPackageInfo("name", 0)).thenReturn(packageInfo);
+        return new PrinceOfVersions(context, new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                ManualVersionVerifier verifier = new ManualVersionVerifier();
+                verifiers.add(verifier);
+                return verifier;
+            }
+        }, repository, new SdkVersionProviderMock(21));
+    }
+
+    private UpdaterResult check(String key, UpdaterCallback callback) {
+        return check(updater, key, callback);
+    }
+
+    private UpdaterResult check(PrinceOfVersions updater, final String key, UpdaterCallback callback) {
+        return updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                KeyedResourceFileLoader loader = new KeyedResourceFileLoader(key, "valid_update_full.json");
+                loaders.add(loader);
+                return loader;
+            }
+        }, callback);
+    }
+
+    private List<ManualVersionVerifier> started() {
+        List<ManualVersionVerifier> started = new ArrayList<>();
+        for (ManualVersionVerifier verifier : verifiers) {
+            if (verifier.listener != null) {
+                started.add(verifier);
+            }
+        }
+        return started;
+    }
+
+    @Test
+    public void testConcurrentChecksShareLoad() throws Exception {
+        UpdaterCallback first = Mockito.mock(UpdaterCallback.class);
+        UpdaterCallback second = Mockito.mock(UpdaterCallback.class);
+        check("a", first);
+        check("a", second);
+
+        assertEquals(1, started().size());
+        assertEquals("Verifier should be created only by check which starts loading", 1, verifiers.size());
+        started().get(0).complete();
+
+        Mockito.verify(first, Mockito.times(1)).onNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(second, Mockito.times(1)).onNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+    }
+
+    @Test
+    public void testChecksForDifferentKeysAreNotShared() {
+        check("a", Mockito.mock(UpdaterCallback.class));
+        check("b", Mockito.mock(UpdaterCallback.class));
+
+        assertEquals(2, started().size());
+    }
+
+    @Test
+    public void testChecksOfDifferentUpdatersAreNotShared() throws Exception {
+        check("a", Mockito.mock(UpdaterCallback.class));
+        // other updater may parse configuration differently, eg. for different verifier or parser
+        check(newUpdater(), "a", Mockito.mock(UpdaterCallback.class));
+
+        assertEquals(2, started().size());
+    }
+
+    @Test
+    public void testChecksOfDifferentVerifierFactoriesAreNotShared() {
+        VersionContextCache cache = new VersionContextCache(null, null, VersionContextCache.DEFAULT_MAX_ENTRIES,
+                VersionContextCache.DEFAULT_TTL_MILLIS, new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+        ParserFactory parserFactory = new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION));
+            }
+        };
+        check("a", Mockito.mock(UpdaterCallback.class));
+        // stale-while-revalidate check uses caching verifier, which stores configuration it loads
+        updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new KeyedResourceFileLoader("a", "valid_update_full.json");
+            }
+        }, parserFactory, cache, Mockito.mock(ProvisionalUpdaterCallback.class));
+        assertEquals(2, started().size());
+
+        // checks with the same cache use the same caching verifier
+        updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new KeyedResourceFileLoader("a", "valid_update_full.json");
+            }
+        }, parserFactory, cache, Mockito.mock(ProvisionalUpdaterCallback.class));
+        assertEquals(2, started().size());
+    }
+
+    @Test
+    public void testCheckAfterFinishedLoadStartsNewLoad() throws Exception {
+        check("a", Mockito.mock(UpdaterCallback.class));
+        started().get(0).complete();
+        check("a", Mockito.mock(UpdaterCallback.class));
+
+        assertEquals(2, started().size());
+    }
+
+    @Test
+    public void testCancellingOneSubscriberKeepsSharedLoad() throws Exception {
+        UpdaterCallback first = Mockito.mock(UpdaterCallback.class);
+        UpdaterCallback second = Mockito.mock(UpdaterCallback.class);
+        UpdaterResult firstResult = check("a", first);
+        check("a", second);
+
+        firstResult.cancel();
+        ManualVersionVerifier verifier = started().get(0);
+        assertFalse(verifier.cancelled);
+        assertFalse(loaders.get(0).cancelled);
+
+        verifier.complete();
+        Mockito.verifyZeroInteractions(first);
+        Mockito.verify(second, Mockito.times(1)).onNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+    }
+
+    @Test
+    public void testCancellingAllSubscribersCancelsSharedLoad() {
+        UpdaterCallback first = Mockito.mock(UpdaterCallback.class);
+        UpdaterCallback second = Mockito.mock(UpdaterCallback.class);
+        UpdaterResult firstResult = check("a", first);
+        UpdaterResult secondResult = check("a", second);
+
+        secondResult.cancel();
+        firstResult.cancel();
+
+        assertTrue(started().get(0).cancelled);
+        assertTrue(loaders.get(0).cancelled);
+        Mockito.verifyZeroInteractions(first, second);
+
+        check("a", Mockito.mock(UpdaterCallback.class));
+        assertEquals(2, started().size());
+    }
+
+    @Test
+    public void testErrorIsNotifiedToAllSubscribers() {
+        UpdaterCallback first = Mockito.mock(UpdaterCallback.class);
+        UpdaterCallback second = Mockito.mock(UpdaterCallback.class);
+        check("a", first);
+        check("a", second);
+
+        started().get(0).listener.versionUnavailable(ErrorCode.LOAD_ERROR);
+
+        Mockito.verify(first, Mockito.times(1)).onError(eq(ErrorCode.LOAD_ERROR));
+        Mockito.verify(second, Mockito.times(1)).onError(anyInt());
+    }
+
+    private static class KeyedResourceFileLoader extends ResourceFileLoader implements CacheableLoader {
+
+        private String key;
+
+        private boolean cancelled;
+
+        KeyedResourceFileLoader(String key, String filename) {
+            super(filename);
+            this.key = key;
+        }
+
+        @Override
+        public String getCacheKey() {
+            return key;
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Verifier which notifies result only when test completes it.
+     */
+    private static class ManualVersionVerifier implements VersionVerifier {
+
+        private UpdateConfigLoader loader;
+
+        private VersionVerifierListener listener;
+
+        private boolean cancelled;
+
+        @Override
+        public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+            this.loader = loader;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void complete() throws Exception {
+            VersionContext version = new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION)).parse(loader.load());
+            listener.versionAvailable(version);
+        }
+    }
+}
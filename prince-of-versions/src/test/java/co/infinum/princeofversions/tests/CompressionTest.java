@@ -0,0 +1,141 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.transport.ContentEncoding;
+import co.infinum.princeofversions.loaders.transport.HttpTransport;
+import co.infinum.princeofversions.loaders.transport.OkHttpTransport;
+import co.infinum.princeofversions.loaders.transport.TransferStats;
+import co.infinum.princeofversions.loaders.transport.UrlConnectionTransport;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class CompressionTest {
+
+    private MockWebServer mockWebServer;
+
+    private String content;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        content = ResourceUtils.readFromFile("valid_update_full.json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private NetworkLoader loader(HttpTransport transport) {
+        return new NetworkLoader(mockWebServer.url("/").toString(), null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS, null,
+                transport);
+    }
+
+    private static Buffer gzip(String value) throws IOException {
+        Buffer result = new Buffer();
+        BufferedSink sink = Okio.buffer(new GzipSink(result));
+        sink.writeString(value, Charset.forName("UTF-8"));
+        sink.close();
+        return result;
+    }
+
+    private void assertGzipDecoded(HttpTransport transport) throws Exception {
+        Buffer body = gzip(content);
+        long compressedSize = body.size();
+        mockWebServer.enqueue(new MockResponse().setBody(body).setHeader("Content-Encoding", "gzip"));
+        NetworkLoader loader = loader(transport);
+        assertEquals(content, loader.load());
+        assertTrue(mockWebServer.takeRequest().getHeader("Accept-Encoding").contains(ContentEncoding.GZIP));
+
+        TransferStats stats = loader.getTransferStats();
+        assertEquals("gzip", stats.getContentEncoding());
+        assertEquals(compressedSize, stats.getTransferredBytes());
+        assertEquals(content.getBytes(Charset.forName("UTF-8")).length, stats.getContentBytes());
+        assertTrue(stats.getTransferredBytes() < stats.getContentBytes());
+    }
+
+    @Test
+    public void testUrlConnectionDecodesGzip() throws Exception {
+        assertGzipDecoded(new UrlConnectionTransport());
+    }
+
+    @Test
+    public void testOkHttpDecodesGzip() throws Exception {
+        assertGzipDecoded(new OkHttpTransport());
+    }
+
+    @Test
+    public void testIdentityBodyIsNotDecoded() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody(content));
+        NetworkLoader loader = loader(new UrlConnectionTransport());
+        assertNull(loader.getTransferStats());
+        assertEquals(content, loader.load());
+        TransferStats stats = loader.getTransferStats();
+        assertNull(stats.getContentEncoding());
+        assertEquals(stats.getTransferredBytes(), stats.getContentBytes());
+    }
+
+    @Test
+    public void testGzipStreamsIntoParser() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody(gzip(content)).setHeader("Content-Encoding", "gzip"));
+        NetworkLoader loader = loader(new UrlConnectionTransport());
+        InputStream stream = loader.open();
+        try {
+            VersionContext version = new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0")).parse(stream);
+            assertEquals("1.0.0", version.getCurrentVersion().getVersionString());
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Test
+    public void testBrotliNotAcceptedWithoutDecoder() throws Exception {
+        assertFalse(ContentEncoding.isBrotliSupported());
+        assertEquals("gzip", ContentEncoding.getAcceptEncoding());
+        mockWebServer.enqueue(new MockResponse().setBody(content).setHeader("Content-Encoding", "br"));
+        try {
+            loader(new UrlConnectionTransport()).load();
+            fail("Unsupported encoding should fail.");
+        } catch (IOException expected) { // NOPMD
+            // unsupported encoding
+        }
+    }
+
+    @Test
+    public void testEncodingListIsParsed() {
+        assertFalse(ContentEncoding.isEncoded(null));
+        assertFalse(ContentEncoding.isEncoded("identity"));
+        assertTrue(ContentEncoding.isEncoded("identity, gzip"));
+        assertTrue(ContentEncoding.isEncoded("GZIP"));
+    }
+}
@@ -0,0 +1,249 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.NotModifiedException;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.util.ResourceUtils;
+import co.infinum.princeofversions.verifiers.SingleThreadVersionVerifier;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class ConditionalRequestTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private MockWebServer mockWebServer;
+
+    private ValidatorRepository validatorRepository;
+
+    private int parseCount;
+
+    private VersionConfigParser parser;
+
+    @Before
+    public void setUp() throws IOException {
+        VersionContextResolver.clearLastContexts();
+        validatorRepository = new InMemoryValidatorRepository();
+        parseCount = 0;
+        final JsonVersionConfigParser jsonParser = new JsonVersionConfigParser(new VersionContext.Version("2.0.0"));
+        parser = new VersionConfigParser() {
+            @Override
+            public VersionContext parse(String content) throws ParseException {
+                parseCount++;
+                return jsonParser.parse(content);
+            }
+        };
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void cleanup() {
+        try {
+            mockWebServer.shutdown();
+        } catch (Exception ignorable) {
+
+        }
+    }
+
+    private NetworkLoader newLoader() {
+        return new NetworkLoader(mockWebServer.url("/").toString(), null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS,
+                validatorRepository);
+    }
+
+    private MockResponse fullResponse() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("ETag", ETAG)
+                .setHeader("Last-Modified", LAST_MODIFIED)
+                .setBody(ResourceUtils.readFromFile("valid_update_full.json"));
+    }
+
+    @Test
+    public void testValidatorsStoredAndSent() throws Exception {
+        mockWebServer.enqueue(fullResponse());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        NetworkLoader loader = newLoader();
+        loader.load();
+        assertEquals(ETAG, validatorRepository.getEntityTag(mockWebServer.url("/").toString()));
+        assertEquals(LAST_MODIFIED, validatorRepository.getLastModified(mockWebServer.url("/").toString()));
+
+        RecordedRequest first = mockWebServer.takeRequest();
+        assertNull(first.getHeader("If-None-Match"));
+
+        NetworkLoader conditionalLoader = newLoader();
+        conditionalLoader.setConditionalLoadingEnabled(true);
+        try {
+            conditionalLoader.load();
+            fail("NotModifiedException expected");
+        } catch (NotModifiedException expected) {
+            // resource not modified
+        }
+        RecordedRequest second = mockWebServer.takeRequest();
+        assertEquals(ETAG, second.getHeader("If-None-Match"));
+        assertEquals(LAST_MODIFIED, second.getHeader("If-Modified-Since"));
+    }
+
+    @Test
+    public void testValidatorsNotSentByDefault() throws Exception {
+        validatorRepository.setValidators(mockWebServer.url("/").toString(), ETAG, LAST_MODIFIED);
+        mockWebServer.enqueue(fullResponse());
+
+        newLoader().load();
+        assertNull(mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testNotModifiedReusesLastVersionContext() throws Exception {
+        mockWebServer.enqueue(fullResponse());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        VersionVerifierListener first = Mockito.mock(VersionVerifierListener.class);
+        VersionVerifierListener second = Mockito.mock(VersionVerifierListener.class);
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), first);
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), second);
+
+        Mockito.verify(first, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        Mockito.verify(second, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        Mockito.verify(second, Mockito.never()).versionUnavailable(Mockito.anyInt());
+        assertEquals("Not modified resource should not be parsed again", 1, parseCount);
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testLastVersionContextNotReusedByDifferentParser() throws Exception {
+        mockWebServer.enqueue(fullResponse());
+        mockWebServer.enqueue(fullResponse());
+
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), Mockito.mock(VersionVerifierListener.class));
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        new SingleThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version("1.0.0")))
+                .verify(newLoader(), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        mockWebServer.takeRequest();
+        assertNull("Validators should not be sent for content parsed by different parser",
+                mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testEqualParsersReuseLastVersionContext() throws Exception {
+        mockWebServer.enqueue(fullResponse());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        new SingleThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version("2.0.0")))
+                .verify(newLoader(), Mockito.mock(VersionVerifierListener.class));
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        new SingleThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version("2.0.0")))
+                .verify(newLoader(), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testValidatorsOfOwnVersionContextSent() throws Exception {
+        mockWebServer.enqueue(fullResponse());
+        mockWebServer.enqueue(fullResponse().setHeader("ETag", "\"v2\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), Mockito.mock(VersionVerifierListener.class));
+        // resource changed and was loaded by different parser, which stored its own validators
+        new SingleThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version("1.0.0")))
+                .verify(newLoader(), Mockito.mock(VersionVerifierListener.class));
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), Mockito.mock(VersionVerifierListener.class));
+
+        mockWebServer.takeRequest();
+        mockWebServer.takeRequest();
+        RecordedRequest third = mockWebServer.takeRequest();
+        assertEquals("Validators of content parsed by the same parser should be sent", ETAG, third.getHeader("If-None-Match"));
+        assertEquals(LAST_MODIFIED, third.getHeader("If-Modified-Since"));
+    }
+
+    @Test
+    public void testUnconditionalLoadWithoutLastVersionContext() throws Exception {
+        validatorRepository.setValidators(mockWebServer.url("/").toString(), ETAG, null);
+        mockWebServer.enqueue(fullResponse());
+
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        assertNull("Validators should not be sent without parsed content", mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testNotModifiedWithoutLastVersionContextLoadsAgain() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+        mockWebServer.enqueue(fullResponse());
+
+        // server answers 304 even though nothing was parsed yet, eg. validators were cleared from memory
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        new SingleThreadVersionVerifier(parser).verify(newLoader(), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(Mockito.any(VersionContext.class));
+        Mockito.verify(listener, Mockito.never()).versionUnavailable(ErrorCode.LOAD_ERROR);
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    private static class InMemoryValidatorRepository implements ValidatorRepository {
+
+        private Map<String, String> entityTags = new HashMap<>();
+
+        private Map<String, String> lastModified = new HashMap<>();
+
+        @Override
+        public String getEntityTag(String key) {
+            return entityTags.get(key);
+        }
+
+        @Override
+        public String getLastModified(String key) {
+            return lastModified.get(key);
+        }
+
+        @Override
+        public void setValidators(String key, String entityTag, String lastModified) {
+            this.entityTags.put(key, entityTag);
+            this.lastModified.put(key, lastModified);
+        }
+
+        @Override
+        public void clearValidators(String key) {
+            entityTags.remove(key);
+            lastModified.remove(key);
+        }
+    }
+}
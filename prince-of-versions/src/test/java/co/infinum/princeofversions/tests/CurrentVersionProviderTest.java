@@ -0,0 +1,90 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.helpers.CurrentVersionProviderImpl;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class CurrentVersionProviderTest {
+
+    private Context context;
+
+    private PackageManager packageManager;
+
+    @Before
+    public void setUp() throws PackageManager.NameNotFoundException {
+        context = Mockito.mock(Context.class);
+        packageManager = Mockito.mock(PackageManager.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        Mockito.when(context.getPackageName()).thenReturn("name");
+        Mockito.when(context.getPackageManager()).thenReturn(packageManager);
+        PackageInfo packageInfo = new PackageInfo();
+        packageInfo.versionName = "1.2.3";
+        packageInfo.versionCode = 42;
+        Mockito.when(packageManager.getPackageInfo("name", 0)).thenReturn(packageInfo);
+    }
+
+    @Test
+    public void testPackageManagerAskedOnce() throws PackageManager.NameNotFoundException {
+        CurrentVersionProviderImpl provider = new CurrentVersionProviderImpl(context);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("1.2.3", provider.getCurrentVersion().getVersionString());
+            assertEquals(42, provider.getVersionCode());
+        }
+        verify(packageManager, times(1)).getPackageInfo("name", 0);
+    }
+
+    @Test
+    public void testDefaultParserFactoryUsesSharedProvider() throws Exception {
+        ParserFactory factory = PrinceOfVersions.createDefaultParserFactory(context);
+        ParserFactory other = PrinceOfVersions.createBinaryParserFactory(context);
+        for (int i = 0; i < 3; i++) {
+            factory.newInstance();
+            other.newInstance();
+        }
+        verify(packageManager, times(1)).getPackageInfo("name", 0);
+        assertSame(CurrentVersionProviderImpl.getInstance(context), CurrentVersionProviderImpl.getInstance(context));
+        assertNotSame(CurrentVersionProviderImpl.getInstance(context),
+                CurrentVersionProviderImpl.getInstance(Mockito.mock(Context.class)));
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws PackageManager.NameNotFoundException {
+        PackageInfo packageInfo = new PackageInfo();
+        packageInfo.versionName = "1.2.3";
+        Mockito.when(packageManager.getPackageInfo("name", 0))
+                .thenThrow(new PackageManager.NameNotFoundException())
+                .thenReturn(packageInfo);
+        CurrentVersionProviderImpl provider = new CurrentVersionProviderImpl(context);
+        try {
+            provider.getCurrentVersion();
+            fail("Version should not be available.");
+        } catch (IllegalArgumentException expected) { // NOPMD
+            // package not found
+        }
+        assertEquals("1.2.3", provider.getCurrentVersion().getVersionString());
+        assertEquals("1.2.3", provider.getCurrentVersion().getVersionString());
+        verify(packageManager, times(2)).getPackageInfo("name", 0);
+    }
+}
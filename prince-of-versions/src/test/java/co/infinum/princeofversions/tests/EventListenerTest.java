@@ -0,0 +1,208 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.content.Context;
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CheckResult;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.PercentileEventListener;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.EventListener;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.loaders.factories.NetworkLoaderFactory;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class EventListenerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private Context context;
+
+    private VersionRepository repository;
+
+    private PercentileEventListener events;
+
+    @Before
+    public void setUp() {
+        context = Mockito.mock(Context.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        repository = Mockito.mock(VersionRepository.class);
+        events = new PercentileEventListener();
+        PrinceOfVersions.setEventListener(events);
+    }
+
+    @After
+    public void tearDown() {
+        PrinceOfVersions.setEventListener(null);
+    }
+
+    private PrinceOfVersions updater(final String currentVersion) {
+        return new PrinceOfVersions(context, new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return new JsonVersionConfigParser(new VersionContext.Version(currentVersion));
+            }
+        }, repository);
+    }
+
+    private static LoaderFactory resource(final String filename) {
+        return new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader(filename);
+            }
+        };
+    }
+
+    @Test
+    public void testPhasesOfOptionalUpdate() {
+        CheckResult result = updater("2.0.0").checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+        assertTrue(result.hasUpdate());
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_LOAD));
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_PARSE));
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_DECIDE));
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_REPOSITORY_READ));
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_REPOSITORY_WRITE));
+        assertEquals(1, events.getDecisionCount(EventListener.DECISION_OPTIONAL_UPDATE));
+        assertEquals(0, events.getLoadErrorCount());
+        assertEquals(0, events.getCount(PercentileEventListener.PHASE_DISPATCH));
+        assertTrue(events.getPercentileNanos(PercentileEventListener.PHASE_LOAD, 50) >= 0);
+    }
+
+    @Test
+    public void testFailedPhasesCounted() {
+        PrinceOfVersions updater = updater("1.0.0");
+        updater.checkForUpdatesSync(resource("invalid_update_no_android.json"), TIMEOUT_MILLIS);
+        assertEquals(1, events.getParseErrorCount());
+        assertEquals(0, events.getCount(PercentileEventListener.PHASE_DECIDE));
+
+        updater.checkForUpdatesSync(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json") {
+                    @Override
+                    public String load() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                };
+            }
+        }, TIMEOUT_MILLIS);
+        assertEquals(2, events.getCount(PercentileEventListener.PHASE_LOAD));
+        assertEquals(1, events.getLoadErrorCount());
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_PARSE));
+    }
+
+    @Test
+    public void testStreamedLoadReportsBytes() throws Exception {
+        EventListener listener = Mockito.mock(EventListener.class);
+        PrinceOfVersions.setEventListener(listener);
+        String body = ResourceUtils.readFromFile("valid_update_full.json");
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.enqueue(new MockResponse().setBody(body));
+        mockWebServer.start();
+        try {
+            CheckResult result = updater("3.0.0").checkForUpdatesSync(new NetworkLoaderFactory(mockWebServer.url("/").toString()),
+                    new ParserFactory() {
+                        @Override
+                        public VersionConfigParser newInstance() {
+                            return new JsonStreamVersionConfigParser(new VersionContext.Version("3.0.0"));
+                        }
+                    }, TIMEOUT_MILLIS);
+            assertFalse(result.hasUpdate());
+        } finally {
+            mockWebServer.shutdown();
+        }
+        InOrder inOrder = Mockito.inOrder(listener);
+        inOrder.verify(listener).onLoadStarted(any(UpdateConfigLoader.class));
+        inOrder.verify(listener).onParsed(anyLong(), (Exception) isNull());
+        inOrder.verify(listener).onLoadFinished(any(UpdateConfigLoader.class), anyLong(), eq((long) body.length()),
+                (Exception) isNull());
+        inOrder.verify(listener).onDecided(eq(EventListener.DECISION_NO_UPDATE), anyLong());
+    }
+
+    @Test
+    public void testPostedNotificationDelayReported() throws InterruptedException {
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        UpdaterCallback callback = Mockito.mock(UpdaterCallback.class);
+        updater("3.0.0").checkForUpdates(resource("valid_update_full.json"), CallbackDispatchers.executor(executor), callback);
+        long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (Mockito.mockingDetails(callback).getInvocations().isEmpty() && System.currentTimeMillis() < end) {
+            ShadowLooper.runUiThreadTasks();
+            Thread.sleep(10);
+        }
+        verify(callback).onNoUpdate(ArgumentMatchers.<String, String>anyMap());
+        // result goes from worker thread straight to dispatcher, without being posted to main thread first
+        assertEquals(1, events.getCount(PercentileEventListener.PHASE_DISPATCH));
+    }
+
+    @Test
+    public void testNothingReportedWithoutListener() {
+        EventListener listener = Mockito.mock(EventListener.class);
+        PrinceOfVersions.setEventListener(listener);
+        PrinceOfVersions.setEventListener(null);
+        updater("1.0.0").checkForUpdatesSync(resource("valid_update_full.json"), TIMEOUT_MILLIS);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testPercentiles() {
+        PercentileEventListener listener = new PercentileEventListener(100);
+        for (int i = 1; i <= 150; i++) {
+            listener.onDispatched(i);
+        }
+        assertEquals(150, listener.getCount(PercentileEventListener.PHASE_DISPATCH));
+        // only last 100 values are kept
+        assertEquals(51, listener.getPercentileNanos(PercentileEventListener.PHASE_DISPATCH, 0));
+        assertEquals(100, listener.getPercentileNanos(PercentileEventListener.PHASE_DISPATCH, 50));
+        assertEquals(140, listener.getPercentileNanos(PercentileEventListener.PHASE_DISPATCH, 90));
+        assertEquals(150, listener.getPercentileNanos(PercentileEventListener.PHASE_DISPATCH, 100));
+        assertEquals(-1, listener.getPercentileNanos(PercentileEventListener.PHASE_LOAD, 50));
+
+        listener.reset();
+        assertEquals(0, listener.getCount(PercentileEventListener.PHASE_DISPATCH));
+        assertEquals(-1, listener.getPercentileNanos(PercentileEventListener.PHASE_DISPATCH, 50));
+    }
+}
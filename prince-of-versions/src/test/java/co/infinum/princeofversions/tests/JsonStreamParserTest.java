@@ -0,0 +1,135 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.ParseException;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.util.ResourceUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class JsonStreamParserTest {
+
+    private static final String[] CURRENT_VERSIONS = {"1.0.0", "1.2.3", "2.0.0", "3.0.0"};
+
+    private static String describe(VersionContext version) {
+        StringBuilder builder = new StringBuilder()
+                .append(version.getCurrentVersion().getVersionString())
+                .append(", min=").append(version.getMinimumVersion() != null ? version.getMinimumVersion().getVersionString() : null)
+                .append(", lessThanMin=").append(version.isCurrentLessThanMinimum())
+                .append(", minSdk=").append(version.getMinimumVersionMinSdk())
+                .append(", hasOptional=").append(version.hasOptionalUpdate())
+                .append(", lessThanOptional=").append(version.isCurrentLessThanOptional());
+        if (version.hasOptionalUpdate()) {
+            builder.append(", optional=").append(version.getOptionalUpdate().getVersion().getVersionString())
+                    .append(", notification=").append(version.getOptionalUpdate().getNotificationType())
+                    .append(", newMinSdk=").append(version.getOptionalUpdate().getNewMinSdk());
+        }
+        Map<String, String> metadata = version.getMetadata() != null ? new TreeMap<>(version.getMetadata()) : null;
+        return builder.append(", meta=").append(metadata).toString();
+    }
+
+    private static String parseWith(Object parser, String content, boolean stream) {
+        try {
+            VersionContext version;
+            if (stream) {
+                version = ((JsonStreamVersionConfigParser) parser).parse(new ByteArrayInputStream(content.getBytes("UTF-8")));
+            } else {
+                version = ((JsonVersionConfigParser) parser).parse(content);
+            }
+            return describe(version);
+        } catch (ParseException e) {
+            return "ParseException";
+        } catch (IOException e) {
+            return "IOException";
+        }
+    }
+
+    private void assertSameAsJsonParser(String content) {
+        for (String current : CURRENT_VERSIONS) {
+            VersionContext.Version currentVersion = new VersionContext.Version(current);
+            String expected = parseWith(new JsonVersionConfigParser(currentVersion), content, false);
+            JsonStreamVersionConfigParser parser = new JsonStreamVersionConfigParser(currentVersion);
+            assertEquals(content, expected, parseWith(parser, content, false));
+            assertEquals(content, expected, parseWith(parser, content, true));
+        }
+    }
+
+    @Test
+    public void testAllMockDataParsedAsWithJsonParser() {
+        File[] files = new File(getClass().getClassLoader().getResource("mockdata").getPath()).listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            assertSameAsJsonParser(ResourceUtils.readFromFile(file.getName()));
+        }
+    }
+
+    @Test
+    public void testEdgeCasesParsedAsWithJsonParser() {
+        String[] contents = {
+                "",
+                "[]",
+                "{}",
+                "{\"android\": null}",
+                "{\"android\": {\"minimum_version\": null}}",
+                "{\"android\": {\"minimum_version\": 1}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\", \"latest_version\": \"2.0.0\"}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\", \"minimum_version_min_sdk\": \"17\"}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\", \"minimum_version_min_sdk\": 17.9}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\", \"minimum_version_min_sdk\": true}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\", \"minimum_version_min_sdk\": 4294967313}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"android\": {\"minimum_version\": \"2.2.3\"}}",
+                "{\"android\": {\"latest_version\": {\"version\": \"2.0.0\", \"notification_type\": null}}}",
+                "{\"android\": {\"latest_version\": {\"version\": \"2.0.0\", \"min_sdk\": 30}, \"latest_version\": {\"version\": \"2.1.0\"}}}",
+                "{\"ios\": {\"a\": [1, 2, {\"b\": null}]}, \"android\": {\"minimum_version\": \"1.2.3\", \"x\": {\"y\": [true]}}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": \"value\"}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": \"1\", \"b\": 2, \"c\": null, \"a\": [], \"d\": {}}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": \"1\"}, \"meta\": {\"b\": \"2\"}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": \"1\"}, \"meta\": \"b\"}",
+                "{\"meta\": {\"a\": {\"b\": [1.50, -2e3, \"\\\"\"]}, \"c\": \"d\"}, \"android\": {\"minimum_version\": \"1.2.3\"}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": \"\\u0161\\n\"}}",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"",
+                "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"ios\": [1, }",
+        };
+        for (String content : contents) {
+            assertSameAsJsonParser(content);
+        }
+    }
+
+    @Test
+    public void testStreamErrorIsNotParseError() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        try {
+            new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0")).parse(failing);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            // stream failure is reported as is
+        } catch (ParseException e) {
+            fail("IOException expected");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.helpers.MappedVersionRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class MappedVersionRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<MappedVersionRepository> repositories = new ArrayList<>();
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "princeofversions/repository");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (MappedVersionRepository repository : repositories) {
+            repository.close();
+        }
+    }
+
+    private MappedVersionRepository open() throws IOException {
+        MappedVersionRepository repository = new MappedVersionRepository(file);
+        repositories.add(repository);
+        return repository;
+    }
+
+    @Test
+    public void testReadAndWrite() throws IOException {
+        MappedVersionRepository repository = open();
+        assertEquals(MappedVersionRepository.FILE_SIZE, file.length());
+        assertNull(repository.getLastVersionName());
+        assertEquals("default", repository.getLastVersionName("default"));
+
+        repository.setLastVersionName("1.2.3");
+        assertEquals("1.2.3", repository.getLastVersionName());
+        assertSame(repository.getLastVersionName(), repository.getLastVersionName());
+
+        repository.setLastVersionName("2.0.0-rc.1+čćž");
+        assertEquals("2.0.0-rc.1+čćž", repository.getLastVersionName("default"));
+
+        repository.setLastVersionName(null);
+        assertEquals("default", repository.getLastVersionName("default"));
+    }
+
+    @Test
+    public void testWriteVisibleToOtherInstanceWithoutReload() throws IOException {
+        MappedVersionRepository first = open();
+        MappedVersionRepository second = open();
+        assertNull(second.getLastVersionName());
+
+        first.setLastVersionName("1.2.3");
+        assertEquals("1.2.3", second.getLastVersionName());
+        second.setLastVersionName("2.0.0");
+        assertEquals("2.0.0", first.getLastVersionName());
+    }
+
+    @Test
+    public void testValuePersistedAfterReopen() throws IOException {
+        open().setLastVersionName("1.2.3");
+        assertEquals("1.2.3", open().getLastVersionName());
+    }
+
+    @Test
+    public void testTooLongVersionRejected() throws IOException {
+        MappedVersionRepository repository = open();
+        repository.setLastVersionName("1.0.0");
+        char[] version = new char[MappedVersionRepository.MAX_VERSION_LENGTH + 1];
+        Arrays.fill(version, '1');
+        try {
+            repository.setLastVersionName(new String(version));
+            fail("Version should be rejected.");
+        } catch (IllegalArgumentException expected) { // NOPMD
+            // version does not fit into file
+        }
+        assertEquals("1.0.0", repository.getLastVersionName());
+    }
+
+    @Test
+    public void testMalformedFileIsInitialized() throws IOException {
+        RandomAccessFile raw = createRaw();
+        raw.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18});
+        raw.close();
+
+        MappedVersionRepository repository = open();
+        assertNull(repository.getLastVersionName());
+        repository.setLastVersionName("1.2.3");
+        assertEquals("1.2.3", repository.getLastVersionName());
+    }
+
+    @Test
+    public void testInterruptedWriteIsRecovered() throws IOException {
+        open().setLastVersionName("1.2.3");
+        RandomAccessFile raw = createRaw();
+        raw.seek(8);
+        int sequence = raw.readInt();
+        raw.seek(8);
+        raw.writeInt(sequence + 1);
+        raw.close();
+
+        MappedVersionRepository repository = open();
+        assertEquals("1.2.3", repository.getLastVersionName());
+        repository.setLastVersionName("2.0.0");
+        assertEquals("2.0.0", repository.getLastVersionName());
+        assertEquals("2.0.0", open().getLastVersionName());
+    }
+
+    @Test
+    public void testConcurrentReadsAreNotTorn() throws Exception {
+        final MappedVersionRepository writer = open();
+        final MappedVersionRepository reader = open();
+        final String shortVersion = "1.0.0";
+        final String longVersion = "22.33.44-alpha.beta.gamma.delta";
+        writer.setLastVersionName(shortVersion);
+        final AtomicReference<String> torn = new AtomicReference<>();
+        Thread writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 20000; i++) {
+                    writer.setLastVersionName(i % 2 == 0 ? longVersion : shortVersion);
+                }
+            }
+        });
+        writerThread.start();
+        while (writerThread.isAlive()) {
+            String version = reader.getLastVersionName();
+            if (!shortVersion.equals(version) && !longVersion.equals(version)) {
+                torn.set(version);
+            }
+        }
+        writerThread.join();
+        assertNull(torn.get());
+        assertEquals(shortVersion, reader.getLastVersionName());
+    }
+
+    private RandomAccessFile createRaw() throws IOException {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        return new RandomAccessFile(file, "rw");
+    }
+}
@@ -0,0 +1,206 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.BaseLoader;
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.exceptions.HttpStatusException;
+import co.infinum.princeofversions.loaders.MultiSourceLoader;
+import co.infinum.princeofversions.loaders.SourceStats;
+import co.infinum.princeofversions.loaders.factories.MultiSourceLoaderFactory;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class MultiSourceLoaderTest {
+
+    private static final long HEDGE_DELAY_MILLIS = 200;
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private MockWebServer primary;
+
+    private MockWebServer secondary;
+
+    private MultiSourceLoaderFactory factory;
+
+    @Before
+    public void setUp() throws IOException {
+        primary = new MockWebServer();
+        primary.start();
+        secondary = new MockWebServer();
+        secondary.start();
+        factory = new MultiSourceLoaderFactory(HEDGE_DELAY_MILLIS, primary.url("/").toString(), secondary.url("/").toString());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        primary.shutdown();
+        secondary.shutdown();
+    }
+
+    private String load() throws IOException, InterruptedException {
+        return factory.newInstance().load();
+    }
+
+    @Test
+    public void testFastPrimaryNotHedged() throws Exception {
+        primary.enqueue(new MockResponse().setBody("primary"));
+        assertEquals("primary", load());
+        assertEquals(0, secondary.getRequestCount());
+        assertEquals(1, factory.getStats().getWinCount(0));
+        assertTrue(factory.getStats().getLatencyMillis(0) >= 0);
+        assertTrue(factory.getStats().getLatencyMillis(1) < 0);
+    }
+
+    @Test
+    public void testSlowPrimaryHedgedAndCancelled() throws Exception {
+        primary.enqueue(new MockResponse().setBody("primary").setBodyDelay(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        secondary.enqueue(new MockResponse().setBody("secondary"));
+        long start = System.nanoTime();
+        assertEquals("secondary", load());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= HEDGE_DELAY_MILLIS && elapsed < WAIT_MILLIS);
+
+        SourceStats stats = factory.getStats();
+        assertEquals(1, stats.getWinCount(1));
+        assertTrue(stats.getLatencyMillis(0) >= HEDGE_DELAY_MILLIS);
+        assertTrue(stats.getLatencyMillis(1) < stats.getLatencyMillis(0));
+
+        // faster source is preferred next time
+        secondary.enqueue(new MockResponse().setBody("secondary"));
+        primary.enqueue(new MockResponse().setBody("primary"));
+        assertEquals("secondary", load());
+        assertEquals(1, primary.getRequestCount());
+        assertEquals(2, secondary.getRequestCount());
+    }
+
+    @Test
+    public void testFailedSourceFailsOverWithoutDelay() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse().setBody("secondary"));
+        long start = System.nanoTime();
+        assertEquals("secondary", load());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < HEDGE_DELAY_MILLIS);
+        assertEquals(1, factory.getStats().getConsecutiveFailures(0));
+
+        // failed source is tried last
+        secondary.enqueue(new MockResponse().setBody("secondary"));
+        assertEquals("secondary", load());
+        assertEquals(1, primary.getRequestCount());
+    }
+
+    @Test
+    public void testAllSourcesFail() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(500));
+        secondary.enqueue(new MockResponse().setResponseCode(404));
+        try {
+            load();
+            fail("Loading should fail.");
+        } catch (HttpStatusException expected) {
+            // error of the first started source
+            assertEquals(500, expected.getStatusCode());
+        }
+        assertEquals(1, factory.getStats().getConsecutiveFailures(0));
+        assertEquals(1, factory.getStats().getConsecutiveFailures(1));
+    }
+
+    @Test
+    public void testCancelStopsAllSources() throws Exception {
+        primary.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        secondary.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        final UpdateConfigLoader loader = factory.newInstance();
+        final Throwable[] result = new Throwable[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loader.load();
+                } catch (Throwable e) {
+                    result[0] = e;
+                }
+            }
+        });
+        thread.start();
+        primary.takeRequest();
+        secondary.takeRequest();
+        loader.cancel();
+        thread.join(WAIT_MILLIS);
+        assertTrue(result[0] instanceof InterruptedException);
+    }
+
+    @Test
+    public void testEmptyContentIsNotUsed() throws Exception {
+        MultiSourceLoader loader = new MultiSourceLoader(new StaticLoader(""), new StaticLoader("content"));
+        assertEquals("content", loader.load());
+        assertEquals(1, loader.getStats().getConsecutiveFailures(0));
+    }
+
+    @Test
+    public void testQueueTimeIsNotLatency() throws Exception {
+        Executor busyExecutor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            // all threads are busy for a while
+                            Thread.sleep(HEDGE_DELAY_MILLIS);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        command.run();
+                    }
+                }).start();
+            }
+        };
+        SourceStats stats = new SourceStats(1);
+        MultiSourceLoader loader = new MultiSourceLoader(Collections.singletonList(new StaticLoader("content")), WAIT_MILLIS, stats,
+                busyExecutor);
+        assertEquals("content", loader.load());
+        assertTrue(stats.getLatencyMillis(0) >= 0);
+        assertTrue(stats.getLatencyMillis(0) < HEDGE_DELAY_MILLIS);
+    }
+
+    /**
+     * Loader returning given content right away.
+     */
+    private static class StaticLoader extends BaseLoader {
+
+        private final String content;
+
+        StaticLoader(String content) {
+            this.content = content;
+        }
+
+        @Override
+        public String load() {
+            return content;
+        }
+
+        @Override
+        public void validate() {
+            // always valid
+        }
+    }
+}
@@ -64,6 +64,7 @@ public class NetworkLoaderTest {
     private Context setupContext(String versionName) throws PackageManager.NameNotFoundException {
         Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
         Mockito.when(context.getPackageName()).thenReturn("name");
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
         PackageInfo packageInfo = Mockito.mock(PackageInfo.class);
         packageInfo.versionName = versionName;
         Mockito.when(context.getPackageManager().getPackageInfo("name", 0)).thenReturn(packageInfo);
@@ -0,0 +1,191 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.exceptions.HttpStatusException;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.RetryPolicy;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class RetryPolicyTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private MockWebServer mockWebServer;
+
+    private RetryPolicy policy;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        policy = new RetryPolicy().setBackoff(50, 2, 1000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private NetworkLoader loader() {
+        NetworkLoader loader = new NetworkLoader(mockWebServer.url("/").toString());
+        loader.setRetryPolicy(policy);
+        return loader;
+    }
+
+    private static HttpStatusException assertLoadFails(NetworkLoader loader) throws Exception {
+        try {
+            loader.load();
+            fail("Loading should fail.");
+            return null;
+        } catch (HttpStatusException expected) {
+            return expected;
+        }
+    }
+
+    @Test
+    public void testTransientErrorRecovered() throws Exception {
+        String body = ResourceUtils.readFromFile("valid_update_full.json");
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(502));
+        mockWebServer.enqueue(new MockResponse().setBody(body));
+        NetworkLoader loader = loader();
+        assertEquals(body, loader.load());
+        assertEquals(3, mockWebServer.getRequestCount());
+        assertEquals(2, loader.getRetryCount());
+        assertEquals(1, policy.getLoadCount());
+        assertEquals(2, policy.getRetryCount());
+        assertEquals(1, policy.getRecoveredCount());
+        assertEquals(0, policy.getFailedCount());
+    }
+
+    @Test
+    public void testBodyReadFailureRecovered() throws Exception {
+        String body = ResourceUtils.readFromFile("valid_update_full.json");
+        mockWebServer.enqueue(new MockResponse().setBody(body).setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY));
+        mockWebServer.enqueue(new MockResponse().setBody(body));
+        NetworkLoader loader = loader();
+        assertEquals(body, loader.load());
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertEquals(1, loader.getRetryCount());
+        assertEquals(1, policy.getRecoveredCount());
+    }
+
+    @Test
+    public void testAttemptsExhausted() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        }
+        assertEquals(500, assertLoadFails(loader()).getStatusCode());
+        assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, mockWebServer.getRequestCount());
+        assertEquals(1, policy.getFailedCount());
+        assertEquals(0, policy.getRecoveredCount());
+    }
+
+    @Test
+    public void testClientErrorNotRetried() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        mockWebServer.enqueue(new MockResponse().setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+        NetworkLoader loader = loader();
+        assertEquals(404, assertLoadFails(loader).getStatusCode());
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(0, loader.getRetryCount());
+        assertEquals(0, policy.getRetryCount());
+    }
+
+    @Test
+    public void testNotRetriedByDefault() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+        NetworkLoader loader = new NetworkLoader(mockWebServer.url("/").toString());
+        assertEquals(503, assertLoadFails(loader).getStatusCode());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testRetryAfterRespected() throws Exception {
+        String body = ResourceUtils.readFromFile("valid_update_full.json");
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1"));
+        mockWebServer.enqueue(new MockResponse().setBody(body));
+        long start = System.nanoTime();
+        assertEquals(body, loader().load());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testRetryAfterLongerThanMaximumBackoffNotRetried() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "120"));
+        HttpStatusException error = assertLoadFails(loader());
+        assertEquals(TimeUnit.SECONDS.toMillis(120), error.getRetryAfterMillis());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testNotRetriedPastDeadline() throws Exception {
+        policy.setBackoff(1000, 2, 1000);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        NetworkLoader loader = loader();
+        loader.setDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500));
+        long start = System.nanoTime();
+        assertLoadFails(loader);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testCancelDuringBackoff() throws Exception {
+        policy.setBackoff(WAIT_MILLIS, 2, WAIT_MILLIS);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        final NetworkLoader loader = loader();
+        final Throwable[] result = new Throwable[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loader.load();
+                } catch (Throwable e) {
+                    result[0] = e;
+                }
+            }
+        });
+        long start = System.nanoTime();
+        thread.start();
+        mockWebServer.takeRequest();
+        loader.cancel();
+        thread.join(WAIT_MILLIS);
+        assertTrue(result[0] instanceof InterruptedException);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < WAIT_MILLIS);
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        long now = 1500000000000L;
+        assertEquals(30000, RetryPolicy.parseRetryAfterMillis("30", now));
+        assertEquals(20000, RetryPolicy.parseRetryAfterMillis("Fri, 14 Jul 2017 02:40:20 GMT", now));
+        assertEquals(0, RetryPolicy.parseRetryAfterMillis("Fri, 14 Jul 2017 02:39:00 GMT", now));
+        assertEquals(-1, RetryPolicy.parseRetryAfterMillis(null, now));
+        assertEquals(-1, RetryPolicy.parseRetryAfterMillis("soon", now));
+    }
+}
@@ -0,0 +1,245 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.threading.ThreadVersionVerifier;
+import co.infinum.princeofversions.threading.VersionVerifierScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class SchedulerTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    private final VersionContext version = new VersionContext(
+            new VersionContext.Version("1.0.0"),
+            new VersionContext.Version("2.0.0"), true,
+            new VersionContext.UpdateContext(new VersionContext.Version("1.0.0"), "ONCE"), true, 15);
+
+    private CountDownLatch release;
+
+    private List<VersionVerifierScheduler> schedulers;
+
+    @Before
+    public void setUp() {
+        release = new CountDownLatch(1);
+        schedulers = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        for (VersionVerifierScheduler scheduler : schedulers) {
+            scheduler.getExecutor().shutdownNow();
+        }
+    }
+
+    private VersionVerifierScheduler scheduler(int poolSize, int queueCapacity) {
+        VersionVerifierScheduler scheduler = new VersionVerifierScheduler(poolSize, queueCapacity);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Work which notifies result after test releases it.
+     */
+    private VersionVerifierScheduler.Work blockingWork(final AtomicInteger runs) {
+        return new VersionVerifierScheduler.Work() {
+            @Override
+            public void run(VersionVerifierListener listener) {
+                runs.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                listener.versionAvailable(version);
+            }
+
+            @Override
+            public void timeout(VersionVerifierListener listener) {
+                listener.versionUnavailable(ErrorCode.TIMEOUT);
+            }
+        };
+    }
+
+    @Test
+    public void testThreadCountStaysConstant() {
+        VersionVerifierScheduler scheduler = scheduler(2, 16);
+        AtomicInteger runs = new AtomicInteger();
+        List<VersionVerifierListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+            listeners.add(listener);
+            scheduler.submit(blockingWork(runs), listener);
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) scheduler.getExecutor();
+        assertEquals(2, executor.getPoolSize());
+        release.countDown();
+        for (VersionVerifierListener listener : listeners) {
+            verify(listener, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionAvailable(version);
+        }
+        assertEquals(10, runs.get());
+        assertEquals(2, executor.getLargestPoolSize());
+    }
+
+    @Test
+    public void testRejectWhenQueueIsFull() {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        try {
+            scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+            fail("Check should be rejected.");
+        } catch (RejectedExecutionException expected) { // NOPMD
+            // queue is full
+        }
+    }
+
+    @Test
+    public void testVerifierNotifiesRejectedCheck() {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        new ThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version("1.0.0")), scheduler)
+                .verify(Mockito.mock(UpdateConfigLoader.class), listener);
+        verify(listener).versionUnavailable(ErrorCode.REJECTED);
+        verify(listener, never()).versionAvailable(any(VersionContext.class));
+    }
+
+    @Test
+    public void testCancelledQueuedCheckReleasesQueue() throws InterruptedException {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        VersionVerifierListener cancelled = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(blockingWork(cancelledRuns), cancelled).cancel();
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(blockingWork(runs), listener);
+        release.countDown();
+        verify(listener, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionAvailable(version);
+        assertEquals(0, cancelledRuns.get());
+        verify(cancelled, never()).versionAvailable(any(VersionContext.class));
+    }
+
+    @Test
+    public void testTimeoutNotifiesAndInterruptsWork() throws InterruptedException {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(new VersionVerifierScheduler.Work() {
+            @Override
+            public void run(VersionVerifierListener listener) {
+                try {
+                    release.await();
+                    listener.versionAvailable(version);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    // late result is not notified
+                    listener.versionAvailable(version);
+                }
+            }
+
+            @Override
+            public void timeout(VersionVerifierListener listener) {
+                listener.versionUnavailable(ErrorCode.TIMEOUT);
+            }
+        }, listener, 100, TimeUnit.MILLISECONDS);
+        assertTrue(interrupted.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        verify(listener).versionUnavailable(ErrorCode.TIMEOUT);
+        verify(listener, never()).versionAvailable(any(VersionContext.class));
+    }
+
+    @Test
+    public void testExpiredRightAwayStopsWork() {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        // timeout may expire before submit returns, it must still stop the work
+        scheduler.submit(blockingWork(new AtomicInteger()), listener, 1, TimeUnit.NANOSECONDS);
+        verify(listener, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionUnavailable(ErrorCode.TIMEOUT);
+
+        // the only worker thread is free again without releasing blocked work
+        VersionVerifierListener next = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(new VersionVerifierScheduler.Work() {
+            @Override
+            public void run(VersionVerifierListener listener) {
+                listener.versionAvailable(version);
+            }
+
+            @Override
+            public void timeout(VersionVerifierListener listener) {
+                listener.versionUnavailable(ErrorCode.TIMEOUT);
+            }
+        }, next);
+        verify(next, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionAvailable(version);
+    }
+
+    @Test
+    public void testTimeoutOfQueuedCheck() {
+        VersionVerifierScheduler scheduler = scheduler(1, 1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger expiredRuns = new AtomicInteger();
+        scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(blockingWork(expiredRuns), listener, 100, TimeUnit.MILLISECONDS);
+        verify(listener, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionUnavailable(ErrorCode.TIMEOUT);
+        release.countDown();
+        // expired check does not take place in queue anymore
+        VersionVerifierListener next = Mockito.mock(VersionVerifierListener.class);
+        scheduler.submit(blockingWork(runs), next);
+        verify(next, timeout(TimeUnit.SECONDS.toMillis(WAIT_SECONDS))).versionAvailable(version);
+        assertEquals(0, expiredRuns.get());
+    }
+
+    @Test
+    public void testInjectedExecutors() {
+        ExecutorService executor = Mockito.mock(ExecutorService.class);
+        Mockito.when(executor.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException());
+        VersionVerifierScheduler scheduler = new VersionVerifierScheduler(executor, Mockito.mock(ScheduledExecutorService.class));
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            scheduler.submit(blockingWork(runs), Mockito.mock(VersionVerifierListener.class));
+            fail("Check should be rejected.");
+        } catch (RejectedExecutionException expected) { // NOPMD
+            // executor rejected check
+        }
+        assertFalse(runs.get() > 0);
+    }
+}
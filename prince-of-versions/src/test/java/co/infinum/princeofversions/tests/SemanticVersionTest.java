@@ -0,0 +1,140 @@
+package co.infinum.princeofversions.tests;
+
+import com.github.zafarkhaja.semver.Version;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.os.Build;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.SemanticVersion;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.ContextHelper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class SemanticVersionTest {
+
+    private static final String[] VERSIONS = {
+            "0.0.1", "1.0.0", "1.0.1", "1.1.0", "1.10.0", "2.0.0", "10.0.0", "2147483647.0.0",
+            "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta", "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1",
+            "1.0.0-1", "1.0.0-2", "1.0.0-10", "1.0.0-a1", "1.0.0-A", "1.0.0-x-y", "1.0.0-99999999999",
+            "1.0.0+build", "1.0.0-rc.1+build.5", "1.0.0+other"
+    };
+
+    private static int signum(int value) {
+        return Integer.signum(value);
+    }
+
+    @Test
+    public void testPrecedenceSameAsJsemver() {
+        for (String first : VERSIONS) {
+            for (String second : VERSIONS) {
+                int expected = signum(Version.valueOf(first).compareTo(Version.valueOf(second)));
+                SemanticVersion parsedFirst = SemanticVersion.valueOf(first);
+                SemanticVersion parsedSecond = SemanticVersion.valueOf(second);
+                assertEquals(first + " vs " + second, expected, signum(parsedFirst.compareTo(parsedSecond)));
+                assertEquals(first + " vs " + second, expected == 0, parsedFirst.equals(parsedSecond));
+                if (expected == 0) {
+                    assertEquals(parsedFirst.hashCode(), parsedSecond.hashCode());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidVersionsRejected() {
+        String[] invalid = {"1.2", "1", "abc", "1.2.3.4", "", "1.0.0-", "01.0.0"};
+        for (String version : invalid) {
+            boolean jsemverAccepts;
+            try {
+                Version.valueOf(version);
+                jsemverAccepts = true;
+            } catch (RuntimeException e) {
+                jsemverAccepts = false;
+            }
+            try {
+                SemanticVersion.valueOf(version);
+                assertTrue(version, jsemverAccepts);
+            } catch (RuntimeException e) {
+                assertFalse(version, jsemverAccepts);
+            }
+        }
+        try {
+            SemanticVersion.valueOf(null);
+            fail("Null version should be rejected.");
+        } catch (IllegalArgumentException expected) { // NOPMD
+            // null version
+        }
+    }
+
+    @Test
+    public void testIdentifiersComparedAfterPoolIsFull() {
+        SemanticVersion first = SemanticVersion.valueOf("1.0.0-alpha.first");
+        for (int i = 0; i < 1000; i++) {
+            SemanticVersion.valueOf("1.0.0-alpha.identifier" + i);
+        }
+        assertEquals(0, first.compareTo(SemanticVersion.valueOf("1.0.0-alpha.first")));
+        assertTrue(first.isLessThan(SemanticVersion.valueOf("1.0.0-alpha.second")));
+    }
+
+    @Test
+    public void testParts() {
+        SemanticVersion version = SemanticVersion.valueOf("1.2.3-rc.1+build.5");
+        assertEquals(1, version.getMajor());
+        assertEquals(2, version.getMinor());
+        assertEquals(3, version.getPatch());
+        assertTrue(version.isPreRelease());
+        assertEquals("1.2.3-rc.1", version.toString());
+        assertFalse(SemanticVersion.valueOf("1.2.3").isPreRelease());
+    }
+
+    @Test
+    public void testHolderParsedOnce() {
+        VersionContext.Version version = new VersionContext.Version("1.2.3");
+        SemanticVersion parsed = version.getSemanticVersion();
+        assertSame(parsed, version.getSemanticVersion());
+        assertTrue(version.isLessThan(new VersionContext.Version("1.2.4")));
+        assertTrue(version.isGreaterThan(new VersionContext.Version("1.2.3-rc.1")));
+        assertSame(parsed, version.getSemanticVersion());
+    }
+
+    @Test
+    public void testHolderAcceptsInvalidVersionUntilCompared() {
+        VersionContext.Version version = new VersionContext.Version("not a version");
+        assertEquals("not a version", version.getVersionString());
+        try {
+            version.isLessThan(new VersionContext.Version("1.0.0"));
+            fail("Invalid version should not be compared.");
+        } catch (com.github.zafarkhaja.semver.ParseException expected) { // NOPMD
+            // invalid version
+        }
+    }
+
+    @Test
+    public void testAppVersionLoadedOnce() throws Exception {
+        Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getPackageName()).thenReturn("name");
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        PackageInfo packageInfo = Mockito.mock(PackageInfo.class);
+        packageInfo.versionName = "1.0.0";
+        Mockito.when(context.getPackageManager().getPackageInfo("name", 0)).thenReturn(packageInfo);
+
+        VersionContext.Version version = ContextHelper.getAppVersion(context);
+        assertSame(version, ContextHelper.getAppVersion(context));
+        assertEquals("1.0.0", version.getVersionString());
+        Mockito.verify(context.getPackageManager(), Mockito.times(1)).getPackageInfo("name", 0);
+    }
+}
@@ -0,0 +1,205 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CacheableLoader;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.UpdaterResult;
+import co.infinum.princeofversions.callbacks.ProvisionalUpdaterCallback;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.ParserFactory;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.util.ResourceUtils;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+import co.infinum.princeofversions.verifiers.SingleThreadVersionVerifier;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class StaleWhileRevalidateTest {
+
+    private static final String CURRENT_VERSION = "1.3.0";
+
+    private static final String KEY = "update.json";
+
+    private static final long TTL = 1000L;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ProvisionalUpdaterCallback callback;
+
+    private PrinceOfVersions updater;
+
+    private VersionContextCache cache;
+
+    private VersionRepository repository;
+
+    private long now;
+
+    @Before
+    public void setUp() throws IOException, PackageManager.NameNotFoundException {
+        callback = Mockito.mock(ProvisionalUpdaterCallback.class);
+        repository = Mockito.mock(VersionRepository.class);
+        Mockito.when(repository.getLastVersionName(Mockito.anyString())).thenReturn(null);
+
+        Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getPackageName()).thenReturn("name");
+        PackageInfo packageInfo = Mockito.mock(PackageInfo.class);
+        packageInfo.versionName = CURRENT_VERSION;
+        Mockito.when(context.getPackageManager().getPackageInfo("name", 0)).thenReturn(packageInfo);
+        VersionVerifierFactory provider = Mockito.mock(VersionVerifierFactory.class);
+        Mockito.when(provider.newInstance())
+                .thenReturn(new SingleThreadVersionVerifier(new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION))));
+        updater = new PrinceOfVersions(context, provider, repository, new SdkVersionProviderMock(21));
+
+        now = 0L;
+        cache = new VersionContextCache(folder.newFolder("cache"), CURRENT_VERSION, VersionContextCache.DEFAULT_MAX_ENTRIES, TTL,
+                DIRECT) {
+            @Override
+            protected long now() {
+                return now;
+            }
+        };
+    }
+
+    private void putStale(String filename) throws Exception {
+        JsonVersionConfigParser parser = new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION));
+        cache.put(VersionContextCache.getKey(KEY, parser), parser.parse(ResourceUtils.readFromFile(filename)));
+        now += TTL + 1;
+    }
+
+    private UpdaterResult check(final String filename) {
+        return updater.checkForUpdates(new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new KeyedResourceFileLoader(filename);
+            }
+        }, new ParserFactory() {
+            @Override
+            public VersionConfigParser newInstance() {
+                return new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION));
+            }
+        }, cache, callback);
+    }
+
+    @Test
+    public void testChangedOutcomeIsNotifiedAfterProvisional() throws Exception {
+        putStale("valid_update_full.json");
+        UpdaterResult result = check("valid_update_mandatory_update.json");
+
+        Mockito.verify(callback, Mockito.times(1))
+                .onProvisionalNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.times(1)).onNewUpdate(eq("2.4.5"), eq(true), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.never()).onError(anyInt());
+        assertTrue(result.isConsumed());
+        assertFalse(result.isProvisional());
+    }
+
+    @Test
+    public void testSameOutcomeIsNotifiedOnlyOnce() throws Exception {
+        putStale("valid_update_full.json");
+        UpdaterResult result = check("valid_update_full.json");
+
+        Mockito.verify(callback, Mockito.times(1))
+                .onProvisionalNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.never()).onNewUpdate(anyString(), anyBoolean(), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.never()).onNoUpdate(ArgumentMatchers.<String, String>anyMap());
+        assertTrue(result.isConsumed());
+        assertFalse(result.isProvisional());
+    }
+
+    @Test
+    public void testErrorAfterProvisionalIsNotNotified() throws Exception {
+        putStale("valid_update_full.json");
+        UpdaterResult result = check("malformed_json.json");
+
+        Mockito.verify(callback, Mockito.times(1))
+                .onProvisionalNewUpdate(eq("2.4.5"), eq(false), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.never()).onError(anyInt());
+        assertTrue(result.isConsumed());
+        assertTrue(result.isProvisional());
+    }
+
+    @Test
+    public void testProvisionalUpdateIsPersistedOnlyWhenConfirmed() throws Exception {
+        putStale("valid_update_full.json");
+        check("malformed_json.json");
+        Mockito.verify(repository, Mockito.never()).setLastVersionName(anyString());
+
+        check("valid_update_full.json");
+        Mockito.verify(repository, Mockito.times(1)).setLastVersionName("2.4.5");
+    }
+
+    @Test
+    public void testRevalidatedConfigurationIsCached() throws Exception {
+        putStale("valid_update_full.json");
+        check("valid_update_mandatory_update.json");
+        Mockito.reset(callback);
+
+        check("valid_update_full.json");
+
+        Mockito.verify(callback, Mockito.never())
+                .onProvisionalNewUpdate(anyString(), anyBoolean(), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.times(1)).onNewUpdate(eq("2.4.5"), eq(true), ArgumentMatchers.<String, String>anyMap());
+    }
+
+    @Test
+    public void testWithoutCachedConfigurationBehavesAsUsual() {
+        UpdaterResult result = check("malformed_json.json");
+
+        Mockito.verify(callback, Mockito.never())
+                .onProvisionalNewUpdate(anyString(), anyBoolean(), ArgumentMatchers.<String, String>anyMap());
+        Mockito.verify(callback, Mockito.times(1)).onError(anyInt());
+        assertFalse(result.isProvisional());
+    }
+
+    private static class KeyedResourceFileLoader extends ResourceFileLoader implements CacheableLoader {
+
+        KeyedResourceFileLoader(String filename) {
+            super(filename);
+        }
+
+        @Override
+        public String getCacheKey() {
+            return KEY;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+import co.infinum.princeofversions.helpers.StreamIo;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class StreamIoTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static String content(int lines) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            builder.append("\"key").append(i).append("\": \"vrijednost š đ č ć ž €\",").append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        return builder.toString();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(UTF_8));
+    }
+
+    @Test
+    public void testContentIsKeptExactly() throws IOException {
+        String content = content(1000);
+        assertEquals(content, StreamIo.toString(stream(content)));
+    }
+
+    @Test
+    public void testEmptyContent() throws IOException {
+        assertEquals("", StreamIo.toString(stream("")));
+    }
+
+    @Test
+    public void testWrongExpectedLengthIsIgnored() throws IOException {
+        String content = content(1000);
+        assertEquals(content, StreamIo.toString(stream(content), UTF_8, 10, null));
+        assertEquals(content, StreamIo.toString(stream(content), UTF_8, Integer.MAX_VALUE, null));
+    }
+
+    @Test(expected = LoadCancelledException.class)
+    public void testCancellationIsCheckedPerChunk() throws IOException {
+        final int[] chunks = new int[1];
+        StreamIo.toString(stream(content(1000)), UTF_8, -1, new StreamIo.Cancellation() {
+            @Override
+            public boolean isCancelled() {
+                return ++chunks[0] > 1;
+            }
+        });
+    }
+
+    @Test
+    public void testLineFilterIsApplied() throws IOException {
+        String content = "first\nskip\nsecond\nstop\nthird\n";
+        String result = StreamIo.toString(stream(content), new StreamIo.StreamLineFilter() {
+            @Override
+            public Command apply(String line) {
+                if ("skip".equals(line)) {
+                    return Command.SKIP;
+                } else if ("stop".equals(line)) {
+                    return Command.STOP;
+                }
+                return Command.GO;
+            }
+        });
+        assertEquals("firstsecond", result);
+    }
+}
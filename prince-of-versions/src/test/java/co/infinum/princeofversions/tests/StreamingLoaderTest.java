@@ -0,0 +1,219 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import co.infinum.princeofversions.BaseStreamingLoader;
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.LoadCancelledException;
+import co.infinum.princeofversions.exceptions.LoaderValidationException;
+import co.infinum.princeofversions.helpers.VersionContextResolver;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.loaders.StreamLoader;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class StreamingLoaderTest {
+
+    private static final VersionContext.Version CURRENT_VERSION = new VersionContext.Version("2.0.0");
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() throws IOException {
+        VersionContextResolver.clearLastContexts();
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void cleanup() {
+        try {
+            mockWebServer.shutdown();
+        } catch (Exception ignorable) {
+
+        }
+    }
+
+    private static InputStream resource(String filename) throws IOException {
+        return new ByteArrayInputStream(ResourceUtils.readFromFile(filename).getBytes("UTF-8"));
+    }
+
+    @Test
+    public void testStreamingLoaderIsParsedFromStream() throws Exception {
+        CountingLoader loader = new CountingLoader("valid_update_full.json");
+        VersionContext version = new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION)).resolve(loader);
+
+        assertEquals("2.4.5", version.getOptionalUpdate().getVersion().getVersionString());
+        assertEquals(1, loader.openCount);
+        assertEquals(0, loader.loadCount);
+    }
+
+    @Test
+    public void testStreamingLoaderWithStringParser() throws Exception {
+        CountingLoader loader = new CountingLoader("valid_update_full.json");
+        VersionContext version = new VersionContextResolver(new JsonVersionConfigParser(CURRENT_VERSION)).resolve(loader);
+
+        assertEquals("2.4.5", version.getOptionalUpdate().getVersion().getVersionString());
+        assertEquals(1, loader.loadCount);
+    }
+
+    @Test
+    public void testStringLoaderWithStreamParser() throws Exception {
+        VersionContext version = new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION))
+                .resolve(new ResourceFileLoader("valid_update_full.json"));
+
+        assertEquals("2.4.5", version.getOptionalUpdate().getVersion().getVersionString());
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testCancelledStreamLoaderIsInterrupted() throws Exception {
+        StreamLoader loader = new StreamLoader(resource("valid_update_full.json"));
+        loader.cancel();
+        new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION)).resolve(loader);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void testLoaderCancelledWhileReadingIsInterrupted() throws Exception {
+        final StreamLoader[] loader = new StreamLoader[1];
+        InputStream stream = new InputStream() {
+            private int count = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ == 0) {
+                    loader[0].cancel();
+                    return '{';
+                }
+                return ' ';
+            }
+        };
+        loader[0] = new StreamLoader(stream);
+        new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION)).resolve(loader[0]);
+    }
+
+    @Test
+    public void testStreamErrorIsLoadError() throws Exception {
+        StreamLoader loader = new StreamLoader(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        try {
+            new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION)).resolve(loader);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            // reading failed
+        }
+    }
+
+    @Test
+    public void testNetworkLoaderStoresValidatorsOnlyAfterSuccessfulRead() throws Exception {
+        Map<String, String> validators = new HashMap<>();
+        String url = mockWebServer.url("/").toString();
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+
+        NetworkLoader loader = new NetworkLoader(url, null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS,
+                new MapValidatorRepository(validators));
+        VersionContext version = new VersionContextResolver(new JsonStreamVersionConfigParser(CURRENT_VERSION)).resolve(loader);
+        assertEquals("2.4.5", version.getOptionalUpdate().getVersion().getVersionString());
+        assertEquals("\"v1\"", validators.get(url));
+
+        loader = new NetworkLoader(url, null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS, new MapValidatorRepository(validators));
+        InputStream stream = loader.open();
+        loader.cancel();
+        try {
+            stream.read();
+            fail("LoadCancelledException expected");
+        } catch (LoadCancelledException expected) {
+            // loading is cancelled
+        } finally {
+            stream.close();
+        }
+        assertEquals("\"v1\"", validators.get(url));
+    }
+
+    private static class CountingLoader extends BaseStreamingLoader {
+
+        private String filename;
+
+        private int openCount;
+
+        private int loadCount;
+
+        CountingLoader(String filename) {
+            this.filename = filename;
+        }
+
+        @Override
+        public InputStream open() throws IOException, InterruptedException {
+            openCount++;
+            return new LoaderInputStream(resource(filename));
+        }
+
+        @Override
+        public String load() throws IOException, InterruptedException {
+            loadCount++;
+            return super.load();
+        }
+
+        @Override
+        public void validate() throws LoaderValidationException {
+
+        }
+    }
+
+    private static class MapValidatorRepository implements ValidatorRepository {
+
+        private Map<String, String> entityTags;
+
+        MapValidatorRepository(Map<String, String> entityTags) {
+            this.entityTags = entityTags;
+        }
+
+        @Override
+        public String getEntityTag(String key) {
+            return entityTags.get(key);
+        }
+
+        @Override
+        public String getLastModified(String key) {
+            return null;
+        }
+
+        @Override
+        public void setValidators(String key, String entityTag, String lastModified) {
+            entityTags.put(key, entityTag);
+        }
+
+        @Override
+        public void clearValidators(String key) {
+            entityTags.remove(key);
+        }
+    }
+}
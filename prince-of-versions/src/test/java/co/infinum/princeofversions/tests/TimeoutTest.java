@@ -0,0 +1,193 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.os.Build;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.factories.NetworkLoaderFactory;
+import co.infinum.princeofversions.threading.ExecutorServiceVersionVerifier;
+import co.infinum.princeofversions.threading.VersionVerifierScheduler;
+import co.infinum.princeofversions.util.ResourceUtils;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class TimeoutTest {
+
+    private static final long DEADLINE_MILLIS = 500;
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private MockWebServer mockWebServer;
+
+    private VersionVerifierScheduler scheduler;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        scheduler = new VersionVerifierScheduler(1, 1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.getExecutor().shutdownNow();
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Runs verification until it passes, running results posted to the main thread in the meantime.
+     */
+    private static void verifyOnMainThread(Runnable verification) throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        while (true) {
+            ShadowLooper.runUiThreadTasks();
+            try {
+                verification.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > end) {
+                    throw e;
+                }
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private ExecutorServiceVersionVerifier verifier() {
+        return new ExecutorServiceVersionVerifier(new JsonStreamVersionConfigParser(new VersionContext.Version("2.0.0")), scheduler,
+                DEADLINE_MILLIS);
+    }
+
+    @Test
+    public void testDeadlineCancelsSlowLoad() throws IOException, InterruptedException {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ResourceUtils.readFromFile("valid_update_full.json"))
+                .throttleBody(1, 1, TimeUnit.SECONDS));
+        final VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        verifier().verify(new NetworkLoader(mockWebServer.url("/").toString()), listener);
+        verifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                verify(listener).versionUnavailable(ErrorCode.TIMEOUT);
+            }
+        });
+        verify(listener, never()).versionAvailable(any(VersionContext.class));
+
+        // worker thread is released by cancelled load
+        mockWebServer.enqueue(new MockResponse().setBody(ResourceUtils.readFromFile("valid_update_full.json")));
+        final VersionVerifierListener next = Mockito.mock(VersionVerifierListener.class);
+        verifier().verify(new NetworkLoader(mockWebServer.url("/").toString()), next);
+        verifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                verify(next).versionAvailable(any(VersionContext.class));
+            }
+        });
+    }
+
+    @Test
+    public void testDeadlineCancelsUnansweredRequest() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        final VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+        verifier().verify(new NetworkLoader(mockWebServer.url("/").toString()), listener);
+        verifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                verify(listener).versionUnavailable(ErrorCode.TIMEOUT);
+            }
+        });
+        verify(listener, never()).versionUnavailable(ErrorCode.LOAD_ERROR);
+    }
+
+    @Test
+    public void testNetworkTimeoutLimitedByDeadline() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        NetworkLoader loader = new NetworkLoader(mockWebServer.url("/").toString());
+        loader.setDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS));
+        long start = System.nanoTime();
+        try {
+            loader.load();
+            fail("Loading should time out.");
+        } catch (IOException expected) { // NOPMD
+            // read timeout limited by deadline
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < WAIT_MILLIS);
+    }
+
+    @Test
+    public void testCancelAbortsConnection() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        final NetworkLoader loader = new NetworkLoader(mockWebServer.url("/").toString());
+        final Throwable[] result = new Throwable[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loader.load();
+                } catch (Throwable e) {
+                    result[0] = e;
+                }
+            }
+        });
+        thread.start();
+        mockWebServer.takeRequest();
+        loader.cancel();
+        thread.join(WAIT_MILLIS);
+        assertTrue(result[0] instanceof InterruptedException);
+    }
+
+    @Test
+    public void testCallbackNotifiedWithTimeout() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        Context context = Mockito.mock(Context.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getPackageName()).thenReturn("name");
+        PackageInfo packageInfo = Mockito.mock(PackageInfo.class);
+        packageInfo.versionName = "2.0.0";
+        Mockito.when(context.getPackageManager().getPackageInfo("name", 0)).thenReturn(packageInfo);
+        PrinceOfVersions updater = new PrinceOfVersions(context, PrinceOfVersions.createDefaultVersionVerifierFactory(
+                PrinceOfVersions.createDefaultParserFactory(context), scheduler, DEADLINE_MILLIS),
+                Mockito.mock(VersionRepository.class), new SdkVersionProviderMock(21));
+        final UpdaterCallback callback = Mockito.mock(UpdaterCallback.class);
+        updater.checkForUpdates(new NetworkLoaderFactory(mockWebServer.url("/").toString()), callback);
+        verifyOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                verify(callback).onError(ErrorCode.TIMEOUT);
+            }
+        });
+        verify(callback, never()).onNewUpdate(Mockito.anyString(), Mockito.anyBoolean(), ArgumentMatchers.<String, String>anyMap());
+        verify(callback, never()).onNoUpdate(ArgumentMatchers.<String, String>anyMap());
+    }
+}
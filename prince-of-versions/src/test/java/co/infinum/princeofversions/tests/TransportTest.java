@@ -0,0 +1,160 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.IOException;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.exceptions.NotModifiedException;
+import co.infinum.princeofversions.interfaces.ValidatorRepository;
+import co.infinum.princeofversions.loaders.NetworkLoader;
+import co.infinum.princeofversions.loaders.transport.HttpTransport;
+import co.infinum.princeofversions.loaders.transport.OkHttpTransport;
+import co.infinum.princeofversions.loaders.transport.UrlConnectionTransport;
+import co.infinum.princeofversions.util.ResourceUtils;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class TransportTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private MockWebServer mockWebServer;
+
+    private String content;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        content = ResourceUtils.readFromFile("valid_update_full.json");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    private NetworkLoader loader(HttpTransport transport, ValidatorRepository validatorRepository) {
+        return new NetworkLoader(mockWebServer.url("/").toString(), null, null, NetworkLoader.DEFAULT_NETWORK_TIMEOUT_SECONDS,
+                validatorRepository, transport);
+    }
+
+    private void assertConnectionReused(HttpTransport transport) throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody(content));
+        mockWebServer.enqueue(new MockResponse().setBody(content));
+        assertEquals(content, loader(transport, null).load());
+        assertEquals(content, loader(transport, null).load());
+        assertEquals(0, mockWebServer.takeRequest().getSequenceNumber());
+        // second request on the same connection
+        assertEquals(1, mockWebServer.takeRequest().getSequenceNumber());
+    }
+
+    private void assertErrorResponseFails(HttpTransport transport) throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("error"));
+        try {
+            loader(transport, null).load();
+            fail("Loading should fail.");
+        } catch (IOException expected) { // NOPMD
+            // server error
+        }
+    }
+
+    private void assertConditionalLoad(HttpTransport transport) throws Exception {
+        ValidatorRepository validatorRepository = Mockito.mock(ValidatorRepository.class);
+        mockWebServer.enqueue(new MockResponse().setBody(content).setHeader("ETag", "\"v1\""));
+        assertEquals(content, loader(transport, validatorRepository).load());
+        Mockito.verify(validatorRepository).setValidators(mockWebServer.url("/").toString(), "\"v1\"", null);
+
+        Mockito.when(validatorRepository.getEntityTag(mockWebServer.url("/").toString())).thenReturn("\"v1\"");
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+        NetworkLoader conditionalLoader = loader(transport, validatorRepository);
+        conditionalLoader.setConditionalLoadingEnabled(true);
+        try {
+            conditionalLoader.load();
+            fail("Resource should not be modified.");
+        } catch (NotModifiedException expected) { // NOPMD
+            // resource not modified
+        }
+        mockWebServer.takeRequest();
+        RecordedRequest conditional = mockWebServer.takeRequest();
+        assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+    }
+
+    private void assertCancelAbortsCall(HttpTransport transport) throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        final NetworkLoader loader = loader(transport, null);
+        final Throwable[] result = new Throwable[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    loader.load();
+                } catch (Throwable e) {
+                    result[0] = e;
+                }
+            }
+        });
+        thread.start();
+        mockWebServer.takeRequest();
+        loader.cancel();
+        thread.join(WAIT_MILLIS);
+        assertTrue(result[0] instanceof InterruptedException);
+    }
+
+    @Test
+    public void testUrlConnectionReusesConnection() throws Exception {
+        assertConnectionReused(new UrlConnectionTransport());
+    }
+
+    @Test
+    public void testOkHttpReusesConnection() throws Exception {
+        assertConnectionReused(new OkHttpTransport());
+    }
+
+    @Test
+    public void testUrlConnectionErrorResponse() throws InterruptedException {
+        assertErrorResponseFails(new UrlConnectionTransport());
+    }
+
+    @Test
+    public void testOkHttpErrorResponse() throws InterruptedException {
+        assertErrorResponseFails(new OkHttpTransport());
+    }
+
+    @Test
+    public void testUrlConnectionConditionalLoad() throws Exception {
+        assertConditionalLoad(new UrlConnectionTransport());
+    }
+
+    @Test
+    public void testOkHttpConditionalLoad() throws Exception {
+        assertConditionalLoad(new OkHttpTransport());
+    }
+
+    @Test
+    public void testUrlConnectionCancel() throws InterruptedException {
+        assertCancelAbortsCall(new UrlConnectionTransport());
+    }
+
+    @Test
+    public void testOkHttpCancel() throws InterruptedException {
+        assertCancelAbortsCall(new OkHttpTransport());
+    }
+}
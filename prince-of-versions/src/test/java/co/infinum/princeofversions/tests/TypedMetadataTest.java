@@ -0,0 +1,137 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.common.Metadata;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.JsonStreamVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.util.ResourceUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class TypedMetadataTest {
+
+    private static final String COMPLEX_METADATA = "valid_update_with_complex_metadata.json";
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Map<String, String> expectedStrings() {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("key1", "value1");
+        expected.put("key2", "value2");
+        return expected;
+    }
+
+    private static void assertTypedValues(Metadata metadata) {
+        assertEquals(expectedStrings(), metadata);
+        assertTrue(metadata.getBoolean("boolean", false));
+        assertEquals(5, metadata.getInt("number", 0));
+        assertEquals("5.22", metadata.getString("number", null));
+        assertEquals("value1", metadata.getString("key1", null));
+        assertEquals("should", metadata.getMetadata("object1").get("this"));
+        assertEquals(1, metadata.getMetadata("object1").getInt("be-ignored", 0));
+        assertTrue(metadata.has("object1"));
+        assertFalse(metadata.has("missing"));
+        assertEquals(7, metadata.getInt("missing", 7));
+        assertTrue(metadata.getMetadata("key1").isEmpty());
+    }
+
+    @Test
+    public void testJsonParserTypedValues() throws Exception {
+        VersionContext version = new JsonVersionConfigParser(new VersionContext.Version("1.0.0"))
+                .parse(ResourceUtils.readFromFile(COMPLEX_METADATA));
+        assertTypedValues(version.getMetadata());
+    }
+
+    @Test
+    public void testStreamParserTypedValues() throws Exception {
+        String content = ResourceUtils.readFromFile(COMPLEX_METADATA);
+        JsonStreamVersionConfigParser parser = new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0"));
+        assertTypedValues(parser.parse(content).getMetadata());
+        assertTypedValues(parser.parse(new ByteArrayInputStream(content.getBytes("UTF-8"))).getMetadata());
+    }
+
+    @Test
+    public void testStreamParserKeepsAllValues() throws Exception {
+        String content = "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": [1, 2.50, {\"b\": null}], "
+                + "\"c\": \"\\\"quoted\\\"\", \"d\": 12345678901234}}";
+        Metadata metadata = new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0")).parse(content).getMetadata();
+        assertEquals("\"quoted\"", metadata.get("c"));
+        assertEquals(12345678901234L, metadata.getLong("d", 0));
+        assertEquals(1, metadata.size());
+        assertEquals(12345678901234L, new Metadata(metadata.toJson()).getLong("d", 0));
+        assertEquals(metadata, new Metadata(metadata.toJson()));
+    }
+
+    @Test
+    public void testLastDuplicatedKeyWins() throws Exception {
+        String content = "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": {\"a\": \"1\", \"a\": 2, \"b\": 3, \"b\": \"4\"}}";
+        Metadata metadata = new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0")).parse(content).getMetadata();
+        assertFalse(metadata.containsKey("a"));
+        assertEquals(2, metadata.getInt("a", 0));
+        assertEquals("4", metadata.get("b"));
+    }
+
+    @Test
+    public void testMissingAndMalformedMetadata() throws Exception {
+        String content = "{\"android\": {\"minimum_version\": \"1.2.3\"}, \"meta\": [\"a\"]}";
+        assertTrue(new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0")).parse(content).getMetadata().isEmpty());
+        assertTrue(new JsonVersionConfigParser(new VersionContext.Version("1.0.0")).parse(content).getMetadata().isEmpty());
+        assertTrue(new Metadata("{not json").isEmpty());
+        assertTrue(new Metadata("[1]").isEmpty());
+        assertEquals("{}", new Metadata().toJson());
+    }
+
+    @Test
+    public void testMapMetadataIsReadOnly() {
+        Map<String, String> values = new HashMap<>();
+        values.put("count", "3");
+        Metadata metadata = Metadata.of(values);
+        assertEquals(3, metadata.getInt("count", 0));
+        assertEquals(metadata, Metadata.of(metadata));
+        try {
+            metadata.put("count", "4");
+            fail("Metadata should be read only.");
+        } catch (UnsupportedOperationException expected) { // NOPMD
+            // map view is read only
+        }
+    }
+
+    @Test
+    public void testTypedValuesRestoredFromCache() throws Exception {
+        VersionContext version = new JsonStreamVersionConfigParser(new VersionContext.Version("1.0.0"))
+                .parse(ResourceUtils.readFromFile(COMPLEX_METADATA));
+        new VersionContextCache(folder.getRoot(), "1.0.0", 4, 1000, DIRECT).put("key", version);
+
+        VersionContext restored = new VersionContextCache(folder.getRoot(), "1.0.0", 4, 1000, DIRECT).get("key");
+        assertTypedValues(restored.getMetadata());
+    }
+}
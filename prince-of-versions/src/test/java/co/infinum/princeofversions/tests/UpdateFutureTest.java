@@ -0,0 +1,258 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CheckResult;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.UpdateFuture;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.PeriodicUpdatePublisher;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.interfaces.UpdateSubscriber;
+import co.infinum.princeofversions.interfaces.UpdateSubscription;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class UpdateFutureTest {
+
+    private static final String CURRENT_VERSION = "2.0.0";
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final List<ManualVersionVerifier> verifiers = Collections.synchronizedList(new ArrayList<ManualVersionVerifier>());
+
+    private PrinceOfVersions updater;
+
+    private ScheduledExecutorService timer;
+
+    @Before
+    public void setUp() {
+        updater = new PrinceOfVersions(Mockito.mock(Context.class), new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                ManualVersionVerifier verifier = new ManualVersionVerifier();
+                verifiers.add(verifier);
+                return verifier;
+            }
+        }, Mockito.mock(VersionRepository.class), new SdkVersionProviderMock(21));
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    private static LoaderFactory loaderFactory() {
+        return new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json");
+            }
+        };
+    }
+
+    @Test
+    public void testFutureCompletedWithResult() throws Exception {
+        UpdateFuture future = updater.checkForUpdatesAsync(loaderFactory());
+        final AtomicInteger listenerRuns = new AtomicInteger();
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerRuns.incrementAndGet();
+            }
+        }, CallbackDispatchers.immediate());
+        assertFalse(future.isDone());
+        assertEquals(0, listenerRuns.get());
+
+        verifiers.get(0).complete();
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+        assertEquals(1, listenerRuns.get());
+        CheckResult result = future.get();
+        assertTrue(result.hasUpdate());
+        assertEquals("2.4.5", result.getVersion());
+        assertSame(result, future.get(0, TimeUnit.MILLISECONDS));
+
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerRuns.incrementAndGet();
+            }
+        }, CallbackDispatchers.immediate());
+        assertEquals(2, listenerRuns.get());
+        assertFalse(future.cancel(true));
+    }
+
+    @Test
+    public void testErrorIsPartOfResult() throws Exception {
+        UpdateFuture future = updater.checkForUpdatesAsync(loaderFactory());
+        verifiers.get(0).listener.versionUnavailable(ErrorCode.LOAD_ERROR);
+        assertEquals(ErrorCode.LOAD_ERROR, future.get().getError());
+    }
+
+    @Test
+    public void testCancelPropagatesToVerifier() throws Exception {
+        UpdateFuture future = updater.checkForUpdatesAsync(loaderFactory());
+        final CountDownLatch listenerRun = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerRun.countDown();
+            }
+        }, CallbackDispatchers.immediate());
+
+        assertTrue(future.cancel(false));
+        assertTrue(verifiers.get(0).cancelled);
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        assertEquals(0, listenerRun.getCount());
+        try {
+            future.get();
+            fail("Cancelled future has no result.");
+        } catch (CancellationException expected) { // NOPMD
+            // future is cancelled
+        }
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testGetTimesOut() throws Exception {
+        updater.checkForUpdatesAsync(loaderFactory()).get(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testPublisherRepeatsChecksAsRequested() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PeriodicUpdatePublisher(updater, loaderFactory(), 10, timer).subscribe(subscriber);
+        assertEquals(1, verifiers.size());
+        subscriber.subscription.request(2);
+
+        verifiers.get(0).complete();
+        assertEquals(1, subscriber.results.size());
+        ManualVersionVerifier second = awaitVerifier(1);
+        second.complete();
+        assertEquals(2, subscriber.results.size());
+
+        // no demand, latest result is kept until requested
+        awaitVerifier(2).complete();
+        assertEquals(2, subscriber.results.size());
+        subscriber.subscription.request(1);
+        assertEquals(3, subscriber.results.size());
+        assertNull(subscriber.error.get());
+
+        ManualVersionVerifier inProgress = awaitVerifier(3);
+        subscriber.subscription.cancel();
+        assertTrue(inProgress.cancelled);
+        Thread.sleep(50);
+        assertEquals(4, verifiers.size());
+    }
+
+    @Test
+    public void testNonPositiveRequestTerminatesStream() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new PeriodicUpdatePublisher(updater, loaderFactory(), 10, timer).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+        assertTrue(verifiers.get(0).cancelled);
+    }
+
+    private ManualVersionVerifier awaitVerifier(int index) throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        // verifiers are created on timer thread, before they start verifying
+        while ((verifiers.size() <= index || verifiers.get(index).listener == null) && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        return verifiers.get(index);
+    }
+
+    private static class RecordingSubscriber implements UpdateSubscriber {
+
+        private final List<CheckResult> results = new ArrayList<>();
+
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private UpdateSubscription subscription;
+
+        @Override
+        public void onSubscribe(UpdateSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(CheckResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error.set(error);
+        }
+    }
+
+    /**
+     * Verifier which notifies result only when test completes it.
+     */
+    private static class ManualVersionVerifier implements VersionVerifier {
+
+        private volatile UpdateConfigLoader loader;
+
+        private volatile VersionVerifierListener listener;
+
+        private volatile boolean cancelled;
+
+        @Override
+        public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+            this.loader = loader;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void complete() throws Exception {
+            VersionContext version = new JsonVersionConfigParser(new VersionContext.Version(CURRENT_VERSION)).parse(loader.load());
+            listener.versionAvailable(version);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.content.Context;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.LoaderFactory;
+import co.infinum.princeofversions.PrinceOfVersions;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.callbacks.UpdaterCallback;
+import co.infinum.princeofversions.common.ErrorCode;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.helpers.UpdatePoller;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionRepository;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierFactory;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.loaders.ResourceFileLoader;
+import co.infinum.princeofversions.util.SdkVersionProviderMock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class UpdatePollerTest {
+
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final List<ManualVersionVerifier> verifiers = Collections.synchronizedList(new ArrayList<ManualVersionVerifier>());
+
+    private final List<Long> delays = Collections.synchronizedList(new ArrayList<Long>());
+
+    private PrinceOfVersions updater;
+
+    private ScheduledThreadPoolExecutor timer;
+
+    private UpdaterCallback callback;
+
+    @Before
+    public void setUp() {
+        updater = new PrinceOfVersions(Mockito.mock(Context.class), new VersionVerifierFactory() {
+            @Override
+            public VersionVerifier newInstance() {
+                ManualVersionVerifier verifier = new ManualVersionVerifier();
+                verifiers.add(verifier);
+                return verifier;
+            }
+        }, new MemoryVersionRepository(), new SdkVersionProviderMock(21));
+        // records requested delays and runs polls right away
+        timer = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                delays.add(unit.toMillis(delay));
+                return super.schedule(command, 0, unit);
+            }
+        };
+        callback = Mockito.mock(UpdaterCallback.class);
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    private UpdatePoller poller() {
+        // random value in the middle of range, so jitter does not change delays
+        Random random = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0.5;
+            }
+        };
+        return new UpdatePoller(updater, new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json");
+            }
+        }, INTERVAL_MILLIS, timer, random);
+    }
+
+    @Test
+    public void testNotifiesTransitionsAndAdaptsInterval() throws Exception {
+        UpdatePoller poller = poller().setMaxIntervalMillis(3 * INTERVAL_MILLIS);
+        poller.start(callback);
+        assertTrue(poller.isStarted());
+        assertEquals(Long.valueOf(100), delays.get(0));
+
+        awaitVerifier(0).complete();
+        verify(callback).onNewUpdate(ArgumentMatchers.eq("2.4.5"), ArgumentMatchers.eq(false), ArgumentMatchers.<String, String>anyMap());
+        assertEquals(Long.valueOf(INTERVAL_MILLIS), delays.get(1));
+
+        // update is notified only once, poll with the same result stretches interval
+        awaitVerifier(1).complete();
+        assertEquals(Long.valueOf(2 * INTERVAL_MILLIS), delays.get(2));
+        awaitVerifier(2).complete();
+        assertEquals(Long.valueOf(3 * INTERVAL_MILLIS), delays.get(3));
+        verify(callback, times(1)).onNewUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.<String, String>anyMap());
+        verify(callback, never()).onNoUpdate(ArgumentMatchers.<String, String>anyMap());
+
+        // failures back off, error is notified once
+        awaitVerifier(3).fail(ErrorCode.LOAD_ERROR);
+        assertEquals(Long.valueOf(2 * INTERVAL_MILLIS), delays.get(4));
+        awaitVerifier(4).fail(ErrorCode.LOAD_ERROR);
+        assertEquals(Long.valueOf(3 * INTERVAL_MILLIS), delays.get(5));
+        verify(callback, times(1)).onError(ErrorCode.LOAD_ERROR);
+
+        awaitVerifier(5).complete();
+        assertEquals(Long.valueOf(INTERVAL_MILLIS), delays.get(6));
+        verify(callback, times(2)).onNewUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.<String, String>anyMap());
+
+        ManualVersionVerifier inProgress = awaitVerifier(6);
+        poller.stop();
+        assertFalse(poller.isStarted());
+        assertTrue(inProgress.cancelled);
+    }
+
+    @Test
+    public void testJitterSpreadsDelays() throws Exception {
+        UpdatePoller poller = new UpdatePoller(updater, new LoaderFactory() {
+            @Override
+            public UpdateConfigLoader newInstance() {
+                return new ResourceFileLoader("valid_update_full.json");
+            }
+        }, INTERVAL_MILLIS, timer, new Random() {
+            @Override
+            public double nextDouble() {
+                return 1;
+            }
+        }).setJitter(0.5);
+        poller.start(callback);
+        assertEquals(Long.valueOf(500), delays.get(0));
+        awaitVerifier(0).complete();
+        assertEquals(Long.valueOf(1500), delays.get(1));
+        poller.stop();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwiceFails() {
+        UpdatePoller poller = poller();
+        poller.start(callback);
+        try {
+            poller.start(callback);
+        } finally {
+            poller.stop();
+        }
+    }
+
+    private ManualVersionVerifier awaitVerifier(int index) throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        // verifiers are created on timer thread, before they start verifying
+        while ((verifiers.size() <= index || verifiers.get(index).listener == null) && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        return verifiers.get(index);
+    }
+
+    private static class MemoryVersionRepository implements VersionRepository {
+
+        private volatile String version;
+
+        @Override
+        public String getLastVersionName() {
+            return version;
+        }
+
+        @Override
+        public String getLastVersionName(String defaultValue) {
+            return version != null ? version : defaultValue;
+        }
+
+        @Override
+        public void setLastVersionName(String version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * Verifier which notifies result only when test completes it.
+     */
+    private static class ManualVersionVerifier implements VersionVerifier {
+
+        private volatile UpdateConfigLoader loader;
+
+        private volatile VersionVerifierListener listener;
+
+        private volatile boolean cancelled;
+
+        @Override
+        public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+            this.loader = loader;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void complete() throws Exception {
+            listener.versionAvailable(new JsonVersionConfigParser(new VersionContext.Version("2.0.0")).parse(loader.load()));
+        }
+
+        void fail(@ErrorCode int error) {
+            listener.versionUnavailable(error);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package co.infinum.princeofversions.tests;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Build;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import co.infinum.princeofversions.BuildConfig;
+import co.infinum.princeofversions.CacheableLoader;
+import co.infinum.princeofversions.UpdateConfigLoader;
+import co.infinum.princeofversions.common.VersionContext;
+import co.infinum.princeofversions.exceptions.LoaderValidationException;
+import co.infinum.princeofversions.helpers.VersionContextCache;
+import co.infinum.princeofversions.helpers.parsers.JsonVersionConfigParser;
+import co.infinum.princeofversions.helpers.parsers.VersionConfigParser;
+import co.infinum.princeofversions.interfaces.VersionVerifier;
+import co.infinum.princeofversions.interfaces.VersionVerifierListener;
+import co.infinum.princeofversions.threading.CachingVersionVerifier;
+import co.infinum.princeofversions.threading.CallbackDispatchers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = Build.VERSION_CODES.LOLLIPOP)
+public class VersionContextCacheTest {
+
+    private static final String KEY = "http://example.com/update.json";
+
+    private static final VersionConfigParser PARSER = new JsonVersionConfigParser(new VersionContext.Version("2.0.0"));
+
+    private static final String PARSED_KEY = VersionContextCache.getKey(KEY, PARSER);
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long now;
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        now = 1000L;
+        directory = folder.newFolder("cache");
+    }
+
+    private VersionContextCache newCache(String currentVersion, int maxEntries, long ttlMillis) {
+        return new VersionContextCache(directory, currentVersion, maxEntries, ttlMillis, DIRECT) {
+            @Override
+            protected long now() {
+                return now;
+            }
+        };
+    }
+
+    private VersionContext newVersionContext(String currentVersion) {
+        VersionContext versionContext = new VersionContext(
+                new VersionContext.Version(currentVersion),
+                new VersionContext.Version("1.2.3"), false,
+                new VersionContext.UpdateContext(new VersionContext.Version("2.4.5"), "ONCE", 21), true, 16);
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("key1", "value1");
+        versionContext.setMetadata(metadata);
+        return versionContext;
+    }
+
+    @Test
+    public void testFreshEntryIsProvided() {
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        VersionContext versionContext = newVersionContext("2.0.0");
+        cache.put(KEY, versionContext);
+        now += 100;
+        assertEquals(versionContext, cache.get(KEY));
+    }
+
+    @Test
+    public void testExpiredEntryIsProvidedOnlyAsStale() {
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        VersionContext versionContext = newVersionContext("2.0.0");
+        cache.put(KEY, versionContext);
+        now += 101;
+        assertNull(cache.get(KEY));
+        assertEquals(versionContext, cache.getStale(KEY));
+    }
+
+    @Test
+    public void testSnapshotIsRestoredFromDisk() {
+        newCache("2.0.0", 4, 100).put(KEY, newVersionContext("2.0.0"));
+
+        VersionContext restored = newCache("2.0.0", 4, 100).get(KEY);
+        assertNotNull(restored);
+        assertEquals("2.0.0", restored.getCurrentVersion().getVersionString());
+        assertEquals("1.2.3", restored.getMinimumVersion().getVersionString());
+        assertFalse(restored.isCurrentLessThanMinimum());
+        assertEquals(16, restored.getMinimumVersionMinSdk());
+        assertTrue(restored.hasOptionalUpdate());
+        assertTrue(restored.isCurrentLessThanOptional());
+        assertEquals("2.4.5", restored.getOptionalUpdate().getVersion().getVersionString());
+        assertEquals("ONCE", restored.getOptionalUpdate().getNotificationType());
+        assertEquals(21, restored.getOptionalUpdate().getNewMinSdk());
+        assertEquals("value1", restored.getMetadata().get("key1"));
+    }
+
+    @Test
+    public void testClearDeletesOnlySnapshots() throws IOException {
+        File other = new File(directory, "repository");
+        assertTrue(other.createNewFile());
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        cache.put(KEY, newVersionContext("2.0.0"));
+
+        cache.clear();
+        assertNull(newCache("2.0.0", 4, 100).get(KEY));
+        assertTrue(other.exists());
+    }
+
+    @Test
+    public void testEntryForOtherApplicationVersionIsIgnored() {
+        newCache("2.0.0", 4, 100).put(KEY, newVersionContext("2.0.0"));
+        VersionContextCache cache = newCache("2.1.0", 4, 100);
+        assertNull(cache.get(KEY));
+        assertNull(cache.getStale(KEY));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvictedFromMemory() {
+        VersionContextCache cache = new VersionContextCache(null, null, 2, 100);
+        cache.put("a", newVersionContext("2.0.0"));
+        cache.put("b", newVersionContext("2.0.0"));
+        cache.get("a");
+        cache.put("c", newVersionContext("2.0.0"));
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testCacheHitDoesNotUseDecoratedVerifier() {
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        VersionContext versionContext = newVersionContext("2.0.0");
+        cache.put(PARSED_KEY, versionContext);
+        VersionVerifier delegate = Mockito.mock(VersionVerifier.class);
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+
+        new CachingVersionVerifier(delegate, PARSER, cache).verify(new KeyedLoader(KEY), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(versionContext);
+        Mockito.verify(delegate, Mockito.never())
+                .verify(Mockito.any(UpdateConfigLoader.class), Mockito.any(VersionVerifierListener.class));
+    }
+
+    @Test
+    public void testCacheLookedUpAndHitNotifiedAsynchronously() {
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        VersionContext versionContext = newVersionContext("2.0.0");
+        cache.put(PARSED_KEY, versionContext);
+        final List<Runnable> lookups = new ArrayList<>();
+        final List<Runnable> notifications = new ArrayList<>();
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+
+        new CachingVersionVerifier(Mockito.mock(VersionVerifier.class), PARSER, cache, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                lookups.add(command);
+            }
+        }, CallbackDispatchers.executor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                notifications.add(command);
+            }
+        })).verify(new KeyedLoader(KEY), listener);
+
+        Mockito.verifyZeroInteractions(listener);
+        assertEquals(1, lookups.size());
+        lookups.get(0).run();
+        Mockito.verifyZeroInteractions(listener);
+        assertEquals(1, notifications.size());
+        notifications.get(0).run();
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(versionContext);
+    }
+
+    @Test
+    public void testCacheMissStoresDelegatedResult() {
+        VersionContextCache cache = newCache("2.0.0", 4, 100);
+        final VersionContext versionContext = newVersionContext("2.0.0");
+        VersionVerifier delegate = new VersionVerifier() {
+            @Override
+            public void verify(UpdateConfigLoader loader, VersionVerifierListener listener) {
+                listener.versionAvailable(versionContext);
+            }
+
+            @Override
+            public void cancel() {
+
+            }
+        };
+        VersionVerifierListener listener = Mockito.mock(VersionVerifierListener.class);
+
+        new CachingVersionVerifier(delegate, PARSER, cache).verify(new KeyedLoader(KEY), listener);
+
+        Mockito.verify(listener, Mockito.times(1)).versionAvailable(versionContext);
+        assertEquals(versionContext, cache.get(PARSED_KEY));
+    }
+
+    @Test
+    public void testKeyIncludesParser() {
+        assertEquals(PARSED_KEY, VersionContextCache.getKey(KEY, new JsonVersionConfigParser(new VersionContext.Version("2.0.0"))));
+        assertFalse(PARSED_KEY.equals(VersionContextCache.getKey(KEY, new JsonVersionConfigParser(new VersionContext.Version("2.1.0")))));
+        // parser without equality cannot share parsed holders
+        assertNull(VersionContextCache.getKey(KEY, new VersionConfigParser() {
+            @Override
+            public VersionContext parse(String content) {
+                return null;
+            }
+        }));
+    }
+
+    @Test
+    public void testCancelledBeforeLookupIsNotDelegated() {
+        final List<Runnable> lookups = new ArrayList<>();
+        VersionVerifier delegate = Mockito.mock(VersionVerifier.class);
+        CachingVersionVerifier verifier = new CachingVersionVerifier(delegate, PARSER, newCache("2.0.0", 4, 100), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                lookups.add(command);
+            }
+        }, CallbackDispatchers.immediate());
+
+        verifier.verify(new KeyedLoader(KEY), Mockito.mock(VersionVerifierListener.class));
+        verifier.cancel();
+        lookups.get(0).run();
+
+        Mockito.verify(delegate, Mockito.never())
+                .verify(Mockito.any(UpdateConfigLoader.class), Mockito.any(VersionVerifierListener.class));
+    }
+
+    private static class KeyedLoader implements CacheableLoader {
+
+        private String key;
+
+        KeyedLoader(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getCacheKey() {
+            return key;
+        }
+
+        @Override
+        public String load() throws IOException, InterruptedException {
+            throw new IOException("Not expected to be loaded.");
+        }
+
+        @Override
+        public void cancel() {
+
+        }
+
+        @Override
+        public void validate() throws LoaderValidationException {
+
+        }
+    }
+}